@@ -0,0 +1,246 @@
+package edu.union.adt.graph;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs path queries on a graph without blocking the calling thread.
+ * Each query runs on an executor and its result is delivered through
+ * a CompletableFuture.  Queries run through
+ * {@link Graph#search(Object, Object, SearchLimits)}.
+ *
+ * Cancelling a returned future stops the underlying search the next
+ * time it expands a vertex, and a query given a timeout completes
+ * exceptionally with a TimeoutException once the timeout elapses
+ * inside the search.
+ *
+ * The graph is not copied, so it must not be modified while queries
+ * are running.
+ *
+ * @author Khai Dong
+ * @version 1.1
+ */
+public class AsyncGraph<V>
+{
+    private final Graph<V> graph;
+    private final Executor executor;
+
+    /**
+     * Create an async facade running queries on the default executor.
+     *
+     * @param graph the graph to query
+     * @see #defaultExecutor()
+     */
+    public AsyncGraph(Graph<V> graph)
+    {
+        this(graph, defaultExecutor());
+    }
+
+    /**
+     * Create an async facade running queries on the given executor.
+     *
+     * @param graph the graph to query
+     * @param executor the executor the queries run on
+     */
+    public AsyncGraph(Graph<V> graph, Executor executor)
+    {
+        this.graph = graph;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the graph the queries run against
+     */
+    public Graph<V> getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return a future for whether there is a path from 'from' to 'to'
+     * @see Graph#hasPath(Object, Object)
+     */
+    public CompletableFuture<Boolean> hasPathAsync(V from, V to)
+    {
+        return submit(limits -> searchOrTimeout(from, to, limits).isFound(), SearchLimits.NONE);
+    }
+
+    /**
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param timeout how long the search may run
+     * @param unit the unit of timeout
+     * @return a future for whether there is a path from 'from' to
+     * 'to', completing with a TimeoutException if the search runs out
+     * of time
+     */
+    public CompletableFuture<Boolean> hasPathAsync(V from, V to, long timeout, TimeUnit unit)
+    {
+        return submit(limits -> searchOrTimeout(from, to, limits).isFound(), SearchLimits.NONE.withDeadline(timeout, unit));
+    }
+
+    /**
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return a future for the length of the shortest path from 'from'
+     * to 'to', Integer.MAX_VALUE if there is none
+     * @see Graph#pathLength(Object, Object)
+     */
+    public CompletableFuture<Integer> pathLengthAsync(V from, V to)
+    {
+        return submit(limits -> searchOrTimeout(from, to, limits).getLength(), SearchLimits.NONE);
+    }
+
+    /**
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param timeout how long the search may run
+     * @param unit the unit of timeout
+     * @return a future for the length of the shortest path from 'from'
+     * to 'to', completing with a TimeoutException if the search runs
+     * out of time
+     */
+    public CompletableFuture<Integer> pathLengthAsync(V from, V to, long timeout, TimeUnit unit)
+    {
+        return submit(limits -> searchOrTimeout(from, to, limits).getLength(), SearchLimits.NONE.withDeadline(timeout, unit));
+    }
+
+    /**
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return a future for the vertices along the shortest path from
+     * 'from' to 'to'
+     * @see Graph#getPath(Object, Object)
+     */
+    public CompletableFuture<Iterable<V>> getPathAsync(V from, V to)
+    {
+        return submit(limits -> (Iterable<V>) searchOrTimeout(from, to, limits).getPath(), SearchLimits.NONE);
+    }
+
+    /**
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param timeout how long the search may run
+     * @param unit the unit of timeout
+     * @return a future for the vertices along the shortest path from
+     * 'from' to 'to', completing with a TimeoutException if the
+     * search runs out of time
+     */
+    public CompletableFuture<Iterable<V>> getPathAsync(V from, V to, long timeout, TimeUnit unit)
+    {
+        return submit(limits -> (Iterable<V>) searchOrTimeout(from, to, limits).getPath(), SearchLimits.NONE.withDeadline(timeout, unit));
+    }
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * without exceeding the given limits.  Reaching a limit completes
+     * the future normally, with a LIMIT_EXCEEDED result.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @return a future for the result of the search
+     * @see Graph#search(Object, Object, SearchLimits)
+     */
+    public CompletableFuture<SearchResult<V>> searchAsync(V from, V to, SearchLimits limits)
+    {
+        return submit(queryLimits -> graph.search(from, to, queryLimits), limits);
+    }
+
+    /**
+     * Gets the executor used when none is given: a virtual thread per
+     * query when the running JDK has virtual threads (21 and later),
+     * otherwise a shared pool of daemon threads.  The virtual thread
+     * executor is looked up reflectively so that this class still
+     * compiles against the Java 8 baseline.
+     *
+     * @return the default executor
+     */
+    public static Executor defaultExecutor()
+    {
+        return DefaultExecutorHolder.EXECUTOR;
+    }
+
+    private static class DefaultExecutorHolder
+    {
+        static final Executor EXECUTOR = createDefaultExecutor();
+
+        private static Executor createDefaultExecutor()
+        {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // no virtual threads before JDK 21
+            }
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "graph-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Runs a query on the executor.  The query's limits are tied to the
+     * returned future, so cancelling the future stops the search.
+     */
+    private <T> CompletableFuture<T> submit(Function<SearchLimits, T> query, SearchLimits limits)
+    {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        SearchLimits queryLimits = limits.withCancellation(future::isDone);
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(query.apply(queryLimits));
+                } catch (SearchTimeoutException e) {
+                    future.completeExceptionally(new TimeoutException(e.getMessage()));
+                } catch (CancellationException e) {
+                    future.cancel(false);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Runs a search, turning a search stopped by its deadline into a
+     * SearchTimeoutException so that the timed queries complete
+     * exceptionally.
+     */
+    private SearchResult<V> searchOrTimeout(V from, V to, SearchLimits limits)
+    {
+        SearchResult<V> result = graph.search(from, to, limits);
+        if(result.getStatus() == SearchResult.Status.LIMIT_EXCEEDED){
+            throw new SearchTimeoutException("search deadline has passed");
+        }
+        return result;
+    }
+
+    /**
+     * Thrown inside a query whose search ran out of time.
+     */
+    private static class SearchTimeoutException extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        SearchTimeoutException(String message)
+        {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,588 @@
+package edu.union.adt.graph;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A graph that keeps the destinations of the edges leaving each vertex
+ * in an {@link IdBitmap} over dense vertex ids, for graphs, or regions
+ * of graphs, where many vertices are joined to many others.
+ *
+ * Searches run a level of the breadth-first search at a time, over a
+ * queue of ids and a visited bitset with a bit per id.  A level with
+ * many edges leaving it is expanded by ORing its neighbor bitmaps into
+ * a bitset, less the visited set: a bitmap whose chunk is dense goes
+ * in a word at a time, 64 edges at once, where an adjacency-list
+ * search makes one check per edge.  A level with few edges is
+ * expanded an edge at a time, so that a long, thin search does not
+ * pay for a pass over the bitsets at every level.  Vertices are only
+ * looked up again when they are returned.
+ *
+ * A vertex with no edges leaving it has no bitmap.  On a sparse graph
+ * each vertex with edges pays for a small bitmap, which costs more
+ * than the sorted array of an {@link IndexedGraph}.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class BitmapGraph<V> implements Graph<V>
+{
+    private final VertexDictionary<V> dictionary;
+    private IdBitmap[] neighbors;   // destination ids for each vertex id, null if there are none
+    private int numEdges;
+
+    /**
+     * Create an empty graph.
+     */
+    public BitmapGraph()
+    {
+        this.dictionary = new VertexDictionary<V>();
+        this.neighbors = new IdBitmap[16];
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int numVertices()
+    {
+        return dictionary.size();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    public int numEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    public int degree(V vertex)
+    {
+        int id = dictionary.idOf(vertex);
+        if(id < 0){
+            throw new RuntimeException("vertex is not in the graph");
+        }
+        return neighbors[id] == null ? 0 : neighbors[id].cardinality();
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already an edge
+     * between the given vertices, does nothing.  If either (or both)
+     * of the given vertices does not exist, it is added to the
+     * graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public void addEdge(V from, V to)
+    {
+        if(from != null && to != null){
+            int fromId = addVertexId(from);
+            int toId = addVertexId(to);
+            if(neighbors[fromId] == null){
+                neighbors[fromId] = new IdBitmap();
+            }
+            if(neighbors[fromId].add(toId)){
+                ++numEdges;
+            }
+        }
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.  If the vertex does not exist, it is
+     * added to the graph, with no edges connected to it.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex)
+    {
+        if(vertex != null){
+            addVertexId(vertex);
+        }
+    }
+
+    private int addVertexId(V vertex)
+    {
+        int id = dictionary.intern(vertex);
+        if(id >= neighbors.length){
+            neighbors = Arrays.copyOf(neighbors, Math.max(neighbors.length * 2, id + 1));
+        }
+        return id;
+    }
+
+    /**
+     * @return the an iterable collection for the set of vertices of
+     * the graph, in id order.
+     */
+    public Iterable<V> getVertices()
+    {
+        return dictionary::iterator;
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, in id order.  The
+     * returned collection is a read-only view of the graph's bitmap.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    public Iterable<V> adjacentTo(V from)
+    {
+        int id = dictionary.idOf(from);
+        if(id < 0){
+            return Collections.emptyList();
+        }
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator()
+            {
+                IdBitmap adj = neighbors[id];
+                PrimitiveIterator.OfInt ids = (adj == null ? new IdBitmap() : adj).iterator();
+                return new Iterator<V>() {
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return ids.hasNext();
+                    }
+
+                    @Override
+                    public V next()
+                    {
+                        return dictionary.vertexOf(ids.nextInt());
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return neighbors[id] == null ? 0 : neighbors[id].cardinality();
+            }
+        };
+    }
+
+    /**
+     * Passes each vertex adjacent to a given vertex to an action,
+     * walking the bitmap directly.
+     *
+     * @param from the source vertex
+     * @param action called once for each vertex adjacent to 'from'
+     */
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        int id = dictionary.idOf(from);
+        if(id >= 0 && neighbors[id] != null){
+            neighbors[id].forEach(adjId -> action.accept(dictionary.vertexOf(adjId)));
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    public boolean contains(V vertex)
+    {
+        return dictionary.idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    public boolean hasEdge(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        return fromId >= 0 && toId >= 0 && neighbors[fromId] != null && neighbors[fromId].contains(toId);
+    }
+
+    /**
+     * Gives a string representation of the graph, in the same form as
+     * GraphImplementation.
+     *
+     * @return the string representation of the graph
+     */
+    public String toString()
+    {
+        return Graphs.toString(this);
+    }
+
+    /**
+    * equal method for Graph
+    *
+    * @param obj the arbitrary object
+    * @return true if this is equal to obj
+    */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        BitmapGraph graph = (BitmapGraph) obj;
+        return this.toString().equals(graph.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+
+    /**
+     * Estimates the memory the graph uses: the vertex dictionary and
+     * the bitmaps.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        long vertexMap = MemoryFootprint.object(2 * MemoryFootprint.REFERENCE + 4) + dictionary.sizeInBytes();
+        return new MemoryFootprint(this, vertexMap, bitmapBytes(), 0, 0);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty.
+     */
+    public boolean isEmpty()
+    {
+        return dictionary.size() == 0;
+    }
+
+    /**
+     * Removes and vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge.  The id of the vertex
+     * is freed for reuse.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    public void removeVertex(V toRemove)
+    {
+        int id = dictionary.idOf(toRemove);
+        if(id >= 0){
+            for(int other = 0; other < dictionary.idLimit(); ++other){
+                if(other != id){
+                    removeEdgeId(other, id);
+                }
+            }
+            if(neighbors[id] != null){
+                numEdges -= neighbors[id].cardinality();
+                neighbors[id] = null;
+            }
+            dictionary.remove(toRemove);
+        }
+    }
+
+    /**
+     * Removes an edge from the graph.
+     *
+     * <p>Postcondition: If from and to were in the graph and (from,
+     * to) was an edge in the graph, then numEdges = numEdges' - 1
+     */
+    public void removeEdge(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        if(fromId >= 0 && toId >= 0){
+            removeEdgeId(fromId, toId);
+        }
+    }
+
+    private void removeEdgeId(int fromId, int toId)
+    {
+        IdBitmap adj = neighbors[fromId];
+        if(adj != null && adj.remove(toId)){
+            --numEdges;
+            if(adj.isEmpty()){
+                neighbors[fromId] = null;
+            }
+        }
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).isFound();
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getLength();
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to', empty if there is no path.
+     */
+    public Iterable<V> getPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * without exceeding the given limits, a level at a time.  Since a
+     * whole level is expanded at once, the visited limit is checked
+     * per level: a level that holds 'to' is searched even if it takes
+     * the search past limits.maxVisited().
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @return FOUND with the shortest path, NOT_FOUND or LIMIT_EXCEEDED
+     */
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        int source = dictionary.idOf(from);
+        int target = dictionary.idOf(to);
+        if(source < 0 || target < 0){
+            return SearchResult.notFound();
+        }
+        if(source == target){
+            return SearchResult.found(Collections.singletonList(from));
+        }
+
+        int idLimit = dictionary.idLimit();
+        int[] prev = new int[idLimit];      // id of the previous vertex + 1, -1 if left for pathTo, 0 if not visited
+        int[] queue = new int[idLimit];     // the visited ids, level by level
+        int[] levelStarts = new int[16];    // where each level begins in the queue
+        long[] visited = new long[(idLimit + 63) >>> 6];
+        long[] next = new long[visited.length];
+        queue[0] = source;
+        prev[source] = source + 1;
+        visited[source >>> 6] = 1L << source;
+        int depth = 0;
+        int tail = 1;
+        long numVisited = 1;
+        while(true){
+            if(limits.deadlinePassed()){
+                return SearchResult.limitExceeded();
+            }
+            int levelEnd = expand(queue, levelStarts[depth], tail, prev, visited, next);
+            if(levelEnd == tail){
+                return SearchResult.notFound();
+            }
+            if(++depth == levelStarts.length){
+                levelStarts = Arrays.copyOf(levelStarts, depth * 2);
+            }
+            levelStarts[depth] = tail;
+            if(depth > limits.maxDepth()){
+                return SearchResult.limitExceeded();
+            }
+            if(prev[target] != 0){
+                return SearchResult.found(pathTo(target, depth, prev, queue, levelStarts));
+            }
+            numVisited += levelEnd - tail;
+            if(numVisited > limits.maxVisited()){
+                return SearchResult.limitExceeded();
+            }
+            tail = levelEnd;
+        }
+    }
+
+    /**
+     * Collects the vertices within k hops of a vertex, a level at a
+     * time.
+     *
+     * @param center the vertex to start from
+     * @param k the largest number of hops
+     * @return the vertices found, level by level and in id order
+     * within a level
+     */
+    @Override
+    public Set<V> neighborhood(V center, int k)
+    {
+        if(k < 0){
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        int source = dictionary.idOf(center);
+        if(source < 0){
+            return Collections.emptySet();
+        }
+        int idLimit = dictionary.idLimit();
+        int[] queue = new int[idLimit];
+        long[] visited = new long[(idLimit + 63) >>> 6];
+        long[] next = new long[visited.length];
+        queue[0] = source;
+        visited[source >>> 6] = 1L << source;
+        int start = 0;
+        int end = 1;
+        for(int depth = 0; depth < k && start < end; ++depth){
+            int levelEnd = expand(queue, start, end, null, visited, next);
+            Arrays.sort(queue, end, levelEnd);
+            start = end;
+            end = levelEnd;
+        }
+        Set<V> found = new LinkedHashSet<V>();
+        for(int i = 0; i < end; ++i){
+            found.add(dictionary.vertexOf(queue[i]));
+        }
+        return Collections.unmodifiableSet(found);
+    }
+
+    /**
+     * Visits the ids adjacent to the level queue[start, end) that have
+     * not been visited yet, appending them to the queue after 'end'.
+     * A level with fewer edges leaving it than there are words in the
+     * bitsets is expanded an edge at a time, and each new id's
+     * predecessor is kept in 'prev'.  A larger level ORs its neighbor
+     * bitmaps into 'next', 64 edges at a time where a chunk is dense,
+     * and marks its new ids in 'prev' with -1.  Either way the work is
+     * bounded by the edges leaving the level, so a search costs
+     * O(n + m) however many levels it has.
+     *
+     * @param prev where to record predecessors, or null
+     * @param visited a bitset with a bit per id
+     * @param next scratch space the size of 'visited'
+     * @return the end of the new level in the queue
+     */
+    private int expand(int[] queue, int start, int end, int[] prev, long[] visited, long[] next)
+    {
+        long edges = 0;
+        for(int i = start; i < end; ++i){
+            IdBitmap adj = neighbors[queue[i]];
+            if(adj != null){
+                edges += adj.cardinality();
+            }
+        }
+        int tail = end;
+        if(edges < next.length){
+            for(int i = start; i < end; ++i){
+                int vert = queue[i];
+                IdBitmap adj = neighbors[vert];
+                if(adj == null){
+                    continue;
+                }
+                for(PrimitiveIterator.OfInt ids = adj.iterator(); ids.hasNext(); ){
+                    int id = ids.nextInt();
+                    long bit = 1L << id;
+                    if((visited[id >>> 6] & bit) == 0){
+                        visited[id >>> 6] |= bit;
+                        if(prev != null){
+                            prev[id] = vert + 1;
+                        }
+                        queue[tail++] = id;
+                    }
+                }
+            }
+            return tail;
+        }
+        Arrays.fill(next, 0L);
+        for(int i = start; i < end; ++i){
+            IdBitmap adj = neighbors[queue[i]];
+            if(adj != null){
+                adj.orInto(next);
+            }
+        }
+        for(int w = 0; w < next.length; ++w){
+            long word = next[w] & ~visited[w];
+            visited[w] |= word;
+            for(; word != 0; word &= word - 1){
+                int id = w << 6 | Long.numberOfTrailingZeros(word);
+                if(prev != null){
+                    prev[id] = -1;
+                }
+                queue[tail++] = id;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Walks back from 'target', found at 'depth'.  An id visited an
+     * edge at a time has its predecessor in 'prev'; for one found by
+     * ORing bitmaps, the level before it is scanned for an id with an
+     * edge to it.  The path has one id per level, so the scans cost no
+     * more than a pass over the queue.
+     */
+    private List<V> pathTo(int target, int depth, int[] prev, int[] queue, int[] levelStarts)
+    {
+        LinkedList<V> path = new LinkedList<V>();
+        path.addFirst(dictionary.vertexOf(target));
+        int curVert = target;
+        for(; depth > 0; --depth){
+            int prevVert = prev[curVert] - 1;
+            if(prevVert < 0){
+                prevVert = predecessor(curVert, queue, levelStarts[depth - 1], levelStarts[depth]);
+            }
+            curVert = prevVert;
+            path.addFirst(dictionary.vertexOf(curVert));
+        }
+        return path;
+    }
+
+    private int predecessor(int vert, int[] queue, int start, int end)
+    {
+        for(int i = start; i < end; ++i){
+            IdBitmap adj = neighbors[queue[i]];
+            if(adj != null && adj.contains(vert)){
+                return queue[i];
+            }
+        }
+        throw new IllegalStateException("no edge into the next level");
+    }
+
+    /**
+     * @return roughly the number of bytes used by the neighbor
+     * bitmaps
+     */
+    public long bitmapBytes()
+    {
+        long bytes = MemoryFootprint.array(neighbors.length, MemoryFootprint.REFERENCE);
+        for(IdBitmap adj : neighbors){
+            if(adj != null){
+                bytes += adj.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+}
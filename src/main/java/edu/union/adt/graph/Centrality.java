@@ -0,0 +1,475 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Centrality measures: PageRank, HITS hub and authority scores, and
+ * degree distributions.
+ *
+ * The iterative measures run on a CSR snapshot of the graph and its
+ * transpose, with one double array per score vector.  Each iteration
+ * pulls scores along the edges entering each vertex, so every vertex is
+ * written by exactly one thread.  The vertices are split into slices
+ * of about the same number of edges, which are run on a fixed pool of
+ * threads.  Iteration stops when the L1 change of the scores falls
+ * below the tolerance, or after the maximum number of iterations.
+ *
+ * A Centrality is immutable; the with methods return a copy with one
+ * setting changed.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public final class Centrality
+{
+    private final int parallelism;
+    private final double damping;
+    private final double tolerance;
+    private final int maxIterations;
+
+    /**
+     * Create a Centrality using one thread per available processor, a
+     * damping factor of 0.85, a tolerance of 1e-9 and at most 100
+     * iterations.
+     */
+    public Centrality()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a Centrality using the given number of threads and the
+     * default settings.
+     *
+     * @param parallelism the number of threads
+     */
+    public Centrality(int parallelism)
+    {
+        this(parallelism, 0.85, 1e-9, 100);
+    }
+
+    private Centrality(int parallelism, double damping, double tolerance, int maxIterations)
+    {
+        if(parallelism < 1){
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if(!(damping >= 0 && damping <= 1)){
+            throw new IllegalArgumentException("damping must be in [0, 1]");
+        }
+        if(!(tolerance >= 0)){
+            throw new IllegalArgumentException("tolerance must not be negative");
+        }
+        if(maxIterations < 1){
+            throw new IllegalArgumentException("maxIterations must be positive");
+        }
+        this.parallelism = parallelism;
+        this.damping = damping;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * @param damping the probability that the random surfer follows an
+     * edge rather than jumping to a random vertex
+     * @return a copy of this Centrality with the given PageRank damping
+     * factor
+     */
+    public Centrality withDamping(double damping)
+    {
+        return new Centrality(parallelism, damping, tolerance, maxIterations);
+    }
+
+    /**
+     * @param tolerance the L1 change in the scores below which an
+     * iteration is considered converged
+     * @return a copy of this Centrality with the given tolerance
+     */
+    public Centrality withTolerance(double tolerance)
+    {
+        return new Centrality(parallelism, damping, tolerance, maxIterations);
+    }
+
+    /**
+     * @param maxIterations the largest number of iterations to run
+     * @return a copy of this Centrality with the given iteration limit
+     */
+    public Centrality withMaxIterations(int maxIterations)
+    {
+        return new Centrality(parallelism, damping, tolerance, maxIterations);
+    }
+
+    /**
+     * Computes the PageRank of every vertex.  The rank of vertices
+     * without outgoing edges is spread evenly over all vertices, so the
+     * ranks always sum to 1.
+     *
+     * @param graph the graph
+     * @return the PageRank of each vertex
+     */
+    public <V> Scores<V> pageRank(Graph<V> graph)
+    {
+        CsrGraph<V> csr = CsrGraph.copyOf(graph);
+        CsrGraph<V> reverse = csr.transpose();
+        int n = csr.numVertices();
+        if(n == 0){
+            return new Scores<V>(csr.dictionary(), new double[0], 0, true);
+        }
+        int[] offsets = csr.offsets();
+        int[] inOffsets = reverse.offsets();
+        int[] inSources = reverse.targets();
+        int[] bounds = slices(inOffsets);
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] contribution = new double[n];
+        double[] partial = new double[bounds.length - 1];
+        Arrays.fill(rank, 1.0 / n);
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, partial.length));
+        try {
+            int iterations = 0;
+            boolean converged = false;
+            while(!converged && iterations < maxIterations){
+                double[] current = rank;
+                // each vertex hands out its rank evenly along its edges; dangling rank is pooled
+                run(pool, bounds, (slice, first, last) -> {
+                        double dangling = 0;
+                        for(int v = first; v < last; ++v){
+                            int degree = offsets[v + 1] - offsets[v];
+                            if(degree == 0){
+                                dangling += current[v];
+                                contribution[v] = 0;
+                            } else {
+                                contribution[v] = current[v] / degree;
+                            }
+                        }
+                        partial[slice] = dangling;
+                    });
+                double base = (1 - damping) / n + damping * sum(partial) / n;
+                double[] updated = next;
+                run(pool, bounds, (slice, first, last) -> {
+                        double delta = 0;
+                        for(int v = first; v < last; ++v){
+                            double pulled = 0;
+                            for(int i = inOffsets[v]; i < inOffsets[v + 1]; ++i){
+                                pulled += contribution[inSources[i]];
+                            }
+                            updated[v] = base + damping * pulled;
+                            delta += Math.abs(updated[v] - current[v]);
+                        }
+                        partial[slice] = delta;
+                    });
+                next = rank;
+                rank = updated;
+                ++iterations;
+                converged = sum(partial) < tolerance;
+            }
+            return new Scores<V>(csr.dictionary(), rank, iterations, converged);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Computes HITS hub and authority scores.  A vertex's authority is
+     * the sum of the hub scores of the vertices with edges to it, and
+     * its hub score is the sum of the authorities it has edges to.
+     * Both vectors are normalized to unit length after each iteration.
+     *
+     * @param graph the graph
+     * @return the hub and authority score of each vertex
+     */
+    public <V> Hits<V> hits(Graph<V> graph)
+    {
+        CsrGraph<V> csr = CsrGraph.copyOf(graph);
+        CsrGraph<V> reverse = csr.transpose();
+        int n = csr.numVertices();
+        if(n == 0){
+            Scores<V> empty = new Scores<V>(csr.dictionary(), new double[0], 0, true);
+            return new Hits<V>(empty, empty);
+        }
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        int[] inOffsets = reverse.offsets();
+        int[] inSources = reverse.targets();
+        int[] outBounds = slices(offsets);
+        int[] inBounds = slices(inOffsets);
+        double[] hub = new double[n];
+        double[] authority = new double[n];
+        double[] previousHub = new double[n];
+        double[] previousAuthority = new double[n];
+        double[] partial = new double[Math.max(outBounds.length, inBounds.length) - 1];
+        Arrays.fill(hub, 1 / Math.sqrt(n));
+        Arrays.fill(authority, 1 / Math.sqrt(n));
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, partial.length));
+        try {
+            int iterations = 0;
+            boolean converged = false;
+            while(!converged && iterations < maxIterations){
+                System.arraycopy(hub, 0, previousHub, 0, n);
+                System.arraycopy(authority, 0, previousAuthority, 0, n);
+                Arrays.fill(partial, 0);
+                run(pool, inBounds, (slice, first, last) -> {
+                        double squares = 0;
+                        for(int v = first; v < last; ++v){
+                            double pulled = 0;
+                            for(int i = inOffsets[v]; i < inOffsets[v + 1]; ++i){
+                                pulled += previousHub[inSources[i]];
+                            }
+                            authority[v] = pulled;
+                            squares += pulled * pulled;
+                        }
+                        partial[slice] = squares;
+                    });
+                double authorityNorm = Math.sqrt(sum(partial));
+                Arrays.fill(partial, 0);
+                run(pool, outBounds, (slice, first, last) -> {
+                        double squares = 0;
+                        for(int v = first; v < last; ++v){
+                            double pulled = 0;
+                            for(int i = offsets[v]; i < offsets[v + 1]; ++i){
+                                pulled += authority[targets[i]];
+                            }
+                            hub[v] = pulled;
+                            squares += pulled * pulled;
+                        }
+                        partial[slice] = squares;
+                    });
+                double hubNorm = Math.sqrt(sum(partial));
+                Arrays.fill(partial, 0);
+                run(pool, outBounds, (slice, first, last) -> {
+                        double delta = 0;
+                        for(int v = first; v < last; ++v){
+                            hub[v] = hubNorm == 0 ? 0 : hub[v] / hubNorm;
+                            authority[v] = authorityNorm == 0 ? 0 : authority[v] / authorityNorm;
+                            delta += Math.abs(hub[v] - previousHub[v])
+                                + Math.abs(authority[v] - previousAuthority[v]);
+                        }
+                        partial[slice] = delta;
+                    });
+                ++iterations;
+                converged = sum(partial) < tolerance;
+            }
+            return new Hits<V>(new Scores<V>(csr.dictionary(), hub, iterations, converged),
+                               new Scores<V>(csr.dictionary(), authority, iterations, converged));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param graph the graph
+     * @return an array whose element d is the number of vertices with
+     * d outgoing edges
+     */
+    public static <V> long[] outDegreeDistribution(Graph<V> graph)
+    {
+        long[] counts = new long[1];
+        for(V vertex : graph.getVertices()){
+            int degree = graph.degree(vertex);
+            if(degree >= counts.length){
+                counts = Arrays.copyOf(counts, Math.max(degree + 1, counts.length * 2));
+            }
+            ++counts[degree];
+        }
+        return trim(counts);
+    }
+
+    /**
+     * @param graph the graph
+     * @return an array whose element d is the number of vertices with
+     * d incoming edges
+     */
+    public static <V> long[] inDegreeDistribution(Graph<V> graph)
+    {
+        return outDegreeDistribution(CsrGraph.copyOf(graph).transpose());
+    }
+
+    private static long[] trim(long[] counts)
+    {
+        int length = counts.length;
+        while(length > 1 && counts[length - 1] == 0){
+            --length;
+        }
+        return Arrays.copyOf(counts, length);
+    }
+
+    /**
+     * Splits the vertices into ranges with about the same number of
+     * edges, so that a hub does not leave one thread with most of the
+     * work.
+     *
+     * @return bounds[s] to bounds[s + 1] is slice s
+     */
+    private int[] slices(int[] offsets)
+    {
+        int n = offsets.length - 1;
+        int count = Math.max(1, Math.min(parallelism * 4, n));
+        long work = (long) offsets[n] + n; // a vertex costs about as much as an edge
+        int[] bounds = new int[count + 1];
+        int v = 0;
+        for(int s = 1; s < count; ++s){
+            long goal = work * s / count;
+            while(v < n && (long) offsets[v] + v < goal){
+                ++v;
+            }
+            bounds[s] = v;
+        }
+        bounds[count] = n;
+        return bounds;
+    }
+
+    private interface SliceTask
+    {
+        void run(int slice, int first, int last);
+    }
+
+    private static void run(ExecutorService pool, int[] bounds, SliceTask task)
+    {
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for(int s = 0; s + 1 < bounds.length; ++s){
+            int slice = s;
+            futures.add(pool.submit(() -> task.run(slice, bounds[slice], bounds[slice + 1])));
+        }
+        try {
+            for(Future<?> future : futures){
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while computing centrality");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static double sum(double[] values)
+    {
+        double total = 0;
+        for(double value : values){
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * A score for each vertex of a graph.
+     */
+    public static final class Scores<V>
+    {
+        private final VertexDictionary<V> dictionary;
+        private final double[] scores;
+        private final int iterations;
+        private final boolean converged;
+
+        Scores(VertexDictionary<V> dictionary, double[] scores, int iterations, boolean converged)
+        {
+            this.dictionary = dictionary;
+            this.scores = scores;
+            this.iterations = iterations;
+            this.converged = converged;
+        }
+
+        /**
+         * Gets the score of a vertex.  If the vertex was not in the
+         * graph, throws a RuntimeException.
+         *
+         * @param vertex a vertex
+         * @return the score of the vertex
+         */
+        public double get(V vertex)
+        {
+            int id = dictionary.idOf(vertex);
+            if(id < 0){
+                throw new RuntimeException("vertex is not in the graph");
+            }
+            return scores[id];
+        }
+
+        /**
+         * @param k the number of vertices wanted
+         * @return the k vertices with the highest scores, highest
+         * first
+         */
+        public List<V> top(int k)
+        {
+            PriorityQueue<Integer> best = new PriorityQueue<Integer>(
+                Math.max(1, k), (a, b) -> Double.compare(scores[a], scores[b]));
+            for(int id = 0; id < scores.length && k > 0; ++id){
+                if(best.size() < k){
+                    best.add(id);
+                } else if(scores[id] > scores[best.peek()]){
+                    best.poll();
+                    best.add(id);
+                }
+            }
+            List<V> result = new ArrayList<V>(best.size());
+            while(!best.isEmpty()){
+                result.add(dictionary.vertexOf(best.poll()));
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        /**
+         * @return the number of iterations run
+         */
+        public int getIterations()
+        {
+            return iterations;
+        }
+
+        /**
+         * @return true iff the scores changed by less than the
+         * tolerance in the last iteration
+         */
+        public boolean isConverged()
+        {
+            return converged;
+        }
+    }
+
+    /**
+     * The hub and authority scores computed by HITS.
+     */
+    public static final class Hits<V>
+    {
+        private final Scores<V> hubs;
+        private final Scores<V> authorities;
+
+        Hits(Scores<V> hubs, Scores<V> authorities)
+        {
+            this.hubs = hubs;
+            this.authorities = authorities;
+        }
+
+        /**
+         * @return the hub score of each vertex
+         */
+        public Scores<V> getHubs()
+        {
+            return hubs;
+        }
+
+        /**
+         * @return the authority score of each vertex
+         */
+        public Scores<V> getAuthorities()
+        {
+            return authorities;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The weakly connected components of a graph: two vertices are in the
+ * same component iff there is a path between them when the direction
+ * of the edges is ignored.
+ *
+ * Components are kept in a union-find forest over dense vertex ids.
+ * The forest is built from a CSR snapshot of the graph, with the edges
+ * split among a pool of threads that link roots by compare-and-set.
+ * Linking is by rank: a root keeps its rank in its own parent slot,
+ * and is only linked under a root of higher rank, or of the same rank
+ * and a smaller id.  Since a root's rank and its being a root are one
+ * word, a link checks both at once and concurrent links never form a
+ * cycle.  Trees stay O(log n) deep, and with finds halving the path
+ * they walk, a run of operations takes near-constant amortized time
+ * per operation.  A rank raised by a link can be lost to a concurrent
+ * one, which only makes that tree a little deeper than its rank.
+ *
+ * After it is built, the structure follows edge and vertex insertions
+ * through addEdge and addVertex, or as a {@link GraphListener} on an
+ * {@link ObservableGraph}.  Union-find cannot undo a link, so a
+ * removal only marks the components stale; {@link #isStale()} tells
+ * the caller to build them again.  Since a path between two vertices
+ * needs them to be in the same component, sameComponent is a cheap
+ * check before a search.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class ConnectedComponents<V> implements GraphListener<V>
+{
+    private final VertexDictionary<V> dictionary;
+    private AtomicIntegerArray parent;   // the parent id, or -(rank + 1) for a root
+    private final AtomicInteger numComponents;
+    private boolean stale;
+
+    private ConnectedComponents(VertexDictionary<V> dictionary, AtomicIntegerArray parent, int numComponents)
+    {
+        this.dictionary = dictionary;
+        this.parent = parent;
+        this.numComponents = new AtomicInteger(numComponents);
+    }
+
+    /**
+     * Finds the components of a graph using one thread per available
+     * processor.
+     *
+     * @param graph the graph
+     * @return the components of the graph as it is now
+     */
+    public static <V> ConnectedComponents<V> of(Graph<V> graph)
+    {
+        return of(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Finds the components of a graph.
+     *
+     * @param graph the graph
+     * @param parallelism the number of threads linking edges
+     * @return the components of the graph as it is now
+     */
+    public static <V> ConnectedComponents<V> of(Graph<V> graph, int parallelism)
+    {
+        if(parallelism < 1){
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        CsrGraph<V> csr = CsrGraph.copyOf(graph);
+        int n = csr.numVertices();
+        VertexDictionary<V> dictionary = new VertexDictionary<V>(n);
+        for(V vertex : csr.dictionary()){
+            dictionary.intern(vertex); // a private copy with the same ids, since the snapshot's is shared
+        }
+        AtomicIntegerArray parent = new AtomicIntegerArray(Math.max(16, n));
+        for(int i = 0; i < parent.length(); ++i){
+            parent.set(i, -1);
+        }
+        ConnectedComponents<V> components = new ConnectedComponents<V>(dictionary, parent, n);
+
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        int slices = Math.max(1, Math.min(parallelism * 4, n));
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, slices));
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for(int s = 0; s < slices; ++s){
+                int first = (int) ((long) n * s / slices);
+                int last = (int) ((long) n * (s + 1) / slices);
+                futures.add(pool.submit(() -> {
+                    for(int v = first; v < last; ++v){
+                        for(int i = offsets[v]; i < offsets[v + 1]; ++i){
+                            components.union(v, targets[i]);
+                        }
+                    }
+                }));
+            }
+            for(Future<?> future : futures){
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while finding components");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdown();
+        }
+        return components;
+    }
+
+    /**
+     * Adds a vertex, in a component of its own if it is new.
+     *
+     * @param vertex the vertex to add
+     */
+    public synchronized void addVertex(V vertex)
+    {
+        if(vertex != null){
+            idOf(vertex);
+        }
+    }
+
+    /**
+     * Adds an edge, merging the components of its two vertices.  New
+     * vertices are added first.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public synchronized void addEdge(V from, V to)
+    {
+        if(from != null && to != null){
+            union(idOf(from), idOf(to));
+        }
+    }
+
+    /**
+     * Tells whether two vertices are in the same component.
+     *
+     * @param u a vertex
+     * @param v another vertex
+     * @return true iff both vertices are known and in the same
+     * component.  If this returns false, there is no path between
+     * them in either direction.
+     */
+    public synchronized boolean sameComponent(V u, V v)
+    {
+        int a = dictionary.idOf(u);
+        int b = dictionary.idOf(v);
+        return a >= 0 && b >= 0 && find(a) == find(b);
+    }
+
+    /**
+     * Gives a vertex standing for the component of a given vertex.
+     * Two vertices are in the same component iff they have the same
+     * representative; the representative of a component may change
+     * when it is merged with another.
+     *
+     * @param vertex a vertex
+     * @return the representative of the component of 'vertex', or
+     * null if the vertex is not known
+     */
+    public synchronized V componentOf(V vertex)
+    {
+        int id = dictionary.idOf(vertex);
+        return id < 0 ? null : dictionary.vertexOf(find(id));
+    }
+
+    /**
+     * @return the number of components
+     */
+    public synchronized int numComponents()
+    {
+        return numComponents.get();
+    }
+
+    /**
+     * @return true iff a vertex or edge has been removed from the graph
+     * since the components were built, or listener events were
+     * dropped, so that the components may be wrong
+     */
+    public synchronized boolean isStale()
+    {
+        return stale;
+    }
+
+    /**
+     * Applies insertions and notes removals made to an observed graph.
+     *
+     * @param events the changes, oldest first
+     */
+    @Override
+    public synchronized void onEvents(List<GraphEvent<V>> events)
+    {
+        for(GraphEvent<V> event : events){
+            switch(event.getType()){
+            case VERTEX_ADDED:
+                addVertex(event.getFrom());
+                break;
+            case EDGE_ADDED:
+                addEdge(event.getFrom(), event.getTo());
+                break;
+            default:
+                stale = true;
+            }
+        }
+    }
+
+    /**
+     * Marks the components stale, since the dropped events may have
+     * changed them.
+     *
+     * @param droppedEvents the number of events dropped
+     */
+    @Override
+    public synchronized void onOverflow(long droppedEvents)
+    {
+        stale = true;
+    }
+
+    private int idOf(V vertex)
+    {
+        int known = dictionary.size();
+        int id = dictionary.intern(vertex);
+        if(dictionary.size() == known){
+            return id;
+        }
+        if(id >= parent.length()){
+            AtomicIntegerArray grown = new AtomicIntegerArray(Math.max(parent.length() * 2, id + 1));
+            for(int i = 0; i < grown.length(); ++i){
+                grown.set(i, i < parent.length() ? parent.get(i) : -1);
+            }
+            parent = grown;
+        }
+        numComponents.incrementAndGet(); // a new vertex is a component of its own
+        return id;
+    }
+
+    private int find(int id)
+    {
+        while(true){
+            int up = parent.get(id);
+            if(up < 0){
+                return id;
+            }
+            int grand = parent.get(up);
+            if(grand < 0){
+                return up;
+            }
+            parent.compareAndSet(id, up, grand);
+            id = grand;
+        }
+    }
+
+    /**
+     * Links the roots of two ids, the one of lower rank under the
+     * other, or the larger id under the smaller if their ranks are
+     * the same.  Safe to call from several threads at once.
+     */
+    private void union(int a, int b)
+    {
+        while(true){
+            a = find(a);
+            b = find(b);
+            if(a == b){
+                return;
+            }
+            int rankA = parent.get(a);
+            int rankB = parent.get(b);
+            if(rankA >= 0 || rankB >= 0){
+                continue; // linked by another thread since the find
+            }
+            if(rankA < rankB || rankA == rankB && a < b){
+                int swap = a;
+                a = b;
+                b = swap;
+                swap = rankA;
+                rankA = rankB;
+                rankB = swap;
+            }
+            if(parent.compareAndSet(a, rankA, b)){
+                if(rankA == rankB){
+                    parent.compareAndSet(b, rankB, rankB - 1);
+                }
+                numComponents.decrementAndGet();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package edu.union.adt.graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * An immutable graph stored in compressed sparse row (CSR) form.
+ * Every vertex has a dense integer id, given by a
+ * {@link VertexDictionary}; the destinations of the edges
+ * leaving vertex i are targets[offsets[i]] to targets[offsets[i + 1] - 1],
+ * sorted by id.  Searches run on the ids with primitive arrays.
+ *
+ * A CsrGraph is built in bulk, either by {@link EdgeListLoader} or
+ * by copying another graph with {@link #copyOf(Graph)}.  The mutating
+ * methods of Graph throw UnsupportedOperationException.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class CsrGraph<V> implements Graph<V>
+{
+    private final VertexDictionary<V> dictionary;
+    private final int[] offsets;
+    private final int[] targets;
+    private final IdSearch.Adjacency adjacency = new IdSearch.Adjacency() {
+        @Override
+        int[] targets(int id, int[] range)
+        {
+            range[0] = offsets[id];
+            range[1] = offsets[id + 1];
+            return targets;
+        }
+    };
+
+    /**
+     * Create a graph from its CSR arrays.  The arrays are not copied.
+     *
+     * @param dictionary the ids of the vertices, which must be exactly
+     * 0 to dictionary.size() - 1
+     * @param offsets dictionary.size() + 1 offsets into targets
+     * @param targets the destination ids of the edges, sorted and
+     * without duplicates within the range of each source vertex
+     */
+    CsrGraph(VertexDictionary<V> dictionary, int[] offsets, int[] targets)
+    {
+        assert dictionary.idLimit() == dictionary.size();
+        assert offsets.length == dictionary.size() + 1;
+        assert offsets[dictionary.size()] == targets.length;
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Copies a graph into CSR form.  Vertex ids follow the order of
+     * graph.getVertices().
+     *
+     * @param graph the graph to copy
+     * @return an immutable copy of the graph
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> CsrGraph<V> copyOf(Graph<V> graph)
+    {
+        if(graph instanceof CsrGraph){
+            return (CsrGraph<V>) graph;
+        }
+        int n = graph.numVertices();
+        VertexDictionary<V> dictionary = new VertexDictionary<V>(n);
+        for(V vertex : graph.getVertices()){
+            dictionary.intern(vertex);
+        }
+
+        int[] offsets = new int[n + 1];
+        for(int i = 0; i < n; ++i){
+            offsets[i + 1] = offsets[i] + graph.degree(dictionary.vertexOf(i));
+        }
+        int[] targets = new int[offsets[n]];
+        for(int i = 0; i < n; ++i){
+            int next = offsets[i];
+            for(V adjVert : graph.adjacentTo(dictionary.vertexOf(i))){
+                targets[next++] = dictionary.idOf(adjVert);
+            }
+            Arrays.sort(targets, offsets[i], next);
+        }
+        return new CsrGraph<V>(dictionary, offsets, targets);
+    }
+
+    /**
+     * Gives the graph with every edge reversed.  The vertices keep
+     * their ids, and the dictionary is shared.
+     *
+     * @return the transpose of the graph
+     */
+    public CsrGraph<V> transpose()
+    {
+        int n = dictionary.size();
+        int[] reverseOffsets = new int[n + 1];
+        for(int target : targets){
+            ++reverseOffsets[target + 1];
+        }
+        for(int v = 0; v < n; ++v){
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, n);
+        int[] reverseTargets = new int[targets.length];
+        for(int v = 0; v < n; ++v){
+            for(int i = offsets[v]; i < offsets[v + 1]; ++i){
+                reverseTargets[next[targets[i]]++] = v; // sources come in id order, so each range is sorted
+            }
+        }
+        return new CsrGraph<V>(dictionary, reverseOffsets, reverseTargets);
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int numVertices()
+    {
+        return dictionary.size();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    public int numEdges()
+    {
+        return targets.length;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    public int degree(V vertex)
+    {
+        int id = idOf(vertex);
+        if(id < 0){
+            throw new RuntimeException("vertex is not in the graph");
+        }
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Not supported: a CsrGraph is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void addEdge(V from, V to)
+    {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * Not supported: a CsrGraph is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void addVertex(V vertex)
+    {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * @return the an iterable collection for the set of vertices of
+     * the graph, in id order.
+     */
+    public Iterable<V> getVertices()
+    {
+        return dictionary::iterator;
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, in id order.  The
+     * returned list is a view of the CSR arrays; nothing is copied.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    public Iterable<V> adjacentTo(V from)
+    {
+        int id = idOf(from);
+        if(id < 0){
+            return Collections.emptyList();
+        }
+        int start = offsets[id];
+        int size = offsets[id + 1] - start;
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index)
+            {
+                if(index < 0 || index >= size){
+                    throw new IndexOutOfBoundsException(String.valueOf(index));
+                }
+                return dictionary.vertexOf(targets[start + index]);
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Passes each vertex adjacent to a given vertex to an action,
+     * walking the id array directly.
+     *
+     * @param from the source vertex
+     * @param action called once for each vertex adjacent to 'from'
+     */
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        int id = idOf(from);
+        if(id >= 0){
+            for(int i = offsets[id]; i < offsets[id + 1]; ++i){
+                action.accept(dictionary.vertexOf(targets[i]));
+            }
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    public boolean contains(V vertex)
+    {
+        return idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.  Uses a binary search
+     * over the sorted destinations of 'from'.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    public boolean hasEdge(V from, V to)
+    {
+        int fromId = idOf(from);
+        int toId = idOf(to);
+        return fromId >= 0 && toId >= 0
+            && Arrays.binarySearch(targets, offsets[fromId], offsets[fromId + 1], toId) >= 0;
+    }
+
+    /**
+     * Gives a string representation of the graph, in the same form as
+     * GraphImplementation.
+     *
+     * @return the string representation of the graph
+     */
+    public String toString()
+    {
+        return Graphs.toString(this);
+    }
+
+    /**
+    * equal method for Graph
+    *
+    * @param obj the arbitrary object
+    * @return true if this is equal to obj
+    */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        CsrGraph graph = (CsrGraph) obj;
+        return this.toString().equals(graph.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+
+    /**
+     * Estimates the memory the graph uses: the vertex dictionary and
+     * the two CSR arrays.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        long vertexMap = MemoryFootprint.object(4 * MemoryFootprint.REFERENCE)
+            + MemoryFootprint.object(MemoryFootprint.REFERENCE)   // the Adjacency searches read
+            + dictionary.sizeInBytes();
+        long adjacency = MemoryFootprint.array(offsets.length, 4) + MemoryFootprint.array(targets.length, 4);
+        return new MemoryFootprint(this, vertexMap, adjacency, 0, 0);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty.
+     */
+    public boolean isEmpty()
+    {
+        return dictionary.size() == 0;
+    }
+
+    /**
+     * Not supported: a CsrGraph is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void removeVertex(V toRemove)
+    {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * Not supported: a CsrGraph is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void removeEdge(V from, V to)
+    {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).isFound();
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getLength();
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to', empty if there is no path.
+     */
+    public Iterable<V> getPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * without exceeding the given limits.  The search runs on vertex
+     * ids, with an int array as its queue and another recording the
+     * vertex each visited vertex was reached from.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @return FOUND with the shortest path, NOT_FOUND or LIMIT_EXCEEDED
+     */
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        return IdSearch.search(dictionary, adjacency, from, to, limits, null);
+    }
+
+    /**
+     * @param vertex a vertex
+     * @return the id of the vertex, or -1 if it is not in the graph
+     */
+    int idOf(V vertex)
+    {
+        return dictionary.idOf(vertex);
+    }
+
+    /**
+     * @return the dictionary giving the ids of the vertices
+     */
+    VertexDictionary<V> dictionary()
+    {
+        return dictionary;
+    }
+
+    /**
+     * @return the offsets array; offsets[i] is the index in targets of
+     * the first edge leaving vertex i.  Must not be modified.
+     */
+    int[] offsets()
+    {
+        return offsets;
+    }
+
+    /**
+     * @return the targets array, holding the destination id of each
+     * edge.  Must not be modified.
+     */
+    int[] targets()
+    {
+        return targets;
+    }
+}
@@ -0,0 +1,409 @@
+package edu.union.adt.graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Keeps the BFS distances from one source vertex up to date while a
+ * graph changes.  All changes to the graph must go through this
+ * object, which passes them on to the graph and repairs the
+ * distances:
+ *
+ * <ul>
+ * <li>adding an edge (u, v) that shortens the path to v relaxes the
+ * distances outward from v, touching only vertices that get
+ * closer;</li>
+ * <li>removing an edge of the BFS tree first looks for another
+ * parent at the same distance.  Only if there is none are the
+ * distances of the tree below the edge discarded and recomputed from
+ * the edges entering that subtree.</li>
+ * </ul>
+ *
+ * Removing an edge outside the BFS tree costs nothing beyond the
+ * removal itself.  Edges are kept on dense vertex ids in both
+ * directions, since repairing a deletion needs the edges entering a
+ * vertex.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class DynamicBfs<V>
+{
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final int[] NO_NEIGHBORS = new int[0];
+
+    private final Graph<V> graph;
+    private final V source;
+    private final VertexDictionary<V> dictionary;
+    private final int sourceId;
+    private int[][] out;
+    private int[] outDegree;
+    private int[][] in;
+    private int[] inDegree;
+    private int[] dist;
+    private int[] parent;       // parent in the BFS tree, -1 for the source and unreachable vertices
+    private int[] queue;        // scratch, reused by every repair
+    private int[] mark;         // equals epoch for vertices in the subtree being repaired
+    private int epoch;
+
+    /**
+     * Computes the distances from a source vertex in a graph.
+     *
+     * @param graph the graph; from now on it must only be changed
+     * through this object
+     * @param source the source vertex, which must be in the graph
+     */
+    public DynamicBfs(Graph<V> graph, V source)
+    {
+        if(!graph.contains(source)){
+            throw new IllegalArgumentException("source is not in the graph");
+        }
+        this.graph = graph;
+        this.source = source;
+        this.dictionary = new VertexDictionary<V>(graph.numVertices());
+        int capacity = Math.max(16, graph.numVertices());
+        this.out = new int[capacity][];
+        this.outDegree = new int[capacity];
+        this.in = new int[capacity][];
+        this.inDegree = new int[capacity];
+        this.dist = new int[capacity];
+        this.parent = new int[capacity];
+        this.queue = new int[capacity];
+        this.mark = new int[capacity];
+        for(V vertex : graph.getVertices()){
+            addVertexId(vertex);
+        }
+        for(V vertex : graph.getVertices()){
+            int fromId = dictionary.idOf(vertex);
+            graph.forEachNeighbor(vertex, to -> link(fromId, dictionary.idOf(to)));
+        }
+        this.sourceId = dictionary.idOf(source);
+        recompute();
+    }
+
+    /**
+     * @return the graph whose distances are kept
+     */
+    public Graph<V> getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * @return the source vertex
+     */
+    public V getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Gets the length of the shortest path from the source to a
+     * vertex; the same as getGraph().pathLength(getSource(), to).
+     *
+     * @param to the destination vertex
+     * @return the length of the shortest path from the source to
+     * 'to'.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int distanceTo(V to)
+    {
+        int id = dictionary.idOf(to);
+        return id < 0 ? UNREACHABLE : dist[id];
+    }
+
+    /**
+     * Returns the vertices along a shortest path from the source to a
+     * vertex, following the BFS tree.
+     *
+     * @param to the destination vertex
+     * @return the vertices along a shortest path from the source to
+     * 'to', empty if there is no path.
+     */
+    public List<V> pathTo(V to)
+    {
+        int id = dictionary.idOf(to);
+        if(id < 0 || dist[id] == UNREACHABLE){
+            return Collections.emptyList();
+        }
+        LinkedList<V> path = new LinkedList<V>();
+        for(int curVert = id; curVert >= 0; curVert = parent[curVert]){
+            path.addFirst(dictionary.vertexOf(curVert));
+        }
+        return path;
+    }
+
+    /**
+     * Adds a vertex to the graph.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex)
+    {
+        graph.addVertex(vertex);
+        if(vertex != null){
+            addVertexId(vertex);
+        }
+    }
+
+    /**
+     * Adds an edge to the graph and relaxes the distances it
+     * shortens.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public void addEdge(V from, V to)
+    {
+        if(from == null || to == null || graph.hasEdge(from, to)){
+            graph.addEdge(from, to);
+            return;
+        }
+        graph.addEdge(from, to);
+        int fromId = addVertexId(from);
+        int toId = addVertexId(to);
+        link(fromId, toId);
+        if(dist[fromId] != UNREACHABLE && dist[fromId] + 1 < dist[toId]){
+            dist[toId] = dist[fromId] + 1;
+            parent[toId] = fromId;
+            queue[0] = toId;
+            relax(0, 1);
+        }
+    }
+
+    /**
+     * Removes an edge from the graph and repairs the distances that
+     * depended on it.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     */
+    public void removeEdge(V from, V to)
+    {
+        if(!graph.hasEdge(from, to)){
+            return;
+        }
+        graph.removeEdge(from, to);
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        unlink(fromId, toId);
+        if(parent[toId] == fromId){
+            repair(toId);
+        }
+    }
+
+    /**
+     * Removes a vertex and its edges from the graph, and repairs the
+     * distances that depended on them.
+     *
+     * @param toRemove the vertex to remove; must not be the source
+     */
+    public void removeVertex(V toRemove)
+    {
+        if(toRemove != null && toRemove.equals(source)){
+            throw new IllegalArgumentException("the source cannot be removed");
+        }
+        int id = dictionary.idOf(toRemove);
+        if(id < 0){
+            return;
+        }
+        while(inDegree[id] > 0){
+            unlink(in[id][inDegree[id] - 1], id);
+        }
+        rebuild(id); // with no edges entering it, the vertex and its subtree are recomputed from outside
+        while(outDegree[id] > 0){
+            unlink(id, out[id][outDegree[id] - 1]);
+        }
+        graph.removeVertex(toRemove);
+        dictionary.remove(toRemove);
+        out[id] = null;
+        in[id] = null;
+    }
+
+    /**
+     * Discards every distance and recomputes them with a full BFS
+     * from the source.
+     */
+    public void recompute()
+    {
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(parent, -1);
+        dist[sourceId] = 0;
+        queue[0] = sourceId;
+        relax(0, 1);
+    }
+
+    /**
+     * Runs BFS from the vertices in queue[head, tail), which must be
+     * in nondecreasing order of distance, lowering the distances of
+     * the vertices they reach.
+     */
+    private void relax(int head, int tail)
+    {
+        while(head < tail){
+            int vert = queue[head++];
+            int next = dist[vert] + 1;
+            int[] adj = out[vert];
+            for(int i = 0, degree = outDegree[vert]; i < degree; ++i){
+                int adjVert = adj[i];
+                if(next < dist[adjVert]){
+                    dist[adjVert] = next;
+                    parent[adjVert] = vert;
+                    queue[tail++] = adjVert;
+                }
+            }
+        }
+    }
+
+    /**
+     * Repairs the distances after the tree edge into a vertex was
+     * removed.
+     */
+    private void repair(int root)
+    {
+        int want = dist[root] - 1;
+        for(int i = 0; i < inDegree[root]; ++i){
+            int pred = in[root][i];
+            if(dist[pred] == want){
+                parent[root] = pred;
+                return;
+            }
+        }
+        rebuild(root);
+    }
+
+    /**
+     * Recomputes the distances of the BFS subtree below a vertex,
+     * starting from the edges that enter the subtree.
+     */
+    private void rebuild(int root)
+    {
+        // Collect the BFS subtree below root.  Vertices outside it keep
+        // their tree paths, so their distances are still exact.
+        ++epoch;
+        int size = 0;
+        queue[size++] = root;
+        mark[root] = epoch;
+        for(int head = 0; head < size; ++head){
+            int vert = queue[head];
+            for(int i = 0; i < outDegree[vert]; ++i){
+                int child = out[vert][i];
+                if(parent[child] == vert && mark[child] != epoch){
+                    mark[child] = epoch;
+                    queue[size++] = child;
+                }
+            }
+        }
+
+        // Seed each vertex of the subtree from its best parent outside it.
+        long[] seeds = new long[size];
+        int numSeeds = 0;
+        for(int i = 0; i < size; ++i){
+            int vert = queue[i];
+            dist[vert] = UNREACHABLE;
+            parent[vert] = -1;
+        }
+        for(int i = 0; i < size; ++i){
+            int vert = queue[i];
+            for(int j = 0; j < inDegree[vert]; ++j){
+                int pred = in[vert][j];
+                if(mark[pred] != epoch && dist[pred] != UNREACHABLE && dist[pred] + 1 < dist[vert]){
+                    dist[vert] = dist[pred] + 1;
+                    parent[vert] = pred;
+                }
+            }
+            if(dist[vert] != UNREACHABLE){
+                seeds[numSeeds++] = (long) dist[vert] << 32 | vert;
+            }
+        }
+        Arrays.sort(seeds, 0, numSeeds);
+
+        // Merge the sorted seeds with the BFS queue so that vertices
+        // are expanded in order of distance.
+        int head = 0;
+        int tail = 0;
+        int nextSeed = 0;
+        while(nextSeed < numSeeds || head < tail){
+            int vert;
+            if(head == tail || nextSeed < numSeeds && (int) (seeds[nextSeed] >>> 32) < dist[queue[head]]){
+                long seed = seeds[nextSeed++];
+                vert = (int) seed;
+                if((int) (seed >>> 32) != dist[vert]){
+                    continue; // lowered since it was seeded, and queued then
+                }
+            } else {
+                vert = queue[head++];
+            }
+            int next = dist[vert] + 1;
+            for(int i = 0; i < outDegree[vert]; ++i){
+                int adjVert = out[vert][i];
+                if(next < dist[adjVert]){
+                    dist[adjVert] = next;
+                    parent[adjVert] = vert;
+                    queue[tail++] = adjVert;
+                }
+            }
+        }
+    }
+
+    private int addVertexId(V vertex)
+    {
+        int id = dictionary.intern(vertex);
+        if(id >= out.length){
+            int capacity = Math.max(out.length * 2, id + 1);
+            out = Arrays.copyOf(out, capacity);
+            outDegree = Arrays.copyOf(outDegree, capacity);
+            in = Arrays.copyOf(in, capacity);
+            inDegree = Arrays.copyOf(inDegree, capacity);
+            dist = Arrays.copyOf(dist, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            queue = new int[capacity];
+            mark = Arrays.copyOf(mark, capacity);
+        }
+        if(out[id] == null){
+            out[id] = NO_NEIGHBORS;
+            in[id] = NO_NEIGHBORS;
+            outDegree[id] = 0;
+            inDegree[id] = 0;
+            dist[id] = UNREACHABLE;
+            parent[id] = -1;
+        }
+        return id;
+    }
+
+    private void link(int fromId, int toId)
+    {
+        if(outDegree[fromId] == out[fromId].length){
+            out[fromId] = Arrays.copyOf(out[fromId], Math.max(4, outDegree[fromId] * 2));
+        }
+        out[fromId][outDegree[fromId]++] = toId;
+        if(inDegree[toId] == in[toId].length){
+            in[toId] = Arrays.copyOf(in[toId], Math.max(4, inDegree[toId] * 2));
+        }
+        in[toId][inDegree[toId]++] = fromId;
+    }
+
+    private void unlink(int fromId, int toId)
+    {
+        outDegree[fromId] = swapRemove(out[fromId], outDegree[fromId], toId);
+        inDegree[toId] = swapRemove(in[toId], inDegree[toId], fromId);
+    }
+
+    /**
+     * Removes a value from the first 'size' elements of an unsorted
+     * array by moving the last element into its place.
+     *
+     * @return the new size
+     */
+    private static int swapRemove(int[] ids, int size, int value)
+    {
+        for(int i = 0; i < size; ++i){
+            if(ids[i] == value){
+                ids[i] = ids[size - 1];
+                return size - 1;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,574 @@
+package edu.union.adt.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds a {@link CsrGraph} from an edge-list file.  Each line of the
+ * file holds a source vertex and a destination vertex separated by
+ * spaces, tabs or a comma; anything after the second field is
+ * ignored.  A line with a single field adds an isolated vertex, and
+ * blank lines and lines starting with '#' or '%' are skipped.
+ * Vertices are the fields read as UTF-8 strings.
+ *
+ * The file is memory-mapped and split into chunks at line
+ * boundaries; the chunks are parsed in parallel.  Fields are parsed
+ * straight from the mapped bytes and interned per chunk, so a String
+ * is only created once for each distinct vertex of a chunk, when the
+ * chunk's vertices are merged into the graph's VertexDictionary.  The graph is built
+ * in two passes over the file: the first interns vertices and counts
+ * out-degrees, the second writes each edge into arrays sized from
+ * those counts.  Duplicate edges are dropped.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class EdgeListLoader
+{
+    private static final int MAX_CHUNK_BYTES = 1 << 29;
+
+    private final int parallelism;
+
+    /**
+     * Create a loader using one thread per available processor.
+     */
+    public EdgeListLoader()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a loader using the given number of threads.
+     *
+     * @param parallelism the number of chunks parsed at the same time
+     */
+    public EdgeListLoader(int parallelism)
+    {
+        if(parallelism < 1){
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Loads an edge-list file.
+     *
+     * @param file the file to load
+     * @return the loaded graph together with ingestion statistics
+     * @throws IOException if the file cannot be read or has more edges
+     * than a CsrGraph can hold
+     */
+    public Result load(Path file) throws IOException
+    {
+        long start = System.nanoTime();
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = channel.size();
+            List<Chunk> chunks = split(channel, size);
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, chunks.size())));
+            try {
+                // pass one: intern vertices and count out-degrees per chunk
+                runAll(pool, chunks, chunk -> chunk.parse(null));
+
+                // give every distinct vertex a global id and lay out the edge arrays
+                VertexDictionary<String> dictionary = new VertexDictionary<String>();
+                long lines = 0;
+                long edgeLines = 0;
+                for(Chunk chunk : chunks){
+                    chunk.localToGlobal = new int[chunk.tokens.size()];
+                    for(int local = 0; local < chunk.tokens.size(); ++local){
+                        chunk.localToGlobal[local] = dictionary.intern(chunk.tokens.key(local));
+                    }
+                    lines += chunk.lines;
+                    edgeLines += chunk.edgeLines;
+                }
+                if(edgeLines > Integer.MAX_VALUE - 8){
+                    throw new IOException(file + " has more than " + (Integer.MAX_VALUE - 8) + " edges");
+                }
+
+                int n = dictionary.size();
+                int[] offsets = new int[n + 1];
+                for(Chunk chunk : chunks){
+                    for(int local = 0; local < chunk.localToGlobal.length; ++local){
+                        offsets[chunk.localToGlobal[local] + 1] += chunk.degree[local];
+                    }
+                }
+                for(int i = 0; i < n; ++i){
+                    offsets[i + 1] += offsets[i];
+                }
+                // each chunk writes the edges of a vertex into its own slice of that vertex's range
+                int[] next = Arrays.copyOf(offsets, n);
+                for(Chunk chunk : chunks){
+                    chunk.cursor = new int[chunk.localToGlobal.length];
+                    for(int local = 0; local < chunk.localToGlobal.length; ++local){
+                        int id = chunk.localToGlobal[local];
+                        chunk.cursor[local] = next[id];
+                        next[id] += chunk.degree[local];
+                    }
+                }
+
+                // pass two: fill in the edges
+                int[] targets = new int[(int) edgeLines];
+                runAll(pool, chunks, chunk -> chunk.parse(targets));
+                chunks = null;
+
+                sortRanges(pool, offsets, targets);
+                int[] compacted = removeDuplicates(offsets, targets);
+
+                CsrGraph<String> graph = new CsrGraph<String>(dictionary, offsets, compacted);
+                return new Result(graph, size, lines, edgeLines, System.nanoTime() - start);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * A loaded graph and the statistics of its ingestion.
+     */
+    public static final class Result
+    {
+        private final CsrGraph<String> graph;
+        private final long bytes;
+        private final long lines;
+        private final long edgeLines;
+        private final long elapsedNanos;
+
+        private Result(CsrGraph<String> graph, long bytes, long lines, long edgeLines, long elapsedNanos)
+        {
+            this.graph = graph;
+            this.bytes = bytes;
+            this.lines = lines;
+            this.edgeLines = edgeLines;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return the loaded graph
+         */
+        public CsrGraph<String> getGraph()
+        {
+            return graph;
+        }
+
+        /**
+         * @return the size of the file in bytes
+         */
+        public long getBytes()
+        {
+            return bytes;
+        }
+
+        /**
+         * @return the number of lines read, including comments and
+         * blank lines
+         */
+        public long getLines()
+        {
+            return lines;
+        }
+
+        /**
+         * @return the number of edges read, including duplicates
+         */
+        public long getEdgeLines()
+        {
+            return edgeLines;
+        }
+
+        /**
+         * @return the wall-clock time the load took, in nanoseconds
+         */
+        public long getElapsedNanos()
+        {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return the number of edges read per second
+         */
+        public double getEdgesPerSecond()
+        {
+            return edgeLines / seconds();
+        }
+
+        /**
+         * @return the number of bytes read per second
+         */
+        public double getBytesPerSecond()
+        {
+            return bytes / seconds();
+        }
+
+        private double seconds()
+        {
+            return Math.max(elapsedNanos, 1L) / 1e9;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%d edges (%d distinct), %d vertices, %d bytes in %.3f s: %.0f edges/s, %.1f MB/s",
+                                 edgeLines, graph.numEdges(), graph.numVertices(), bytes, seconds(),
+                                 getEdgesPerSecond(), getBytesPerSecond() / (1 << 20));
+        }
+    }
+
+    /**
+     * Splits the file into chunks that start at line boundaries.
+     */
+    private List<Chunk> split(FileChannel channel, long size) throws IOException
+    {
+        int count = (int) Math.max(parallelism * 4L, size / (MAX_CHUNK_BYTES / 2) + 1);
+        List<Chunk> chunks = new ArrayList<Chunk>();
+        long chunkStart = 0;
+        for(int i = 1; i <= count && chunkStart < size; ++i){
+            long chunkEnd = i == count ? size : nextLineStart(channel, Math.max(size / count * i, chunkStart), size);
+            if(chunkEnd > chunkStart){
+                if(chunkEnd - chunkStart > Integer.MAX_VALUE){
+                    throw new IOException("line too long at byte " + chunkStart);
+                }
+                chunks.add(new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkEnd - chunkStart)));
+            }
+            chunkStart = chunkEnd;
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the position just after the first newline at or after
+     * 'position', or 'size' if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while(position < size){
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if(read <= 0){
+                break;
+            }
+            for(int i = 0; i < read; ++i){
+                if(buffer.get(i) == '\n'){
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private interface ChunkTask
+    {
+        void run(Chunk chunk) throws IOException;
+    }
+
+    private static void runAll(ExecutorService pool, List<Chunk> chunks, ChunkTask task) throws IOException
+    {
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for(Chunk chunk : chunks){
+            futures.add(pool.submit(() -> {
+                task.run(chunk);
+                return null;
+            }));
+        }
+        await(futures);
+    }
+
+    private static void await(List<Future<?>> futures) throws IOException
+    {
+        try {
+            for(Future<?> future : futures){
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while loading", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof IOException){
+                throw (IOException) cause;
+            }
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Sorts the destinations of every vertex, splitting the vertices
+     * into one slice per thread.
+     */
+    private void sortRanges(ExecutorService pool, int[] offsets, int[] targets) throws IOException
+    {
+        int n = offsets.length - 1;
+        int slices = Math.min(parallelism * 4, Math.max(n, 1));
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for(int s = 0; s < slices; ++s){
+            int first = (int) ((long) n * s / slices);
+            int last = (int) ((long) n * (s + 1) / slices);
+            futures.add(pool.submit(() -> {
+                for(int i = first; i < last; ++i){
+                    Arrays.sort(targets, offsets[i], offsets[i + 1]);
+                }
+            }));
+        }
+        await(futures);
+    }
+
+    /**
+     * Drops repeated destinations from the sorted ranges, moving the
+     * remaining edges down and updating the offsets in place.
+     *
+     * @return the targets array, trimmed if duplicates were dropped
+     */
+    static int[] removeDuplicates(int[] offsets, int[] targets)
+    {
+        int write = 0;
+        int readStart = 0;
+        for(int i = 0; i + 1 < offsets.length; ++i){
+            int readEnd = offsets[i + 1];
+            offsets[i] = write;
+            for(int j = readStart; j < readEnd; ++j){
+                if(j == readStart || targets[j] != targets[j - 1]){
+                    targets[write++] = targets[j];
+                }
+            }
+            readStart = readEnd;
+        }
+        offsets[offsets.length - 1] = write;
+        return write == targets.length ? targets : Arrays.copyOf(targets, write);
+    }
+
+    /**
+     * A part of the file, parsed by one thread at a time.
+     */
+    private static final class Chunk
+    {
+        private final MappedByteBuffer buffer;
+        private final TokenTable tokens = new TokenTable();
+        private int[] degree = new int[64];
+        private int[] localToGlobal;
+        private int[] cursor;
+        private long lines;
+        private long edgeLines;
+
+        Chunk(MappedByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Parses every line of the chunk.  Without targets (the first
+         * pass), interns the fields and counts out-degrees; with
+         * targets (the second pass), writes the destination of each
+         * edge at its source's cursor.
+         */
+        void parse(int[] targets)
+        {
+            int limit = buffer.limit();
+            int pos = 0;
+            while(pos < limit){
+                if(targets == null){
+                    ++lines;
+                }
+                pos = skipSeparators(pos, limit);
+                if(pos < limit && (buffer.get(pos) == '#' || buffer.get(pos) == '%')){
+                    pos = skipLine(pos, limit);
+                    continue;
+                }
+                int fromStart = pos;
+                int fromEnd = pos = fieldEnd(pos, limit);
+                int toStart = pos = skipSeparators(pos, limit);
+                int toEnd = pos = fieldEnd(pos, limit);
+                pos = skipLine(pos, limit);
+                if(fromStart == fromEnd){
+                    continue;
+                }
+
+                if(targets == null){
+                    int from = tokens.intern(buffer, fromStart, fromEnd);
+                    if(toStart < toEnd){
+                        int to = tokens.intern(buffer, toStart, toEnd);
+                        if(from >= degree.length){
+                            degree = Arrays.copyOf(degree, Math.max(from + 1, degree.length * 2));
+                        }
+                        ++degree[from];
+                        ++edgeLines;
+                    }
+                } else if(toStart < toEnd){
+                    int from = tokens.find(buffer, fromStart, fromEnd);
+                    int to = tokens.find(buffer, toStart, toEnd);
+                    targets[cursor[from]++] = localToGlobal[to];
+                }
+            }
+            if(degree.length < tokens.size()){
+                degree = Arrays.copyOf(degree, tokens.size());
+            }
+        }
+
+        private int skipSeparators(int pos, int limit)
+        {
+            while(pos < limit && isSeparator(buffer.get(pos))){
+                ++pos;
+            }
+            return pos;
+        }
+
+        private int fieldEnd(int pos, int limit)
+        {
+            while(pos < limit){
+                byte b = buffer.get(pos);
+                if(b == '\n' || isSeparator(b)){
+                    break;
+                }
+                ++pos;
+            }
+            return pos;
+        }
+
+        private int skipLine(int pos, int limit)
+        {
+            while(pos < limit && buffer.get(pos++) != '\n'){
+                // skip the rest of the line
+            }
+            return pos;
+        }
+
+        private static boolean isSeparator(byte b)
+        {
+            return b == ' ' || b == '\t' || b == ',' || b == '\r';
+        }
+    }
+
+    /**
+     * An open-addressing hash table from byte strings to dense ids.
+     * The bytes of each distinct key are copied once into a shared
+     * array, so looking up a key that is already present allocates
+     * nothing.
+     */
+    private static final class TokenTable
+    {
+        private byte[] bytes = new byte[4096];
+        private int bytesUsed;
+        private int[] starts = new int[65];
+        private int[] hashes = new int[64];
+        private int size;
+        private int[] slots = new int[128]; // id + 1, 0 if the slot is empty
+
+        int size()
+        {
+            return size;
+        }
+
+        /**
+         * @return the id of the key in buffer[from, to), adding it if
+         * it is new
+         */
+        int intern(ByteBuffer buffer, int from, int to)
+        {
+            int hash = hash(buffer, from, to);
+            int slot = findSlot(buffer, from, to, hash);
+            if(slots[slot] != 0){
+                return slots[slot] - 1;
+            }
+
+            int length = to - from;
+            if(bytesUsed + length > bytes.length){
+                bytes = Arrays.copyOf(bytes, Math.max(bytesUsed + length, bytes.length * 2));
+            }
+            for(int i = 0; i < length; ++i){
+                bytes[bytesUsed + i] = buffer.get(from + i);
+            }
+            bytesUsed += length;
+            if(size + 1 >= hashes.length){
+                hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                starts = Arrays.copyOf(starts, hashes.length + 1);
+            }
+            hashes[size] = hash;
+            starts[size + 1] = bytesUsed;
+            slots[slot] = ++size;
+            if(size * 2 > slots.length){
+                rehash();
+            }
+            return size - 1;
+        }
+
+        /**
+         * @return the id of the key in buffer[from, to), which must
+         * already be in the table
+         */
+        int find(ByteBuffer buffer, int from, int to)
+        {
+            int slot = findSlot(buffer, from, to, hash(buffer, from, to));
+            assert slots[slot] != 0;
+            return slots[slot] - 1;
+        }
+
+        /**
+         * @return the key with the given id, decoded as UTF-8
+         */
+        String key(int id)
+        {
+            return new String(bytes, starts[id], starts[id + 1] - starts[id], StandardCharsets.UTF_8);
+        }
+
+        private int findSlot(ByteBuffer buffer, int from, int to, int hash)
+        {
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while(slots[slot] != 0 && !matches(slots[slot] - 1, hash, buffer, from, to)){
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private boolean matches(int id, int hash, ByteBuffer buffer, int from, int to)
+        {
+            int start = starts[id];
+            if(hashes[id] != hash || starts[id + 1] - start != to - from){
+                return false;
+            }
+            for(int i = from; i < to; ++i){
+                if(bytes[start++] != buffer.get(i)){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rehash()
+        {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for(int id = 0; id < size; ++id){
+                int slot = hashes[id] & mask;
+                while(slots[slot] != 0){
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = id + 1;
+            }
+        }
+
+        private static int hash(ByteBuffer buffer, int from, int to)
+        {
+            int h = 1;
+            for(int i = from; i < to; ++i){
+                h = 31 * h + buffer.get(i);
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+}
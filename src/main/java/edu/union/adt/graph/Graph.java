@@ -1,5 +1,9 @@
 package edu.union.adt.graph;
 
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Consumer;
+
 /**
  * A graph that establishes connections (edges) between objects of
  * (parameterized) type V (vertices).  The edges are directed.  An
@@ -79,6 +83,23 @@ public interface Graph<V>
      */
     public Iterable<V> adjacentTo(V from);
 
+    /**
+     * Passes each vertex adjacent to a given vertex to an action.
+     * This visits the same vertices as iterating over adjacentTo, but
+     * lets the implementation walk its own storage instead of
+     * building an iterator.  If 'from' is not a vertex in the graph,
+     * the action is not called.
+     *
+     * @param from the source vertex
+     * @param action called once for each vertex adjacent to 'from'
+     */
+    public default void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        for(V vertex : adjacentTo(from)){
+            action.accept(vertex);
+        }
+    }
+
     /**
      * Tells whether or not a vertex is in the graph.
      *
@@ -221,4 +242,70 @@ public interface Graph<V>
      * source and destination vertices.
      */
     public Iterable<V> getPath(V from, V to);
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * without exceeding the given limits.  Unlike hasPath, pathLength
+     * and getPath, a search that is cut short by a limit does not
+     * report that there is no path: its status is LIMIT_EXCEEDED.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits bounds on the depth, the number of visited
+     * vertices and the running time of the search
+     * @return FOUND with the shortest path, NOT_FOUND if there is no
+     * path (or either vertex is not in the graph), or LIMIT_EXCEEDED
+     * @throws java.util.concurrent.CancellationException if the limits
+     * signal cancellation during the search
+     */
+    public default SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        return PathSearch.search(this, from, to, limits);
+    }
+
+    /**
+     * Gets the vertices within k hops of a given vertex: those that
+     * can be reached from it by a path of at most k edges.  The search
+     * stops at depth k, so it touches only those vertices and the
+     * edges leaving them.
+     *
+     * @param center the vertex at the center of the neighborhood
+     * @param k the largest number of hops
+     * @return a read-only set of the vertices within k hops of
+     * 'center', including 'center' itself, in breadth-first order.
+     * Empty if 'center' is not in the graph.
+     */
+    public default Set<V> neighborhood(V center, int k)
+    {
+        return PathSearch.neighborhood(this, center, k);
+    }
+
+    /**
+     * Gets the subgraph induced by a set of vertices: the vertices of
+     * the set that are in this graph, and every edge of this graph
+     * between two of them.  The result is a read-only view; only the
+     * vertex set is copied, and adjacency is filtered from this graph
+     * as it is read.  CsrGraph.copyOf turns the view into a compact
+     * graph of its own.
+     *
+     * @param vertices the vertices inducing the subgraph
+     * @return a read-only view of the induced subgraph
+     */
+    public default Graph<V> inducedSubgraph(Collection<? extends V> vertices)
+    {
+        return new InducedSubgraph<V>(this, vertices);
+    }
+
+    /**
+     * Estimates the memory the graph uses, broken down into the vertex
+     * map, the neighbor containers, and indexes and caches.
+     *
+     * @return the estimate
+     * @throws UnsupportedOperationException if the implementation does
+     * not estimate its memory
+     */
+    public default MemoryFootprint memoryFootprint()
+    {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not estimate its memory");
+    }
 }
@@ -0,0 +1,233 @@
+package edu.union.adt.graph;
+
+import java.util.Arrays;
+
+/**
+ * Set operations on graphs.
+ *
+ * <ul>
+ * <li>union: the vertices and edges of either graph;</li>
+ * <li>intersection: the vertices and edges of both graphs;</li>
+ * <li>difference: the vertices of the first graph, with the edges of
+ * the first graph that are not in the second;</li>
+ * <li>transpose: the vertices of a graph, with every edge
+ * reversed.</li>
+ * </ul>
+ *
+ * The operations that build a new graph return an immutable
+ * {@link CsrGraph}.  Both inputs are taken in CSR form (a CsrGraph
+ * is used as it is; other graphs are copied once), and the edges
+ * leaving each vertex are combined by a linear merge of the two
+ * sorted id ranges.  The in-place operations, addAll and removeAll,
+ * merge the same way when the target is an {@link IndexedGraph}, and
+ * fall back to addEdge and removeEdge otherwise.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public final class GraphAlgebra
+{
+    private GraphAlgebra()
+    {
+    }
+
+    /**
+     * @param a a graph
+     * @param b another graph
+     * @return a new graph with the vertices and edges of either graph.
+     * The vertices of a come first, in the order of
+     * CsrGraph.copyOf(a).
+     */
+    public static <V> CsrGraph<V> union(Graph<V> a, Graph<V> b)
+    {
+        CsrGraph<V> csrA = CsrGraph.copyOf(a);
+        CsrGraph<V> csrB = CsrGraph.copyOf(b);
+        VertexDictionary<V> dictA = csrA.dictionary();
+        VertexDictionary<V> dictB = csrB.dictionary();
+        VertexDictionary<V> dictionary = new VertexDictionary<V>(dictA.size() + dictB.size());
+        for(V vertex : dictA){
+            dictionary.intern(vertex);
+        }
+        int[] bToNew = new int[dictB.size()];
+        for(int i = 0; i < bToNew.length; ++i){
+            bToNew[i] = dictionary.intern(dictB.vertexOf(i));
+        }
+        int n = dictionary.size();
+        int[] newToB = inverse(bToNew, n);
+
+        int[] offsetsA = csrA.offsets();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[csrA.numEdges() + csrB.numEdges()];
+        int[] scratch = new int[maxDegree(csrB)];
+        for(int v = 0; v < n; ++v){
+            int count = mapRange(csrB, newToB[v], bToNew, scratch);
+            int start = v < dictA.size() ? offsetsA[v] : 0;
+            int end = v < dictA.size() ? offsetsA[v + 1] : 0;
+            offsets[v + 1] = offsets[v]
+                + SortedIds.union(csrA.targets(), start, end, scratch, 0, count, targets, offsets[v]);
+        }
+        return new CsrGraph<V>(dictionary, offsets, Arrays.copyOf(targets, offsets[n]));
+    }
+
+    /**
+     * @param a a graph
+     * @param b another graph
+     * @return a new graph with the vertices and edges in both graphs,
+     * in the order of CsrGraph.copyOf(a)
+     */
+    public static <V> CsrGraph<V> intersection(Graph<V> a, Graph<V> b)
+    {
+        CsrGraph<V> csrA = CsrGraph.copyOf(a);
+        CsrGraph<V> csrB = CsrGraph.copyOf(b);
+        VertexDictionary<V> dictA = csrA.dictionary();
+        VertexDictionary<V> dictB = csrB.dictionary();
+        VertexDictionary<V> dictionary = new VertexDictionary<V>(Math.min(dictA.size(), dictB.size()));
+        int[] aToNew = new int[dictA.size()];
+        for(int i = 0; i < aToNew.length; ++i){
+            V vertex = dictA.vertexOf(i);
+            aToNew[i] = dictB.idOf(vertex) >= 0 ? dictionary.intern(vertex) : -1;
+        }
+        int[] bToNew = new int[dictB.size()];
+        for(int i = 0; i < bToNew.length; ++i){
+            bToNew[i] = dictionary.idOf(dictB.vertexOf(i));
+        }
+        int n = dictionary.size();
+        int[] newToA = inverse(aToNew, n);
+        int[] newToB = inverse(bToNew, n);
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[Math.min(csrA.numEdges(), csrB.numEdges())];
+        int[] scratchA = new int[maxDegree(csrA)];
+        int[] scratchB = new int[maxDegree(csrB)];
+        for(int v = 0; v < n; ++v){
+            int countA = mapRange(csrA, newToA[v], aToNew, scratchA);
+            int countB = mapRange(csrB, newToB[v], bToNew, scratchB);
+            offsets[v + 1] = offsets[v]
+                + SortedIds.intersection(scratchA, 0, countA, scratchB, 0, countB, targets, offsets[v]);
+        }
+        return new CsrGraph<V>(dictionary, offsets, Arrays.copyOf(targets, offsets[n]));
+    }
+
+    /**
+     * @param a a graph
+     * @param b another graph
+     * @return a new graph with the vertices of a, and the edges of a
+     * that are not in b, in the order of CsrGraph.copyOf(a)
+     */
+    public static <V> CsrGraph<V> difference(Graph<V> a, Graph<V> b)
+    {
+        CsrGraph<V> csrA = CsrGraph.copyOf(a);
+        CsrGraph<V> csrB = CsrGraph.copyOf(b);
+        VertexDictionary<V> dictA = csrA.dictionary();
+        VertexDictionary<V> dictB = csrB.dictionary();
+        int[] bToA = new int[dictB.size()];
+        for(int i = 0; i < bToA.length; ++i){
+            bToA[i] = dictA.idOf(dictB.vertexOf(i));
+        }
+        int n = dictA.size();
+        int[] aToB = inverse(bToA, n);
+
+        int[] offsetsA = csrA.offsets();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[csrA.numEdges()];
+        int[] scratch = new int[maxDegree(csrB)];
+        for(int v = 0; v < n; ++v){
+            int count = mapRange(csrB, aToB[v], bToA, scratch);
+            offsets[v + 1] = offsets[v]
+                + SortedIds.difference(csrA.targets(), offsetsA[v], offsetsA[v + 1],
+                                       scratch, 0, count, targets, offsets[v]);
+        }
+        // the vertices are exactly those of a, so its dictionary is shared
+        return new CsrGraph<V>(dictA, offsets, Arrays.copyOf(targets, offsets[n]));
+    }
+
+    /**
+     * @param graph a graph
+     * @return a new graph with the vertices of 'graph' and every edge
+     * reversed
+     */
+    public static <V> CsrGraph<V> transpose(Graph<V> graph)
+    {
+        return CsrGraph.copyOf(graph).transpose();
+    }
+
+    /**
+     * Adds every vertex and edge of one graph to another.
+     *
+     * @param target the graph to add to
+     * @param delta the graph whose vertices and edges to add
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> void addAll(Graph<V> target, Graph<V> delta)
+    {
+        if(target instanceof IndexedGraph){
+            ((IndexedGraph<V>) target).addAll(CsrGraph.copyOf(delta));
+            return;
+        }
+        for(V vertex : delta.getVertices()){
+            target.addVertex(vertex);
+            delta.forEachNeighbor(vertex, adjVert -> target.addEdge(vertex, adjVert));
+        }
+    }
+
+    /**
+     * Removes every edge of one graph from another.  No vertices are
+     * removed.
+     *
+     * @param target the graph to remove from
+     * @param delta the graph whose edges to remove
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> void removeAll(Graph<V> target, Graph<V> delta)
+    {
+        if(target instanceof IndexedGraph){
+            ((IndexedGraph<V>) target).removeAll(CsrGraph.copyOf(delta));
+            return;
+        }
+        for(V vertex : delta.getVertices()){
+            delta.forEachNeighbor(vertex, adjVert -> target.removeEdge(vertex, adjVert));
+        }
+    }
+
+    /**
+     * Writes the destinations of the edges leaving a vertex of 'graph'
+     * to 'out', translated through 'map' and sorted.
+     *
+     * @param id the vertex, or -1 for none
+     * @return the number of ids written
+     */
+    private static int mapRange(CsrGraph<?> graph, int id, int[] map, int[] out)
+    {
+        if(id < 0){
+            return 0;
+        }
+        int[] offsets = graph.offsets();
+        return SortedIds.map(graph.targets(), offsets[id], offsets[id + 1], map, out);
+    }
+
+    /**
+     * @return the array mapping each id in [0, size) to the index that
+     * 'map' sends to it, or to -1
+     */
+    private static int[] inverse(int[] map, int size)
+    {
+        int[] inverse = new int[size];
+        Arrays.fill(inverse, -1);
+        for(int i = 0; i < map.length; ++i){
+            if(map[i] >= 0){
+                inverse[map[i]] = i;
+            }
+        }
+        return inverse;
+    }
+
+    private static int maxDegree(CsrGraph<?> graph)
+    {
+        int[] offsets = graph.offsets();
+        int max = 0;
+        for(int v = 0; v + 1 < offsets.length; ++v){
+            max = Math.max(max, offsets[v + 1] - offsets[v]);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,110 @@
+package edu.union.adt.graph;
+
+/**
+ * A change made to a graph: a vertex or an edge added or removed.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public final class GraphEvent<V>
+{
+    /**
+     * The kinds of change.
+     */
+    public enum Type
+    {
+        VERTEX_ADDED,
+        VERTEX_REMOVED,
+        EDGE_ADDED,
+        EDGE_REMOVED
+    }
+
+    private final Type type;
+    private final V from;
+    private final V to;
+
+    private GraphEvent(Type type, V from, V to)
+    {
+        this.type = type;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @param type VERTEX_ADDED or VERTEX_REMOVED
+     * @param vertex the vertex added or removed
+     * @return an event for the vertex
+     */
+    public static <V> GraphEvent<V> vertex(Type type, V vertex)
+    {
+        return new GraphEvent<V>(type, vertex, null);
+    }
+
+    /**
+     * @param type EDGE_ADDED or EDGE_REMOVED
+     * @param from the source vertex of the edge
+     * @param to the destination vertex of the edge
+     * @return an event for the edge
+     */
+    public static <V> GraphEvent<V> edge(Type type, V from, V to)
+    {
+        return new GraphEvent<V>(type, from, to);
+    }
+
+    /**
+     * @return the kind of change
+     */
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * @return the vertex added or removed, or the source vertex of
+     * the edge added or removed
+     */
+    public V getFrom()
+    {
+        return from;
+    }
+
+    /**
+     * @return the destination vertex of the edge added or removed, or
+     * null for a vertex event
+     */
+    public V getTo()
+    {
+        return to;
+    }
+
+    /**
+     * @return true iff this is an EDGE_ADDED or EDGE_REMOVED event
+     */
+    public boolean isEdgeEvent()
+    {
+        return type == Type.EDGE_ADDED || type == Type.EDGE_REMOVED;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        GraphEvent event = (GraphEvent) obj;
+        return type == event.type
+            && from.equals(event.from)
+            && (to == null ? event.to == null : to.equals(event.to));
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return (type.hashCode() * 31 + from.hashCode()) * 31 + (to == null ? 0 : to.hashCode());
+    }
+
+    @Override
+    public String toString()
+    {
+        return isEdgeEvent() ? type + " " + from + " -> " + to : type + " " + from;
+    }
+}
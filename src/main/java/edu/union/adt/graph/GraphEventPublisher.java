@@ -0,0 +1,202 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers graph events to listeners on a background thread.
+ *
+ * Published events go into a fixed-size ring buffer; a single
+ * delivery thread drains it and hands the listeners the events in
+ * batches.  Publishing never waits for the listeners: if they fall so
+ * far behind that the ring is full, new events are dropped and
+ * counted, and the listeners are told through
+ * {@link GraphListener#onOverflow(long)}.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class GraphEventPublisher<V> implements AutoCloseable
+{
+    private final Object[] ring;
+    private final int mask;
+    private final int maxBatch;
+    private final List<GraphListener<V>> listeners = new CopyOnWriteArrayList<GraphListener<V>>();
+    private final Thread deliveryThread;
+
+    private volatile long tail;       // next position to publish to; written under 'this'
+    private volatile long head;       // next position to deliver; written by the delivery thread
+    private volatile long delivered;  // positions whose listeners have returned
+    private volatile long dropped;    // events dropped since the last overflow report; written under 'this'
+    private volatile boolean waiting;
+    private volatile boolean running = true;
+
+    /**
+     * Create a publisher and start its delivery thread.
+     *
+     * @param capacity the number of undelivered events the ring can
+     * hold; rounded up to a power of two
+     * @param maxBatch the largest number of events passed to a
+     * listener at once
+     */
+    public GraphEventPublisher(int capacity, int maxBatch)
+    {
+        if(capacity < 1 || maxBatch < 1){
+            throw new IllegalArgumentException("capacity and maxBatch must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.ring = new Object[size];
+        this.mask = size - 1;
+        this.maxBatch = maxBatch;
+        this.deliveryThread = new Thread(this::deliver, "graph-events");
+        this.deliveryThread.setDaemon(true);
+        this.deliveryThread.start();
+    }
+
+    /**
+     * @param listener a listener to receive every later event
+     */
+    public void addListener(GraphListener<V> listener)
+    {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener a listener to stop receiving events
+     */
+    public void removeListener(GraphListener<V> listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queues an event for delivery.  Never blocks on the listeners.
+     *
+     * @param event the event
+     * @return false iff the ring was full and the event was dropped
+     */
+    public synchronized boolean publish(GraphEvent<V> event)
+    {
+        long position = tail;
+        if(position - head == ring.length || !running){
+            ++dropped;
+            return false;
+        }
+        ring[(int) position & mask] = event;
+        tail = position + 1;
+        if(waiting){
+            LockSupport.unpark(deliveryThread);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until every event published before the call has been
+     * passed to the listeners (or dropped).
+     */
+    public void flush()
+    {
+        long target = tail;
+        while(delivered < target && deliveryThread.isAlive()){
+            LockSupport.unpark(deliveryThread);
+            LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    /**
+     * Delivers the events already published, then stops the delivery
+     * thread.  Events published afterwards are dropped.
+     */
+    @Override
+    public void close()
+    {
+        running = false;
+        LockSupport.unpark(deliveryThread);
+        try {
+            deliveryThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the heap bytes of the publisher, its ring and its list
+     * of listeners, but not the events in the ring or the delivery
+     * thread
+     */
+    long sizeInBytes()
+    {
+        return MemoryFootprint.object(5 * MemoryFootprint.REFERENCE + 8 + 32 + 2)
+            + MemoryFootprint.array(ring.length, MemoryFootprint.REFERENCE)
+            + MemoryFootprint.object(2 * MemoryFootprint.REFERENCE)   // the CopyOnWriteArrayList
+            + MemoryFootprint.array(listeners.size(), MemoryFootprint.REFERENCE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver()
+    {
+        List<GraphEvent<V>> batch = new ArrayList<GraphEvent<V>>(maxBatch);
+        while(true){
+            long available = tail;
+            long next = head;
+            if(next == available){
+                if(!running){
+                    return;
+                }
+                // publish reads 'waiting' after writing 'tail', and close
+                // unparks after clearing 'running', so one of them wakes us
+                waiting = true;
+                if(head == tail && running){
+                    LockSupport.park(this);
+                }
+                waiting = false;
+                continue;
+            }
+
+            long lost = takeDropped();
+            if(lost > 0){
+                for(GraphListener<V> listener : listeners){
+                    invoke(() -> listener.onOverflow(lost));
+                }
+            }
+
+            int count = (int) Math.min(available - next, maxBatch);
+            batch.clear();
+            for(int i = 0; i < count; ++i){
+                int slot = (int) (next + i) & mask;
+                batch.add((GraphEvent<V>) ring[slot]);
+                ring[slot] = null;
+            }
+            head = next + count; // frees the slots for the publisher before the listeners run
+            for(GraphListener<V> listener : listeners){
+                invoke(() -> listener.onEvents(batch));
+            }
+            delivered = next + count;
+        }
+    }
+
+    private synchronized long takeDropped()
+    {
+        long lost = dropped;
+        dropped = 0;
+        return lost;
+    }
+
+    /**
+     * Runs a listener callback, reporting (rather than propagating)
+     * anything it throws so that one failing listener does not stop
+     * delivery to the others.
+     */
+    private void invoke(Runnable callback)
+    {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+}
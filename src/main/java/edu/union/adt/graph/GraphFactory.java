@@ -7,4 +7,28 @@ public class GraphFactory {
     public static <V> Graph<V> createGraph(){
         return new GraphImplementation<V>();
     }
+
+    public static <V> Graph<V> createIndexedGraph(){
+        return new IndexedGraph<V>();
+    }
+
+    public static <V> Graph<V> createOrderedGraph(){
+        return new IndexedGraph<V>(true);
+    }
+
+    public static <V> Graph<V> createVersionedGraph(){
+        return new VersionedGraph<V>();
+    }
+
+    public static <V> Graph<V> createBitmapGraph(){
+        return new BitmapGraph<V>();
+    }
+
+    public static <V> Graph<V> createOffHeapGraph(){
+        return new OffHeapGraph<V>();
+    }
+
+    public static <V> Graph<V> createTemporalGraph(long window){
+        return new TemporalGraph<V>(window);
+    }
 }
@@ -0,0 +1,438 @@
+package edu.union.adt.graph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Makes synthetic graphs for load testing: Erdos-Renyi, Barabasi-Albert,
+ * R-MAT (stochastic Kronecker), grid and chain graphs.  The vertices
+ * are the ints 0 to numVertices() - 1.
+ *
+ * A generator does not hold its edges.  generate() streams them to an
+ * {@link EdgeSink} as ints, and does so the same way every time, since
+ * each call starts a new random number generator from the seed.  That
+ * lets into() feed them straight to any Graph, and toCsrGraph() build a
+ * CsrGraph in two passes, the first counting out-degrees and the second
+ * writing each edge into arrays sized from those counts, as
+ * EdgeListLoader does with a file.  Only Barabasi-Albert keeps state
+ * while it runs: the destination of each edge so far, 4 bytes an edge,
+ * since a new vertex picks its neighbors by degree.
+ *
+ * The generated edges may repeat; the graphs they are added to keep
+ * one copy.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public abstract class GraphGenerator
+{
+    /**
+     * Receives the edges of a generator.
+     */
+    @FunctionalInterface
+    public interface EdgeSink
+    {
+        /**
+         * @param from the source vertex of an edge
+         * @param to the destination vertex of the edge
+         */
+        void edge(int from, int to);
+    }
+
+    private final int numVertices;
+
+    private GraphGenerator(int numVertices)
+    {
+        if(numVertices < 0){
+            throw new IllegalArgumentException("the number of vertices must not be negative");
+        }
+        this.numVertices = numVertices;
+    }
+
+    /**
+     * @return the number of vertices of the generated graph
+     */
+    public int numVertices()
+    {
+        return numVertices;
+    }
+
+    /**
+     * Streams the edges, the same ones in the same order every time.
+     *
+     * @param sink the receiver of each edge
+     * @return the number of edges streamed, repeats included
+     */
+    public abstract long generate(EdgeSink sink);
+
+    /**
+     * Adds the vertices and then the edges to a graph.
+     *
+     * @param graph the graph to add to
+     * @return the number of edges streamed, repeats included
+     */
+    public long into(Graph<Integer> graph)
+    {
+        for(int v = 0; v < numVertices; ++v){
+            graph.addVertex(v);
+        }
+        return generate(graph::addEdge);
+    }
+
+    /**
+     * Builds the graph in CSR form, generating the edges twice rather
+     * than holding them in a list.
+     *
+     * @return the generated graph, without repeated edges
+     * @throws IllegalStateException if there are more edges than a
+     * CsrGraph can hold
+     */
+    public CsrGraph<Integer> toCsrGraph()
+    {
+        int n = numVertices;
+        int[] offsets = new int[n + 1];
+        long edges = generate((from, to) -> ++offsets[from + 1]);
+        if(edges > Integer.MAX_VALUE - 8){
+            throw new IllegalStateException(edges + " edges is more than a CsrGraph can hold");
+        }
+        for(int v = 0; v < n; ++v){
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[(int) edges];
+        generate((from, to) -> targets[next[from]++] = to);
+
+        for(int v = 0; v < n; ++v){
+            Arrays.sort(targets, offsets[v], offsets[v + 1]);
+        }
+        VertexDictionary<Integer> dictionary = new VertexDictionary<Integer>(n);
+        for(int v = 0; v < n; ++v){
+            dictionary.intern(v);
+        }
+        return new CsrGraph<Integer>(dictionary, offsets, EdgeListLoader.removeDuplicates(offsets, targets));
+    }
+
+    /**
+     * A directed Erdos-Renyi graph G(n, p): each of the n(n - 1) edges
+     * between distinct vertices is present with probability p.  The gap
+     * to the next edge is drawn from the geometric distribution, so the
+     * time taken follows the number of edges, not n squared.
+     *
+     * @param numVertices n
+     * @param p the probability of each edge
+     * @param seed the seed
+     * @return the generator
+     */
+    public static GraphGenerator erdosRenyi(int numVertices, double p, long seed)
+    {
+        if(!(p >= 0 && p <= 1)){
+            throw new IllegalArgumentException("p must be between 0 and 1");
+        }
+        return new ErdosRenyi(numVertices, p, seed);
+    }
+
+    /**
+     * An undirected Barabasi-Albert graph, each edge given in both
+     * directions.  Vertex m starts joined to vertices 0 to m - 1; every
+     * later vertex joins m distinct earlier vertices, picked with
+     * probability proportional to their degree.
+     *
+     * @param numVertices the number of vertices, more than m
+     * @param m the number of edges each new vertex brings
+     * @param seed the seed
+     * @return the generator
+     */
+    public static GraphGenerator barabasiAlbert(int numVertices, int m, long seed)
+    {
+        if(m < 1 || numVertices <= m){
+            throw new IllegalArgumentException("need 1 <= m < numVertices");
+        }
+        if((long) (numVertices - m) * m > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("too many edges: " + (long) (numVertices - m) * m);
+        }
+        return new BarabasiAlbert(numVertices, m, seed);
+    }
+
+    /**
+     * A directed R-MAT graph on 2^scale vertices.  Each edge picks one
+     * quadrant of the adjacency matrix per bit of the ids, the top-left
+     * with probability a, top-right b, bottom-left c and bottom-right
+     * 1 - a - b - c, which makes a stochastic Kronecker graph with a 2x2
+     * initiator.  The ids are then scrambled by a fixed bijection, so
+     * the high-degree vertices are not all near 0.
+     *
+     * @param scale the log2 of the number of vertices, 1 to 30
+     * @param numEdges the number of edges to generate, repeats included
+     * @param a the probability of the top-left quadrant
+     * @param b the probability of the top-right quadrant
+     * @param c the probability of the bottom-left quadrant
+     * @param seed the seed
+     * @return the generator
+     */
+    public static GraphGenerator rmat(int scale, long numEdges, double a, double b, double c, long seed)
+    {
+        if(scale < 1 || scale > 30){
+            throw new IllegalArgumentException("scale must be between 1 and 30");
+        }
+        if(numEdges < 0){
+            throw new IllegalArgumentException("the number of edges must not be negative");
+        }
+        if(!(a >= 0 && b >= 0 && c >= 0 && a + b + c <= 1)){
+            throw new IllegalArgumentException("a, b and c must be probabilities with a sum of at most 1");
+        }
+        return new RMat(scale, numEdges, a, b, c, seed);
+    }
+
+    /**
+     * The Graph500 Kronecker graph: R-MAT with a = 0.57, b = c = 0.19
+     * and edgeFactor edges per vertex.
+     *
+     * @param scale the log2 of the number of vertices, 1 to 30
+     * @param edgeFactor the number of edges per vertex
+     * @param seed the seed
+     * @return the generator
+     */
+    public static GraphGenerator kronecker(int scale, int edgeFactor, long seed)
+    {
+        return rmat(scale, (long) edgeFactor << scale, 0.57, 0.19, 0.19, seed);
+    }
+
+    /**
+     * A grid of rows by columns vertices, each joined to the vertices
+     * above, below, left and right of it by edges in both directions.
+     * The vertex in row r and column c is r * columns + c.
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @return the generator
+     */
+    public static GraphGenerator grid(int rows, int columns)
+    {
+        if(rows < 0 || columns < 0 || (long) rows * columns > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("bad grid size " + rows + " by " + columns);
+        }
+        return new Grid(rows, columns);
+    }
+
+    /**
+     * A chain of directed edges 0 -> 1 -> ... -> numVertices - 1, the
+     * deepest graph for its size to search.
+     *
+     * @param numVertices the number of vertices
+     * @return the generator
+     */
+    public static GraphGenerator chain(int numVertices)
+    {
+        return new Chain(numVertices);
+    }
+
+    private static final class ErdosRenyi extends GraphGenerator
+    {
+        private final double p;
+        private final long seed;
+
+        ErdosRenyi(int numVertices, double p, long seed)
+        {
+            super(numVertices);
+            this.p = p;
+            this.seed = seed;
+        }
+
+        @Override
+        public long generate(EdgeSink sink)
+        {
+            long n = numVertices();
+            long pairs = n * (n - 1);
+            if(p == 0 || pairs == 0){
+                return 0;
+            }
+            SplittableRandom random = new SplittableRandom(seed);
+            double logQ = Math.log1p(-p);
+            long edges = 0;
+            long pair = -1;
+            while(true){
+                if(p == 1){
+                    ++pair;
+                } else {
+                    double gap = Math.floor(Math.log1p(-random.nextDouble()) / logQ);
+                    if(gap >= pairs - pair){
+                        break;
+                    }
+                    pair += 1 + (long) gap;
+                }
+                if(pair >= pairs){
+                    break;
+                }
+                int from = (int) (pair / (n - 1));
+                int to = (int) (pair % (n - 1));
+                sink.edge(from, to < from ? to : to + 1);
+                ++edges;
+            }
+            return edges;
+        }
+    }
+
+    private static final class BarabasiAlbert extends GraphGenerator
+    {
+        private final int m;
+        private final long seed;
+
+        BarabasiAlbert(int numVertices, int m, long seed)
+        {
+            super(numVertices);
+            this.m = m;
+            this.seed = seed;
+        }
+
+        @Override
+        public long generate(EdgeSink sink)
+        {
+            SplittableRandom random = new SplittableRandom(seed);
+            // edge e joins vertex m + e / m to targets[e]; picking an end
+            // of a random edge picks a vertex by its degree
+            int[] targets = new int[(numVertices() - m) * m];
+            int edges = 0;
+            for(int v = m; v < numVertices(); ++v){
+                int first = edges;
+                for(int k = 0; k < m; ++k){
+                    int target;
+                    if(v == m){
+                        target = k;
+                    } else {
+                        do {
+                            long end = random.nextLong(2L * first);
+                            target = end < first ? targets[(int) end] : m + (int) (end - first) / m;
+                        } while(contains(targets, first, edges, target));
+                    }
+                    targets[edges++] = target;
+                    sink.edge(v, target);
+                    sink.edge(target, v);
+                }
+            }
+            return 2L * edges;
+        }
+
+        private static boolean contains(int[] array, int from, int to, int value)
+        {
+            for(int i = from; i < to; ++i){
+                if(array[i] == value){
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class RMat extends GraphGenerator
+    {
+        private final int scale;
+        private final long numEdges;
+        private final long a;      // thresholds out of 2^32
+        private final long ab;
+        private final long abc;
+        private final long seed;
+
+        RMat(int scale, long numEdges, double a, double b, double c, long seed)
+        {
+            super(1 << scale);
+            this.scale = scale;
+            this.numEdges = numEdges;
+            this.a = (long) (a * (1L << 32));
+            this.ab = (long) ((a + b) * (1L << 32));
+            this.abc = (long) ((a + b + c) * (1L << 32));
+            this.seed = seed;
+        }
+
+        @Override
+        public long generate(EdgeSink sink)
+        {
+            SplittableRandom random = new SplittableRandom(seed);
+            int mask = numVertices() - 1;
+            for(long e = 0; e < numEdges; ++e){
+                int from = 0;
+                int to = 0;
+                long bits = 0;
+                for(int level = 0; level < scale; ++level){
+                    long draw;
+                    if((level & 1) == 0){
+                        bits = random.nextLong();
+                        draw = bits >>> 32;
+                    } else {
+                        draw = bits & 0xffffffffL;
+                    }
+                    // the quadrant without branches: (d - 1 - draw) >>> 63 is 1 iff draw >= d
+                    int pastA = (int) ((a - 1 - draw) >>> 63);
+                    int pastAB = (int) ((ab - 1 - draw) >>> 63);
+                    int pastABC = (int) ((abc - 1 - draw) >>> 63);
+                    from = from << 1 | pastAB;
+                    to = to << 1 | (pastA ^ pastAB ^ pastABC);
+                }
+                sink.edge(scramble(from, mask), scramble(to, mask));
+            }
+            return numEdges;
+        }
+
+        /**
+         * A bijection on 0 to mask: multiplying by an odd number and
+         * xoring with a right shift can each be undone.
+         */
+        private int scramble(int id, int mask)
+        {
+            int x = (id * 0x9E3779B1 + (int) seed) & mask;
+            x ^= x >>> (scale + 1) / 2;
+            return (x * 0x85EBCA6B) & mask;
+        }
+    }
+
+    private static final class Grid extends GraphGenerator
+    {
+        private final int rows;
+        private final int columns;
+
+        Grid(int rows, int columns)
+        {
+            super(rows * columns);
+            this.rows = rows;
+            this.columns = columns;
+        }
+
+        @Override
+        public long generate(EdgeSink sink)
+        {
+            long edges = 0;
+            for(int r = 0; r < rows; ++r){
+                for(int c = 0; c < columns; ++c){
+                    int v = r * columns + c;
+                    if(c + 1 < columns){
+                        sink.edge(v, v + 1);
+                        sink.edge(v + 1, v);
+                        edges += 2;
+                    }
+                    if(r + 1 < rows){
+                        sink.edge(v, v + columns);
+                        sink.edge(v + columns, v);
+                        edges += 2;
+                    }
+                }
+            }
+            return edges;
+        }
+    }
+
+    private static final class Chain extends GraphGenerator
+    {
+        Chain(int numVertices)
+        {
+            super(numVertices);
+        }
+
+        @Override
+        public long generate(EdgeSink sink)
+        {
+            for(int v = 0; v + 1 < numVertices(); ++v){
+                sink.edge(v, v + 1);
+            }
+            return Math.max(numVertices() - 1, 0);
+        }
+    }
+}
@@ -4,10 +4,11 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
-import java.util.Deque;
+import java.util.function.Consumer;
 
 import edu.union.adt.graph.Graph;
 
@@ -30,7 +31,8 @@ import edu.union.adt.graph.Graph;
 public class GraphImplementation<V> implements Graph<V>
 {   
 
-    private Map<V, Set<V>> adjVerts;
+    private Map<V, NeighborSet<V>> adjVerts;
+    private Set<V> vertexView;
 
     /**
      * Create an empty graph.
@@ -38,6 +40,7 @@ public class GraphImplementation<V> implements Graph<V>
     public GraphImplementation() 
     {
         this.adjVerts = new HashMap<>();
+        this.vertexView = Collections.unmodifiableSet(adjVerts.keySet());
     }
 
     /**
@@ -54,7 +57,7 @@ public class GraphImplementation<V> implements Graph<V>
     public int numEdges()
     {
         int numEdges = 0;
-        for(Map.Entry<V, Set<V>> entry : adjVerts.entrySet()){
+        for(Map.Entry<V, NeighborSet<V>> entry : adjVerts.entrySet()){
             numEdges += entry.getValue().size();
         }
         return numEdges;
@@ -91,7 +94,7 @@ public class GraphImplementation<V> implements Graph<V>
         {
             this.addVertex(from);
             this.addVertex(to);
-            adjVerts.get(from).add(to);
+            adjVerts.get(from).insert(to);
         }
     }
     
@@ -105,17 +108,17 @@ public class GraphImplementation<V> implements Graph<V>
     public void addVertex(V vertex)
     {
         if(vertex != null && !adjVerts.containsKey(vertex)){
-            adjVerts.put(vertex, new HashSet<V>());
+            adjVerts.put(vertex, new NeighborSet<V>());
         }
     }
 
     /**
      * @return the an iterable collection for the set of vertices of
-     * the graph.
+     * the graph.  The collection is a read-only view of the graph.
      */
     public Iterable<V> getVertices()
     {
-        return adjVerts.keySet();
+        return vertexView;
     }
 
     /**
@@ -129,11 +132,32 @@ public class GraphImplementation<V> implements Graph<V>
      * @return an iterable collection for the set of vertices that are
      * the destinations of edges for which 'from' is the source
      * vertex.  If 'from' is not a vertex in the graph, returns an
-     * empty iterator.
+     * empty iterator.  The collection is a read-only view of the
+     * graph; nothing is copied.
      */
     public Iterable<V> adjacentTo(V from)
     {
-        return adjVerts.get(from);
+        NeighborSet<V> neighbors = adjVerts.get(from);
+        if(neighbors == null){
+            return Collections.emptySet();
+        }
+        return neighbors;
+    }
+
+    /**
+     * Passes each vertex adjacent to a given vertex to an action,
+     * without creating an iterator.
+     *
+     * @param from the source vertex
+     * @param action called once for each vertex adjacent to 'from'
+     */
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        NeighborSet<V> neighbors = adjVerts.get(from);
+        if(neighbors != null){
+            neighbors.forEach(action);
+        }
     }
 
     /**
@@ -228,6 +252,26 @@ public class GraphImplementation<V> implements Graph<V>
         return this.toString().equals(graph.toString());
     }
 
+    /**
+     * Estimates the memory the graph uses: the HashMap from vertices
+     * to neighbor sets, and the neighbor sets.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        // the graph, the map, and the read-only view of its key set
+        long vertexMap = MemoryFootprint.object(2 * MemoryFootprint.REFERENCE)
+            + MemoryFootprint.hashMap(adjVerts.size())
+            + 2 * MemoryFootprint.object(MemoryFootprint.REFERENCE);
+        long neighbors = 0;
+        for(NeighborSet<V> adj : adjVerts.values()){
+            neighbors += adj.sizeInBytes();
+        }
+        return new MemoryFootprint(this, vertexMap, neighbors, 0, 0);
+    }
+
     /**
      * Tells whether the graph is empty.
      *
@@ -272,7 +316,7 @@ public class GraphImplementation<V> implements Graph<V>
      */
     public void removeEdge(V from, V to){
         if(this.hasEdge(from, to)){
-            this.adjVerts.get(from).remove(to);
+            this.adjVerts.get(from).delete(to);
         }
     }
 
@@ -296,8 +340,7 @@ public class GraphImplementation<V> implements Graph<V>
      */
     public boolean hasPath(V from, V to){
         if(this.contains(from) && this.contains(to)){
-            Set<V> visited = breadthFirstSearch(from, to, null, null);
-            return visited.contains(to);
+            return breadthFirstSearch(from, to, null, null, SearchLimits.NONE) == SearchResult.Status.FOUND;
         }
         return false;
     }
@@ -321,8 +364,7 @@ public class GraphImplementation<V> implements Graph<V>
     public int pathLength(V from, V to){
         if(this.contains(from) && this.contains(to)){
             Map<V, Integer> distance = new HashMap<V, Integer>();
-            Set<V> visited = breadthFirstSearch(from, to, distance, null);
-            if(visited.contains(to)){
+            if(breadthFirstSearch(from, to, distance, null, SearchLimits.NONE) == SearchResult.Status.FOUND){
                 return distance.get(to);
             }
         }
@@ -347,19 +389,38 @@ public class GraphImplementation<V> implements Graph<V>
      * source and destination vertices.
      */
     public Iterable<V> getPath(V from, V to){
-        Deque<V> path = new LinkedList();
-        if(this.contains(from) && this.contains(to)){
-            Map<V, V> prevVertex = new HashMap<V, V>();
-            Set<V> visited = breadthFirstSearch(from, to, null, prevVertex);
-            if(visited.contains(to)){
-                V curVert = to;
-                while(curVert != null){
-                    path.addFirst(curVert);
-                    curVert = prevVertex.get(curVert);
-                }
-            }
+        return this.search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * without exceeding the given limits.  Unlike hasPath, pathLength
+     * and getPath, a search that is cut short by a limit does not
+     * report that there is no path: its status is LIMIT_EXCEEDED.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits bounds on the depth, the number of visited
+     * vertices and the running time of the search
+     * @return FOUND with the shortest path, NOT_FOUND if there is no
+     * path (or either vertex is not in the graph), or LIMIT_EXCEEDED
+     * @throws java.util.concurrent.CancellationException if the limits
+     * signal cancellation during the search
+     */
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits){
+        if(!this.contains(from) || !this.contains(to)){
+            return SearchResult.notFound();
+        }
+        Map<V, V> prevVertex = new HashMap<V, V>();
+        switch(breadthFirstSearch(from, to, null, prevVertex, limits)){
+            case FOUND:
+                return SearchResult.found(PathSearch.pathTo(to, prevVertex));
+            case LIMIT_EXCEEDED:
+                return SearchResult.limitExceeded();
+            default:
+                return SearchResult.notFound();
         }
-        return path;
     }
 
     /**
@@ -371,38 +432,54 @@ public class GraphImplementation<V> implements Graph<V>
      * @param distance the map of vertex to the distance between the source vertex and the vertex passed in as a key
      * @param prevVertex the map of vertex to the previous vertex in the path from the source vertex and the vertex passed in as a key.
      * if the key vertex is the source vertex, the value of prevVertex.get(key) == null
+     * @param limits the depth, visited-vertex and time limits of the search; the search stops as soon as one is reached
+     * @return FOUND if the target was reached, LIMIT_EXCEEDED if the search stopped at a limit first,
+     * NOT_FOUND if every vertex reachable from the source was visited
      */
-    private Set<V> breadthFirstSearch(V source, V target, Map<V, Integer> distance, Map<V, V> prevVertex){
+    private SearchResult.Status breadthFirstSearch(V source, V target, Map<V, Integer> distance, Map<V, V> prevVertex,
+                                                   SearchLimits limits){
         assert distance == null || (distance != null && distance.isEmpty());
         assert prevVertex == null || (prevVertex != null && prevVertex.isEmpty());
         assert this.contains(source);
         assert target == null || this.contains(target);
 
         Set<V> visited = new HashSet<V>();
-        Queue<V> vertexQueue = new LinkedList();
+        Queue<V> vertexQueue = new LinkedList<V>();
         vertexQueue.add(source);
         visited.add(source);
         if(distance != null)
             distance.put(source, 0);
         if(prevVertex != null)
             prevVertex.put(source, null);
+        if(source.equals(target)) return SearchResult.Status.FOUND;
 
+        int depth = 0; // distance from the source of the vertices being expanded
+        int remainingInLevel = 1;
         while(!vertexQueue.isEmpty()){
+            if(limits.deadlinePassed()) return SearchResult.Status.LIMIT_EXCEEDED;
             V vert = vertexQueue.poll();
             for(V adjVert : this.adjacentTo(vert)){
                 if(!visited.contains(adjVert)){
+                    // a vertex beyond the limits might lead to the target, so the answer is unknown
+                    if(depth >= limits.maxDepth()) return SearchResult.Status.LIMIT_EXCEEDED;
+                    if(!adjVert.equals(target) && visited.size() >= limits.maxVisited())
+                        return SearchResult.Status.LIMIT_EXCEEDED;
                     visited.add(adjVert);
                     vertexQueue.add(adjVert);
                     if(distance != null)
                         distance.put(adjVert, distance.get(vert) + 1);
                     if(prevVertex != null)
                         prevVertex.put(adjVert, vert);
-                    if(vert.equals(target)) return visited; // if target is found, no longer need to search
+                    if(adjVert.equals(target)) return SearchResult.Status.FOUND; // if target is found, no longer need to search
                 }
             }
+            if(--remainingInLevel == 0){
+                ++depth;
+                remainingInLevel = vertexQueue.size();
+            }
         }
 
-        return visited;
+        return SearchResult.Status.NOT_FOUND;
     }
 
 }
@@ -0,0 +1,34 @@
+package edu.union.adt.graph;
+
+import java.util.List;
+
+/**
+ * Receives the changes made to an {@link ObservableGraph}.  Events
+ * are delivered in batches, in the order the changes were made, on
+ * the publisher's delivery thread.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public interface GraphListener<V>
+{
+    /**
+     * Called with the next batch of changes.  The list must not be
+     * kept after the call returns.
+     *
+     * @param events the changes, oldest first
+     */
+    public void onEvents(List<GraphEvent<V>> events);
+
+    /**
+     * Called, before the next batch, when events had to be dropped
+     * because the listeners fell too far behind.  A listener that
+     * mirrors the graph should rebuild its state from the graph.
+     *
+     * @param droppedEvents the number of events dropped since the last
+     * call
+     */
+    public default void onOverflow(long droppedEvents)
+    {
+    }
+}
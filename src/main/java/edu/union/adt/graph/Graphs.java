@@ -0,0 +1,44 @@
+package edu.union.adt.graph;
+
+import java.util.Iterator;
+
+/**
+ * Helpers shared by the Graph implementations.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+final class Graphs
+{
+    private Graphs()
+    {
+    }
+
+    /**
+     * Builds the string representation described by
+     * {@link Graph#toString()}, in the same form as
+     * GraphImplementation: one line per vertex, the vertex followed by
+     * ":" and its adjacent vertices separated by ",".
+     *
+     * @param graph the graph to describe
+     * @return the string representation of the graph
+     */
+    static <V> String toString(Graph<V> graph)
+    {
+        StringBuilder strBuilder = new StringBuilder();
+        Iterator<V> vertIter = graph.getVertices().iterator();
+        while(vertIter.hasNext()){
+            V vertex = vertIter.next();
+            strBuilder.append(vertex).append(":");
+            Iterator<V> adjVertIter = graph.adjacentTo(vertex).iterator();
+            while(adjVertIter.hasNext()){
+                strBuilder.append(adjVertIter.next());
+                if(adjVertIter.hasNext())
+                    strBuilder.append(',');
+            }
+            if(vertIter.hasNext())
+                strBuilder.append("\n");
+        }
+        return strBuilder.toString();
+    }
+}
@@ -0,0 +1,454 @@
+package edu.union.adt.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of non-negative int ids, laid out as a roaring
+ * bitmap.  Ids are split by their high 16 bits into chunks of 65536,
+ * and each chunk that holds an id has a container.  A container with
+ * at most ARRAY_LIMIT ids is a sorted array of their low 16 bits, two
+ * bytes per id; a fuller one is a bitmap of 1024 longs.  No container
+ * takes more than 8 KB, whether its chunk is sparse or dense.
+ *
+ * A set can be ORed into a plain bitset, a bitmap container a word
+ * at a time, so that a breadth-first search can take in 64 edges at
+ * once instead of making a hash lookup per edge.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public final class IdBitmap
+{
+    static final int ARRAY_LIMIT = 4096;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Container[] NO_CONTAINERS = new Container[0];
+
+    private char[] keys;             // sorted high 16 bits of the ids in each container
+    private Container[] containers;
+    private int size;                // the number of containers
+    private int cardinality;
+
+    /**
+     * Create an empty set.
+     */
+    public IdBitmap()
+    {
+        keys = NO_KEYS;
+        containers = NO_CONTAINERS;
+    }
+
+    /**
+     * @param id the id to add; must not be negative
+     * @return true iff the id was not already in the set
+     */
+    public boolean add(int id)
+    {
+        if(id < 0){
+            throw new IllegalArgumentException("id must not be negative");
+        }
+        char high = (char) (id >>> 16);
+        int i = find(high);
+        if(i < 0){
+            i = -i - 1;
+            insertContainer(i, high, new ArrayContainer(1));
+        }
+        Container container = containers[i];
+        int before = container.cardinality;
+        containers[i] = container.add((char) id);
+        if(containers[i].cardinality == before){
+            return false;
+        }
+        ++cardinality;
+        return true;
+    }
+
+    /**
+     * @param id the id to remove
+     * @return true iff the id was in the set
+     */
+    public boolean remove(int id)
+    {
+        int i = id < 0 ? -1 : find((char) (id >>> 16));
+        if(i < 0){
+            return false;
+        }
+        Container container = containers[i];
+        int before = container.cardinality;
+        container = container.remove((char) id);
+        if(container.cardinality == before){
+            return false;
+        }
+        --cardinality;
+        if(container.cardinality == 0){
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            containers[--size] = null;
+        } else {
+            containers[i] = container;
+        }
+        return true;
+    }
+
+    /**
+     * @param id an id
+     * @return true iff the id is in the set
+     */
+    public boolean contains(int id)
+    {
+        int i = id < 0 ? -1 : find((char) (id >>> 16));
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    /**
+     * @return the number of ids in the set
+     */
+    public int cardinality()
+    {
+        return cardinality;
+    }
+
+    /**
+     * @return true iff the set has no ids
+     */
+    public boolean isEmpty()
+    {
+        return cardinality == 0;
+    }
+
+    /**
+     * Passes each id to an action, in increasing order.
+     *
+     * @param action called once for each id in the set
+     */
+    public void forEach(IntConsumer action)
+    {
+        for(int i = 0; i < size; ++i){
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Sets the bit of each id in a plain bitset.  A bitmap container
+     * is ORed in a word at a time.
+     *
+     * @param words the bitset, bit (id &amp; 63) of word (id &gt;&gt;&gt; 6)
+     * for each id; ids past its end are left out
+     */
+    void orInto(long[] words)
+    {
+        for(int i = 0; i < size; ++i){
+            containers[i].orInto(words, keys[i] << 10);
+        }
+    }
+
+    /**
+     * @return an iterator over the ids, in increasing order
+     */
+    public PrimitiveIterator.OfInt iterator()
+    {
+        return new PrimitiveIterator.OfInt() {
+            private int index = 0;
+            private int next = seek(0);
+
+            @Override
+            public boolean hasNext()
+            {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt()
+            {
+                if(next < 0){
+                    throw new NoSuchElementException();
+                }
+                int id = next;
+                next = seek((id & 0xFFFF) + 1);
+                return id;
+            }
+
+            /**
+             * @return the first id at or after 'fromLow' in the
+             * container at 'index' or a later one, or -1
+             */
+            private int seek(int fromLow)
+            {
+                for(; index < size; ++index, fromLow = 0){
+                    int low = containers[index].next(fromLow);
+                    if(low >= 0){
+                        return keys[index] << 16 | low;
+                    }
+                }
+                return -1;
+            }
+        };
+    }
+
+    /**
+     * @return the number of bytes used by the set, laid out as
+     * {@link MemoryFootprint} assumes
+     */
+    public long sizeInBytes()
+    {
+        long bytes = MemoryFootprint.object(2 * MemoryFootprint.REFERENCE + 8)
+            + MemoryFootprint.array(keys.length, 2) + MemoryFootprint.array(containers.length, MemoryFootprint.REFERENCE);
+        for(int i = 0; i < size; ++i){
+            bytes += containers[i].bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the ids in the set, as in {1, 5, 7}
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder strBuilder = new StringBuilder("{");
+        forEach(id -> {
+                if(strBuilder.length() > 1){
+                    strBuilder.append(", ");
+                }
+                strBuilder.append(id);
+            });
+        return strBuilder.append('}').toString();
+    }
+
+    private int find(char high)
+    {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertContainer(int at, char high, Container container)
+    {
+        if(size == keys.length){
+            int capacity = Math.max(2, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = high;
+        containers[at] = container;
+        ++size;
+    }
+
+    /**
+     * The ids of one chunk, by their low 16 bits.  Changes are made in
+     * place where possible; each method that changes the container
+     * returns the container to keep, which differs from this one when
+     * the layout changes.
+     */
+    private abstract static class Container
+    {
+        int cardinality;
+
+        abstract boolean contains(char low);
+
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        /**
+         * @return the smallest value at or after 'from', or -1
+         */
+        abstract int next(int from);
+
+        abstract void forEach(int high, IntConsumer action);
+
+        /**
+         * ORs the container into a bitset, starting at word 'base'.
+         */
+        abstract void orInto(long[] words, int base);
+
+        abstract long bytes();
+    }
+
+    private static final class ArrayContainer extends Container
+    {
+        private char[] values;
+
+        ArrayContainer(int capacity)
+        {
+            values = new char[capacity];
+        }
+
+        @Override
+        boolean contains(char low)
+        {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low)
+        {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if(index >= 0){
+                return this;
+            }
+            if(cardinality == ARRAY_LIMIT){
+                return toBitmap().add(low);
+            }
+            index = -index - 1;
+            if(cardinality == values.length){
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            ++cardinality;
+            return this;
+        }
+
+        @Override
+        Container remove(char low)
+        {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if(index >= 0){
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                --cardinality;
+            }
+            return this;
+        }
+
+        @Override
+        int next(int from)
+        {
+            if(from > 0xFFFF){
+                return -1;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if(index < 0){
+                index = -index - 1;
+            }
+            return index < cardinality ? values[index] : -1;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action)
+        {
+            for(int i = 0; i < cardinality; ++i){
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        void orInto(long[] words, int base)
+        {
+            for(int i = 0; i < cardinality; ++i){
+                int w = base + (values[i] >>> 6);
+                if(w >= words.length){
+                    return;
+                }
+                words[w] |= 1L << values[i];
+            }
+        }
+
+        @Override
+        long bytes()
+        {
+            return MemoryFootprint.object(4 + MemoryFootprint.REFERENCE) + MemoryFootprint.array(values.length, 2);
+        }
+
+        private BitmapContainer toBitmap()
+        {
+            BitmapContainer bitmap = new BitmapContainer();
+            for(int i = 0; i < cardinality; ++i){
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container
+    {
+        private long[] words = new long[1024];
+
+        @Override
+        boolean contains(char low)
+        {
+            return (words[low >>> 6] & 1L << low) != 0;
+        }
+
+        @Override
+        Container add(char low)
+        {
+            long bit = 1L << low;
+            if((words[low >>> 6] & bit) == 0){
+                words[low >>> 6] |= bit;
+                ++cardinality;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low)
+        {
+            long bit = 1L << low;
+            if((words[low >>> 6] & bit) != 0){
+                words[low >>> 6] &= ~bit;
+                --cardinality;
+            }
+            return shrink();
+        }
+
+        @Override
+        int next(int from)
+        {
+            if(from > 0xFFFF){
+                return -1;
+            }
+            int w = from >>> 6;
+            long word = words[w] & -1L << from;
+            while(word == 0){
+                if(++w == words.length){
+                    return -1;
+                }
+                word = words[w];
+            }
+            return w << 6 | Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action)
+        {
+            for(int w = 0; w < words.length; ++w){
+                for(long word = words[w]; word != 0; word &= word - 1){
+                    action.accept(high | w << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        @Override
+        void orInto(long[] into, int base)
+        {
+            for(int w = 0, end = Math.min(words.length, into.length - base); w < end; ++w){
+                into[base + w] |= words[w];
+            }
+        }
+
+        @Override
+        long bytes()
+        {
+            return MemoryFootprint.object(4 + MemoryFootprint.REFERENCE) + MemoryFootprint.array(words.length, 8);
+        }
+
+        /**
+         * Goes back to an array once the container is well below the
+         * limit, so that a chunk whose size hovers around the limit
+         * does not convert back and forth.
+         */
+        private Container shrink()
+        {
+            if(cardinality > ARRAY_LIMIT / 2){
+                return this;
+            }
+            ArrayContainer array = new ArrayContainer(cardinality);
+            forEach(0, low -> array.values[array.cardinality++] = (char) low);
+            return array;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package edu.union.adt.graph;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * The breadth-first search behind the graphs that keep their edges on
+ * dense vertex ids: IndexedGraph, CsrGraph, OffHeapGraph,
+ * TemporalGraph and PropertyGraph.  The search runs on ids, with an
+ * int array as its queue and another recording the vertex each
+ * visited vertex was reached from; vertices are only looked up to
+ * build the path found.  Each graph gives the search its edges
+ * through an {@link Adjacency}.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+final class IdSearch
+{
+    /**
+     * The edges leaving each vertex of a graph, as a search reads them.
+     */
+    abstract static class Adjacency
+    {
+        /**
+         * Finds the destinations of the edges leaving a vertex.
+         *
+         * @param id the id of the vertex
+         * @param range set to the first position and one past the
+         * last position of the destinations in the array returned
+         * @return an array holding the destination ids, which may be
+         * reused by the next call
+         */
+        abstract int[] targets(int id, int[] range);
+
+        /**
+         * @return the ids of the edges leaving vertex 'id', at the
+         * same positions as their destinations in targets.  Only asked
+         * for by searches with an edge filter.
+         */
+        int[] edgeIds(int id)
+        {
+            throw new UnsupportedOperationException("the edges of this graph have no ids");
+        }
+    }
+
+    private IdSearch()
+    {
+    }
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * without exceeding the given limits.
+     *
+     * @param dictionary the ids of the vertices of the graph
+     * @param adjacency the edges of the graph
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @param edgeFilter accepts the ids of the edges the path may
+     * use, or null to use every edge
+     * @return FOUND with the shortest path, NOT_FOUND or LIMIT_EXCEEDED
+     */
+    static <V> SearchResult<V> search(VertexDictionary<V> dictionary, Adjacency adjacency,
+                                      V from, V to, SearchLimits limits, IntPredicate edgeFilter)
+    {
+        int source = dictionary.idOf(from);
+        int target = dictionary.idOf(to);
+        if(source < 0 || target < 0){
+            return SearchResult.notFound();
+        }
+        if(source == target){
+            return SearchResult.found(Collections.singletonList(from));
+        }
+
+        int idLimit = dictionary.idLimit();
+        int[] prev = new int[idLimit]; // id of the previous vertex + 1, 0 if not visited
+        int[] queue = new int[idLimit];
+        int[] range = new int[2];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        prev[source] = source + 1;
+        int visited = 1;
+        int depth = 0;
+        int levelEnd = tail;
+        while(head < tail){
+            if(limits.deadlinePassed()){
+                return SearchResult.limitExceeded();
+            }
+            if(head == levelEnd){
+                ++depth;
+                levelEnd = tail;
+            }
+            int vert = queue[head++];
+            int[] adj = adjacency.targets(vert, range);
+            int[] ids = edgeFilter == null ? null : adjacency.edgeIds(vert);
+            for(int i = range[0], end = range[1]; i < end; ++i){
+                int adjVert = adj[i];
+                if(prev[adjVert] != 0 || ids != null && !edgeFilter.test(ids[i])){
+                    continue;
+                }
+                if(depth >= limits.maxDepth()){
+                    return SearchResult.limitExceeded();
+                }
+                if(adjVert != target && visited >= limits.maxVisited()){
+                    return SearchResult.limitExceeded();
+                }
+                prev[adjVert] = vert + 1;
+                if(adjVert == target){
+                    return SearchResult.found(pathTo(dictionary, source, target, prev));
+                }
+                queue[tail++] = adjVert;
+                ++visited;
+            }
+        }
+        return SearchResult.notFound();
+    }
+
+    private static <V> List<V> pathTo(VertexDictionary<V> dictionary, int source, int target, int[] prev)
+    {
+        LinkedList<V> path = new LinkedList<V>();
+        int curVert = target;
+        path.addFirst(dictionary.vertexOf(curVert));
+        while(curVert != source){
+            curVert = prev[curVert] - 1;
+            path.addFirst(dictionary.vertexOf(curVert));
+        }
+        return path;
+    }
+}
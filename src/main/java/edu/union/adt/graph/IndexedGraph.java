@@ -0,0 +1,591 @@
+package edu.union.adt.graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * A graph that stores its edges on dense vertex ids.  Vertices are
+ * mapped to ids by a {@link VertexDictionary}, once per call; the
+ * destinations of the edges leaving each vertex are kept in a sorted
+ * int array, and searches run entirely on ids.  Vertices are only
+ * looked up again when they are returned, by getVertices, adjacentTo
+ * and getPath.
+ *
+ * Vertices and adjacent vertices are listed in id order.  By default
+ * the id of a removed vertex is reused, so after removals that order
+ * depends on the history of the graph.  An insertion-ordered graph
+ * never reuses ids: vertices are listed in the order they were
+ * added, adjacent vertices in the same order, and searches try edges
+ * in that order too, so two graphs built by the same calls give the
+ * same toString and the same paths.  When more than half the ids are
+ * free, the vertices are renumbered in order, so removals do not
+ * leave the arrays growing.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class IndexedGraph<V> implements Graph<V>
+{
+    private static final int[] NO_NEIGHBORS = new int[0];
+    private static final int MIN_FREE_IDS_TO_COMPACT = 16;
+
+    private final VertexDictionary<V> dictionary;
+    private int[][] neighbors;   // sorted destination ids for each vertex id, null for free ids
+    private int[] degrees;
+    private int numEdges;
+    private final boolean insertionOrdered;
+    private final IdSearch.Adjacency adjacency = new IdSearch.Adjacency() {
+        @Override
+        int[] targets(int id, int[] range)
+        {
+            range[0] = 0;
+            range[1] = degrees[id];
+            return neighbors[id];
+        }
+    };
+
+    /**
+     * Create an empty graph.
+     */
+    public IndexedGraph()
+    {
+        this(false);
+    }
+
+    /**
+     * Create an empty graph.
+     *
+     * @param insertionOrdered whether vertices are kept in the order
+     * they were added, rather than reusing the ids of removed vertices
+     */
+    public IndexedGraph(boolean insertionOrdered)
+    {
+        this.insertionOrdered = insertionOrdered;
+        this.dictionary = new VertexDictionary<V>(16, !insertionOrdered);
+        this.neighbors = new int[16][];
+        this.degrees = new int[16];
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int numVertices()
+    {
+        return dictionary.size();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    public int numEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    public int degree(V vertex)
+    {
+        int id = dictionary.idOf(vertex);
+        if(id < 0){
+            throw new RuntimeException("vertex is not in the graph");
+        }
+        return degrees[id];
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already an edge
+     * between the given vertices, does nothing.  If either (or both)
+     * of the given vertices does not exist, it is added to the
+     * graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public void addEdge(V from, V to)
+    {
+        if(from != null && to != null){
+            insertEdge(addVertexId(from), addVertexId(to));
+        }
+    }
+
+    /**
+     * Adds the edge between two vertex ids, if it is not there yet.
+     *
+     * @return the position of the edge in neighborIds(fromId) if it
+     * was added, or -(position + 1) if it was already there
+     */
+    int insertEdge(int fromId, int toId)
+    {
+        int[] adj = neighbors[fromId];
+        int degree = degrees[fromId];
+        int index = Arrays.binarySearch(adj, 0, degree, toId);
+        if(index >= 0){
+            return -index - 1;
+        }
+        index = -index - 1;
+        if(degree == adj.length){
+            adj = neighbors[fromId] = Arrays.copyOf(adj, Math.max(4, degree * 2));
+        }
+        System.arraycopy(adj, index, adj, index + 1, degree - index);
+        adj[index] = toId;
+        ++degrees[fromId];
+        ++numEdges;
+        return index;
+    }
+
+    /**
+     * Adds every vertex and edge of another graph.  The edges leaving
+     * each vertex are merged into its sorted array in one linear pass,
+     * instead of being inserted one at a time.
+     *
+     * @param delta the graph whose vertices and edges to add
+     */
+    void addAll(CsrGraph<V> delta)
+    {
+        VertexDictionary<V> deltaDictionary = delta.dictionary();
+        int[] toLocal = new int[deltaDictionary.size()];
+        for(int i = 0; i < toLocal.length; ++i){
+            toLocal[i] = addVertexId(deltaDictionary.vertexOf(i));
+        }
+        int[] offsets = delta.offsets();
+        int[] scratch = new int[0];
+        for(int i = 0; i < toLocal.length; ++i){
+            int count = offsets[i + 1] - offsets[i];
+            if(count == 0){
+                continue;
+            }
+            if(scratch.length < count){
+                scratch = new int[Math.max(count, scratch.length * 2)];
+            }
+            count = SortedIds.map(delta.targets(), offsets[i], offsets[i + 1], toLocal, scratch);
+            int id = toLocal[i];
+            int degree = degrees[id];
+            int[] merged = new int[degree + count];
+            int size = SortedIds.union(neighbors[id], 0, degree, scratch, 0, count, merged, 0);
+            if(size > degree){
+                neighbors[id] = merged;
+                degrees[id] = size;
+                numEdges += size - degree;
+            }
+        }
+    }
+
+    /**
+     * Removes every edge of another graph that is in this graph, with
+     * one linear pass over the sorted array of each vertex.  Vertices
+     * are not removed.
+     *
+     * @param delta the graph whose edges to remove
+     */
+    void removeAll(CsrGraph<V> delta)
+    {
+        VertexDictionary<V> deltaDictionary = delta.dictionary();
+        int[] toLocal = new int[deltaDictionary.size()];
+        for(int i = 0; i < toLocal.length; ++i){
+            toLocal[i] = dictionary.idOf(deltaDictionary.vertexOf(i));
+        }
+        int[] offsets = delta.offsets();
+        int[] scratch = new int[0];
+        for(int i = 0; i < toLocal.length; ++i){
+            int id = toLocal[i];
+            int count = offsets[i + 1] - offsets[i];
+            if(id < 0 || count == 0){
+                continue;
+            }
+            if(scratch.length < count){
+                scratch = new int[Math.max(count, scratch.length * 2)];
+            }
+            count = SortedIds.map(delta.targets(), offsets[i], offsets[i + 1], toLocal, scratch);
+            int degree = degrees[id];
+            // the difference is never longer than the array, so it can be written in place
+            int size = SortedIds.difference(neighbors[id], 0, degree, scratch, 0, count, neighbors[id], 0);
+            degrees[id] = size;
+            numEdges -= degree - size;
+        }
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.  If the vertex does not exist, it is
+     * added to the graph, with no edges connected to it.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex)
+    {
+        if(vertex != null){
+            addVertexId(vertex);
+        }
+    }
+
+    /**
+     * Adds a vertex to the graph if it is not there yet.
+     *
+     * @return the id of the vertex
+     */
+    int addVertexId(V vertex)
+    {
+        int id = dictionary.intern(vertex);
+        if(id >= neighbors.length){
+            int capacity = Math.max(neighbors.length * 2, id + 1);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+            degrees = Arrays.copyOf(degrees, capacity);
+        }
+        if(neighbors[id] == null){
+            neighbors[id] = NO_NEIGHBORS;
+            degrees[id] = 0;
+        }
+        return id;
+    }
+
+    /**
+     * @return the an iterable collection for the set of vertices of
+     * the graph, in id order.
+     */
+    public Iterable<V> getVertices()
+    {
+        return dictionary::iterator;
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, in id order.  The
+     * returned list is a read-only view of the graph's arrays.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    public Iterable<V> adjacentTo(V from)
+    {
+        int id = dictionary.idOf(from);
+        if(id < 0){
+            return Collections.emptyList();
+        }
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index)
+            {
+                if(index < 0 || index >= degrees[id]){
+                    throw new IndexOutOfBoundsException(String.valueOf(index));
+                }
+                return dictionary.vertexOf(neighbors[id][index]);
+            }
+
+            @Override
+            public int size()
+            {
+                return degrees[id];
+            }
+        };
+    }
+
+    /**
+     * Passes each vertex adjacent to a given vertex to an action,
+     * walking the id array directly.
+     *
+     * @param from the source vertex
+     * @param action called once for each vertex adjacent to 'from'
+     */
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        int id = dictionary.idOf(from);
+        if(id >= 0){
+            int[] adj = neighbors[id];
+            for(int i = 0, degree = degrees[id]; i < degree; ++i){
+                action.accept(dictionary.vertexOf(adj[i]));
+            }
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    public boolean contains(V vertex)
+    {
+        return dictionary.idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    public boolean hasEdge(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        return fromId >= 0 && toId >= 0 && indexOf(fromId, toId) >= 0;
+    }
+
+    /**
+     * Gives a string representation of the graph, in the same form as
+     * GraphImplementation.
+     *
+     * @return the string representation of the graph
+     */
+    public String toString()
+    {
+        return Graphs.toString(this);
+    }
+
+    /**
+    * equal method for Graph
+    *
+    * @param obj the arbitrary object
+    * @return true if this is equal to obj
+    */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        IndexedGraph graph = (IndexedGraph) obj;
+        return this.toString().equals(graph.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+
+    /**
+     * Estimates the memory the graph uses: the vertex dictionary, and
+     * the id arrays with the array of degrees.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        long vertexMap = MemoryFootprint.object(4 * MemoryFootprint.REFERENCE + 5)
+            + MemoryFootprint.object(MemoryFootprint.REFERENCE)   // the Adjacency searches read
+            + dictionary.sizeInBytes();
+        long adjacency = MemoryFootprint.array(neighbors.length, MemoryFootprint.REFERENCE)
+            + MemoryFootprint.array(degrees.length, 4);
+        for(int[] adj : neighbors){
+            if(adj != null && adj != NO_NEIGHBORS){
+                adjacency += MemoryFootprint.array(adj.length, 4);
+            }
+        }
+        return new MemoryFootprint(this, vertexMap, adjacency, 0, 0);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty.
+     */
+    public boolean isEmpty()
+    {
+        return dictionary.size() == 0;
+    }
+
+    /**
+     * Removes and vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge.  The id of the vertex
+     * is freed for reuse, unless the graph is insertion-ordered.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    public void removeVertex(V toRemove)
+    {
+        int id = dictionary.idOf(toRemove);
+        if(id >= 0){
+            for(int other = 0; other < dictionary.idLimit(); ++other){
+                if(neighbors[other] != null && other != id){
+                    deleteEdge(other, id);
+                }
+            }
+            dropVertex(toRemove, id);
+        }
+    }
+
+    /**
+     * Removes a vertex whose incoming edges have been removed already,
+     * with the edges leaving it.
+     *
+     * @param toRemove the vertex to remove
+     * @param id the id of the vertex
+     */
+    void dropVertex(V toRemove, int id)
+    {
+        numEdges -= degrees[id];
+        neighbors[id] = null;
+        degrees[id] = 0;
+        dictionary.remove(toRemove);
+        int freeIds = dictionary.idLimit() - dictionary.size();
+        if(insertionOrdered && freeIds > Math.max(MIN_FREE_IDS_TO_COMPACT, dictionary.size())){
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the vertices without gaps.  The renumbering keeps the
+     * order of the ids, so every neighbor array stays sorted.
+     */
+    private void compact()
+    {
+        int oldLimit = dictionary.idLimit();
+        int[] newIds = dictionary.compact();
+        for(int id = 0; id < oldLimit; ++id){
+            int newId = newIds[id];
+            if(newId >= 0){
+                int[] adj = neighbors[id];
+                for(int i = 0, degree = degrees[id]; i < degree; ++i){
+                    adj[i] = newIds[adj[i]];
+                }
+                neighbors[newId] = adj;
+                degrees[newId] = degrees[id];
+            }
+        }
+        int capacity = Math.max(16, dictionary.idLimit());
+        neighbors = Arrays.copyOf(neighbors, capacity);
+        degrees = Arrays.copyOf(degrees, capacity);
+        Arrays.fill(neighbors, dictionary.idLimit(), capacity, null);
+    }
+
+    /**
+     * Removes an edge from the graph.
+     *
+     * <p>Postcondition: If from and to were in the graph and (from,
+     * to) was an edge in the graph, then numEdges = numEdges' - 1
+     */
+    public void removeEdge(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        if(fromId >= 0 && toId >= 0){
+            deleteEdge(fromId, toId);
+        }
+    }
+
+    /**
+     * Removes the edge between two vertex ids, if it is there.
+     *
+     * @return the position the edge had in neighborIds(fromId), or -1
+     * if there was no such edge
+     */
+    int deleteEdge(int fromId, int toId)
+    {
+        int index = indexOf(fromId, toId);
+        if(index < 0){
+            return -1;
+        }
+        int[] adj = neighbors[fromId];
+        System.arraycopy(adj, index + 1, adj, index, degrees[fromId] - index - 1);
+        --degrees[fromId];
+        --numEdges;
+        return index;
+    }
+
+    /**
+     * @return the position of the edge between two vertex ids in
+     * neighborIds(fromId), or a negative number if there is none
+     */
+    int indexOf(int fromId, int toId)
+    {
+        return Arrays.binarySearch(neighbors[fromId], 0, degrees[fromId], toId);
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).isFound();
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getLength();
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to', empty if there is no path.
+     */
+    public Iterable<V> getPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * without exceeding the given limits.  The search runs on vertex
+     * ids; vertices are only looked up to build the path found.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @return FOUND with the shortest path, NOT_FOUND or LIMIT_EXCEEDED
+     */
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        return IdSearch.search(dictionary, adjacency, from, to, limits, null);
+    }
+
+    /**
+     * @return the dictionary giving the ids of the vertices
+     */
+    VertexDictionary<V> dictionary()
+    {
+        return dictionary;
+    }
+
+    /**
+     * @param id a vertex id
+     * @return the number of edges leaving the vertex
+     */
+    int degreeOf(int id)
+    {
+        return degrees[id];
+    }
+
+    /**
+     * @param id a vertex id
+     * @return the sorted destination ids of the edges leaving the
+     * vertex, in the first degreeOf(id) elements.  Must not be
+     * modified.
+     */
+    int[] neighborIds(int id)
+    {
+        return neighbors[id];
+    }
+}
@@ -0,0 +1,209 @@
+package edu.union.adt.graph;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A read-only view of the subgraph induced by a set of vertices: the
+ * vertices of the set that are in the underlying graph, and every
+ * edge of the underlying graph between two of them.  Nothing but the
+ * vertex set is copied; adjacency is filtered from the underlying
+ * graph as it is read, so the view follows later changes to its
+ * edges.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+final class InducedSubgraph<V> implements Graph<V>
+{
+    private final Graph<V> graph;
+    private final Set<V> members;
+
+    /**
+     * @param graph the underlying graph
+     * @param vertices the vertices inducing the subgraph; copied
+     */
+    InducedSubgraph(Graph<V> graph, Collection<? extends V> vertices)
+    {
+        this.graph = graph;
+        this.members = Collections.unmodifiableSet(new HashSet<V>(vertices));
+    }
+
+    public int numVertices()
+    {
+        int count = 0;
+        for(V vertex : members){
+            if(graph.contains(vertex)){
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    public int numEdges()
+    {
+        int count = 0;
+        for(V vertex : getVertices()){
+            count += degree(vertex);
+        }
+        return count;
+    }
+
+    public int degree(V vertex)
+    {
+        if(!contains(vertex)){
+            throw new RuntimeException("vertex is not in the graph");
+        }
+        int[] count = new int[1];
+        forEachNeighbor(vertex, adjVert -> ++count[0]);
+        return count[0];
+    }
+
+    /**
+     * Not supported: an induced subgraph is a read-only view.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void addEdge(V from, V to)
+    {
+        throw new UnsupportedOperationException("an induced subgraph is read-only");
+    }
+
+    /**
+     * Not supported: an induced subgraph is a read-only view.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void addVertex(V vertex)
+    {
+        throw new UnsupportedOperationException("an induced subgraph is read-only");
+    }
+
+    public Iterable<V> getVertices()
+    {
+        return () -> filter(members.iterator());
+    }
+
+    public Iterable<V> adjacentTo(V from)
+    {
+        if(!contains(from)){
+            return Collections.emptySet();
+        }
+        return () -> filter(graph.adjacentTo(from).iterator());
+    }
+
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        if(contains(from)){
+            graph.forEachNeighbor(from, adjVert -> {
+                    if(members.contains(adjVert)){
+                        action.accept(adjVert);
+                    }
+                });
+        }
+    }
+
+    public boolean contains(V vertex)
+    {
+        return members.contains(vertex) && graph.contains(vertex);
+    }
+
+    public boolean hasEdge(V from, V to)
+    {
+        return members.contains(from) && members.contains(to) && graph.hasEdge(from, to);
+    }
+
+    /**
+     * @return the string representation of the subgraph, in the same
+     * form as GraphImplementation
+     */
+    public String toString()
+    {
+        return Graphs.toString(this);
+    }
+
+    public boolean isEmpty()
+    {
+        return numVertices() == 0;
+    }
+
+    /**
+     * Not supported: an induced subgraph is a read-only view.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void removeVertex(V toRemove)
+    {
+        throw new UnsupportedOperationException("an induced subgraph is read-only");
+    }
+
+    /**
+     * Not supported: an induced subgraph is a read-only view.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void removeEdge(V from, V to)
+    {
+        throw new UnsupportedOperationException("an induced subgraph is read-only");
+    }
+
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).isFound();
+    }
+
+    public int pathLength(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getLength();
+    }
+
+    public Iterable<V> getPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    /**
+     * @return the vertices of 'iterator' that are members of the
+     * subgraph and still in the underlying graph
+     */
+    private Iterator<V> filter(Iterator<V> iterator)
+    {
+        return new Iterator<V>() {
+            private V next = advance();
+
+            private V advance()
+            {
+                while(iterator.hasNext()){
+                    V vertex = iterator.next();
+                    if(contains(vertex)){
+                        return vertex;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return next != null;
+            }
+
+            @Override
+            public V next()
+            {
+                if(next == null){
+                    throw new NoSuchElementException();
+                }
+                V vertex = next;
+                next = advance();
+                return vertex;
+            }
+        };
+    }
+}
@@ -0,0 +1,322 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Answers approximate path lengths in constant time per landmark.
+ *
+ * When the oracle is built, k landmark vertices are chosen and BFS is
+ * run from and to each of them.  The distances are kept in compact
+ * tables, one row of k entries per vertex.  Each row is in bytes when
+ * every distance fits, otherwise in shorts, and in ints only for very
+ * deep graphs.  For vertices s and t and each landmark L, the triangle
+ * inequality gives
+ *
+ * <pre>
+ *     d(s, t) &lt;= d(s, L) + d(L, t)
+ *     d(s, t) &gt;= d(L, t) - d(L, s)
+ *     d(s, t) &gt;= d(s, L) - d(t, L)
+ * </pre>
+ *
+ * and the oracle answers with the best bound over all landmarks.
+ * Landmarks are chosen farthest-first: each new landmark is the vertex
+ * furthest from those already chosen.  This spreads them across the
+ * graph and across its components.
+ *
+ * The oracle is built from a snapshot of the graph and does not follow
+ * later changes.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class LandmarkOracle<V>
+{
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final VertexDictionary<V> dictionary;
+    private final int[] landmarks;
+    private final DistanceTable fromLandmark;   // row v, column i: d(landmark i, v)
+    private final DistanceTable toLandmark;     // row v, column i: d(v, landmark i)
+
+    private LandmarkOracle(VertexDictionary<V> dictionary, int[] landmarks,
+                           DistanceTable fromLandmark, DistanceTable toLandmark)
+    {
+        this.dictionary = dictionary;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Builds an oracle for a graph.  Runs 2k breadth-first searches.
+     *
+     * @param graph the graph
+     * @param k the number of landmarks; fewer are used if the graph
+     * has fewer vertices
+     * @return an oracle for the graph as it is now
+     */
+    public static <V> LandmarkOracle<V> build(Graph<V> graph, int k)
+    {
+        if(k < 1){
+            throw new IllegalArgumentException("k must be positive");
+        }
+        CsrGraph<V> csr = CsrGraph.copyOf(graph);
+        int n = csr.numVertices();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        CsrGraph<V> reverse = csr.transpose();
+        int[] reverseOffsets = reverse.offsets();
+        int[] reverseTargets = reverse.targets();
+
+        k = Math.min(k, n);
+        int[] landmarks = new int[k];
+        int[][] from = new int[k][];
+        int[][] to = new int[k][];
+        long[] spread = new long[n]; // sum of distances to and from the nearest chosen landmark
+        Arrays.fill(spread, Long.MAX_VALUE);
+        int[] queue = new int[n];
+        for(int i = 0; i < k; ++i){
+            int landmark = i == 0 ? highestDegree(offsets, reverseOffsets) : farthest(spread, offsets, reverseOffsets);
+            landmarks[i] = landmark;
+            from[i] = bfs(landmark, offsets, targets, queue);
+            to[i] = bfs(landmark, reverseOffsets, reverseTargets, queue);
+            for(int v = 0; v < n; ++v){
+                long there = from[i][v] == UNREACHABLE ? n : from[i][v];
+                long back = to[i][v] == UNREACHABLE ? n : to[i][v];
+                spread[v] = Math.min(spread[v], there + back);
+            }
+        }
+        return new LandmarkOracle<V>(csr.dictionary(), landmarks,
+                                     DistanceTable.of(from, n), DistanceTable.of(to, n));
+    }
+
+    /**
+     * @return the landmark vertices
+     */
+    public List<V> getLandmarks()
+    {
+        List<V> result = new ArrayList<V>(landmarks.length);
+        for(int landmark : landmarks){
+            result.add(dictionary.vertexOf(landmark));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Gives a lower bound on the length of the shortest path between
+     * two vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return a number no greater than pathLength(from, to).
+     * Integer.MAX_VALUE means that there is certainly no path.
+     */
+    public int lowerBound(V from, V to)
+    {
+        int s = dictionary.idOf(from);
+        int t = dictionary.idOf(to);
+        if(s < 0 || t < 0){
+            return UNREACHABLE;
+        }
+        if(s == t){
+            return 0;
+        }
+        int k = landmarks.length;
+        int best = 1;
+        for(int i = 0, sRow = s * k, tRow = t * k; i < k; ++i){
+            int landmarkToS = fromLandmark.get(sRow + i);
+            int landmarkToT = fromLandmark.get(tRow + i);
+            int sToLandmark = toLandmark.get(sRow + i);
+            int tToLandmark = toLandmark.get(tRow + i);
+            if(landmarkToS != UNREACHABLE && landmarkToT == UNREACHABLE
+               || sToLandmark == UNREACHABLE && tToLandmark != UNREACHABLE){
+                return UNREACHABLE;
+            }
+            if(landmarkToT != UNREACHABLE && landmarkToS != UNREACHABLE){
+                best = Math.max(best, landmarkToT - landmarkToS);
+            }
+            if(sToLandmark != UNREACHABLE && tToLandmark != UNREACHABLE){
+                best = Math.max(best, sToLandmark - tToLandmark);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gives an upper bound on the length of the shortest path between
+     * two vertices: the length of the shortest path through a
+     * landmark.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return a number no less than pathLength(from, to), or
+     * Integer.MAX_VALUE if no landmark lies on a path between them
+     */
+    public int upperBound(V from, V to)
+    {
+        int s = dictionary.idOf(from);
+        int t = dictionary.idOf(to);
+        if(s < 0 || t < 0){
+            return UNREACHABLE;
+        }
+        if(s == t){
+            return 0;
+        }
+        int k = landmarks.length;
+        int best = UNREACHABLE;
+        for(int i = 0, sRow = s * k, tRow = t * k; i < k; ++i){
+            int sToLandmark = toLandmark.get(sRow + i);
+            int landmarkToT = fromLandmark.get(tRow + i);
+            if(sToLandmark != UNREACHABLE && landmarkToT != UNREACHABLE){
+                best = Math.min(best, sToLandmark + landmarkToT);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the number of bytes used by the distance tables
+     */
+    public long tableBytes()
+    {
+        return fromLandmark.bytes() + toLandmark.bytes();
+    }
+
+    private static int highestDegree(int[] offsets, int[] reverseOffsets)
+    {
+        int best = 0;
+        int bestDegree = -1;
+        for(int v = 0; v + 1 < offsets.length; ++v){
+            int degree = offsets[v + 1] - offsets[v] + reverseOffsets[v + 1] - reverseOffsets[v];
+            if(degree > bestDegree){
+                best = v;
+                bestDegree = degree;
+            }
+        }
+        return best;
+    }
+
+    private static int farthest(long[] spread, int[] offsets, int[] reverseOffsets)
+    {
+        int best = 0;
+        for(int v = 1; v < spread.length; ++v){
+            if(spread[v] > spread[best]
+               || spread[v] == spread[best]
+                  && offsets[v + 1] - offsets[v] + reverseOffsets[v + 1] - reverseOffsets[v]
+                     > offsets[best + 1] - offsets[best] + reverseOffsets[best + 1] - reverseOffsets[best]){
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the distance from 'source' to every vertex, UNREACHABLE
+     * where there is no path
+     */
+    private static int[] bfs(int source, int[] offsets, int[] targets, int[] queue)
+    {
+        int[] dist = new int[offsets.length - 1];
+        Arrays.fill(dist, UNREACHABLE);
+        dist[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while(head < tail){
+            int vert = queue[head++];
+            int next = dist[vert] + 1;
+            for(int i = offsets[vert]; i < offsets[vert + 1]; ++i){
+                int adjVert = targets[i];
+                if(dist[adjVert] == UNREACHABLE){
+                    dist[adjVert] = next;
+                    queue[tail++] = adjVert;
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Distances stored in the narrowest array that holds them all.
+     * The largest value of each width marks an unreachable vertex.
+     */
+    private static final class DistanceTable
+    {
+        private final byte[] bytes;
+        private final short[] shorts;
+        private final int[] ints;
+
+        private DistanceTable(byte[] bytes, short[] shorts, int[] ints)
+        {
+            this.bytes = bytes;
+            this.shorts = shorts;
+            this.ints = ints;
+        }
+
+        /**
+         * @param columns columns[i][v] is the distance for landmark i
+         * and vertex v
+         * @param n the number of vertices
+         */
+        static DistanceTable of(int[][] columns, int n)
+        {
+            int k = columns.length;
+            int max = 0;
+            for(int[] column : columns){
+                for(int d : column){
+                    if(d != UNREACHABLE){
+                        max = Math.max(max, d);
+                    }
+                }
+            }
+            if(max < 0xFF){
+                byte[] bytes = new byte[n * k];
+                for(int i = 0; i < k; ++i){
+                    for(int v = 0; v < n; ++v){
+                        int d = columns[i][v];
+                        bytes[v * k + i] = (byte) (d == UNREACHABLE ? 0xFF : d);
+                    }
+                }
+                return new DistanceTable(bytes, null, null);
+            }
+            if(max < 0xFFFF){
+                short[] shorts = new short[n * k];
+                for(int i = 0; i < k; ++i){
+                    for(int v = 0; v < n; ++v){
+                        int d = columns[i][v];
+                        shorts[v * k + i] = (short) (d == UNREACHABLE ? 0xFFFF : d);
+                    }
+                }
+                return new DistanceTable(null, shorts, null);
+            }
+            int[] ints = new int[n * k];
+            for(int i = 0; i < k; ++i){
+                for(int v = 0; v < n; ++v){
+                    ints[v * k + i] = columns[i][v];
+                }
+            }
+            return new DistanceTable(null, null, ints);
+        }
+
+        int get(int index)
+        {
+            if(bytes != null){
+                int d = bytes[index] & 0xFF;
+                return d == 0xFF ? UNREACHABLE : d;
+            }
+            if(shorts != null){
+                int d = shorts[index] & 0xFFFF;
+                return d == 0xFFFF ? UNREACHABLE : d;
+            }
+            return ints[index];
+        }
+
+        long bytes()
+        {
+            return bytes != null ? bytes.length : shorts != null ? 2L * shorts.length : 4L * ints.length;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package edu.union.adt.graph;
+
+/**
+ * An estimate of the memory a graph uses, broken down into the map
+ * from vertices to their storage, the containers holding the edges,
+ * and any indexes and caches kept besides.  Memory outside the Java
+ * heap is reported apart from the heap.
+ *
+ * The estimates are worked out from the sizes of the arrays and
+ * objects the graph holds, for a 64-bit JVM with compressed references:
+ * 12-byte object headers, 4-byte references, 16-byte array headers and
+ * sizes rounded up to 8 bytes.  That is the layout HotSpot uses for
+ * heaps under 32 GB.  Where a JDK collection hides its capacity, the
+ * capacity it would have grown to is assumed.  The vertex objects are
+ * not counted, since they belong to the caller.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public final class MemoryFootprint
+{
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    static final long HASH_NODE = object(4 * REFERENCE);   // HashMap.Node and ConcurrentHashMap.Node
+
+    private final String implementation;
+    private final int numVertices;
+    private final int numEdges;
+    private final long vertexMapBytes;
+    private final long neighborBytes;
+    private final long indexBytes;
+    private final long offHeapBytes;
+
+    MemoryFootprint(Graph<?> graph, long vertexMapBytes, long neighborBytes, long indexBytes, long offHeapBytes)
+    {
+        this.implementation = graph.getClass().getSimpleName();
+        this.numVertices = graph.numVertices();
+        this.numEdges = graph.numEdges();
+        this.vertexMapBytes = vertexMapBytes;
+        this.neighborBytes = neighborBytes;
+        this.indexBytes = indexBytes;
+        this.offHeapBytes = offHeapBytes;
+    }
+
+    /**
+     * @return the bytes used to find the storage of each vertex,
+     * including the graph object itself
+     */
+    public long getVertexMapBytes()
+    {
+        return vertexMapBytes;
+    }
+
+    /**
+     * @return the heap bytes of the containers holding the edges
+     */
+    public long getNeighborContainerBytes()
+    {
+        return neighborBytes;
+    }
+
+    /**
+     * @return the bytes of indexes and caches, such as old versions
+     * kept for readers
+     */
+    public long getIndexBytes()
+    {
+        return indexBytes;
+    }
+
+    /**
+     * @return the bytes used on the Java heap
+     */
+    public long getHeapBytes()
+    {
+        return vertexMapBytes + neighborBytes + indexBytes;
+    }
+
+    /**
+     * @return the bytes reserved outside the Java heap
+     */
+    public long getOffHeapBytes()
+    {
+        return offHeapBytes;
+    }
+
+    /**
+     * @return the bytes used on and off the heap
+     */
+    public long getTotalBytes()
+    {
+        return getHeapBytes() + offHeapBytes;
+    }
+
+    /**
+     * @return the number of vertices when the estimate was made
+     */
+    public int getNumVertices()
+    {
+        return numVertices;
+    }
+
+    /**
+     * @return the number of edges when the estimate was made
+     */
+    public int getNumEdges()
+    {
+        return numEdges;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s, %d vertices, %d edges: vertex map %s, neighbor containers %s,"
+                             + " indexes and caches %s, off heap %s; total %s (%.1f bytes per edge)",
+                             implementation, numVertices, numEdges, megabytes(vertexMapBytes),
+                             megabytes(neighborBytes), megabytes(indexBytes), megabytes(offHeapBytes),
+                             megabytes(getTotalBytes()), (double) getTotalBytes() / Math.max(1, numEdges));
+    }
+
+    private static String megabytes(long bytes)
+    {
+        return String.format("%.2f MB", bytes / 1e6);
+    }
+
+    /**
+     * @param fieldBytes the total size of the fields of an object
+     * @return the size of the object
+     */
+    static long object(int fieldBytes)
+    {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    /**
+     * @param length the length of an array
+     * @param elementBytes the size of each element
+     * @return the size of the array
+     */
+    static long array(long length, int elementBytes)
+    {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    /**
+     * @return the size of a HashMap holding 'size' entries, with the
+     * table it would have grown to
+     */
+    static long hashMap(int size)
+    {
+        long table = size == 0 ? 0 : array(tableCapacity(size), REFERENCE);
+        return object(4 * REFERENCE + 16) + table + size * HASH_NODE;
+    }
+
+    /**
+     * @return the size of a HashSet holding 'size' elements
+     */
+    static long hashSet(int size)
+    {
+        return object(REFERENCE) + hashMap(size);
+    }
+
+    /**
+     * @return the size of a ConcurrentHashMap holding 'size' entries
+     */
+    static long concurrentHashMap(int size)
+    {
+        long table = size == 0 ? 0 : array(tableCapacity(size), REFERENCE);
+        return object(7 * REFERENCE + 20) + table + size * HASH_NODE;
+    }
+
+    /**
+     * @return the table length of a hash map with a load factor of
+     * 0.75 that has grown to hold 'size' entries
+     */
+    private static long tableCapacity(int size)
+    {
+        long capacity = 16;
+        while(size > capacity * 3 / 4){
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private static long align(long bytes)
+    {
+        return (bytes + 7) & ~7L;
+    }
+}
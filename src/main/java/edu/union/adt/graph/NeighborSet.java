@@ -0,0 +1,285 @@
+package edu.union.adt.graph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * The destinations of the edges leaving one vertex of a
+ * GraphImplementation.  The set is its own read-only view: the graph
+ * changes it through insert and delete, while the Set methods that
+ * would modify it throw UnsupportedOperationException.  adjacentTo
+ * can therefore hand out the stored set itself, without copying or
+ * wrapping it.
+ *
+ * Most vertices of a real graph have a few neighbors and a few have a
+ * great many, so the set changes its layout with its size.  Up to
+ * SORTED_LIMIT neighbors are kept in an array sorted by hash code,
+ * next to an array of the hash codes, so that a lookup compares ints
+ * and only calls equals on a matching hash.  An array with up to
+ * SMALL_LIMIT neighbors is scanned, a longer one is searched by
+ * halves.  The arrays grow as neighbors are added and shrink as they
+ * are removed; a vertex with no neighbors shares one pair of empty
+ * arrays.  Past SORTED_LIMIT neighbors, inserting into the middle of
+ * an array costs too much, and the neighbors move to a HashSet.
+ *
+ * A set moves to a HashSet as soon as it outgrows the arrays, but only
+ * moves back once it has shrunk well below the limit, so a vertex
+ * whose degree hovers around the limit does not copy its neighbors
+ * back and forth.  The arrays list the neighbors by hash code, but
+ * neighbors that share a hash code come in no particular order among
+ * themselves, so two sets with the same neighbors need not iterate
+ * alike.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+final class NeighborSet<V> extends AbstractSet<V>
+{
+    static final int SMALL_LIMIT = 8;
+    static final int SORTED_LIMIT = 512;
+
+    private static final Object[] EMPTY = new Object[0];
+    private static final int[] EMPTY_HASHES = new int[0];
+    private static final Comparator<Object> BY_HASH = (a, b) -> Integer.compare(hash(a), hash(b));
+
+    private Object[] elements = EMPTY;  // the neighbors, ordered by hash, unless there is a hub set
+    private int[] hashes = EMPTY_HASHES; // hashes[i] == hash(elements[i])
+    private HashSet<V> hub;             // the neighbors, once there are too many for the arrays
+    private int size;                   // the number of neighbors in the arrays
+
+    /**
+     * @param vertex the vertex to add
+     * @return true iff the vertex was not already in the set
+     */
+    boolean insert(V vertex)
+    {
+        if(hub != null){
+            return hub.add(vertex);
+        }
+        int h = hash(vertex);
+        int at = find(vertex, h);
+        if(at >= 0){
+            return false;
+        }
+        if(size == SORTED_LIMIT){
+            toHub();
+            return hub.add(vertex);
+        }
+        insertAt(-at - 1, vertex, h);
+        return true;
+    }
+
+    /**
+     * @param vertex the vertex to remove
+     * @return true iff the vertex was in the set
+     */
+    boolean delete(Object vertex)
+    {
+        if(hub != null){
+            if(!hub.remove(vertex)){
+                return false;
+            }
+            if(hub.size() < SORTED_LIMIT / 4){
+                fromHub();
+            }
+            return true;
+        }
+        int at = find(vertex, hash(vertex));
+        if(at < 0){
+            return false;
+        }
+        removeAt(at);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object vertex)
+    {
+        if(hub != null){
+            return hub.contains(vertex);
+        }
+        return find(vertex, hash(vertex)) >= 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return hub != null ? hub.size() : size;
+    }
+
+    /**
+     * @return an estimate of the bytes the set uses, not counting the
+     * vertex objects; the shared empty arrays are free
+     */
+    long sizeInBytes()
+    {
+        long bytes = MemoryFootprint.object(3 * MemoryFootprint.REFERENCE + 4);
+        if(elements != EMPTY){
+            bytes += MemoryFootprint.array(elements.length, MemoryFootprint.REFERENCE)
+                + MemoryFootprint.array(hashes.length, 4);
+        }
+        if(hub != null){
+            bytes += MemoryFootprint.hashSet(hub.size());
+        }
+        return bytes;
+    }
+
+    @Override
+    public Iterator<V> iterator()
+    {
+        if(hub != null){
+            Iterator<V> iterator = hub.iterator();
+            return new Iterator<V>() {
+                @Override
+                public boolean hasNext()
+                {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public V next()
+                {
+                    return iterator.next();
+                }
+            };
+        }
+        return new Iterator<V>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return next < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next()
+            {
+                if(next >= size){
+                    throw new NoSuchElementException();
+                }
+                return (V) elements[next++];
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> action)
+    {
+        if(hub != null){
+            hub.forEach(action);
+            return;
+        }
+        for(int i = 0; i < size; ++i){
+            action.accept((V) elements[i]);
+        }
+    }
+
+    /**
+     * Spreads the high bits of the hash code into the low ones, as
+     * HashMap does.
+     */
+    private static int hash(Object vertex)
+    {
+        int h = vertex == null ? 0 : vertex.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Finds a vertex in the arrays.
+     *
+     * @return the index of the vertex, or -(insertion point) - 1 if
+     * it is not in the set, as Arrays.binarySearch does
+     */
+    private int find(Object vertex, int h)
+    {
+        int low = 0;
+        if(size > SMALL_LIMIT){
+            int high = size;
+            while(low < high){ // the first index whose hash is not below h
+                int mid = (low + high) >>> 1;
+                if(hashes[mid] < h){
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+        } else {
+            while(low < size && hashes[low] < h){
+                ++low;
+            }
+        }
+        for(; low < size && hashes[low] == h; ++low){
+            if(elements[low].equals(vertex)){
+                return low;
+            }
+        }
+        return -low - 1;
+    }
+
+    private void insertAt(int at, V vertex, int h)
+    {
+        if(size == elements.length){
+            int length = elements.length;
+            int grown = length < SMALL_LIMIT ? Math.max(2, length * 2) : length + (length >> 1);
+            resize(Math.min(grown, SORTED_LIMIT));
+        }
+        System.arraycopy(elements, at, elements, at + 1, size - at);
+        System.arraycopy(hashes, at, hashes, at + 1, size - at);
+        elements[at] = vertex;
+        hashes[at] = h;
+        ++size;
+    }
+
+    private void removeAt(int at)
+    {
+        --size;
+        System.arraycopy(elements, at + 1, elements, at, size - at);
+        System.arraycopy(hashes, at + 1, hashes, at, size - at);
+        elements[size] = null;
+        if(size == 0){
+            elements = EMPTY;
+            hashes = EMPTY_HASHES;
+        } else if(size < elements.length / 4){
+            resize(elements.length / 2);
+        }
+    }
+
+    private void resize(int length)
+    {
+        elements = Arrays.copyOf(elements, length);
+        hashes = Arrays.copyOf(hashes, length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void toHub()
+    {
+        hub = new HashSet<V>(4 * size);
+        for(int i = 0; i < size; ++i){
+            hub.add((V) elements[i]);
+        }
+        elements = EMPTY;
+        hashes = EMPTY_HASHES;
+        size = 0;
+    }
+
+    private void fromHub()
+    {
+        Object[] sorted = hub.toArray();
+        Arrays.sort(sorted, BY_HASH);
+        size = sorted.length;
+        elements = Arrays.copyOf(sorted, 2 * size);
+        hashes = new int[elements.length];
+        for(int i = 0; i < size; ++i){
+            hashes[i] = hash(elements[i]);
+        }
+        hub = null;
+    }
+}
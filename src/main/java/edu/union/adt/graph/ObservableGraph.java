@@ -0,0 +1,279 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A graph that reports its changes to listeners.  Wraps another
+ * graph, passing every call through to it, and publishes one
+ * {@link GraphEvent} for each vertex or edge actually added or
+ * removed; calls that change nothing publish nothing.  Removing a
+ * vertex publishes the removal of each edge into or out of it before
+ * the removal of the vertex itself.
+ *
+ * Events go through a {@link GraphEventPublisher}, so the mutating
+ * methods never wait for the listeners.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class ObservableGraph<V> implements Graph<V>, AutoCloseable
+{
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int DEFAULT_MAX_BATCH = 1024;
+
+    private final Graph<V> graph;
+    private final GraphEventPublisher<V> publisher;
+
+    /**
+     * Create an observable view of a graph, with a ring of 65536
+     * events.
+     *
+     * @param graph the graph to observe; it must only be changed
+     * through the view
+     */
+    public ObservableGraph(Graph<V> graph)
+    {
+        this(graph, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * Create an observable view of a graph.
+     *
+     * @param graph the graph to observe; it must only be changed
+     * through the view
+     * @param capacity the number of undelivered events to hold before
+     * dropping events
+     * @param maxBatch the largest number of events passed to a
+     * listener at once
+     */
+    public ObservableGraph(Graph<V> graph, int capacity, int maxBatch)
+    {
+        this.graph = graph;
+        this.publisher = new GraphEventPublisher<V>(capacity, maxBatch);
+    }
+
+    /**
+     * @param listener a listener to receive every later change
+     */
+    public void addListener(GraphListener<V> listener)
+    {
+        publisher.addListener(listener);
+    }
+
+    /**
+     * @param listener a listener to stop receiving changes
+     */
+    public void removeListener(GraphListener<V> listener)
+    {
+        publisher.removeListener(listener);
+    }
+
+    /**
+     * Waits until every change made so far has been delivered to the
+     * listeners.
+     */
+    public void flush()
+    {
+        publisher.flush();
+    }
+
+    /**
+     * Delivers the outstanding changes and stops the delivery thread.
+     * Later changes to the graph are not reported.
+     */
+    @Override
+    public void close()
+    {
+        publisher.close();
+    }
+
+    /**
+     * @return the graph being observed
+     */
+    public Graph<V> getGraph()
+    {
+        return graph;
+    }
+
+    public int numVertices()
+    {
+        return graph.numVertices();
+    }
+
+    public int numEdges()
+    {
+        return graph.numEdges();
+    }
+
+    public int degree(V vertex)
+    {
+        return graph.degree(vertex);
+    }
+
+    /**
+     * Adds a directed edge between two vertices, publishing
+     * VERTEX_ADDED for each vertex that was not in the graph and
+     * EDGE_ADDED if the edge was not.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public void addEdge(V from, V to)
+    {
+        if(from == null || to == null || graph.hasEdge(from, to)){
+            graph.addEdge(from, to);
+            return;
+        }
+        boolean newFrom = !graph.contains(from);
+        boolean newTo = !to.equals(from) && !graph.contains(to);
+        graph.addEdge(from, to);
+        if(newFrom){
+            publisher.publish(GraphEvent.vertex(GraphEvent.Type.VERTEX_ADDED, from));
+        }
+        if(newTo){
+            publisher.publish(GraphEvent.vertex(GraphEvent.Type.VERTEX_ADDED, to));
+        }
+        publisher.publish(GraphEvent.edge(GraphEvent.Type.EDGE_ADDED, from, to));
+    }
+
+    /**
+     * Adds a vertex to the graph, publishing VERTEX_ADDED if it was
+     * not already there.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex)
+    {
+        boolean added = vertex != null && !graph.contains(vertex);
+        graph.addVertex(vertex);
+        if(added){
+            publisher.publish(GraphEvent.vertex(GraphEvent.Type.VERTEX_ADDED, vertex));
+        }
+    }
+
+    public Iterable<V> getVertices()
+    {
+        return graph.getVertices();
+    }
+
+    public Iterable<V> adjacentTo(V from)
+    {
+        return graph.adjacentTo(from);
+    }
+
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        graph.forEachNeighbor(from, action);
+    }
+
+    public boolean contains(V vertex)
+    {
+        return graph.contains(vertex);
+    }
+
+    public boolean hasEdge(V from, V to)
+    {
+        return graph.hasEdge(from, to);
+    }
+
+    public boolean isEmpty()
+    {
+        return graph.isEmpty();
+    }
+
+    /**
+     * Removes a vertex from the graph.  Publishes EDGE_REMOVED for
+     * each edge leaving the vertex, then for each edge entering it
+     * from another vertex, then VERTEX_REMOVED.  Finding the entering
+     * edges checks every vertex of the graph.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    public void removeVertex(V toRemove)
+    {
+        if(!graph.contains(toRemove)){
+            return;
+        }
+        List<GraphEvent<V>> events = new ArrayList<GraphEvent<V>>();
+        graph.forEachNeighbor(toRemove,
+                              to -> events.add(GraphEvent.edge(GraphEvent.Type.EDGE_REMOVED, toRemove, to)));
+        for(V other : graph.getVertices()){
+            if(!other.equals(toRemove) && graph.hasEdge(other, toRemove)){
+                events.add(GraphEvent.edge(GraphEvent.Type.EDGE_REMOVED, other, toRemove));
+            }
+        }
+        events.add(GraphEvent.vertex(GraphEvent.Type.VERTEX_REMOVED, toRemove));
+        graph.removeVertex(toRemove);
+        for(GraphEvent<V> event : events){
+            publisher.publish(event);
+        }
+    }
+
+    /**
+     * Removes an edge from the graph, publishing EDGE_REMOVED if it
+     * was there.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     */
+    public void removeEdge(V from, V to)
+    {
+        boolean removed = graph.hasEdge(from, to);
+        graph.removeEdge(from, to);
+        if(removed){
+            publisher.publish(GraphEvent.edge(GraphEvent.Type.EDGE_REMOVED, from, to));
+        }
+    }
+
+    public boolean hasPath(V from, V to)
+    {
+        return graph.hasPath(from, to);
+    }
+
+    public int pathLength(V from, V to)
+    {
+        return graph.pathLength(from, to);
+    }
+
+    public Iterable<V> getPath(V from, V to)
+    {
+        return graph.getPath(from, to);
+    }
+
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        return graph.search(from, to, limits);
+    }
+
+    /**
+     * Estimates the memory the graph uses: that of the graph being
+     * observed, with the ring of undelivered events counted in the
+     * indexes and caches.
+     *
+     * @return the estimate
+     * @throws UnsupportedOperationException if the graph being
+     * observed does not estimate its memory
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        MemoryFootprint observed = graph.memoryFootprint();
+        return new MemoryFootprint(this,
+                                   MemoryFootprint.object(2 * MemoryFootprint.REFERENCE) + observed.getVertexMapBytes(),
+                                   observed.getNeighborContainerBytes(),
+                                   observed.getIndexBytes() + publisher.sizeInBytes(),
+                                   observed.getOffHeapBytes());
+    }
+
+    /**
+     * @return the string representation of the graph being observed
+     */
+    public String toString()
+    {
+        return graph.toString();
+    }
+}
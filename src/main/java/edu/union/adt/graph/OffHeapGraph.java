@@ -0,0 +1,588 @@
+package edu.union.adt.graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * A graph whose edges live outside the Java heap, so that a large
+ * graph adds nothing for the garbage collector to trace.  Only the
+ * {@link VertexDictionary} that gives vertices their ids is on the
+ * heap.
+ *
+ * Everything else is in direct memory handed out by a slab allocator:
+ * a table with a 16-byte record per vertex id (the address of its
+ * neighbor block, its degree and the block's capacity), and for each
+ * vertex a block holding the sorted destination ids of its edges.  The
+ * table is split into chunks of one slab each, so that it grows
+ * without being copied and without any one block outgrowing a slab.
+ * Blocks come in power-of-two sizes; a vertex that outgrows its block
+ * moves to one twice the size and the old block is reused by the next
+ * vertex that needs one of that size.
+ *
+ * The memory is freed by close().  The graph cannot be used after it
+ * is closed; a graph that is never closed frees its memory when it is
+ * garbage collected.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class OffHeapGraph<V> implements Graph<V>, AutoCloseable
+{
+    private static final int DEFAULT_SLAB_BYTES = 1 << 22;
+    private static final int RECORD_BYTES = 16;   // long block, int degree, int capacity
+
+    private final VertexDictionary<V> dictionary;
+    private final SlabAllocator slabs;
+    private final int chunkShift;          // a chunk of the table holds 1 << chunkShift records
+    private long[] chunks = new long[4];   // the chunks of vertex records, in id order
+    private int numChunks;
+    private long tableCapacity;            // the number of records the chunks have room for
+    private int numEdges;
+
+    /**
+     * Create an empty graph that allocates direct memory in slabs of
+     * 4 MB.
+     */
+    public OffHeapGraph()
+    {
+        this(DEFAULT_SLAB_BYTES);
+    }
+
+    /**
+     * Create an empty graph.
+     *
+     * @param slabBytes the size of each slab of direct memory
+     */
+    public OffHeapGraph(int slabBytes)
+    {
+        this.dictionary = new VertexDictionary<V>();
+        this.slabs = new SlabAllocator(slabBytes);
+        this.chunkShift = Integer.numberOfTrailingZeros(Integer.highestOneBit(slabBytes / RECORD_BYTES));
+        this.tableCapacity = Math.min(16, 1 << chunkShift);
+        this.chunks[numChunks++] = slabs.allocate((int) tableCapacity * RECORD_BYTES);
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int numVertices()
+    {
+        return dictionary.size();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    public int numEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    public int degree(V vertex)
+    {
+        checkOpen();
+        int id = dictionary.idOf(vertex);
+        if(id < 0){
+            throw new RuntimeException("vertex is not in the graph");
+        }
+        return degreeOf(id);
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already an edge
+     * between the given vertices, does nothing.  If either (or both)
+     * of the given vertices does not exist, it is added to the
+     * graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public void addEdge(V from, V to)
+    {
+        checkOpen();
+        if(from != null && to != null){
+            int fromId = addVertexId(from);
+            int toId = addVertexId(to);
+            int degree = degreeOf(fromId);
+            long block = blockOf(fromId);
+            int index = indexOf(block, degree, toId);
+            if(index < 0){
+                index = -index - 1;
+                if(degree == capacityOf(fromId)){
+                    block = grow(fromId, block, degree);
+                }
+                slabs.copy(block + 4L * index, block + 4L * (index + 1), 4 * (degree - index));
+                slabs.putInt(block, index, toId);
+                setDegree(fromId, degree + 1);
+                ++numEdges;
+            }
+        }
+    }
+
+    /**
+     * Moves the neighbors of a vertex to a block twice the size.
+     *
+     * @return the new block
+     */
+    private long grow(int id, long block, int degree)
+    {
+        int bytes = SlabAllocator.blockSize(4 * Math.max(4, degree * 2));
+        long grown = slabs.allocate(bytes);
+        if(block != SlabAllocator.NULL){
+            slabs.copy(block, grown, 4 * degree);
+            slabs.free(block, 4 * capacityOf(id));
+        }
+        setBlock(id, grown, bytes / 4);
+        return grown;
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.  If the vertex does not exist, it is
+     * added to the graph, with no edges connected to it.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex)
+    {
+        checkOpen();
+        if(vertex != null){
+            addVertexId(vertex);
+        }
+    }
+
+    private int addVertexId(V vertex)
+    {
+        int id = dictionary.idOf(vertex);
+        if(id >= 0){
+            return id;
+        }
+        // make room first, so that a vertex is never interned without a record
+        if(dictionary.idLimit() == Integer.MAX_VALUE){
+            throw new IllegalStateException("the graph has run out of vertex ids");
+        }
+        ensureRecords(dictionary.idLimit() + 1L);
+        id = dictionary.intern(vertex);
+        setBlock(id, SlabAllocator.NULL, 0);
+        setDegree(id, 0);
+        return id;
+    }
+
+    /**
+     * Grows the table to hold at least 'records' records.  The first
+     * chunk doubles until it fills a slab; later chunks are added
+     * whole.
+     */
+    private void ensureRecords(long records)
+    {
+        int chunkRecords = 1 << chunkShift;
+        if(records > tableCapacity && tableCapacity < chunkRecords){
+            int capacity = (int) Math.min(chunkRecords, Math.max(2 * tableCapacity, records));
+            long grown = slabs.allocate(capacity * RECORD_BYTES);
+            slabs.copy(chunks[0], grown, (int) tableCapacity * RECORD_BYTES);
+            slabs.free(chunks[0], (int) tableCapacity * RECORD_BYTES);
+            chunks[0] = grown;
+            tableCapacity = capacity;
+        }
+        while(records > tableCapacity){
+            if(numChunks == chunks.length){
+                chunks = Arrays.copyOf(chunks, numChunks * 2);
+            }
+            chunks[numChunks++] = slabs.allocate(chunkRecords * RECORD_BYTES);
+            tableCapacity += chunkRecords;
+        }
+    }
+
+    /**
+     * @return the an iterable collection for the set of vertices of
+     * the graph, in id order.
+     */
+    public Iterable<V> getVertices()
+    {
+        return dictionary::iterator;
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, in id order.  The
+     * returned list is a read-only view of the graph's memory.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    public Iterable<V> adjacentTo(V from)
+    {
+        checkOpen();
+        int id = dictionary.idOf(from);
+        if(id < 0){
+            return Collections.emptyList();
+        }
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index)
+            {
+                checkOpen();
+                if(index < 0 || index >= degreeOf(id)){
+                    throw new IndexOutOfBoundsException(String.valueOf(index));
+                }
+                return dictionary.vertexOf(slabs.getInt(blockOf(id), index));
+            }
+
+            @Override
+            public int size()
+            {
+                checkOpen();
+                return degreeOf(id);
+            }
+        };
+    }
+
+    /**
+     * Passes each vertex adjacent to a given vertex to an action,
+     * reading the ids straight from direct memory.
+     *
+     * @param from the source vertex
+     * @param action called once for each vertex adjacent to 'from'
+     */
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        checkOpen();
+        int id = dictionary.idOf(from);
+        if(id >= 0){
+            long block = blockOf(id);
+            for(int i = 0, degree = degreeOf(id); i < degree; ++i){
+                action.accept(dictionary.vertexOf(slabs.getInt(block, i)));
+            }
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    public boolean contains(V vertex)
+    {
+        return dictionary.idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    public boolean hasEdge(V from, V to)
+    {
+        checkOpen();
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        return fromId >= 0 && toId >= 0 && indexOf(blockOf(fromId), degreeOf(fromId), toId) >= 0;
+    }
+
+    /**
+     * Gives a string representation of the graph, in the same form as
+     * GraphImplementation.
+     *
+     * @return the string representation of the graph
+     */
+    public String toString()
+    {
+        return Graphs.toString(this);
+    }
+
+    /**
+    * equal method for Graph
+    *
+    * @param obj the arbitrary object
+    * @return true if this is equal to obj
+    */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        OffHeapGraph graph = (OffHeapGraph) obj;
+        return this.toString().equals(graph.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+
+    /**
+     * Estimates the memory the graph uses.  Only the vertex dictionary
+     * and the slab buffers are on the heap; the vertex records and
+     * neighbor arrays are in the slabs, counted off the heap.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        long vertexMap = MemoryFootprint.object(3 * MemoryFootprint.REFERENCE + 20)
+            + MemoryFootprint.array(chunks.length, 8) + dictionary.sizeInBytes();
+        return new MemoryFootprint(this, vertexMap, slabs.heapBytes(), 0, slabs.reservedBytes());
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty.
+     */
+    public boolean isEmpty()
+    {
+        return dictionary.size() == 0;
+    }
+
+    /**
+     * Removes and vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge.  The id of the vertex
+     * and its neighbor block are freed for reuse.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    public void removeVertex(V toRemove)
+    {
+        checkOpen();
+        int id = dictionary.idOf(toRemove);
+        if(id >= 0){
+            for(int other = 0; other < dictionary.idLimit(); ++other){
+                if(other != id && degreeOf(other) > 0){
+                    removeEdgeId(other, id);
+                }
+            }
+            numEdges -= degreeOf(id);
+            long block = blockOf(id);
+            if(block != SlabAllocator.NULL){
+                slabs.free(block, 4 * capacityOf(id));
+            }
+            setBlock(id, SlabAllocator.NULL, 0);
+            setDegree(id, 0);
+            dictionary.remove(toRemove);
+        }
+    }
+
+    /**
+     * Removes an edge from the graph.
+     *
+     * <p>Postcondition: If from and to were in the graph and (from,
+     * to) was an edge in the graph, then numEdges = numEdges' - 1
+     */
+    public void removeEdge(V from, V to)
+    {
+        checkOpen();
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        if(fromId >= 0 && toId >= 0){
+            removeEdgeId(fromId, toId);
+        }
+    }
+
+    private void removeEdgeId(int fromId, int toId)
+    {
+        long block = blockOf(fromId);
+        int degree = degreeOf(fromId);
+        int index = indexOf(block, degree, toId);
+        if(index >= 0){
+            slabs.copy(block + 4L * (index + 1), block + 4L * index, 4 * (degree - index - 1));
+            setDegree(fromId, degree - 1);
+            --numEdges;
+        }
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).isFound();
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getLength();
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to', empty if there is no path.
+     */
+    public Iterable<V> getPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * without exceeding the given limits.  The search runs on vertex
+     * ids read from direct memory; its queue, its visited marks and a
+     * copy of the neighbors of the vertex it is expanding are on the
+     * heap only while it runs.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @return FOUND with the shortest path, NOT_FOUND or LIMIT_EXCEEDED
+     */
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        checkOpen();
+        return IdSearch.search(dictionary, adjacency(), from, to, limits, null);
+    }
+
+    /**
+     * @return the edges of the graph for one search, which copies the
+     * destinations of the edges leaving each vertex it visits onto the
+     * heap
+     */
+    private IdSearch.Adjacency adjacency()
+    {
+        return new IdSearch.Adjacency() {
+            private int[] scratch = new int[16];
+
+            @Override
+            int[] targets(int id, int[] range)
+            {
+                int degree = degreeOf(id);
+                range[0] = 0;
+                range[1] = degree;
+                if(scratch.length < degree){
+                    scratch = new int[Math.max(degree, scratch.length * 2)];
+                }
+                long block = blockOf(id);
+                for(int i = 0; i < degree; ++i){
+                    scratch[i] = slabs.getInt(block, i);
+                }
+                return scratch;
+            }
+        };
+    }
+
+    /**
+     * @return the number of bytes of direct memory the graph holds
+     */
+    public long offHeapBytes()
+    {
+        return slabs.reservedBytes();
+    }
+
+    /**
+     * Frees the direct memory of the graph.  Does nothing if the
+     * graph is already closed.
+     */
+    @Override
+    public void close()
+    {
+        slabs.close();
+    }
+
+    private void checkOpen()
+    {
+        if(slabs.isClosed()){
+            throw new IllegalStateException("the graph has been closed");
+        }
+    }
+
+    /**
+     * @return the address of the chunk holding the record of 'id'
+     */
+    private long chunkOf(int id)
+    {
+        return chunks[id >>> chunkShift];
+    }
+
+    /**
+     * @return the index of the first int of the record of 'id' in its
+     * chunk
+     */
+    private int recordOf(int id)
+    {
+        return (id & (1 << chunkShift) - 1) * (RECORD_BYTES / 4);
+    }
+
+    private long blockOf(int id)
+    {
+        return slabs.getLong(chunkOf(id), recordOf(id) * 4);
+    }
+
+    private void setBlock(int id, long block, int capacity)
+    {
+        slabs.putLong(chunkOf(id), recordOf(id) * 4, block);
+        slabs.putInt(chunkOf(id), recordOf(id) + 3, capacity);
+    }
+
+    private int degreeOf(int id)
+    {
+        return slabs.getInt(chunkOf(id), recordOf(id) + 2);
+    }
+
+    private void setDegree(int id, int degree)
+    {
+        slabs.putInt(chunkOf(id), recordOf(id) + 2, degree);
+    }
+
+    private int capacityOf(int id)
+    {
+        return slabs.getInt(chunkOf(id), recordOf(id) + 3);
+    }
+
+    /**
+     * Binary search of the sorted ids in a neighbor block.
+     *
+     * @return the index of 'id', or -(insertion point) - 1
+     */
+    private int indexOf(long block, int degree, int id)
+    {
+        int low = 0;
+        int high = degree - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int midId = slabs.getInt(block, mid);
+            if(midId < id){
+                low = mid + 1;
+            } else if(midId > id){
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+}
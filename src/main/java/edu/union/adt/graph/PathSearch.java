@@ -0,0 +1,134 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Breadth-first searches over any Graph, using only adjacentTo and
+ * forEachNeighbor.  These are the searches behind the default
+ * {@link Graph#search} and {@link Graph#neighborhood}; graph
+ * implementations with a faster traversal override those methods.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+final class PathSearch
+{
+    private PathSearch()
+    {
+    }
+
+    /**
+     * Searches for a shortest path between two vertices of a graph.
+     *
+     * @param graph the graph to search
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @return the result of the search
+     */
+    static <V> SearchResult<V> search(Graph<V> graph, V from, V to, SearchLimits limits)
+    {
+        if(!graph.contains(from) || !graph.contains(to)){
+            return SearchResult.notFound();
+        }
+        Map<V, V> prevVertex = new HashMap<V, V>();
+        prevVertex.put(from, null);
+        if(from.equals(to)){
+            return SearchResult.found(pathTo(to, prevVertex));
+        }
+
+        Queue<V> vertexQueue = new ArrayDeque<V>();
+        vertexQueue.add(from);
+        int depth = 0;
+        int remainingInLevel = 1;
+        while(!vertexQueue.isEmpty()){
+            if(limits.deadlinePassed()){
+                return SearchResult.limitExceeded();
+            }
+            V vert = vertexQueue.poll();
+            for(V adjVert : graph.adjacentTo(vert)){
+                if(!prevVertex.containsKey(adjVert)){
+                    if(depth >= limits.maxDepth()){
+                        return SearchResult.limitExceeded();
+                    }
+                    if(adjVert.equals(to)){
+                        prevVertex.put(adjVert, vert);
+                        return SearchResult.found(pathTo(to, prevVertex));
+                    }
+                    if(prevVertex.size() >= limits.maxVisited()){
+                        return SearchResult.limitExceeded();
+                    }
+                    prevVertex.put(adjVert, vert);
+                    vertexQueue.add(adjVert);
+                }
+            }
+            if(--remainingInLevel == 0){
+                ++depth;
+                remainingInLevel = vertexQueue.size();
+            }
+        }
+        return SearchResult.notFound();
+    }
+
+    /**
+     * Collects the vertices within k hops of a vertex, one BFS level
+     * at a time, stopping after level k.
+     *
+     * @param graph the graph to search
+     * @param center the vertex to start from
+     * @param k the largest number of hops
+     * @return the vertices found, in breadth-first order
+     */
+    static <V> Set<V> neighborhood(Graph<V> graph, V center, int k)
+    {
+        if(k < 0){
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        if(!graph.contains(center)){
+            return Collections.emptySet();
+        }
+        Set<V> found = new LinkedHashSet<V>();
+        found.add(center);
+        List<V> level = Collections.singletonList(center);
+        for(int depth = 0; depth < k && !level.isEmpty(); ++depth){
+            List<V> nextLevel = new ArrayList<V>();
+            for(V vert : level){
+                graph.forEachNeighbor(vert, adjVert -> {
+                        if(found.add(adjVert)){
+                            nextLevel.add(adjVert);
+                        }
+                    });
+            }
+            level = nextLevel;
+        }
+        return Collections.unmodifiableSet(found);
+    }
+
+    /**
+     * Walks the previous-vertex links back from a vertex to the source.
+     *
+     * @param to the last vertex of the path
+     * @param prevVertex maps each visited vertex to the vertex it was
+     * reached from; the source maps to null
+     * @return the path from the source to 'to'
+     */
+    static <V> LinkedList<V> pathTo(V to, Map<V, V> prevVertex)
+    {
+        LinkedList<V> path = new LinkedList<V>();
+        V curVert = to;
+        while(curVert != null){
+            path.addFirst(curVert);
+            curVert = prevVertex.get(curVert);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,381 @@
+package edu.union.adt.graph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set that makes changed copies of itself cheaply, for the
+ * neighbor sets of a {@link VersionedGraph}, where every version of a
+ * vertex keeps its own set.
+ *
+ * The set is a hash array mapped trie: each node splits the elements
+ * below it by the next 5 bits of their hash codes, and keeps, in a
+ * 32-bit map, which of the 32 slots are in use, so that it stores only
+ * those slots.  A slot holds an element, or the node of the elements
+ * that share those bits.  Adding or removing an element copies only
+ * the nodes on its path, O(log n) of them with a handful of slots
+ * each; the copy shares every other node with the set it came from.
+ * Elements whose hash codes are equal sit in a single leaf node past
+ * the last bits, and are compared one by one.
+ *
+ * The Set methods that would modify the set throw
+ * UnsupportedOperationException; with and without return the changed
+ * copy instead.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+final class PersistentSet<V> extends AbstractSet<V>
+{
+    private static final int BITS = 5;
+    private static final int MAX_SHIFT = 30;   // nodes past this are leaves of equal hash codes
+    private static final PersistentSet<Object> EMPTY = new PersistentSet<Object>(null, 0);
+
+    private final Node root;   // null iff the set is empty
+    private final int size;
+
+    /**
+     * The elements whose hash codes agree below 'shift'.  Below
+     * MAX_SHIFT, bitmap tells which slots are used and slots holds
+     * them in order, each an element or a Node; in a leaf, slots holds
+     * the elements themselves and bitmap is unused.
+     */
+    private static final class Node
+    {
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots)
+        {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    private PersistentSet(Node root, int size)
+    {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return the empty set
+     */
+    @SuppressWarnings("unchecked")
+    static <V> PersistentSet<V> empty()
+    {
+        return (PersistentSet<V>) EMPTY;
+    }
+
+    /**
+     * @param element the element to add; not null
+     * @return a set with the elements of this one and 'element', or
+     * this set if it already holds 'element'
+     */
+    PersistentSet<V> with(V element)
+    {
+        int hash = hash(element);
+        if(root == null){
+            return new PersistentSet<V>(new Node(bit(hash, 0), new Object[] { element }), 1);
+        }
+        Node added = with(root, element, hash, 0);
+        return added == root ? this : new PersistentSet<V>(added, size + 1);
+    }
+
+    /**
+     * @param element the element to remove
+     * @return a set with the elements of this one but 'element', or
+     * this set if it does not hold 'element'
+     */
+    PersistentSet<V> without(Object element)
+    {
+        if(root == null || element == null){
+            return this;
+        }
+        Object removed = without(root, element, hash(element), 0);
+        if(removed == root){
+            return this;
+        }
+        if(size == 1){
+            return empty();
+        }
+        return new PersistentSet<V>(removed instanceof Node ? (Node) removed : single(removed), size - 1);
+    }
+
+    @Override
+    public boolean contains(Object element)
+    {
+        if(element == null){
+            return false;
+        }
+        int hash = hash(element);
+        Node node = root;
+        for(int shift = 0; node != null; shift += BITS){
+            if(shift > MAX_SHIFT){
+                for(Object slot : node.slots){
+                    if(slot.equals(element)){
+                        return true;
+                    }
+                }
+                return false;
+            }
+            int bit = bit(hash, shift);
+            if((node.bitmap & bit) == 0){
+                return false;
+            }
+            Object slot = node.slots[index(node.bitmap, bit)];
+            if(!(slot instanceof Node)){
+                return slot.equals(element);
+            }
+            node = (Node) slot;
+        }
+        return false;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return an iterator over the elements, in the order of their
+     * hash codes' bits
+     */
+    @Override
+    public Iterator<V> iterator()
+    {
+        return new Iterator<V>() {
+            private final Node[] nodes = new Node[MAX_SHIFT / BITS + 2];
+            private final int[] positions = new int[nodes.length];
+            private int depth = root == null ? -1 : 0;
+            private Object next;
+
+            {
+                nodes[0] = root;
+                next = advance();
+            }
+
+            /**
+             * @return the next element in depth-first order, or null
+             */
+            private Object advance()
+            {
+                while(depth >= 0){
+                    Node node = nodes[depth];
+                    if(positions[depth] == node.slots.length){
+                        --depth;
+                        continue;
+                    }
+                    Object slot = node.slots[positions[depth]++];
+                    if(!(slot instanceof Node)){
+                        return slot;
+                    }
+                    ++depth;
+                    nodes[depth] = (Node) slot;
+                    positions[depth] = 0;
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return next != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next()
+            {
+                if(next == null){
+                    throw new NoSuchElementException();
+                }
+                Object element = next;
+                next = advance();
+                return (V) element;
+            }
+        };
+    }
+
+    /**
+     * @return the number of bytes used by the set, laid out as
+     * {@link MemoryFootprint} assumes; the shared empty set uses none
+     */
+    long sizeInBytes()
+    {
+        return root == null ? 0 : MemoryFootprint.object(MemoryFootprint.REFERENCE + 4) + nodeBytes(root, null);
+    }
+
+    /**
+     * @return the number of bytes used by the nodes of this set that
+     * it does not share with 'other'
+     */
+    long sizeInBytesBeyond(PersistentSet<?> other)
+    {
+        if(root == null || other == this){
+            return 0;
+        }
+        return MemoryFootprint.object(MemoryFootprint.REFERENCE + 4) + nodeBytes(root, other.root);
+    }
+
+    /**
+     * Counts the nodes under 'node' that are not under 'shared'.  The
+     * two are walked side by side: a node can only be shared if it
+     * is in the same slot of the same path.
+     */
+    private static long nodeBytes(Node node, Node shared)
+    {
+        if(node == shared){
+            return 0;
+        }
+        long bytes = MemoryFootprint.object(4 + MemoryFootprint.REFERENCE)
+            + MemoryFootprint.array(node.slots.length, MemoryFootprint.REFERENCE);
+        int bits = node.bitmap;
+        for(Object slot : node.slots){
+            int bit = Integer.lowestOneBit(bits);
+            bits &= bits - 1;
+            if(slot instanceof Node){
+                Object other = shared == null || (shared.bitmap & bit) == 0 ? null
+                    : shared.slots[index(shared.bitmap, bit)];
+                bytes += nodeBytes((Node) slot, other instanceof Node ? (Node) other : null);
+            }
+        }
+        return bytes;
+    }
+
+    private static Node with(Node node, Object element, int hash, int shift)
+    {
+        if(shift > MAX_SHIFT){
+            for(Object slot : node.slots){
+                if(slot.equals(element)){
+                    return node;
+                }
+            }
+            Object[] slots = Arrays.copyOf(node.slots, node.slots.length + 1);
+            slots[node.slots.length] = element;
+            return new Node(0, slots);
+        }
+        int bit = bit(hash, shift);
+        int at = index(node.bitmap, bit);
+        if((node.bitmap & bit) == 0){
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, at);
+            slots[at] = element;
+            System.arraycopy(node.slots, at, slots, at + 1, node.slots.length - at);
+            return new Node(node.bitmap | bit, slots);
+        }
+        Object slot = node.slots[at];
+        Object replaced;
+        if(slot instanceof Node){
+            replaced = with((Node) slot, element, hash, shift + BITS);
+            if(replaced == slot){
+                return node;
+            }
+        } else if(slot.equals(element)){
+            return node;
+        } else {
+            replaced = pair(slot, hash(slot), element, hash, shift + BITS);
+        }
+        Object[] slots = node.slots.clone();
+        slots[at] = replaced;
+        return new Node(node.bitmap, slots);
+    }
+
+    /**
+     * @return a node holding two elements that share their hash bits
+     * below 'shift'
+     */
+    private static Node pair(Object a, int hashA, Object b, int hashB, int shift)
+    {
+        if(shift > MAX_SHIFT){
+            return new Node(0, new Object[] { a, b });
+        }
+        int bitA = bit(hashA, shift);
+        int bitB = bit(hashB, shift);
+        if(bitA == bitB){
+            return new Node(bitA, new Object[] { pair(a, hashA, b, hashB, shift + BITS) });
+        }
+        boolean aFirst = Integer.compareUnsigned(bitA, bitB) < 0; // slots go by bit, and bit 31 is negative
+        return new Node(bitA | bitB, aFirst ? new Object[] { a, b } : new Object[] { b, a });
+    }
+
+    /**
+     * @return the node without 'element', 'node' itself if it does not
+     * hold it, or the one element left in place of a node that would
+     * hold nothing else
+     */
+    private static Object without(Node node, Object element, int hash, int shift)
+    {
+        if(shift > MAX_SHIFT){
+            for(int i = 0; i < node.slots.length; ++i){
+                if(node.slots[i].equals(element)){
+                    if(node.slots.length == 2){
+                        return node.slots[1 - i];
+                    }
+                    return new Node(0, remove(node.slots, i));
+                }
+            }
+            return node;
+        }
+        int bit = bit(hash, shift);
+        if((node.bitmap & bit) == 0){
+            return node;
+        }
+        int at = index(node.bitmap, bit);
+        Object slot = node.slots[at];
+        if(slot instanceof Node){
+            Object removed = without((Node) slot, element, hash, shift + BITS);
+            if(removed == slot){
+                return node;
+            }
+            if(node.slots.length == 1 && !(removed instanceof Node)){
+                return removed;   // lift the element into the parent
+            }
+            Object[] slots = node.slots.clone();
+            slots[at] = removed;
+            return new Node(node.bitmap, slots);
+        }
+        if(!slot.equals(element)){
+            return node;
+        }
+        if(node.slots.length == 2 && !(node.slots[1 - at] instanceof Node)){
+            return node.slots[1 - at];
+        }
+        return new Node(node.bitmap & ~bit, remove(node.slots, at));
+    }
+
+    /**
+     * @return a root holding a lone element
+     */
+    private static Node single(Object element)
+    {
+        return new Node(bit(hash(element), 0), new Object[] { element });
+    }
+
+    private static Object[] remove(Object[] slots, int at)
+    {
+        Object[] shorter = new Object[slots.length - 1];
+        System.arraycopy(slots, 0, shorter, 0, at);
+        System.arraycopy(slots, at + 1, shorter, at, shorter.length - at);
+        return shorter;
+    }
+
+    private static int hash(Object element)
+    {
+        int h = element.hashCode();
+        return h ^ h >>> 16;
+    }
+
+    private static int bit(int hash, int shift)
+    {
+        return 1 << (hash >>> shift & 31);
+    }
+
+    private static int index(int bitmap, int bit)
+    {
+        return Integer.bitCount(bitmap & bit - 1);
+    }
+}
@@ -0,0 +1,273 @@
+package edu.union.adt.graph;
+
+import java.util.Arrays;
+
+/**
+ * A named property of the vertices or the edges of a
+ * {@link PropertyGraph}, stored as one primitive array indexed by
+ * vertex or edge id.  A column is created by the graph, which grows
+ * it as ids are handed out and resets an id's value to the column's
+ * default when the vertex or edge is removed, so a reused id never
+ * inherits an old value.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public abstract class PropertyColumn
+{
+    private final String name;
+
+    PropertyColumn(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return the name of the property
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Makes room for ids below 'capacity'.
+     */
+    abstract void ensureCapacity(int capacity);
+
+    /**
+     * Sets the value for an id back to the default.
+     */
+    abstract void reset(int id);
+
+    /**
+     * @return the number of bytes used by the column, laid out as
+     * {@link MemoryFootprint} assumes.  Neither the name nor the
+     * values of an object property are counted.
+     */
+    abstract long sizeInBytes();
+
+    static int grow(int length, int capacity)
+    {
+        return Math.max(capacity, length + (length >> 1));
+    }
+
+    /**
+     * A property with a long value, such as a timestamp.
+     */
+    public static final class OfLong extends PropertyColumn
+    {
+        private final long defaultValue;
+        private long[] values = new long[0];
+
+        OfLong(String name, long defaultValue)
+        {
+            super(name);
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * @param id a vertex or edge id
+         * @return the value for the id
+         */
+        public long get(int id)
+        {
+            return values[id];
+        }
+
+        /**
+         * @param id a vertex or edge id
+         * @param value the new value for the id
+         */
+        public void set(int id, long value)
+        {
+            values[id] = value;
+        }
+
+        @Override
+        void ensureCapacity(int capacity)
+        {
+            if(capacity > values.length){
+                int length = values.length;
+                values = Arrays.copyOf(values, grow(length, capacity));
+                Arrays.fill(values, length, values.length, defaultValue);
+            }
+        }
+
+        @Override
+        void reset(int id)
+        {
+            values[id] = defaultValue;
+        }
+
+        @Override
+        long sizeInBytes()
+        {
+            return MemoryFootprint.object(2 * MemoryFootprint.REFERENCE + 8) + MemoryFootprint.array(values.length, 8);
+        }
+    }
+
+    /**
+     * A property with a double value, such as a weight.
+     */
+    public static final class OfDouble extends PropertyColumn
+    {
+        private final double defaultValue;
+        private double[] values = new double[0];
+
+        OfDouble(String name, double defaultValue)
+        {
+            super(name);
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * @param id a vertex or edge id
+         * @return the value for the id
+         */
+        public double get(int id)
+        {
+            return values[id];
+        }
+
+        /**
+         * @param id a vertex or edge id
+         * @param value the new value for the id
+         */
+        public void set(int id, double value)
+        {
+            values[id] = value;
+        }
+
+        @Override
+        void ensureCapacity(int capacity)
+        {
+            if(capacity > values.length){
+                int length = values.length;
+                values = Arrays.copyOf(values, grow(length, capacity));
+                Arrays.fill(values, length, values.length, defaultValue);
+            }
+        }
+
+        @Override
+        void reset(int id)
+        {
+            values[id] = defaultValue;
+        }
+
+        @Override
+        long sizeInBytes()
+        {
+            return MemoryFootprint.object(2 * MemoryFootprint.REFERENCE + 8) + MemoryFootprint.array(values.length, 8);
+        }
+    }
+
+    /**
+     * A property with an int value, such as a label code.
+     */
+    public static final class OfInt extends PropertyColumn
+    {
+        private final int defaultValue;
+        private int[] values = new int[0];
+
+        OfInt(String name, int defaultValue)
+        {
+            super(name);
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * @param id a vertex or edge id
+         * @return the value for the id
+         */
+        public int get(int id)
+        {
+            return values[id];
+        }
+
+        /**
+         * @param id a vertex or edge id
+         * @param value the new value for the id
+         */
+        public void set(int id, int value)
+        {
+            values[id] = value;
+        }
+
+        @Override
+        void ensureCapacity(int capacity)
+        {
+            if(capacity > values.length){
+                int length = values.length;
+                values = Arrays.copyOf(values, grow(length, capacity));
+                Arrays.fill(values, length, values.length, defaultValue);
+            }
+        }
+
+        @Override
+        void reset(int id)
+        {
+            values[id] = defaultValue;
+        }
+
+        @Override
+        long sizeInBytes()
+        {
+            return MemoryFootprint.object(2 * MemoryFootprint.REFERENCE + 4) + MemoryFootprint.array(values.length, 4);
+        }
+    }
+
+    /**
+     * A property with an object value, such as a label.  Values are
+     * null by default.
+     */
+    public static final class OfObject<T> extends PropertyColumn
+    {
+        private Object[] values = new Object[0];
+
+        OfObject(String name)
+        {
+            super(name);
+        }
+
+        /**
+         * @param id a vertex or edge id
+         * @return the value for the id, or null
+         */
+        @SuppressWarnings("unchecked")
+        public T get(int id)
+        {
+            return (T) values[id];
+        }
+
+        /**
+         * @param id a vertex or edge id
+         * @param value the new value for the id
+         */
+        public void set(int id, T value)
+        {
+            values[id] = value;
+        }
+
+        @Override
+        void ensureCapacity(int capacity)
+        {
+            if(capacity > values.length){
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        void reset(int id)
+        {
+            values[id] = null;
+        }
+
+        @Override
+        long sizeInBytes()
+        {
+            return MemoryFootprint.object(2 * MemoryFootprint.REFERENCE)
+                + MemoryFootprint.array(values.length, MemoryFootprint.REFERENCE);
+        }
+    }
+}
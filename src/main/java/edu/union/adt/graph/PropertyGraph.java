@@ -0,0 +1,673 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A graph whose vertices and edges carry typed properties.
+ *
+ * The vertices and edges are kept by an {@link IndexedGraph}, which
+ * gives each vertex a dense id and keeps the destinations of the edges
+ * leaving a vertex in a sorted int array.  Each edge also gets a dense
+ * id, kept in a second array at the same position.  Properties are
+ * {@link PropertyColumn}s: one primitive array per property, indexed
+ * by vertex or edge id.  Attaching a long timestamp to every edge
+ * therefore costs 8 bytes per edge, rather than a map entry, a boxed
+ * value and a key object.  Ids freed by removals are reused, and the
+ * properties of a removed vertex or edge are reset to their defaults.
+ *
+ * Traversals can be restricted to the edges accepted by a filter on
+ * edge ids, such as {@code id -> timestamp.get(id) > t}.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class PropertyGraph<V> implements Graph<V>
+{
+    private static final int[] NO_EDGES = new int[0];
+
+    private final IndexedGraph<V> graph = new IndexedGraph<V>();   // never renumbers its vertices
+    private final VertexDictionary<V> dictionary = graph.dictionary();
+    private int[][] edgeIds = new int[16][];   // edgeIds[v][i] is the id of the edge to graph.neighborIds(v)[i]
+    private int edgeIdLimit;
+    private int[] freeEdgeIds = new int[0];
+    private int freeEdgeCount;
+    private final Map<String, PropertyColumn> vertexColumns = new HashMap<String, PropertyColumn>();
+    private final Map<String, PropertyColumn> edgeColumns = new HashMap<String, PropertyColumn>();
+    private final IdSearch.Adjacency adjacency = new IdSearch.Adjacency() {
+        @Override
+        int[] targets(int id, int[] range)
+        {
+            range[0] = 0;
+            range[1] = graph.degreeOf(id);
+            return graph.neighborIds(id);
+        }
+
+        @Override
+        int[] edgeIds(int id)
+        {
+            return edgeIds[id];
+        }
+    };
+
+    /**
+     * Adds a long property to every vertex.
+     *
+     * @param name the name of the property, unique among vertex
+     * properties
+     * @param defaultValue the value of vertices that have not set it
+     * @return the new column
+     */
+    public PropertyColumn.OfLong addVertexLongProperty(String name, long defaultValue)
+    {
+        return addColumn(vertexColumns, new PropertyColumn.OfLong(name, defaultValue), dictionary.idLimit());
+    }
+
+    /**
+     * Adds a double property to every vertex.
+     *
+     * @param name the name of the property, unique among vertex
+     * properties
+     * @param defaultValue the value of vertices that have not set it
+     * @return the new column
+     */
+    public PropertyColumn.OfDouble addVertexDoubleProperty(String name, double defaultValue)
+    {
+        return addColumn(vertexColumns, new PropertyColumn.OfDouble(name, defaultValue), dictionary.idLimit());
+    }
+
+    /**
+     * Adds an int property to every vertex.
+     *
+     * @param name the name of the property, unique among vertex
+     * properties
+     * @param defaultValue the value of vertices that have not set it
+     * @return the new column
+     */
+    public PropertyColumn.OfInt addVertexIntProperty(String name, int defaultValue)
+    {
+        return addColumn(vertexColumns, new PropertyColumn.OfInt(name, defaultValue), dictionary.idLimit());
+    }
+
+    /**
+     * Adds an object property, null by default, to every vertex.
+     *
+     * @param name the name of the property, unique among vertex
+     * properties
+     * @return the new column
+     */
+    public <T> PropertyColumn.OfObject<T> addVertexObjectProperty(String name)
+    {
+        return addColumn(vertexColumns, new PropertyColumn.OfObject<T>(name), dictionary.idLimit());
+    }
+
+    /**
+     * Adds a long property, such as a timestamp, to every edge.
+     *
+     * @param name the name of the property, unique among edge
+     * properties
+     * @param defaultValue the value of edges that have not set it
+     * @return the new column
+     */
+    public PropertyColumn.OfLong addEdgeLongProperty(String name, long defaultValue)
+    {
+        return addColumn(edgeColumns, new PropertyColumn.OfLong(name, defaultValue), edgeIdLimit);
+    }
+
+    /**
+     * Adds a double property, such as a weight, to every edge.
+     *
+     * @param name the name of the property, unique among edge
+     * properties
+     * @param defaultValue the value of edges that have not set it
+     * @return the new column
+     */
+    public PropertyColumn.OfDouble addEdgeDoubleProperty(String name, double defaultValue)
+    {
+        return addColumn(edgeColumns, new PropertyColumn.OfDouble(name, defaultValue), edgeIdLimit);
+    }
+
+    /**
+     * Adds an int property to every edge.
+     *
+     * @param name the name of the property, unique among edge
+     * properties
+     * @param defaultValue the value of edges that have not set it
+     * @return the new column
+     */
+    public PropertyColumn.OfInt addEdgeIntProperty(String name, int defaultValue)
+    {
+        return addColumn(edgeColumns, new PropertyColumn.OfInt(name, defaultValue), edgeIdLimit);
+    }
+
+    /**
+     * Adds an object property, such as a label, null by default, to
+     * every edge.
+     *
+     * @param name the name of the property, unique among edge
+     * properties
+     * @return the new column
+     */
+    public <T> PropertyColumn.OfObject<T> addEdgeObjectProperty(String name)
+    {
+        return addColumn(edgeColumns, new PropertyColumn.OfObject<T>(name), edgeIdLimit);
+    }
+
+    private static <C extends PropertyColumn> C addColumn(Map<String, PropertyColumn> columns, C column, int capacity)
+    {
+        if(columns.containsKey(column.getName())){
+            throw new IllegalArgumentException("there is already a property named " + column.getName());
+        }
+        column.ensureCapacity(capacity);
+        columns.put(column.getName(), column);
+        return column;
+    }
+
+    /**
+     * @param name the name of a vertex property
+     * @return its column, or null if there is none
+     */
+    public PropertyColumn getVertexProperty(String name)
+    {
+        return vertexColumns.get(name);
+    }
+
+    /**
+     * @param name the name of an edge property
+     * @return its column, or null if there is none
+     */
+    public PropertyColumn getEdgeProperty(String name)
+    {
+        return edgeColumns.get(name);
+    }
+
+    /**
+     * Removes a vertex property and its values.
+     *
+     * @param name the name of the property
+     */
+    public void removeVertexProperty(String name)
+    {
+        vertexColumns.remove(name);
+    }
+
+    /**
+     * Removes an edge property and its values.
+     *
+     * @param name the name of the property
+     */
+    public void removeEdgeProperty(String name)
+    {
+        edgeColumns.remove(name);
+    }
+
+    /**
+     * @param vertex a vertex
+     * @return the id of the vertex in the vertex property columns, or
+     * -1 if it is not in the graph
+     */
+    public int vertexId(V vertex)
+    {
+        return dictionary.idOf(vertex);
+    }
+
+    /**
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the id of the edge in the edge property columns, or -1
+     * if there is no such edge
+     */
+    public int edgeId(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        if(fromId < 0 || toId < 0){
+            return -1;
+        }
+        int index = graph.indexOf(fromId, toId);
+        return index < 0 ? -1 : edgeIds[fromId][index];
+    }
+
+    /**
+     * @return one more than the largest edge id handed out
+     */
+    public int edgeIdLimit()
+    {
+        return edgeIdLimit;
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int numVertices()
+    {
+        return graph.numVertices();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    public int numEdges()
+    {
+        return graph.numEdges();
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    public int degree(V vertex)
+    {
+        return graph.degree(vertex);
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already an edge
+     * between the given vertices, does nothing.  If either (or both)
+     * of the given vertices does not exist, it is added to the
+     * graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public void addEdge(V from, V to)
+    {
+        if(from != null && to != null){
+            addEdgeId(from, to);
+        }
+    }
+
+    /**
+     * Adds a directed edge between two vertices, as addEdge does, and
+     * gives its id so that its properties can be set.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     * @return the id of the new edge, or of the edge already there
+     */
+    public int addEdgeId(V from, V to)
+    {
+        if(from == null || to == null){
+            throw new IllegalArgumentException("vertices must not be null");
+        }
+        int fromId = addVertexId(from);
+        int toId = addVertexId(to);
+        int index = graph.insertEdge(fromId, toId);
+        if(index < 0){
+            return edgeIds[fromId][-index - 1];
+        }
+        int[] ids = edgeIds[fromId];
+        int degree = graph.degreeOf(fromId) - 1;   // before the edge was inserted
+        if(degree == ids.length){
+            ids = edgeIds[fromId] = Arrays.copyOf(ids, Math.max(4, degree * 2));
+        }
+        System.arraycopy(ids, index, ids, index + 1, degree - index);
+        ids[index] = newEdgeId();
+        return ids[index];
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.  If the vertex does not exist, it is
+     * added to the graph, with no edges connected to it.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex)
+    {
+        if(vertex != null){
+            addVertexId(vertex);
+        }
+    }
+
+    private int addVertexId(V vertex)
+    {
+        int id = graph.addVertexId(vertex);
+        if(id >= edgeIds.length){
+            edgeIds = Arrays.copyOf(edgeIds, Math.max(edgeIds.length * 2, id + 1));
+        }
+        if(edgeIds[id] == null){
+            edgeIds[id] = NO_EDGES;
+            for(PropertyColumn column : vertexColumns.values()){
+                column.ensureCapacity(id + 1);
+            }
+        }
+        return id;
+    }
+
+    private int newEdgeId()
+    {
+        int id = freeEdgeCount > 0 ? freeEdgeIds[--freeEdgeCount] : edgeIdLimit++;
+        for(PropertyColumn column : edgeColumns.values()){
+            column.ensureCapacity(id + 1);
+        }
+        return id;
+    }
+
+    private void freeEdgeId(int id)
+    {
+        for(PropertyColumn column : edgeColumns.values()){
+            column.reset(id);
+        }
+        if(freeEdgeCount == freeEdgeIds.length){
+            freeEdgeIds = Arrays.copyOf(freeEdgeIds, Math.max(8, freeEdgeIds.length * 2));
+        }
+        freeEdgeIds[freeEdgeCount++] = id;
+    }
+
+    /**
+     * @return the an iterable collection for the set of vertices of
+     * the graph, in id order.
+     */
+    public Iterable<V> getVertices()
+    {
+        return graph.getVertices();
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, in id order.  The
+     * returned list is a read-only view of the graph's arrays.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    public Iterable<V> adjacentTo(V from)
+    {
+        return graph.adjacentTo(from);
+    }
+
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        graph.forEachNeighbor(from, action);
+    }
+
+    /**
+     * Passes each edge leaving a given vertex to an action, as its
+     * destination and its id.
+     *
+     * @param from the source vertex
+     * @param action called with the destination and the id of each
+     * edge leaving 'from'
+     */
+    public void forEachEdge(V from, ObjIntConsumer<? super V> action)
+    {
+        int id = dictionary.idOf(from);
+        if(id >= 0){
+            int[] adj = graph.neighborIds(id);
+            int[] ids = edgeIds[id];
+            for(int i = 0, degree = graph.degreeOf(id); i < degree; ++i){
+                action.accept(dictionary.vertexOf(adj[i]), ids[i]);
+            }
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    public boolean contains(V vertex)
+    {
+        return graph.contains(vertex);
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    public boolean hasEdge(V from, V to)
+    {
+        return edgeId(from, to) >= 0;
+    }
+
+    /**
+     * Gives a string representation of the graph, in the same form as
+     * GraphImplementation.  Properties are not shown.
+     *
+     * @return the string representation of the graph
+     */
+    public String toString()
+    {
+        return Graphs.toString(this);
+    }
+
+    /**
+    * equal method for Graph
+    *
+    * @param obj the arbitrary object
+    * @return true if this is equal to obj
+    */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        PropertyGraph graph = (PropertyGraph) obj;
+        return this.toString().equals(graph.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+
+    /**
+     * Estimates the memory the graph uses: that of its IndexedGraph,
+     * with the vertex properties counted in the vertex map, and the
+     * edge ids and edge properties in the neighbor containers.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        MemoryFootprint indexed = graph.memoryFootprint();
+        long vertexMap = MemoryFootprint.object(7 * MemoryFootprint.REFERENCE + 8)
+            + MemoryFootprint.object(MemoryFootprint.REFERENCE)   // the Adjacency searches read
+            + indexed.getVertexMapBytes() + columnBytes(vertexColumns);
+        long edges = indexed.getNeighborContainerBytes() + columnBytes(edgeColumns)
+            + MemoryFootprint.array(edgeIds.length, MemoryFootprint.REFERENCE)
+            + MemoryFootprint.array(freeEdgeIds.length, 4);
+        for(int[] ids : edgeIds){
+            if(ids != null && ids != NO_EDGES){
+                edges += MemoryFootprint.array(ids.length, 4);
+            }
+        }
+        return new MemoryFootprint(this, vertexMap, edges, 0, 0);
+    }
+
+    private static long columnBytes(Map<String, PropertyColumn> columns)
+    {
+        long bytes = MemoryFootprint.hashMap(columns.size());
+        for(PropertyColumn column : columns.values()){
+            bytes += column.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty.
+     */
+    public boolean isEmpty()
+    {
+        return graph.isEmpty();
+    }
+
+    /**
+     * Removes and vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge, and resets the
+     * properties of all of them.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    public void removeVertex(V toRemove)
+    {
+        int id = dictionary.idOf(toRemove);
+        if(id >= 0){
+            for(int other = 0; other < dictionary.idLimit(); ++other){
+                if(edgeIds[other] != null && other != id){
+                    removeEdgeId(other, id);
+                }
+            }
+            for(int i = 0, degree = graph.degreeOf(id); i < degree; ++i){
+                freeEdgeId(edgeIds[id][i]);
+            }
+            edgeIds[id] = null;
+            for(PropertyColumn column : vertexColumns.values()){
+                column.reset(id);
+            }
+            graph.dropVertex(toRemove, id);
+        }
+    }
+
+    /**
+     * Removes an edge from the graph and resets its properties.
+     *
+     * <p>Postcondition: If from and to were in the graph and (from,
+     * to) was an edge in the graph, then numEdges = numEdges' - 1
+     */
+    public void removeEdge(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        if(fromId >= 0 && toId >= 0){
+            removeEdgeId(fromId, toId);
+        }
+    }
+
+    private void removeEdgeId(int fromId, int toId)
+    {
+        int index = graph.deleteEdge(fromId, toId);
+        if(index >= 0){
+            int[] ids = edgeIds[fromId];
+            freeEdgeId(ids[index]);
+            System.arraycopy(ids, index + 1, ids, index, graph.degreeOf(fromId) - index);
+        }
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).isFound();
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getLength();
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to', empty if there is no path.
+     */
+    public Iterable<V> getPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        return IdSearch.search(dictionary, adjacency, from, to, limits, null);
+    }
+
+    /**
+     * Searches for the shortest path connecting two given vertices
+     * that uses only the edges accepted by a filter, without exceeding
+     * the given limits.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @param edgeFilter accepts the ids of the edges the path may use
+     * @return FOUND with the shortest path, NOT_FOUND or LIMIT_EXCEEDED
+     */
+    public SearchResult<V> search(V from, V to, SearchLimits limits, IntPredicate edgeFilter)
+    {
+        return IdSearch.search(dictionary, adjacency, from, to, limits, edgeFilter);
+    }
+
+    /**
+     * Gets the vertices within k hops of a given vertex along the
+     * edges accepted by a filter.
+     *
+     * @param center the vertex at the center of the neighborhood
+     * @param k the largest number of hops
+     * @param edgeFilter accepts the ids of the edges that may be
+     * followed
+     * @return a read-only set of the vertices found, including
+     * 'center', in breadth-first order.  Empty if 'center' is not in
+     * the graph.
+     */
+    public Set<V> neighborhood(V center, int k, IntPredicate edgeFilter)
+    {
+        if(k < 0){
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        int source = dictionary.idOf(center);
+        if(source < 0){
+            return Collections.emptySet();
+        }
+        Set<V> found = new LinkedHashSet<V>();
+        found.add(center);
+        List<Integer> level = Collections.singletonList(source);
+        for(int depth = 0; depth < k && !level.isEmpty(); ++depth){
+            List<Integer> nextLevel = new ArrayList<Integer>();
+            for(int vert : level){
+                int[] adj = graph.neighborIds(vert);
+                int[] ids = edgeIds[vert];
+                for(int i = 0, degree = graph.degreeOf(vert); i < degree; ++i){
+                    if(edgeFilter.test(ids[i]) && found.add(dictionary.vertexOf(adj[i]))){
+                        nextLevel.add(adj[i]);
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+        return Collections.unmodifiableSet(found);
+    }
+}
@@ -0,0 +1,127 @@
+package edu.union.adt.graph;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits applied to a path search (see {@link Graph#search}).  A
+ * search can be bounded by the length of the paths it explores, by
+ * the number of vertices it visits and by a wall-clock deadline.  A
+ * search that hits one of these limits before finding its target
+ * reports {@link SearchResult.Status#LIMIT_EXCEEDED} rather than
+ * claiming that there is no path.
+ *
+ * A search may also be cancelled; cancellation is not a limit and
+ * makes the search throw a CancellationException.
+ *
+ * SearchLimits objects are immutable; the with* methods return a new
+ * object.
+ *
+ * @author Khai Dong
+ * @version 1.1
+ */
+public final class SearchLimits
+{
+    /**
+     * Limits that never stop a search.
+     */
+    public static final SearchLimits NONE =
+        new SearchLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, false, 0L, null);
+
+    private final int maxDepth;
+    private final int maxVisited;
+    private final boolean hasDeadline;
+    private final long deadline;
+    private final BooleanSupplier cancelled;
+
+    private SearchLimits(int maxDepth, int maxVisited,
+                         boolean hasDeadline, long deadline, BooleanSupplier cancelled)
+    {
+        this.maxDepth = maxDepth;
+        this.maxVisited = maxVisited;
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * @param maxDepth the length of the longest path the search may
+     * explore; must not be negative
+     * @return limits like these that also bound the path length
+     */
+    public SearchLimits withMaxDepth(int maxDepth)
+    {
+        if(maxDepth < 0){
+            throw new IllegalArgumentException("maxDepth must not be negative");
+        }
+        return new SearchLimits(maxDepth, maxVisited, hasDeadline, deadline, cancelled);
+    }
+
+    /**
+     * @param maxVisited the largest number of vertices, including the
+     * source, the search may visit before it reaches the target; must
+     * be positive
+     * @return limits like these that also bound the number of visited
+     * vertices
+     */
+    public SearchLimits withMaxVisited(int maxVisited)
+    {
+        if(maxVisited < 1){
+            throw new IllegalArgumentException("maxVisited must be positive");
+        }
+        return new SearchLimits(maxDepth, maxVisited, hasDeadline, deadline, cancelled);
+    }
+
+    /**
+     * @param timeout the maximum time the search may run, starting now
+     * @param unit the unit of timeout
+     * @return limits like these that also stop the search once the
+     * timeout has elapsed
+     */
+    public SearchLimits withDeadline(long timeout, TimeUnit unit)
+    {
+        return new SearchLimits(maxDepth, maxVisited, true, System.nanoTime() + unit.toNanos(timeout), cancelled);
+    }
+
+    /**
+     * @param cancelled polled during the search; once it returns true
+     * the search is abandoned with a CancellationException
+     * @return limits like these that also stop the search on cancellation
+     */
+    public SearchLimits withCancellation(BooleanSupplier cancelled)
+    {
+        return new SearchLimits(maxDepth, maxVisited, hasDeadline, deadline, cancelled);
+    }
+
+    /**
+     * @return the length of the longest path the search may explore
+     */
+    int maxDepth()
+    {
+        return maxDepth;
+    }
+
+    /**
+     * @return the number of vertices the search may visit
+     */
+    int maxVisited()
+    {
+        return maxVisited;
+    }
+
+    /**
+     * Checks the time-based limits.  Called once for every vertex a
+     * search expands.
+     *
+     * @return true iff the deadline has passed
+     * @throws CancellationException if the search was cancelled
+     */
+    boolean deadlinePassed()
+    {
+        if(cancelled != null && cancelled.getAsBoolean()){
+            throw new CancellationException("search was cancelled");
+        }
+        return hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+}
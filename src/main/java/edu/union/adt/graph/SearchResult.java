@@ -0,0 +1,107 @@
+package edu.union.adt.graph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a path search run under {@link SearchLimits}.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public final class SearchResult<V>
+{
+    /**
+     * How a search ended.
+     */
+    public enum Status
+    {
+        /** A shortest path to the target was found. */
+        FOUND,
+        /** The search explored everything reachable; there is no path. */
+        NOT_FOUND,
+        /** The search stopped at a limit; whether a path exists is unknown. */
+        LIMIT_EXCEEDED
+    }
+
+    private static final SearchResult<?> NOT_FOUND =
+        new SearchResult<Object>(Status.NOT_FOUND, Collections.emptyList());
+    private static final SearchResult<?> LIMIT_EXCEEDED =
+        new SearchResult<Object>(Status.LIMIT_EXCEEDED, Collections.emptyList());
+
+    private final Status status;
+    private final List<V> path;
+
+    private SearchResult(Status status, List<V> path)
+    {
+        this.status = status;
+        this.path = path;
+    }
+
+    /**
+     * @param path the vertices along the path found, source first
+     * @return a FOUND result
+     */
+    static <V> SearchResult<V> found(List<V> path)
+    {
+        return new SearchResult<V>(Status.FOUND, Collections.unmodifiableList(path));
+    }
+
+    /**
+     * @return a NOT_FOUND result
+     */
+    @SuppressWarnings("unchecked")
+    static <V> SearchResult<V> notFound()
+    {
+        return (SearchResult<V>) NOT_FOUND;
+    }
+
+    /**
+     * @return a LIMIT_EXCEEDED result
+     */
+    @SuppressWarnings("unchecked")
+    static <V> SearchResult<V> limitExceeded()
+    {
+        return (SearchResult<V>) LIMIT_EXCEEDED;
+    }
+
+    /**
+     * @return how the search ended
+     */
+    public Status getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * @return true iff a path was found
+     */
+    public boolean isFound()
+    {
+        return status == Status.FOUND;
+    }
+
+    /**
+     * @return the length of the path found, or Integer.MAX_VALUE if
+     * none was found
+     */
+    public int getLength()
+    {
+        return isFound() ? path.size() - 1 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the vertices along the path found, source first; empty if
+     * none was found
+     */
+    public List<V> getPath()
+    {
+        return path;
+    }
+
+    @Override
+    public String toString()
+    {
+        return isFound() ? status + " " + path : status.toString();
+    }
+}
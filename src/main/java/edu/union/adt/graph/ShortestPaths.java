@@ -0,0 +1,487 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+/**
+ * Enumerates paths between two vertices: the k shortest loopless paths,
+ * by Yen's algorithm, and every shortest path, lazily.
+ *
+ * Paths are searched on a CSR snapshot of the graph and its transpose;
+ * later changes to the graph are not seen.  Both queries start with a
+ * BFS back from the destination, which gives the distance from every
+ * vertex to it.  Paths of the same length come in the order of the ids
+ * of their vertices, which follow graph.getVertices() at the time of
+ * the snapshot.
+ *
+ * Yen's algorithm finds each path by deviating from an earlier one at
+ * a spur vertex, with the earlier vertices and the edges other paths
+ * took from the spur vertex blocked.  Two things keep this from being a
+ * full BFS per spur vertex.  A path is only deviated from at or after
+ * the vertex where it deviated from its own parent (Lawler's
+ * refinement), since earlier spur vertices give paths already found.
+ * And each spur search is an A* search guided by the distance to the
+ * destination in the whole graph, which blocking can only lengthen, so
+ * where nothing is blocked the search walks straight along a shortest
+ * path.  The search only gives the length of the spur path; the path
+ * itself is then found depth first, trying edges in id order and
+ * pruned by the same distances, so it is the first in id order among
+ * the shortest.  That keeps paths of the same length in id order.
+ *
+ * The shortest paths are those along the edges (u, w) with
+ * d(from, u) + 1 + d(w, to) = d(from, to), which form a DAG in which
+ * every vertex reaches the destination.  allShortest walks it depth
+ * first, so each path costs its length times the degrees along it, and
+ * no path is built before it is asked for.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class ShortestPaths<V>
+{
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final VertexDictionary<V> dictionary;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+
+    private ShortestPaths(CsrGraph<V> csr)
+    {
+        CsrGraph<V> reverse = csr.transpose();
+        this.dictionary = csr.dictionary();
+        this.offsets = csr.offsets();
+        this.targets = csr.targets();
+        this.reverseOffsets = reverse.offsets();
+        this.reverseTargets = reverse.targets();
+    }
+
+    /**
+     * @param graph the graph to search
+     * @return path queries over the graph as it is now
+     */
+    public static <V> ShortestPaths<V> of(Graph<V> graph)
+    {
+        return new ShortestPaths<V>(CsrGraph.copyOf(graph));
+    }
+
+    /**
+     * Finds the k shortest loopless paths between two vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param k the largest number of paths wanted
+     * @return up to k paths, each starting with 'from' and ending with
+     * 'to', shortest first.  If 'from' equals 'to' the only path is
+     * that vertex alone; if there is no path, the list is empty.
+     */
+    public List<List<V>> kShortest(V from, V to, int k)
+    {
+        if(k < 1){
+            throw new IllegalArgumentException("k must be positive");
+        }
+        int s = dictionary.idOf(from);
+        int t = dictionary.idOf(to);
+        if(s < 0 || t < 0){
+            return Collections.emptyList();
+        }
+        int n = dictionary.idLimit();
+        int[] toTarget = bfs(t, reverseOffsets, reverseTargets, UNREACHABLE);
+        if(toTarget[s] == UNREACHABLE){
+            return Collections.emptyList();
+        }
+
+        SpurSearch spurSearch = new SpurSearch(n, toTarget);
+        List<int[]> accepted = new ArrayList<int[]>();
+        TreeSet<Candidate> candidates = new TreeSet<Candidate>(Candidate.ORDER);
+        TreeSet<Candidate> seen = new TreeSet<Candidate>(Candidate.ORDER);
+        Candidate first = new Candidate(spurSearch.find(s, t), 0);
+        candidates.add(first);
+        seen.add(first);
+
+        boolean[] removed = new boolean[n];
+        boolean[] blockedFirst = new boolean[n];
+        while(accepted.size() < k && !candidates.isEmpty()){
+            Candidate next = candidates.pollFirst();
+            int[] path = next.path;
+            accepted.add(path);
+            if(accepted.size() == k){
+                break;
+            }
+            for(int i = next.deviation; i < path.length - 1; ++i){
+                for(int[] other : accepted){
+                    if(other.length > i + 1 && samePrefix(other, path, i + 1)){
+                        blockedFirst[other[i + 1]] = true;
+                    }
+                }
+                for(int j = 0; j < i; ++j){
+                    removed[path[j]] = true;
+                }
+                int[] spur = spurSearch.find(path[i], t, removed, blockedFirst);
+                for(int j = 0; j < i; ++j){
+                    removed[path[j]] = false;
+                }
+                for(int[] other : accepted){
+                    if(other.length > i + 1){
+                        blockedFirst[other[i + 1]] = false;
+                    }
+                }
+                if(spur != null){
+                    int[] joined = Arrays.copyOf(path, i + spur.length);
+                    System.arraycopy(spur, 0, joined, i, spur.length);
+                    Candidate candidate = new Candidate(joined, i);
+                    if(seen.add(candidate)){
+                        candidates.add(candidate);
+                    }
+                }
+            }
+        }
+
+        List<List<V>> result = new ArrayList<List<V>>(accepted.size());
+        for(int[] path : accepted){
+            result.add(toVertices(path, path.length));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Gives every shortest path between two vertices.  The paths are
+     * found one at a time as the iterator is advanced; the work done
+     * up front is one BFS from each end.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the shortest paths, each starting with 'from' and ending
+     * with 'to'; none if there is no path
+     */
+    public Iterable<List<V>> allShortest(V from, V to)
+    {
+        int s = dictionary.idOf(from);
+        int t = dictionary.idOf(to);
+        if(s < 0 || t < 0){
+            return Collections.emptyList();
+        }
+        int[] toTarget = bfs(t, reverseOffsets, reverseTargets, UNREACHABLE);
+        int length = toTarget[s];
+        if(length == UNREACHABLE){
+            return Collections.emptyList();
+        }
+        int[] fromSource = bfs(s, offsets, targets, length);
+        return () -> new DagIterator(s, length, fromSource, toTarget);
+    }
+
+    /**
+     * Walks the shortest-path DAG depth first, one path per call of
+     * next().
+     */
+    private final class DagIterator implements Iterator<List<V>>
+    {
+        private final int length;
+        private final int[] fromSource;
+        private final int[] toTarget;
+        private final int[] path;
+        private final int[] cursor;    // the next edge to try out of each vertex of the path
+        private boolean ready;
+        private boolean done;
+
+        DagIterator(int source, int length, int[] fromSource, int[] toTarget)
+        {
+            this.length = length;
+            this.fromSource = fromSource;
+            this.toTarget = toTarget;
+            this.path = new int[length + 1];
+            this.cursor = new int[length + 1];
+            path[0] = source;
+            cursor[0] = offsets[source];
+            ready = descend(0);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if(!ready && !done){
+                ready = descend(length - 1);
+            }
+            return ready;
+        }
+
+        @Override
+        public List<V> next()
+        {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return toVertices(path, path.length);
+        }
+
+        /**
+         * Extends the path from 'depth' with the next untried DAG
+         * edges, backing up when a vertex has none left.
+         *
+         * @return true if a whole path is ready, false when there are
+         * no more
+         */
+        private boolean descend(int depth)
+        {
+            while(depth < length){
+                if(depth < 0){
+                    done = true;
+                    return false;
+                }
+                int vert = path[depth];
+                int end = offsets[vert + 1];
+                int i = cursor[depth];
+                while(i < end && !onDag(targets[i], depth + 1)){
+                    ++i;
+                }
+                if(i == end){
+                    --depth;
+                    continue;
+                }
+                cursor[depth] = i + 1;
+                path[depth + 1] = targets[i];
+                cursor[depth + 1] = offsets[targets[i]];
+                ++depth;
+            }
+            return true;
+        }
+
+        private boolean onDag(int vert, int depth)
+        {
+            return fromSource[vert] == depth && toTarget[vert] == length - depth;
+        }
+    }
+
+    /**
+     * A* searches for the shortest path from a spur vertex, reusing
+     * its arrays between searches.  Vertices are marked with the
+     * number of the search that reached them, so nothing is cleared.
+     * Once the A* search has the length of the path, firstPath finds
+     * the path of that length that comes first in id order.
+     */
+    private final class SpurSearch
+    {
+        private final int[] toTarget;   // the heuristic: exact in the unblocked graph
+        private final int[] reached;
+        private final int[] closed;
+        private final int[] cost;
+        private final int[] deadEnd;     // the search in which a vertex was found to be a dead end
+        private final int[] deadDepth;   // and the least depth at which it was
+        private int[][] buckets = new int[8][];
+        private int[] bucketSizes = new int[8];
+        private int search;
+
+        SpurSearch(int n, int[] toTarget)
+        {
+            this.toTarget = toTarget;
+            this.reached = new int[n];
+            this.closed = new int[n];
+            this.cost = new int[n];
+            this.deadEnd = new int[n];
+            this.deadDepth = new int[n];
+        }
+
+        int[] find(int from, int to)
+        {
+            return find(from, to, null, null);
+        }
+
+        /**
+         * @param removed the vertices the path may not use, or null
+         * @param blockedFirst the vertices the path may not step to
+         * first, or null
+         * @return the shortest path, or null if there is none
+         */
+        int[] find(int from, int to, boolean[] removed, boolean[] blockedFirst)
+        {
+            if(toTarget[from] == UNREACHABLE){
+                return null;
+            }
+            ++search;
+            int base = toTarget[from];  // f values are at least this, so buckets start there
+            int top = 0;
+            reached[from] = search;
+            cost[from] = 0;
+            push(0, from);
+            try {
+                for(int bucket = 0; bucket <= top; ++bucket){
+                    while(bucketSizes[bucket] > 0){
+                        int vert = buckets[bucket][--bucketSizes[bucket]];
+                        if(closed[vert] == search){
+                            continue;
+                        }
+                        closed[vert] = search;
+                        if(vert == to){
+                            return firstPath(from, to, cost[to], removed, blockedFirst);
+                        }
+                        int nextCost = cost[vert] + 1;
+                        for(int i = offsets[vert]; i < offsets[vert + 1]; ++i){
+                            int adj = targets[i];
+                            if(toTarget[adj] == UNREACHABLE
+                               || removed != null && removed[adj]
+                               || vert == from && blockedFirst != null && blockedFirst[adj]
+                               || reached[adj] == search && cost[adj] <= nextCost){
+                                continue;
+                            }
+                            reached[adj] = search;
+                            cost[adj] = nextCost;
+                            int f = nextCost + toTarget[adj] - base;
+                            push(f, adj);
+                            top = Math.max(top, f);
+                        }
+                    }
+                }
+                return null;
+            } finally {
+                Arrays.fill(bucketSizes, 0, Math.min(top + 1, bucketSizes.length), 0);
+            }
+        }
+
+        private void push(int bucket, int vert)
+        {
+            if(bucket >= buckets.length){
+                int length = Math.max(bucket + 1, buckets.length * 2);
+                buckets = Arrays.copyOf(buckets, length);
+                bucketSizes = Arrays.copyOf(bucketSizes, length);
+            }
+            int[] entries = buckets[bucket];
+            if(entries == null){
+                entries = buckets[bucket] = new int[8];
+            } else if(bucketSizes[bucket] == entries.length){
+                entries = buckets[bucket] = Arrays.copyOf(entries, entries.length * 2);
+            }
+            entries[bucketSizes[bucket]++] = vert;
+        }
+
+        /**
+         * Walks depth first from 'from', trying edges in id order and
+         * only stepping where the destination can still be reached in
+         * the edges left.  A vertex from which it cannot is a dead end
+         * at that depth and any greater one, and is not tried again.
+         *
+         * @param length the length of the shortest path
+         * @return the first path of that length in id order, or null
+         */
+        private int[] firstPath(int from, int to, int length, boolean[] removed, boolean[] blockedFirst)
+        {
+            int[] path = new int[length + 1];
+            int[] cursor = new int[length + 1];
+            path[0] = from;
+            cursor[0] = offsets[from];
+            int depth = 0;
+            while(depth >= 0){
+                int vert = path[depth];
+                if(vert == to){
+                    return Arrays.copyOf(path, depth + 1);
+                }
+                int left = length - depth - 1;   // the edges left after the next one
+                int end = offsets[vert + 1];
+                int i = cursor[depth];
+                for(; i < end; ++i){
+                    int adj = targets[i];
+                    if(toTarget[adj] <= left && adj != from   // back at 'from', blockedFirst would not hold
+                       && (removed == null || !removed[adj])
+                       && (depth > 0 || blockedFirst == null || !blockedFirst[adj])
+                       && (deadEnd[adj] != search || deadDepth[adj] > depth + 1)){
+                        break;
+                    }
+                }
+                if(i == end){
+                    deadEnd[vert] = search;
+                    deadDepth[vert] = depth;
+                    --depth;
+                    continue;
+                }
+                cursor[depth] = i + 1;
+                path[++depth] = targets[i];
+                cursor[depth] = offsets[targets[i]];
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A path found by Yen's algorithm, with the index of the vertex
+     * where it left the path it was found from.
+     */
+    private static final class Candidate
+    {
+        static final Comparator<Candidate> ORDER = (a, b) -> {
+            if(a.path.length != b.path.length){
+                return Integer.compare(a.path.length, b.path.length);
+            }
+            for(int i = 0; i < a.path.length; ++i){
+                if(a.path[i] != b.path[i]){
+                    return Integer.compare(a.path[i], b.path[i]);
+                }
+            }
+            return 0;
+        };
+
+        final int[] path;
+        final int deviation;
+
+        Candidate(int[] path, int deviation)
+        {
+            this.path = path;
+            this.deviation = deviation;
+        }
+    }
+
+    private static boolean samePrefix(int[] a, int[] b, int length)
+    {
+        for(int i = 0; i < length; ++i){
+            if(a[i] != b[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<V> toVertices(int[] path, int length)
+    {
+        List<V> vertices = new ArrayList<V>(length);
+        for(int i = 0; i < length; ++i){
+            vertices.add(dictionary.vertexOf(path[i]));
+        }
+        return Collections.unmodifiableList(vertices);
+    }
+
+    /**
+     * @return the distance from 'source' to each vertex, following
+     * the given edges, or UNREACHABLE; vertices further than maxDepth
+     * are left UNREACHABLE
+     */
+    private int[] bfs(int source, int[] edgeOffsets, int[] edgeTargets, int maxDepth)
+    {
+        int[] distance = new int[dictionary.idLimit()];
+        Arrays.fill(distance, UNREACHABLE);
+        int[] queue = new int[distance.length];
+        distance[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        while(head < tail){
+            int vert = queue[head++];
+            if(distance[vert] >= maxDepth){
+                continue;
+            }
+            for(int i = edgeOffsets[vert]; i < edgeOffsets[vert + 1]; ++i){
+                int adj = edgeTargets[i];
+                if(distance[adj] == UNREACHABLE){
+                    distance[adj] = distance[vert] + 1;
+                    queue[tail++] = adj;
+                }
+            }
+        }
+        return distance;
+    }
+}
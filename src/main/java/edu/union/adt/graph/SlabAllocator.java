@@ -0,0 +1,254 @@
+package edu.union.adt.graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Hands out blocks of memory outside the Java heap, carved from slabs
+ * allocated with ByteBuffer.allocateDirect.  A block is named by a long
+ * address, the index of its slab in the high 32 bits and its offset in
+ * the slab in the low 32 bits.
+ *
+ * Block sizes are powers of two, 16 bytes or more.  A freed block goes
+ * on a free list for its size, threaded through the first 8 bytes of
+ * the free blocks themselves, and is handed out again before the slab
+ * grows.  New blocks are cut from the end of the current slab; a block
+ * too big for a slab gets a slab of its own.  Nothing is kept on the
+ * heap but the slab buffers and one list head per size.
+ *
+ * close() releases the slabs at once where the JVM allows it, rather
+ * than when the garbage collector finds the buffers.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+final class SlabAllocator implements AutoCloseable
+{
+    static final long NULL = -1L;
+
+    private static final int MIN_BLOCK = 16;
+    private static final int DIRECT_BUFFER_BYTES = 144;   // a DirectByteBuffer, its Cleaner and Deallocator
+
+    private final int slabBytes;
+    private ByteBuffer[] slabs = new ByteBuffer[4];
+    private int numSlabs;
+    private int current = -1;       // the slab new blocks are cut from
+    private int top;                // the first free byte of the current slab
+    private final long[] freeLists = new long[32];   // first free block of each size 2^i
+    private long reservedBytes;
+    private boolean closed;
+
+    /**
+     * @param slabBytes the size of each slab
+     */
+    SlabAllocator(int slabBytes)
+    {
+        if(slabBytes < MIN_BLOCK){
+            throw new IllegalArgumentException("slabs must hold at least " + MIN_BLOCK + " bytes");
+        }
+        this.slabBytes = slabBytes;
+        Arrays.fill(freeLists, NULL);
+    }
+
+    /**
+     * @param bytes a number of bytes
+     * @return the size of the block allocate(bytes) hands out
+     */
+    static int blockSize(int bytes)
+    {
+        if(bytes < 1){
+            throw new IllegalArgumentException("block too small: " + bytes + " bytes");
+        }
+        if(bytes > 1 << 30){
+            throw new IllegalArgumentException("block too large: " + bytes + " bytes");
+        }
+        return Math.max(MIN_BLOCK, Integer.highestOneBit(bytes - 1) << 1);
+    }
+
+    /**
+     * @param bytes the least size of the block
+     * @return the address of a block of blockSize(bytes) bytes; its
+     * contents are undefined
+     */
+    long allocate(int bytes)
+    {
+        checkOpen();
+        int size = blockSize(bytes);
+        int sizeClass = Integer.numberOfTrailingZeros(size);
+        long address = freeLists[sizeClass];
+        if(address != NULL){
+            freeLists[sizeClass] = getLong(address, 0);
+            return address;
+        }
+        if(size > slabBytes){
+            return address(addSlab(size), 0);
+        }
+        if(current < 0 || top + size > slabBytes){
+            current = addSlab(slabBytes);
+            top = 0;
+        }
+        address = address(current, top);
+        top += size;
+        return address;
+    }
+
+    /**
+     * Returns a block for reuse.
+     *
+     * @param address the address of the block
+     * @param bytes the size asked for when it was allocated
+     */
+    void free(long address, int bytes)
+    {
+        checkOpen();
+        int sizeClass = Integer.numberOfTrailingZeros(blockSize(bytes));
+        putLong(address, 0, freeLists[sizeClass]);
+        freeLists[sizeClass] = address;
+    }
+
+    int getInt(long address, int index)
+    {
+        return slabs[(int) (address >>> 32)].getInt((int) address + 4 * index);
+    }
+
+    void putInt(long address, int index, int value)
+    {
+        slabs[(int) (address >>> 32)].putInt((int) address + 4 * index, value);
+    }
+
+    long getLong(long address, int byteOffset)
+    {
+        return slabs[(int) (address >>> 32)].getLong((int) address + byteOffset);
+    }
+
+    void putLong(long address, int byteOffset, long value)
+    {
+        slabs[(int) (address >>> 32)].putLong((int) address + byteOffset, value);
+    }
+
+    /**
+     * Copies bytes within or between blocks.  The ranges may overlap.
+     *
+     * @param bytes the number of bytes, a multiple of 4
+     */
+    void copy(long from, long to, int bytes)
+    {
+        ByteBuffer source = slabs[(int) (from >>> 32)];
+        ByteBuffer target = slabs[(int) (to >>> 32)];
+        int fromOffset = (int) from;
+        int toOffset = (int) to;
+        if(source != target || fromOffset + bytes <= toOffset || toOffset + bytes <= fromOffset){
+            ByteBuffer range = source.duplicate();
+            range.limit(fromOffset + bytes).position(fromOffset);
+            ByteBuffer into = target.duplicate();
+            into.position(toOffset);
+            into.put(range);
+        } else if(toOffset < fromOffset){
+            for(int i = 0; i < bytes; i += 4){
+                target.putInt(toOffset + i, source.getInt(fromOffset + i));
+            }
+        } else {
+            for(int i = bytes - 4; i >= 0; i -= 4){
+                target.putInt(toOffset + i, source.getInt(fromOffset + i));
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes of direct memory held in slabs
+     */
+    long reservedBytes()
+    {
+        return reservedBytes;
+    }
+
+    /**
+     * Releases every slab.  The allocator cannot be used afterwards.
+     */
+    @Override
+    public void close()
+    {
+        if(!closed){
+            closed = true;
+            for(int i = 0; i < numSlabs; ++i){
+                release(slabs[i]);
+                slabs[i] = null;
+            }
+            numSlabs = 0;
+            current = -1;
+            reservedBytes = 0;
+        }
+    }
+
+    /**
+     * @return an estimate of the heap bytes of the allocator and its
+     * buffer objects, each with its cleaner
+     */
+    long heapBytes()
+    {
+        return MemoryFootprint.object(2 * MemoryFootprint.REFERENCE + 29)
+            + MemoryFootprint.array(slabs.length, MemoryFootprint.REFERENCE)
+            + MemoryFootprint.array(freeLists.length, 8)
+            + (long) numSlabs * DIRECT_BUFFER_BYTES;
+    }
+
+    boolean isClosed()
+    {
+        return closed;
+    }
+
+    private void checkOpen()
+    {
+        if(closed){
+            throw new IllegalStateException("the memory has been released");
+        }
+    }
+
+    private static long address(int slab, int offset)
+    {
+        return (long) slab << 32 | offset;
+    }
+
+    private int addSlab(int bytes)
+    {
+        if(numSlabs == slabs.length){
+            slabs = Arrays.copyOf(slabs, numSlabs * 2);
+        }
+        slabs[numSlabs++] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        reservedBytes += bytes;
+        return numSlabs - 1;
+    }
+
+    /**
+     * Frees the memory of a direct buffer now.  The JDK has no public
+     * way to do this: Java 9 and later offer Unsafe.invokeCleaner, and
+     * Java 8 a cleaner on the buffer.  If neither can be reached, the
+     * memory is freed when the buffer is garbage collected.
+     */
+    private static void release(ByteBuffer buffer)
+    {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not Java 9 or later
+        }
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if(cleaner != null){
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package edu.union.adt.graph;
+
+import java.util.Arrays;
+
+/**
+ * Linear-time set operations on sorted ranges of vertex ids, as kept
+ * by CsrGraph and IndexedGraph.  Each operation reads x[xStart, xEnd)
+ * and y[yStart, yEnd), which must be sorted and free of duplicates,
+ * and writes its result, also sorted, from out[outStart].  For
+ * intersection and difference, out may be x itself when outStart is
+ * at most xStart, since the result is written no faster than x is
+ * read.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+final class SortedIds
+{
+    private SortedIds()
+    {
+    }
+
+    /**
+     * Translates a range of ids through a map, dropping ids that map
+     * to -1, and sorts the result if the map did not keep it sorted.
+     *
+     * @return the number of ids written to out
+     */
+    static int map(int[] ids, int start, int end, int[] map, int[] out)
+    {
+        int size = 0;
+        boolean sorted = true;
+        for(int i = start; i < end; ++i){
+            int id = map[ids[i]];
+            if(id >= 0){
+                if(size > 0 && id < out[size - 1]){
+                    sorted = false;
+                }
+                out[size++] = id;
+            }
+        }
+        if(!sorted){
+            Arrays.sort(out, 0, size);
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of ids written to out, which must have room
+     * for both ranges
+     */
+    static int union(int[] x, int xStart, int xEnd, int[] y, int yStart, int yEnd,
+                     int[] out, int outStart)
+    {
+        int next = outStart;
+        while(xStart < xEnd && yStart < yEnd){
+            int a = x[xStart];
+            int b = y[yStart];
+            if(a <= b){
+                out[next++] = a;
+                ++xStart;
+                if(a == b){
+                    ++yStart;
+                }
+            } else {
+                out[next++] = b;
+                ++yStart;
+            }
+        }
+        while(xStart < xEnd){
+            out[next++] = x[xStart++];
+        }
+        while(yStart < yEnd){
+            out[next++] = y[yStart++];
+        }
+        return next - outStart;
+    }
+
+    /**
+     * @return the number of ids written to out
+     */
+    static int intersection(int[] x, int xStart, int xEnd, int[] y, int yStart, int yEnd,
+                            int[] out, int outStart)
+    {
+        int next = outStart;
+        while(xStart < xEnd && yStart < yEnd){
+            int a = x[xStart];
+            int b = y[yStart];
+            if(a < b){
+                ++xStart;
+            } else if(a > b){
+                ++yStart;
+            } else {
+                out[next++] = a;
+                ++xStart;
+                ++yStart;
+            }
+        }
+        return next - outStart;
+    }
+
+    /**
+     * @return the number of ids of x not in y written to out
+     */
+    static int difference(int[] x, int xStart, int xEnd, int[] y, int yStart, int yEnd,
+                          int[] out, int outStart)
+    {
+        int next = outStart;
+        while(xStart < xEnd){
+            int a = x[xStart];
+            while(yStart < yEnd && y[yStart] < a){
+                ++yStart;
+            }
+            if(yStart == yEnd || y[yStart] != a){
+                out[next++] = a;
+            }
+            ++xStart;
+        }
+        return next - outStart;
+    }
+}
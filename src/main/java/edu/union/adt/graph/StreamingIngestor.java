@@ -0,0 +1,424 @@
+package edu.union.adt.graph;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes in edges from many threads at once and merges them into a
+ * graph in the background, so that producers never wait on the lock
+ * of the graph.
+ *
+ * Each vertex is interned once into an int id through a concurrent
+ * table; finding the id of a vertex already seen takes no lock.  Each
+ * producer thread appends the ids of its edges to a buffer of its own:
+ * a list of fixed-size segments that only that thread writes and only
+ * the merge reads, so appending is a plain store followed by a
+ * volatile count.  A merge thread wakes up at a fixed interval, takes
+ * whatever each buffer holds, and adds it to the graph as one batch:
+ * the batch is turned into a CsrGraph of the vertices it names and
+ * added with {@link GraphAlgebra#addAll(Graph, Graph)}, which merges
+ * the sorted neighbors of each vertex of an IndexedGraph in one pass
+ * instead of inserting edge by edge.
+ *
+ * A producer that gets too far ahead of the merge waits for it to
+ * catch up, so the buffers stay bounded.  The buffer of a thread that
+ * has ended is dropped once the merge has drained it, so short-lived
+ * producers do not pile up buffers.  The graph is only changed by
+ * the merge; to read it while edges are merged, use a graph that
+ * allows reads during writes, such as a {@link VersionedGraph}.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class StreamingIngestor<V> implements AutoCloseable
+{
+    private static final long DEFAULT_MERGE_INTERVAL_MILLIS = 10;
+    private static final int DEFAULT_MAX_BACKLOG = 1 << 20;
+    private static final int SEGMENT_EDGES = 4096;
+    private static final int CHUNK_BITS = 15;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    private static final int NO_VERTEX = -1;   // the second end of a vertex added on its own
+
+    private final Graph<V> graph;
+    private final long mergeIntervalNanos;
+    private final long maxBacklog;
+    private final Map<V, Integer> ids = new ConcurrentHashMap<V, Integer>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicReferenceArray<Object[]> vertices = new AtomicReferenceArray<Object[]>(1 << (31 - CHUNK_BITS));
+    private final List<Buffer> buffers = new CopyOnWriteArrayList<Buffer>();
+    private final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(this::register);
+    private final Object mergeLock = new Object();
+    private final Thread mergeThread;
+    private int[] batch = new int[2 * SEGMENT_EDGES];   // the ends being merged, guarded by mergeLock
+    private int batchSize;
+    private int[] localIds = new int[0];   // ingest id to id in the merge, valid where stamps[id] == stamp
+    private int[] stamps = new int[0];
+    private int stamp;
+    private volatile long mergedEdges;   // written under mergeLock
+    private volatile boolean running = true;
+
+    /**
+     * A run of edges written by one producer.  The producer fills
+     * 'ends' and then publishes how much it filled through 'count'.
+     */
+    private static final class Segment
+    {
+        final int[] ends = new int[2 * SEGMENT_EDGES];
+        volatile int count;
+        volatile Segment next;
+    }
+
+    /**
+     * The edges of one producer thread not yet merged.  The thread is
+     * only weakly held, so that the buffer does not keep it alive.
+     */
+    private final class Buffer
+    {
+        private final WeakReference<Thread> owner = new WeakReference<Thread>(Thread.currentThread());
+        private Segment tail = new Segment();   // written by the producer
+        private int fill;                       // the producer's copy of tail.count
+        private long appended;                  // edges appended, read by the producer only
+        private Segment head = tail;            // read by the merge
+        private int position;                   // the next end the merge reads in head
+        private volatile long consumed;         // edges merged, written by the merge
+
+        void append(int from, int to)
+        {
+            if(fill == tail.ends.length){
+                nextSegment();
+            }
+            Segment segment = tail;
+            segment.ends[fill] = from;
+            segment.ends[fill + 1] = to;
+            fill += 2;
+            segment.count = fill;
+            ++appended;
+        }
+
+        private void nextSegment()
+        {
+            while(appended - consumed > maxBacklog && running){
+                LockSupport.unpark(mergeThread);
+                LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(100));
+            }
+            Segment segment = new Segment();
+            tail.next = segment;
+            tail = segment;
+            fill = 0;
+        }
+
+        /**
+         * @return true iff the producer has ended, so that once
+         * drained the buffer will get no more edges
+         */
+        boolean ownerEnded()
+        {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        /**
+         * Appends the published edges to the batch.  Called under
+         * mergeLock.
+         */
+        void drain()
+        {
+            Segment segment = head;
+            int next = position;
+            long records = 0;
+            while(true){
+                int end = segment.count;
+                if(next < end){
+                    int length = end - next;
+                    if(batchSize + length > batch.length){
+                        batch = Arrays.copyOf(batch, Math.max(batchSize + length, batch.length * 2));
+                    }
+                    System.arraycopy(segment.ends, next, batch, batchSize, length);
+                    batchSize += length;
+                    records += length / 2;
+                    next = end;
+                }
+                Segment following = segment.next;
+                if(next < segment.ends.length || following == null){
+                    break;
+                }
+                segment = following;
+                next = 0;
+            }
+            head = segment;
+            position = next;
+            consumed += records;
+        }
+    }
+
+    /**
+     * Create an ingestor that merges into a graph every 10
+     * milliseconds, letting each producer get up to 1048576 edges
+     * ahead of the merge.
+     *
+     * @param graph the graph to merge into; it must not be changed
+     * otherwise while the ingestor is open
+     */
+    public StreamingIngestor(Graph<V> graph)
+    {
+        this(graph, DEFAULT_MERGE_INTERVAL_MILLIS, DEFAULT_MAX_BACKLOG);
+    }
+
+    /**
+     * Create an ingestor and start its merge thread.
+     *
+     * @param graph the graph to merge into; it must not be changed
+     * otherwise while the ingestor is open
+     * @param mergeIntervalMillis the time between merges
+     * @param maxBacklog the number of unmerged edges a producer may
+     * have before it waits for the merge
+     */
+    public StreamingIngestor(Graph<V> graph, long mergeIntervalMillis, int maxBacklog)
+    {
+        if(mergeIntervalMillis < 1 || maxBacklog < 1){
+            throw new IllegalArgumentException("mergeIntervalMillis and maxBacklog must be positive");
+        }
+        this.graph = graph;
+        this.mergeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(mergeIntervalMillis);
+        this.maxBacklog = maxBacklog;
+        this.mergeThread = new Thread(this::mergePeriodically, "graph-ingest-merge");
+        this.mergeThread.setDaemon(true);
+        this.mergeThread.start();
+    }
+
+    /**
+     * @return the graph the edges are merged into
+     */
+    public Graph<V> getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Adds an edge to the buffer of the calling thread.  The edge is
+     * in the graph after the next merge.  May wait if the thread is
+     * far ahead of the merge.  If the ingestor is closed, throws an
+     * IllegalStateException.
+     *
+     * @param from the vertex the edge leaves; not null
+     * @param to the vertex the edge enters; not null
+     */
+    public void addEdge(V from, V to)
+    {
+        checkOpen();
+        localBuffer.get().append(intern(from), intern(to));
+    }
+
+    /**
+     * Adds a vertex to the buffer of the calling thread.  The vertex
+     * is in the graph after the next merge.  If the ingestor is
+     * closed, throws an IllegalStateException.
+     *
+     * @param vertex the vertex; not null
+     */
+    public void addVertex(V vertex)
+    {
+        checkOpen();
+        localBuffer.get().append(intern(vertex), NO_VERTEX);
+    }
+
+    /**
+     * @return the number of distinct vertices added so far, merged or
+     * not
+     */
+    public int numVertices()
+    {
+        return nextId.get();
+    }
+
+    /**
+     * @return the number of edges merged so far, including edges the
+     * graph already had
+     */
+    public long getMergedEdges()
+    {
+        return mergedEdges;
+    }
+
+    /**
+     * Merges every edge and vertex added before the call into the
+     * graph, without waiting for the merge thread.
+     *
+     * @return the number of edges merged
+     */
+    public long merge()
+    {
+        synchronized(mergeLock){
+            batchSize = 0;
+            for(Buffer buffer : buffers){
+                // checked before draining, so that nothing can be appended after the drain
+                boolean ended = buffer.ownerEnded();
+                buffer.drain();
+                if(ended){
+                    buffers.remove(buffer);
+                }
+            }
+            if(batchSize == 0){
+                return 0;
+            }
+            long edges = 0;
+            for(int i = 1; i < batchSize; i += 2){
+                edges += batch[i] == NO_VERTEX ? 0 : 1;
+            }
+            GraphAlgebra.addAll(graph, toCsrGraph());
+            mergedEdges += edges;
+            return edges;
+        }
+    }
+
+    /**
+     * Turns the batch into a graph of the vertices it names, numbered
+     * in the order they first appear, with the edges sorted and
+     * repeats dropped.  Called under mergeLock.
+     */
+    private CsrGraph<V> toCsrGraph()
+    {
+        int limit = nextId.get();
+        if(localIds.length < limit){
+            int capacity = Math.max(limit, localIds.length * 2);
+            localIds = Arrays.copyOf(localIds, capacity);
+            stamps = Arrays.copyOf(stamps, capacity);
+        }
+        ++stamp;
+        VertexDictionary<V> dictionary = new VertexDictionary<V>(Math.min(limit, batchSize));
+        int[] offsets = new int[Math.min(limit, batchSize) + 1];
+        int edges = 0;
+        for(int i = 0; i < batchSize; i += 2){
+            int from = toLocal(batch[i], dictionary);
+            if(batch[i + 1] != NO_VERTEX){
+                batch[i + 1] = toLocal(batch[i + 1], dictionary);
+                ++offsets[from + 1];
+                ++edges;
+            }
+            batch[i] = from;
+        }
+        int n = dictionary.size();
+        offsets = Arrays.copyOf(offsets, n + 1);
+        for(int v = 0; v < n; ++v){
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[edges];
+        for(int i = 0; i < batchSize; i += 2){
+            if(batch[i + 1] != NO_VERTEX){
+                targets[next[batch[i]]++] = batch[i + 1];
+            }
+        }
+        for(int v = 0; v < n; ++v){
+            Arrays.sort(targets, offsets[v], offsets[v + 1]);
+        }
+        return new CsrGraph<V>(dictionary, offsets, EdgeListLoader.removeDuplicates(offsets, targets));
+    }
+
+    /**
+     * @return the id in this merge of the vertex with the given
+     * ingest id, adding it to the dictionary the first time
+     */
+    private int toLocal(int id, VertexDictionary<V> dictionary)
+    {
+        if(stamps[id] != stamp){
+            stamps[id] = stamp;
+            localIds[id] = dictionary.intern(vertexOf(id));
+        }
+        return localIds[id];
+    }
+
+    /**
+     * Stops the merge thread and merges what is left.  Edges added
+     * afterwards are refused, and edges added while close runs may
+     * be lost, so producers should stop first.
+     */
+    @Override
+    public void close()
+    {
+        running = false;
+        LockSupport.unpark(mergeThread);
+        try {
+            mergeThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        merge();
+    }
+
+    private void mergePeriodically()
+    {
+        while(running){
+            LockSupport.parkNanos(this, mergeIntervalNanos);
+            try {
+                merge();
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    private void checkOpen()
+    {
+        if(!running){
+            throw new IllegalStateException("the ingestor is closed");
+        }
+    }
+
+    /**
+     * Creates the buffer of the calling thread, the first time it adds
+     * to the ingestor.
+     */
+    private Buffer register()
+    {
+        Buffer buffer = new Buffer();
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * @return the id of a vertex, giving it the next id if it has
+     * none; only the first sight of a vertex takes a lock, on one bin
+     * of the table
+     */
+    private int intern(V vertex)
+    {
+        Integer id = ids.get(vertex);
+        if(id == null){
+            id = ids.computeIfAbsent(vertex, this::assign);
+        }
+        return id;
+    }
+
+    /**
+     * Stores a new vertex under the next id.  The store is seen by the
+     * merge because every edge naming the id is published after it.
+     */
+    private Integer assign(V vertex)
+    {
+        int id = nextId.getAndIncrement();
+        int index = id >>> CHUNK_BITS;
+        Object[] chunk = vertices.get(index);
+        if(chunk == null){
+            vertices.compareAndSet(index, null, new Object[1 << CHUNK_BITS]);
+            chunk = vertices.get(index);
+        }
+        chunk[id & CHUNK_MASK] = vertex;
+        return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V vertexOf(int id)
+    {
+        return (V) vertices.get(id >>> CHUNK_BITS)[id & CHUNK_MASK];
+    }
+}
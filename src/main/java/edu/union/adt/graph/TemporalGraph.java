@@ -0,0 +1,727 @@
+package edu.union.adt.graph;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * A graph whose edges are only valid for a sliding window of time.
+ * Each edge carries the time it was last added, and is live while that
+ * time is within 'window' of the graph's clock: an edge added at time t
+ * expires once the clock passes t + window - 1.  Vertices do not
+ * expire.  The clock starts at 0 and moves forward to the time of each
+ * edge added and each advanceTo; edges added with a time already out
+ * of the window are dropped, and adding a live edge again with a later
+ * time extends its life.
+ *
+ * Expired edges are removed as the clock moves, by a timing wheel
+ * rather than a scan of the graph.  The wheel is a ring of buckets,
+ * each holding the edges added during one tick of time.  When the
+ * clock moves, the buckets whose whole tick has left the window are
+ * emptied, and each edge in them that was not added again later is
+ * removed.  The one bucket that the end of the window falls inside is
+ * sorted by time when the window first reaches it, and its edges are
+ * then removed in order as the window moves through it.  So the graph
+ * only ever holds live edges, every read and search sees exactly the
+ * graph as of the clock, and each edge added costs O(1) amortized work
+ * to expire, plus its share of sorting one bucket.
+ *
+ * The edges themselves are stored as in {@link IndexedGraph}: sorted
+ * destination ids for each vertex, with the time of each edge in a
+ * parallel array.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class TemporalGraph<V> implements Graph<V>
+{
+    private static final int[] NO_NEIGHBORS = new int[0];
+    private static final long[] NO_TIMES = new long[0];
+    private static final int DEFAULT_TICKS_PER_WINDOW = 64;
+    private static final int MAX_BUCKETS = 1 << 20;
+
+    private final VertexDictionary<V> dictionary = new VertexDictionary<V>(16);
+    private int[][] neighbors = new int[16][];   // sorted destination ids for each vertex id, null for free ids
+    private long[][] times = new long[16][];     // the time of each edge, parallel to neighbors
+    private int[] degrees = new int[16];
+    private final IdSearch.Adjacency adjacency = new IdSearch.Adjacency() {
+        @Override
+        int[] targets(int id, int[] range)
+        {
+            range[0] = 0;
+            range[1] = degrees[id];
+            return neighbors[id];
+        }
+    };
+    private int numEdges;
+
+    private final long window;
+    private final long tick;
+    private final Bucket[] wheel;
+    private long now;
+    private long expiredThrough;   // the last tick whose bucket has been emptied
+
+    /**
+     * The edges added during one tick, as packed (from, to) ids and the
+     * time each was added.
+     */
+    private static final class Bucket
+    {
+        long index = Long.MIN_VALUE;   // the tick this bucket holds
+        long[] edges = new long[16];
+        long[] times = new long[16];
+        int size;
+        int expired;      // edges[0, expired) have been expired; only the bucket at the window's end is consumed in part
+        boolean sorted;   // whether edges[expired, size) are in time order
+
+        void reset(long tickIndex)
+        {
+            index = tickIndex;
+            size = 0;
+            expired = 0;
+            sorted = false;
+        }
+
+        void add(long edge, long time)
+        {
+            if(size == edges.length){
+                edges = Arrays.copyOf(edges, size * 2);
+                times = Arrays.copyOf(times, size * 2);
+            }
+            int at = size;
+            if(sorted){
+                // an edge added late to the bucket at the window's end keeps the rest in order
+                while(at > expired && times[at - 1] > time){
+                    --at;
+                }
+                System.arraycopy(edges, at, edges, at + 1, size - at);
+                System.arraycopy(times, at, times, at + 1, size - at);
+            }
+            edges[at] = edge;
+            times[at] = time;
+            ++size;
+        }
+
+        /**
+         * Sorts the edges not yet expired by time.  Each time is less
+         * than one tick after the start of the bucket, so it fits in
+         * the high half of a long with the position of its edge in the
+         * low half, and one sort of primitives orders both.
+         */
+        void sort(long tick)
+        {
+            int length = size - expired;
+            long start = index * tick;
+            long[] keys = new long[length];
+            for(int i = 0; i < length; ++i){
+                keys[i] = (times[expired + i] - start) << 32 | i;
+            }
+            Arrays.sort(keys);
+            long[] sortedEdges = new long[length];
+            for(int i = 0; i < length; ++i){
+                sortedEdges[i] = edges[expired + (int) keys[i]];
+            }
+            for(int i = 0; i < length; ++i){
+                edges[expired + i] = sortedEdges[i];
+                times[expired + i] = start + (keys[i] >>> 32);
+            }
+            sorted = true;
+        }
+    }
+
+    /**
+     * Create an empty graph whose timing wheel has 64 ticks per window.
+     *
+     * @param window how long an edge stays live, in the units of the
+     * times given
+     */
+    public TemporalGraph(long window)
+    {
+        this(window, Math.max(1, Math.min(Integer.MAX_VALUE, window / DEFAULT_TICKS_PER_WINDOW)));
+    }
+
+    /**
+     * Create an empty graph.
+     *
+     * @param window how long an edge stays live, in the units of the
+     * times given
+     * @param tick the span of time of each bucket of the timing wheel,
+     * at most 2^31 - 1; shorter ticks sort smaller buckets but need
+     * more of them
+     */
+    public TemporalGraph(long window, long tick)
+    {
+        if(window < 1 || tick < 1 || tick > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("window and tick must be positive, and tick at most 2^31 - 1");
+        }
+        if(window / tick >= MAX_BUCKETS){
+            throw new IllegalArgumentException("the window is more than " + MAX_BUCKETS + " ticks");
+        }
+        this.window = window;
+        this.tick = tick;
+        // the live times span at most window / tick + 1 ticks, so no two of them share a bucket
+        this.wheel = new Bucket[(int) (window / tick) + 2];
+        for(int i = 0; i < wheel.length; ++i){
+            wheel[i] = new Bucket();
+        }
+        this.expiredThrough = Math.floorDiv(cutoff() + 1, tick) - 1;
+    }
+
+    /**
+     * @return how long an edge stays live
+     */
+    public long getWindow()
+    {
+        return window;
+    }
+
+    /**
+     * @return the time of the graph's clock
+     */
+    public long getTime()
+    {
+        return now;
+    }
+
+    /**
+     * Moves the clock forward and removes the edges that expire.  Does
+     * nothing if 'time' is not after the clock.
+     *
+     * @param time the new time
+     */
+    public void advanceTo(long time)
+    {
+        if(time <= now){
+            return;
+        }
+        now = time;
+        long cutoff = cutoff();
+        long lastFull = Math.floorDiv(cutoff + 1, tick) - 1;   // the last tick wholly out of the window
+        if(lastFull - expiredThrough >= wheel.length){
+            for(Bucket bucket : wheel){
+                if(bucket.index <= lastFull){
+                    expire(bucket, bucket.size);
+                }
+            }
+        } else {
+            for(long t = expiredThrough + 1; t <= lastFull; ++t){
+                Bucket bucket = bucketOf(t);
+                if(bucket.index == t){
+                    expire(bucket, bucket.size);
+                }
+            }
+        }
+        expiredThrough = lastFull;
+
+        Bucket boundary = bucketOf(lastFull + 1);
+        if(boundary.index == lastFull + 1 && boundary.expired < boundary.size){
+            if(!boundary.sorted){
+                boundary.sort(tick);
+            }
+            int end = boundary.expired;
+            while(end < boundary.size && boundary.times[end] <= cutoff){
+                ++end;
+            }
+            expire(boundary, end);
+        }
+    }
+
+    /**
+     * @return the latest time at which edges are expired
+     */
+    private long cutoff()
+    {
+        return now - window;
+    }
+
+    private Bucket bucketOf(long tickIndex)
+    {
+        return wheel[(int) Math.floorMod(tickIndex, (long) wheel.length)];
+    }
+
+    /**
+     * Removes the edges of a bucket up to 'end' that were not added
+     * again later.
+     */
+    private void expire(Bucket bucket, int end)
+    {
+        for(int i = bucket.expired; i < end; ++i){
+            long edge = bucket.edges[i];
+            int fromId = (int) (edge >>> 32);
+            int toId = (int) edge;
+            if(fromId < dictionary.idLimit() && neighbors[fromId] != null){
+                int index = indexOf(fromId, toId);
+                if(index >= 0 && times[fromId][index] == bucket.times[i]){
+                    removeAt(fromId, index);
+                }
+            }
+        }
+        bucket.expired = end;
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int numVertices()
+    {
+        return dictionary.size();
+    }
+
+    /**
+     * @return the number of live edges in the graph.
+     */
+    public int numEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Gets the number of vertices connected by live edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    public int degree(V vertex)
+    {
+        int id = dictionary.idOf(vertex);
+        if(id < 0){
+            throw new RuntimeException("vertex is not in the graph");
+        }
+        return degrees[id];
+    }
+
+    /**
+     * Adds a directed edge between two vertices at the time of the
+     * clock.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public void addEdge(V from, V to)
+    {
+        addEdge(from, to, now);
+    }
+
+    /**
+     * Adds a directed edge between two vertices at a given time,
+     * moving the clock forward to it first.  If either (or both) of the
+     * given vertices does not exist, it is added to the graph.  If the
+     * time is already out of the window, the edge is dropped.  If the
+     * edge exists, its time becomes the later of the two.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     * @param time the time of the edge
+     */
+    public void addEdge(V from, V to, long time)
+    {
+        if(from != null && to != null){
+            advanceTo(time);
+            int fromId = addVertexId(from);
+            int toId = addVertexId(to);
+            if(time <= cutoff()){
+                return;
+            }
+            int[] adj = neighbors[fromId];
+            int degree = degrees[fromId];
+            int index = Arrays.binarySearch(adj, 0, degree, toId);
+            if(index >= 0){
+                if(times[fromId][index] >= time){
+                    return;
+                }
+                times[fromId][index] = time;
+            } else {
+                index = -index - 1;
+                if(degree == adj.length){
+                    adj = neighbors[fromId] = Arrays.copyOf(adj, Math.max(4, degree * 2));
+                    times[fromId] = Arrays.copyOf(times[fromId], adj.length);
+                }
+                long[] adjTimes = times[fromId];
+                System.arraycopy(adj, index, adj, index + 1, degree - index);
+                System.arraycopy(adjTimes, index, adjTimes, index + 1, degree - index);
+                adj[index] = toId;
+                adjTimes[index] = time;
+                ++degrees[fromId];
+                ++numEdges;
+            }
+            long tickIndex = Math.floorDiv(time, tick);
+            Bucket bucket = bucketOf(tickIndex);
+            if(bucket.index != tickIndex){
+                assert bucket.expired == bucket.size : "a live bucket is reused";
+                bucket.reset(tickIndex);
+            }
+            bucket.add((long) fromId << 32 | (toId & 0xffffffffL), time);
+        }
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.  If the vertex does not exist, it is
+     * added to the graph, with no edges connected to it.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex)
+    {
+        if(vertex != null){
+            addVertexId(vertex);
+        }
+    }
+
+    private int addVertexId(V vertex)
+    {
+        int id = dictionary.intern(vertex);
+        if(id >= neighbors.length){
+            int capacity = Math.max(neighbors.length * 2, id + 1);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+            times = Arrays.copyOf(times, capacity);
+            degrees = Arrays.copyOf(degrees, capacity);
+        }
+        if(neighbors[id] == null){
+            neighbors[id] = NO_NEIGHBORS;
+            times[id] = NO_TIMES;
+            degrees[id] = 0;
+        }
+        return id;
+    }
+
+    /**
+     * @return the an iterable collection for the set of vertices of
+     * the graph, in id order.
+     */
+    public Iterable<V> getVertices()
+    {
+        return dictionary::iterator;
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex by live edges, in id
+     * order.  The returned list is a read-only view of the graph's
+     * arrays.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    public Iterable<V> adjacentTo(V from)
+    {
+        int id = dictionary.idOf(from);
+        if(id < 0){
+            return Collections.emptyList();
+        }
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index)
+            {
+                if(index < 0 || index >= degrees[id]){
+                    throw new IndexOutOfBoundsException(String.valueOf(index));
+                }
+                return dictionary.vertexOf(neighbors[id][index]);
+            }
+
+            @Override
+            public int size()
+            {
+                return degrees[id];
+            }
+        };
+    }
+
+    /**
+     * Passes each vertex adjacent to a given vertex to an action,
+     * walking the id array directly.
+     *
+     * @param from the source vertex
+     * @param action called once for each vertex adjacent to 'from'
+     */
+    @Override
+    public void forEachNeighbor(V from, Consumer<? super V> action)
+    {
+        int id = dictionary.idOf(from);
+        if(id >= 0){
+            int[] adj = neighbors[id];
+            for(int i = 0, degree = degrees[id]; i < degree; ++i){
+                action.accept(dictionary.vertexOf(adj[i]));
+            }
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    public boolean contains(V vertex)
+    {
+        return dictionary.idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether a live edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    public boolean hasEdge(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        return fromId >= 0 && toId >= 0 && indexOf(fromId, toId) >= 0;
+    }
+
+    /**
+     * Gets the time a live edge was last added.  If there is no such
+     * edge, throws a RuntimeException.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the time of the edge
+     */
+    public long timeOf(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        int index = fromId >= 0 && toId >= 0 ? indexOf(fromId, toId) : -1;
+        if(index < 0){
+            throw new RuntimeException("edge is not in the graph");
+        }
+        return times[fromId][index];
+    }
+
+    /**
+     * Gives a string representation of the graph, in the same form as
+     * GraphImplementation.
+     *
+     * @return the string representation of the graph
+     */
+    public String toString()
+    {
+        return Graphs.toString(this);
+    }
+
+    /**
+    * equal method for Graph
+    *
+    * @param obj the arbitrary object
+    * @return true if this is equal to obj
+    */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        TemporalGraph graph = (TemporalGraph) obj;
+        return this.toString().equals(graph.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+
+    /**
+     * Estimates the memory the graph uses: the vertex dictionary, the
+     * id and time arrays, and the timing wheel.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        long vertexMap = MemoryFootprint.object(6 * MemoryFootprint.REFERENCE + 36)
+            + MemoryFootprint.object(MemoryFootprint.REFERENCE)   // the Adjacency searches read
+            + dictionary.sizeInBytes();
+        long adjacency = 2 * MemoryFootprint.array(neighbors.length, MemoryFootprint.REFERENCE)
+            + MemoryFootprint.array(degrees.length, 4);
+        for(int id = 0; id < neighbors.length; ++id){
+            if(neighbors[id] != null && neighbors[id] != NO_NEIGHBORS){
+                adjacency += MemoryFootprint.array(neighbors[id].length, 4) + MemoryFootprint.array(times[id].length, 8);
+            }
+        }
+        long buckets = MemoryFootprint.array(wheel.length, MemoryFootprint.REFERENCE);
+        for(Bucket bucket : wheel){
+            buckets += MemoryFootprint.object(2 * MemoryFootprint.REFERENCE + 17)
+                + MemoryFootprint.array(bucket.edges.length, 8) + MemoryFootprint.array(bucket.times.length, 8);
+        }
+        return new MemoryFootprint(this, vertexMap, adjacency, buckets, 0);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty.
+     */
+    public boolean isEmpty()
+    {
+        return dictionary.size() == 0;
+    }
+
+    /**
+     * Removes and vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge.  The id of the vertex
+     * is freed for reuse; the entries of its edges left in the timing
+     * wheel only remove edges of the same time, which expire with them.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    public void removeVertex(V toRemove)
+    {
+        int id = dictionary.idOf(toRemove);
+        if(id >= 0){
+            for(int other = 0; other < dictionary.idLimit(); ++other){
+                if(neighbors[other] != null && other != id){
+                    int index = indexOf(other, id);
+                    if(index >= 0){
+                        removeAt(other, index);
+                    }
+                }
+            }
+            numEdges -= degrees[id];
+            neighbors[id] = null;
+            times[id] = null;
+            degrees[id] = 0;
+            dictionary.remove(toRemove);
+        }
+    }
+
+    /**
+     * Removes an edge from the graph before it expires.
+     *
+     * <p>Postcondition: If from and to were in the graph and (from,
+     * to) was an edge in the graph, then numEdges = numEdges' - 1
+     */
+    public void removeEdge(V from, V to)
+    {
+        int fromId = dictionary.idOf(from);
+        int toId = dictionary.idOf(to);
+        if(fromId >= 0 && toId >= 0){
+            int index = indexOf(fromId, toId);
+            if(index >= 0){
+                removeAt(fromId, index);
+            }
+        }
+    }
+
+    private void removeAt(int fromId, int index)
+    {
+        int length = degrees[fromId] - index - 1;
+        System.arraycopy(neighbors[fromId], index + 1, neighbors[fromId], index, length);
+        System.arraycopy(times[fromId], index + 1, times[fromId], index, length);
+        --degrees[fromId];
+        --numEdges;
+    }
+
+    private int indexOf(int fromId, int toId)
+    {
+        return Arrays.binarySearch(neighbors[fromId], 0, degrees[fromId], toId);
+    }
+
+    /**
+     * Tells whether there is a path of live edges connecting two
+     * given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).isFound();
+    }
+
+    /**
+     * Tells whether there is a path of edges live at a given time,
+     * moving the clock forward to it first.  If the time is before the
+     * clock, throws an IllegalArgumentException, since the edges that
+     * expired since are gone.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param time the time of the query
+     * @return true iff there is a path from 'from' to 'to' at 'time'.
+     */
+    public boolean hasPath(V from, V to, long time)
+    {
+        checkQueryTime(time);
+        advanceTo(time);
+        return hasPath(from, to);
+    }
+
+    /**
+     * Gets the length of the shortest path of live edges connecting
+     * two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getLength();
+    }
+
+    /**
+     * Gets the length of the shortest path of edges live at a given
+     * time, moving the clock forward to it first.  If the time is
+     * before the clock, throws an IllegalArgumentException.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param time the time of the query
+     * @return the length of the shortest path from 'from' to 'to' at
+     * 'time'.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to, long time)
+    {
+        checkQueryTime(time);
+        advanceTo(time);
+        return pathLength(from, to);
+    }
+
+    private void checkQueryTime(long time)
+    {
+        if(time < now){
+            throw new IllegalArgumentException("cannot query time " + time + " before the clock at " + now);
+        }
+    }
+
+    /**
+     * Returns the vertices along the shortest path of live edges
+     * connecting two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to', empty if there is no path.
+     */
+    public Iterable<V> getPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    /**
+     * Searches for the shortest path of live edges connecting two
+     * given vertices without exceeding the given limits.  The search
+     * runs on vertex ids; vertices are only looked up to build the
+     * path found.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @return FOUND with the shortest path, NOT_FOUND or LIMIT_EXCEEDED
+     */
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        return IdSearch.search(dictionary, adjacency, from, to, limits, null);
+    }
+}
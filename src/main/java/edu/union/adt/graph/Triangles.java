@@ -0,0 +1,403 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts triangles and computes clustering coefficients.  Edge
+ * directions are ignored: u and v are neighbors if either edge between
+ * them exists, and edges from a vertex to itself are dropped.
+ *
+ * The count runs on a CSR snapshot.  Vertices are ranked by degree,
+ * lowest first, and each edge is kept only in the list of its
+ * lower-ranked end, renumbered by rank and sorted.  A triangle is then
+ * found exactly once, at its lowest-ranked vertex u, as a vertex in
+ * both the list of u and the list of a later neighbor v of u, by a
+ * linear merge of the two sorted lists, or by binary searches when one
+ * list is much shorter.  Ranking by degree keeps every list short, at
+ * most the square root of twice the number of edges, so hubs cost
+ * little.
+ *
+ * The vertices are split into slices of about the same amount of
+ * work, which the threads of a fixed pool take in turn.  Each thread
+ * counts the triangles of each vertex in its own array, and the arrays
+ * are added up at the end, so a count takes one long per vertex per
+ * thread.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public final class Triangles
+{
+    private static final int SKEW = 16;   // the length ratio past which binary search beats merging
+
+    private final int parallelism;
+
+    /**
+     * Create a Triangles using one thread per available processor.
+     */
+    public Triangles()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a Triangles using the given number of threads.
+     *
+     * @param parallelism the number of threads
+     */
+    public Triangles(int parallelism)
+    {
+        if(parallelism < 1){
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Counts the triangles of a graph, in total and through each
+     * vertex.
+     *
+     * @param graph the graph
+     * @return the counts
+     */
+    public <V> Counts<V> count(Graph<V> graph)
+    {
+        CsrGraph<V> csr = CsrGraph.copyOf(graph);
+        int n = csr.numVertices();
+        int[] offsets = new int[n + 1];
+        int[] neighbors = undirected(csr, offsets);
+        int[] degrees = new int[n];
+        for(int v = 0; v < n; ++v){
+            degrees[v] = offsets[v + 1] - offsets[v];
+        }
+
+        int[] byRank = rankByDegree(degrees);
+        int[] rank = new int[n];
+        for(int r = 0; r < n; ++r){
+            rank[byRank[r]] = r;
+        }
+        int[] forwardOffsets = new int[n + 1];
+        for(int r = 0; r < n; ++r){
+            int v = byRank[r];
+            int later = 0;
+            for(int i = offsets[v]; i < offsets[v + 1]; ++i){
+                later += rank[neighbors[i]] > r ? 1 : 0;
+            }
+            forwardOffsets[r + 1] = forwardOffsets[r] + later;
+        }
+        int[] forward = new int[forwardOffsets[n]];
+        for(int r = 0; r < n; ++r){
+            int v = byRank[r];
+            int next = forwardOffsets[r];
+            for(int i = offsets[v]; i < offsets[v + 1]; ++i){
+                int other = rank[neighbors[i]];
+                if(other > r){
+                    forward[next++] = other;
+                }
+            }
+        }
+        neighbors = null;
+
+        int[] bounds = slices(forwardOffsets);
+        int threads = Math.max(1, Math.min(parallelism, bounds.length - 1));
+        long[][] local = new long[threads][];
+        AtomicInteger nextSlice = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            // the forward lists are sorted per slice, then each thread takes slices until none are left
+            runAll(pool, threads, thread -> {
+                    for(int s = nextSlice.getAndIncrement(); s + 1 < bounds.length; s = nextSlice.getAndIncrement()){
+                        for(int r = bounds[s]; r < bounds[s + 1]; ++r){
+                            Arrays.sort(forward, forwardOffsets[r], forwardOffsets[r + 1]);
+                        }
+                    }
+                });
+            nextSlice.set(0);
+            runAll(pool, threads, thread -> {
+                    long[] counts = local[thread] = new long[n];
+                    int[] common = new int[64];
+                    for(int s = nextSlice.getAndIncrement(); s + 1 < bounds.length; s = nextSlice.getAndIncrement()){
+                        for(int u = bounds[s]; u < bounds[s + 1]; ++u){
+                            int uEnd = forwardOffsets[u + 1];
+                            if(uEnd - forwardOffsets[u] > common.length){
+                                common = new int[uEnd - forwardOffsets[u]];
+                            }
+                            for(int i = forwardOffsets[u]; i < uEnd; ++i){
+                                int v = forward[i];
+                                // only neighbors of u ranked after v can be in v's list
+                                int found = intersect(forward, i + 1, uEnd, forwardOffsets[v], forwardOffsets[v + 1], common);
+                                counts[u] += found;
+                                counts[v] += found;
+                                for(int j = 0; j < found; ++j){
+                                    ++counts[common[j]];
+                                }
+                            }
+                        }
+                    }
+                });
+        } finally {
+            pool.shutdown();
+        }
+
+        long[] perVertex = new long[n];
+        long total = 0;
+        for(int r = 0; r < n; ++r){
+            long count = 0;
+            for(long[] counts : local){
+                count += counts[r];
+            }
+            perVertex[byRank[r]] = count;
+            total += count;
+        }
+        return new Counts<V>(csr.dictionary(), perVertex, degrees, total / 3);
+    }
+
+    /**
+     * Intersects two sorted ranges of the forward lists.  Ranges of
+     * similar length are merged; when one is much shorter, each of its
+     * ids is found in the longer one by a binary search that starts
+     * after the previous match.
+     *
+     * @return the number of common ids, written to out
+     */
+    private static int intersect(int[] lists, int xStart, int xEnd, int yStart, int yEnd, int[] out)
+    {
+        int xLength = xEnd - xStart;
+        int yLength = yEnd - yStart;
+        if(xLength == 0 || yLength == 0){
+            return 0;
+        }
+        if(xLength * SKEW < yLength || yLength * SKEW < xLength){
+            if(xLength > yLength){
+                int start = xStart;
+                xStart = yStart;
+                xEnd = yEnd;
+                yStart = start;
+                yEnd = start + xLength;
+            }
+            int found = 0;
+            for(int i = xStart; i < xEnd && yStart < yEnd; ++i){
+                int index = Arrays.binarySearch(lists, yStart, yEnd, lists[i]);
+                if(index >= 0){
+                    out[found++] = lists[i];
+                    yStart = index + 1;
+                } else {
+                    yStart = -index - 1;
+                }
+            }
+            return found;
+        }
+        return SortedIds.intersection(lists, xStart, xEnd, lists, yStart, yEnd, out, 0);
+    }
+
+    /**
+     * Merges the edges leaving and entering each vertex into one
+     * sorted list of neighbors, without the vertex itself.
+     *
+     * @param offsets filled in with the offsets of the lists
+     * @return the lists
+     */
+    private static int[] undirected(CsrGraph<?> csr, int[] offsets)
+    {
+        CsrGraph<?> reverse = csr.transpose();
+        int[] outOffsets = csr.offsets();
+        int[] outTargets = csr.targets();
+        int[] inOffsets = reverse.offsets();
+        int[] inSources = reverse.targets();
+        int n = offsets.length - 1;
+        int[] neighbors = new int[outTargets.length + inSources.length];
+        int next = 0;
+        for(int v = 0; v < n; ++v){
+            offsets[v] = next;
+            int start = next;
+            int size = SortedIds.union(outTargets, outOffsets[v], outOffsets[v + 1],
+                                       inSources, inOffsets[v], inOffsets[v + 1], neighbors, start);
+            int self = Arrays.binarySearch(neighbors, start, start + size, v);
+            if(self >= 0){
+                System.arraycopy(neighbors, self + 1, neighbors, self, start + size - self - 1);
+                --size;
+            }
+            next = start + size;
+        }
+        offsets[n] = next;
+        return neighbors;
+    }
+
+    /**
+     * @return the vertices ordered by degree, then by id
+     */
+    private static int[] rankByDegree(int[] degrees)
+    {
+        int maxDegree = 0;
+        for(int degree : degrees){
+            maxDegree = Math.max(maxDegree, degree);
+        }
+        int[] starts = new int[maxDegree + 2];
+        for(int degree : degrees){
+            ++starts[degree + 1];
+        }
+        for(int d = 0; d <= maxDegree; ++d){
+            starts[d + 1] += starts[d];
+        }
+        int[] byRank = new int[degrees.length];
+        for(int v = 0; v < degrees.length; ++v){
+            byRank[starts[degrees[v]]++] = v;
+        }
+        return byRank;
+    }
+
+    /**
+     * Splits the ranks into ranges of about the same work, counting a
+     * vertex and each edge in its list as one unit.
+     *
+     * @return bounds[s] to bounds[s + 1] is slice s
+     */
+    private int[] slices(int[] offsets)
+    {
+        int n = offsets.length - 1;
+        int count = Math.max(1, Math.min(parallelism * 16, n));
+        long work = (long) offsets[n] + n;
+        int[] bounds = new int[count + 1];
+        int v = 0;
+        for(int s = 1; s < count; ++s){
+            long goal = work * s / count;
+            while(v < n && (long) offsets[v] + v < goal){
+                ++v;
+            }
+            bounds[s] = v;
+        }
+        bounds[count] = n;
+        return bounds;
+    }
+
+    private interface ThreadTask
+    {
+        void run(int thread);
+    }
+
+    private static void runAll(ExecutorService pool, int threads, ThreadTask task)
+    {
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for(int t = 0; t < threads; ++t){
+            int thread = t;
+            futures.add(pool.submit(() -> task.run(thread)));
+        }
+        try {
+            for(Future<?> future : futures){
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while counting triangles");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * The triangle counts of a graph.
+     */
+    public static final class Counts<V>
+    {
+        private final VertexDictionary<V> dictionary;
+        private final long[] triangles;
+        private final int[] degrees;
+        private final long total;
+
+        Counts(VertexDictionary<V> dictionary, long[] triangles, int[] degrees, long total)
+        {
+            this.dictionary = dictionary;
+            this.triangles = triangles;
+            this.degrees = degrees;
+            this.total = total;
+        }
+
+        /**
+         * @return the number of triangles in the graph
+         */
+        public long total()
+        {
+            return total;
+        }
+
+        /**
+         * Gets the number of triangles a vertex is in.  If the vertex
+         * was not in the graph, throws a RuntimeException.
+         *
+         * @param vertex a vertex
+         * @return the number of triangles through the vertex
+         */
+        public long get(V vertex)
+        {
+            return triangles[idOf(vertex)];
+        }
+
+        /**
+         * Gets the local clustering coefficient of a vertex: the
+         * fraction of the pairs of its neighbors that are neighbors
+         * too.  If the vertex was not in the graph, throws a
+         * RuntimeException.
+         *
+         * @param vertex a vertex
+         * @return the coefficient, 0 if the vertex has fewer than two
+         * neighbors
+         */
+        public double clusteringCoefficient(V vertex)
+        {
+            return coefficient(idOf(vertex));
+        }
+
+        /**
+         * @return the mean of the local clustering coefficients of all
+         * vertices, 0 for an empty graph
+         */
+        public double averageClusteringCoefficient()
+        {
+            double sum = 0;
+            for(int id = 0; id < triangles.length; ++id){
+                sum += coefficient(id);
+            }
+            return triangles.length == 0 ? 0 : sum / triangles.length;
+        }
+
+        /**
+         * @return three times the number of triangles over the number
+         * of paths of two edges, 0 if there are none
+         */
+        public double globalClusteringCoefficient()
+        {
+            double wedges = 0;
+            for(int degree : degrees){
+                wedges += (double) degree * (degree - 1) / 2;
+            }
+            return wedges == 0 ? 0 : 3 * total / wedges;
+        }
+
+        private double coefficient(int id)
+        {
+            int degree = degrees[id];
+            return degree < 2 ? 0 : 2.0 * triangles[id] / ((double) degree * (degree - 1));
+        }
+
+        private int idOf(V vertex)
+        {
+            int id = dictionary.idOf(vertex);
+            if(id < 0){
+                throw new RuntimeException("vertex is not in the graph");
+            }
+            return id;
+        }
+    }
+}
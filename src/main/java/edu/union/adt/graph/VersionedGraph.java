@@ -0,0 +1,780 @@
+package edu.union.adt.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A graph that keeps several versions of itself so that readers see a
+ * consistent graph while a writer changes it (multi-version
+ * concurrency control).
+ *
+ * Every mutation that changes the graph creates a new version.  For
+ * each vertex the graph keeps a chain of records, newest first; a
+ * record holds the vertex's (immutable) set of adjacent vertices as
+ * of the version that wrote it, or marks the vertex as removed.  The
+ * sets are {@link PersistentSet}s, so a record that adds or removes
+ * one neighbor copies O(log d) trie nodes and shares the rest with
+ * the record before it, rather than copying all d neighbors.  A
+ * mutation writes all of its records under a new version number and
+ * only then publishes that number, so a reader never sees half of a
+ * mutation.
+ *
+ * Readers take a {@link Snapshot}, which pins the current version:
+ * the snapshot sees exactly the graph as of that version no matter
+ * what is written afterwards, and never blocks or is blocked by the
+ * writer.  Records that no pinned version can see any more are
+ * dropped by the writer, so closing snapshots lets old versions be
+ * garbage-collected.  The read methods of VersionedGraph itself each
+ * run on a snapshot of the current version.
+ *
+ * Mutations are serialized; any number of threads may read while one
+ * writes.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class VersionedGraph<V> implements Graph<V>
+{
+    private final Map<V, Chain<V>> chains = new ConcurrentHashMap<V, Chain<V>>();
+    private final Object writeLock = new Object();
+    private final TreeMap<Long, Integer> pins = new TreeMap<Long, Integer>(); // guarded by itself
+    private final Set<Chain<V>> retained = new HashSet<Chain<V>>(); // chains with old records, guarded by writeLock
+    private final List<Chain<V>> touched = new ArrayList<Chain<V>>(); // chains written by the current mutation
+    private long sweptFloor; // the floor at the last full sweep of 'retained'
+    private volatile State current = new State(0L, 0, 0);
+
+    /**
+     * The published state of a version.
+     */
+    private static final class State
+    {
+        final long version;
+        final int numVertices;
+        final int numEdges;
+
+        State(long version, int numVertices, int numEdges)
+        {
+            this.version = version;
+            this.numVertices = numVertices;
+            this.numEdges = numEdges;
+        }
+    }
+
+    /**
+     * The adjacent vertices of a vertex as written by one version;
+     * null neighbors mark the vertex as removed.
+     */
+    private static final class Record<V>
+    {
+        final long version;
+        final PersistentSet<V> neighbors;
+        volatile Record<V> older;
+
+        Record(long version, PersistentSet<V> neighbors, Record<V> older)
+        {
+            this.version = version;
+            this.neighbors = neighbors;
+            this.older = older;
+        }
+    }
+
+    /**
+     * The records of one vertex, newest first.
+     */
+    private static final class Chain<V>
+    {
+        final V vertex;
+        volatile Record<V> head;
+
+        Chain(V vertex)
+        {
+            this.vertex = vertex;
+        }
+
+        /**
+         * @return the adjacent vertices as of the given version, or
+         * null if the vertex was not in the graph then
+         */
+        PersistentSet<V> at(long version)
+        {
+            Record<V> record = head;
+            while(record != null && record.version > version){
+                record = record.older;
+            }
+            return record == null ? null : record.neighbors;
+        }
+    }
+
+    /**
+     * @return the number of the most recently published version
+     */
+    public long getVersion()
+    {
+        return current.version;
+    }
+
+    /**
+     * Pins the current version.  The snapshot must be closed when the
+     * reader is done with it, so that the versions it pins can be
+     * collected.
+     *
+     * @return a read-only view of the graph as of the current version
+     */
+    public Snapshot<V> snapshot()
+    {
+        State state;
+        synchronized(pins){
+            state = current;
+            pins.merge(state.version, 1, Integer::sum);
+        }
+        return new Snapshot<V>(this, state);
+    }
+
+    private void unpin(long version)
+    {
+        synchronized(pins){
+            if(pins.merge(version, -1, Integer::sum) == 0){
+                pins.remove(version);
+            }
+        }
+    }
+
+    /**
+     * @return the oldest version a reader may still look at
+     */
+    private long floor()
+    {
+        synchronized(pins){
+            long version = current.version;
+            return pins.isEmpty() ? version : Math.min(version, pins.firstKey());
+        }
+    }
+
+    /**
+     * A read-only view of the graph as of one version.  Snapshots may
+     * be used from any thread; they are unaffected by later
+     * mutations.  The Graph methods read the pinned version; a
+     * snapshot must not be used after it is closed.
+     */
+    public static final class Snapshot<V> implements Graph<V>, AutoCloseable
+    {
+        private final VersionedGraph<V> graph;
+        private final State state;
+        private boolean closed;
+
+        private Snapshot(VersionedGraph<V> graph, State state)
+        {
+            this.graph = graph;
+            this.state = state;
+        }
+
+        /**
+         * @return the version this snapshot sees
+         */
+        public long getVersion()
+        {
+            return state.version;
+        }
+
+        /**
+         * Releases the pinned version.  Closing twice has no effect.
+         */
+        @Override
+        public synchronized void close()
+        {
+            if(!closed){
+                closed = true;
+                graph.unpin(state.version);
+            }
+        }
+
+        private Set<V> neighbors(Object vertex)
+        {
+            Chain<V> chain = vertex == null ? null : graph.chains.get(vertex);
+            return chain == null ? null : chain.at(state.version);
+        }
+
+        public int numVertices()
+        {
+            return state.numVertices;
+        }
+
+        public int numEdges()
+        {
+            return state.numEdges;
+        }
+
+        public int degree(V vertex)
+        {
+            Set<V> neighbors = neighbors(vertex);
+            if(neighbors == null){
+                throw new RuntimeException("vertex is not in the graph");
+            }
+            return neighbors.size();
+        }
+
+        public void addEdge(V from, V to)
+        {
+            throw new UnsupportedOperationException("snapshots are read-only");
+        }
+
+        public void addVertex(V vertex)
+        {
+            throw new UnsupportedOperationException("snapshots are read-only");
+        }
+
+        public Iterable<V> getVertices()
+        {
+            return () -> new Iterator<V>() {
+                private final Iterator<Chain<V>> chains = graph.chains.values().iterator();
+                private V next = advance();
+
+                private V advance()
+                {
+                    while(chains.hasNext()){
+                        Chain<V> chain = chains.next();
+                        if(chain.at(state.version) != null){
+                            return chain.vertex;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext()
+                {
+                    return next != null;
+                }
+
+                @Override
+                public V next()
+                {
+                    if(next == null){
+                        throw new NoSuchElementException();
+                    }
+                    V vertex = next;
+                    next = advance();
+                    return vertex;
+                }
+            };
+        }
+
+        public Iterable<V> adjacentTo(V from)
+        {
+            Set<V> neighbors = neighbors(from);
+            return neighbors == null ? Collections.<V>emptySet() : neighbors;
+        }
+
+        public boolean contains(V vertex)
+        {
+            return neighbors(vertex) != null;
+        }
+
+        public boolean hasEdge(V from, V to)
+        {
+            Set<V> neighbors = neighbors(from);
+            return neighbors != null && neighbors.contains(to);
+        }
+
+        public String toString()
+        {
+            return Graphs.toString(this);
+        }
+
+        public boolean isEmpty()
+        {
+            return state.numVertices == 0;
+        }
+
+        public void removeVertex(V toRemove)
+        {
+            throw new UnsupportedOperationException("snapshots are read-only");
+        }
+
+        public void removeEdge(V from, V to)
+        {
+            throw new UnsupportedOperationException("snapshots are read-only");
+        }
+
+        public boolean hasPath(V from, V to)
+        {
+            return search(from, to, SearchLimits.NONE).isFound();
+        }
+
+        public int pathLength(V from, V to)
+        {
+            return search(from, to, SearchLimits.NONE).getLength();
+        }
+
+        public Iterable<V> getPath(V from, V to)
+        {
+            return search(from, to, SearchLimits.NONE).getPath();
+        }
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int numVertices()
+    {
+        return current.numVertices;
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    public int numEdges()
+    {
+        return current.numEdges;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    public int degree(V vertex)
+    {
+        try(Snapshot<V> snapshot = snapshot()){
+            return snapshot.degree(vertex);
+        }
+    }
+
+    /**
+     * Adds a directed edge between two vertices, as a new version.  If
+     * there is already an edge between the given vertices, does
+     * nothing.  If either (or both) of the given vertices does not
+     * exist, it is added to the graph before the edge is created
+     * between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    public void addEdge(V from, V to)
+    {
+        if(from == null || to == null){
+            return;
+        }
+        synchronized(writeLock){
+            long version = current.version + 1;
+            int numVertices = current.numVertices;
+            PersistentSet<V> fromNeighbors = latest(from);
+            if(fromNeighbors == null){
+                fromNeighbors = PersistentSet.empty();
+                ++numVertices;
+            }
+            if(fromNeighbors.contains(to)){
+                return;
+            }
+            if(latest(to) == null && !to.equals(from)){
+                write(to, version, PersistentSet.<V>empty());
+                ++numVertices;
+            }
+            write(from, version, fromNeighbors.with(to));
+            publish(version, numVertices, current.numEdges + 1);
+        }
+    }
+
+    /**
+     * Adds a vertex to the graph, as a new version.  If the vertex
+     * already exists in the graph, does nothing.
+     *
+     * @param vertex the vertex to add
+     */
+    public void addVertex(V vertex)
+    {
+        if(vertex == null){
+            return;
+        }
+        synchronized(writeLock){
+            if(latest(vertex) == null){
+                long version = current.version + 1;
+                write(vertex, version, PersistentSet.<V>empty());
+                publish(version, current.numVertices + 1, current.numEdges);
+            }
+        }
+    }
+
+    /**
+     * @return the vertices of the graph as of the current version.
+     * The vertices are copied into the returned collection.
+     */
+    public Iterable<V> getVertices()
+    {
+        try(Snapshot<V> snapshot = snapshot()){
+            List<V> vertices = new ArrayList<V>(snapshot.numVertices());
+            for(V vertex : snapshot.getVertices()){
+                vertices.add(vertex);
+            }
+            return vertices;
+        }
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex as of the current
+     * version.  The returned set is immutable; later mutations do not
+     * change it.
+     *
+     * @param from the source vertex
+     * @return the destinations of the edges leaving 'from', or an
+     * empty collection if 'from' is not a vertex in the graph.
+     */
+    public Iterable<V> adjacentTo(V from)
+    {
+        try(Snapshot<V> snapshot = snapshot()){
+            return snapshot.adjacentTo(from);
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    public boolean contains(V vertex)
+    {
+        try(Snapshot<V> snapshot = snapshot()){
+            return snapshot.contains(vertex);
+        }
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    public boolean hasEdge(V from, V to)
+    {
+        try(Snapshot<V> snapshot = snapshot()){
+            return snapshot.hasEdge(from, to);
+        }
+    }
+
+    /**
+     * Gives a string representation of the current version, in the
+     * same form as GraphImplementation.
+     *
+     * @return the string representation of the graph
+     */
+    public String toString()
+    {
+        try(Snapshot<V> snapshot = snapshot()){
+            return snapshot.toString();
+        }
+    }
+
+    /**
+    * equal method for Graph
+    *
+    * @param obj the arbitrary object
+    * @return true if this is equal to obj
+    */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        VersionedGraph graph = (VersionedGraph) obj;
+        return this.toString().equals(graph.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+
+    /**
+     * Estimates the memory the graph uses.  The vertex map is the map
+     * of chains; the neighbor containers are the newest record of each
+     * vertex with its set; the older records, kept for open snapshots,
+     * and the bookkeeping of pins are counted as caches.  An older
+     * record's set is counted only for the trie nodes it does not
+     * share with the set of the record after it.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryFootprint memoryFootprint()
+    {
+        long record = MemoryFootprint.object(8 + 2 * MemoryFootprint.REFERENCE);
+        synchronized(writeLock){
+            long vertexMap = MemoryFootprint.object(6 * MemoryFootprint.REFERENCE + 8)
+                + MemoryFootprint.object(0) // the write lock
+                + MemoryFootprint.concurrentHashMap(chains.size())
+                + chains.size() * MemoryFootprint.object(2 * MemoryFootprint.REFERENCE);
+            long latest = 0;
+            long older = 0;
+            for(Chain<V> chain : chains.values()){
+                Record<V> newer = chain.head;
+                if(newer == null){
+                    continue;
+                }
+                latest += record + (newer.neighbors == null ? 0 : newer.neighbors.sizeInBytes());
+                for(Record<V> rec = newer.older; rec != null; newer = rec, rec = rec.older){
+                    PersistentSet<V> after = newer.neighbors == null ? PersistentSet.<V>empty() : newer.neighbors;
+                    older += record + (rec.neighbors == null ? 0 : rec.neighbors.sizeInBytesBeyond(after));
+                }
+            }
+            long pinBytes;
+            synchronized(pins){
+                pinBytes = MemoryFootprint.object(6 * MemoryFootprint.REFERENCE + 8)
+                    + pins.size() * MemoryFootprint.object(5 * MemoryFootprint.REFERENCE + 1);
+            }
+            long caches = older + pinBytes + MemoryFootprint.hashSet(retained.size())
+                + MemoryFootprint.object(MemoryFootprint.REFERENCE + 8)
+                + MemoryFootprint.array(touched.size(), MemoryFootprint.REFERENCE)
+                + MemoryFootprint.object(16);  // the published State
+            return new MemoryFootprint(this, vertexMap, latest, caches, 0);
+        }
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty.
+     */
+    public boolean isEmpty()
+    {
+        return current.numVertices == 0;
+    }
+
+    /**
+     * Removes a vertex and the edges to and from it, as a single new
+     * version.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    public void removeVertex(V toRemove)
+    {
+        if(toRemove == null){
+            return;
+        }
+        synchronized(writeLock){
+            PersistentSet<V> removed = latest(toRemove);
+            if(removed == null){
+                return;
+            }
+            long version = current.version + 1;
+            int numEdges = current.numEdges - removed.size();
+            for(Chain<V> chain : chains.values()){
+                PersistentSet<V> neighbors = chain.at(Long.MAX_VALUE);
+                if(neighbors != null && neighbors.contains(toRemove) && !chain.vertex.equals(toRemove)){
+                    write(chain.vertex, version, neighbors.without(toRemove));
+                    --numEdges;
+                }
+            }
+            write(toRemove, version, null);
+            publish(version, current.numVertices - 1, numEdges);
+        }
+    }
+
+    /**
+     * Removes an edge from the graph, as a new version.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     */
+    public void removeEdge(V from, V to)
+    {
+        if(from == null || to == null){
+            return;
+        }
+        synchronized(writeLock){
+            PersistentSet<V> neighbors = latest(from);
+            if(neighbors != null && neighbors.contains(to)){
+                long version = current.version + 1;
+                write(from, version, neighbors.without(to));
+                publish(version, current.numVertices, current.numEdges - 1);
+            }
+        }
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices in
+     * the current version.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).isFound();
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices in the current version.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getLength();
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices in the current version.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to', empty if there is no path.
+     */
+    public Iterable<V> getPath(V from, V to)
+    {
+        return search(from, to, SearchLimits.NONE).getPath();
+    }
+
+    /**
+     * Searches a snapshot of the current version, so that concurrent
+     * mutations cannot affect the search.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param limits the limits of the search
+     * @return FOUND with the shortest path, NOT_FOUND or LIMIT_EXCEEDED
+     */
+    @Override
+    public SearchResult<V> search(V from, V to, SearchLimits limits)
+    {
+        try(Snapshot<V> snapshot = snapshot()){
+            return snapshot.search(from, to, limits);
+        }
+    }
+
+    /**
+     * Drops every record that no open snapshot can see.  The writer
+     * does this for the vertices it touches; calling this method also
+     * cleans up vertices that have not been written since their old
+     * versions were released.
+     */
+    public void collectGarbage()
+    {
+        synchronized(writeLock){
+            sweep(floor());
+        }
+    }
+
+    private void sweep(long floor)
+    {
+        Iterator<Chain<V>> iterator = retained.iterator();
+        while(iterator.hasNext()){
+            if(prune(iterator.next(), floor)){
+                iterator.remove();
+            }
+        }
+        sweptFloor = floor;
+    }
+
+    /**
+     * @return the number of records kept across all vertices; with no
+     * snapshot open and garbage collected, one per vertex
+     */
+    public int recordCount()
+    {
+        synchronized(writeLock){
+            int count = 0;
+            for(Chain<V> chain : chains.values()){
+                for(Record<V> record = chain.head; record != null; record = record.older){
+                    ++count;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * @return the adjacent vertices of a vertex as of the newest
+     * record, or null if it is not in the graph.  Writer only.
+     */
+    private PersistentSet<V> latest(V vertex)
+    {
+        Chain<V> chain = chains.get(vertex);
+        return chain == null ? null : chain.at(Long.MAX_VALUE);
+    }
+
+    /**
+     * Prepends a record for a vertex.  Writer only; not visible to
+     * readers until the version is published.
+     */
+    private void write(V vertex, long version, PersistentSet<V> neighbors)
+    {
+        Chain<V> chain = chains.get(vertex);
+        if(chain == null){
+            chain = new Chain<V>(vertex);
+            chains.put(vertex, chain);
+        }
+        chain.head = new Record<V>(version, neighbors, chain.head);
+        if(chain.head.older != null){
+            retained.add(chain);
+            touched.add(chain);
+        }
+    }
+
+    /**
+     * Makes a version visible to readers, then drops the records the
+     * open snapshots no longer need.  Every retained chain is swept
+     * only when the oldest pinned version has moved since the last
+     * sweep; otherwise just the chains this mutation wrote are
+     * pruned, so a long-lived snapshot does not make every write scan
+     * all old records.  Writer only.
+     */
+    private void publish(long version, int numVertices, int numEdges)
+    {
+        current = new State(version, numVertices, numEdges);
+        long floor = floor();
+        if(floor != sweptFloor){
+            sweep(floor);
+        } else {
+            for(Chain<V> chain : touched){
+                if(prune(chain, floor)){
+                    retained.remove(chain);
+                }
+            }
+        }
+        touched.clear();
+    }
+
+    /**
+     * Cuts off the records of a chain that are older than the newest
+     * record visible at 'floor', removing the chain entirely if the
+     * vertex was removed before 'floor'.  Writer only.
+     *
+     * @return true iff the chain has a single record left (or none)
+     */
+    private boolean prune(Chain<V> chain, long floor)
+    {
+        Record<V> record = chain.head;
+        while(record != null && record.version > floor){
+            record = record.older;
+        }
+        if(record == null){
+            return chain.head.older == null;
+        }
+        record.older = null;
+        if(record == chain.head && record.neighbors == null){
+            chains.remove(chain.vertex);
+            return true;
+        }
+        return chain.head.older == null;
+    }
+}
@@ -0,0 +1,310 @@
+package edu.union.adt.graph;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Maps vertices to dense integer ids and back.  A vertex is hashed
+ * once, when it is looked up; graphs built on a dictionary store and
+ * traverse ids only, and convert back to vertices at the API
+ * boundary.
+ *
+ * Ids are in the range [0, idLimit()).  Removing a vertex frees its
+ * id, which is handed out again by a later intern, so the ids stay
+ * dense.  Each vertex object is stored once, in the id-to-vertex
+ * array; the hash table holds only ids.
+ *
+ * A dictionary made not to reuse ids instead hands them out in the
+ * order the vertices arrive, so id order is insertion order.  The
+ * holes left by removed vertices are closed by compact(), which
+ * renumbers the vertices in the same order.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class VertexDictionary<V> implements Iterable<V>
+{
+    private Object[] vertices;   // vertex for each id, null for free ids
+    private int[] hashes;        // spread hash code for each id
+    private int[] slots;         // id + 1 for each table slot, 0 if the slot is empty
+    private int size;
+    private int idLimit;
+    private int[] freeIds = new int[0];
+    private int freeCount;
+    private final boolean reuseIds;
+
+    /**
+     * Create an empty dictionary.
+     */
+    public VertexDictionary()
+    {
+        this(16);
+    }
+
+    /**
+     * Create an empty dictionary with room for the given number of
+     * vertices.
+     *
+     * @param expectedSize the number of vertices expected
+     */
+    public VertexDictionary(int expectedSize)
+    {
+        this(expectedSize, true);
+    }
+
+    /**
+     * Create an empty dictionary with room for the given number of
+     * vertices.
+     *
+     * @param expectedSize the number of vertices expected
+     * @param reuseIds whether the ids of removed vertices are handed
+     * out again; if not, ids follow the order of interning
+     */
+    public VertexDictionary(int expectedSize, boolean reuseIds)
+    {
+        this.reuseIds = reuseIds;
+        int capacity = Math.max(expectedSize, 4);
+        vertices = new Object[capacity];
+        hashes = new int[capacity];
+        slots = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+    }
+
+    /**
+     * Gets the id of a vertex, giving it one if it does not have one.
+     *
+     * @param vertex the vertex; must not be null
+     * @return the id of the vertex
+     */
+    public int intern(V vertex)
+    {
+        if(vertex == null){
+            throw new IllegalArgumentException("vertex must not be null");
+        }
+        int hash = spread(vertex.hashCode());
+        int slot = findSlot(vertex, hash);
+        if(slots[slot] != 0){
+            return slots[slot] - 1;
+        }
+
+        int id = freeCount > 0 ? freeIds[--freeCount] : idLimit++;
+        if(id >= vertices.length){
+            int capacity = Math.max(vertices.length * 2, id + 1);
+            vertices = Arrays.copyOf(vertices, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        vertices[id] = vertex;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        if(++size * 2 > slots.length){
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * @param vertex a vertex
+     * @return the id of the vertex, or -1 if it has none
+     */
+    public int idOf(Object vertex)
+    {
+        if(vertex == null){
+            return -1;
+        }
+        int slot = findSlot(vertex, spread(vertex.hashCode()));
+        return slots[slot] - 1;
+    }
+
+    /**
+     * @param id an id in [0, idLimit())
+     * @return the vertex with that id, or null if the id is free
+     */
+    @SuppressWarnings("unchecked")
+    public V vertexOf(int id)
+    {
+        if(id < 0 || id >= idLimit){
+            throw new IndexOutOfBoundsException("no vertex id " + id);
+        }
+        return (V) vertices[id];
+    }
+
+    /**
+     * Removes a vertex, freeing its id for reuse.
+     *
+     * @param vertex the vertex to remove
+     * @return the id the vertex had, or -1 if it had none
+     */
+    public int remove(Object vertex)
+    {
+        if(vertex == null){
+            return -1;
+        }
+        int slot = findSlot(vertex, spread(vertex.hashCode()));
+        int id = slots[slot] - 1;
+        if(id < 0){
+            return -1;
+        }
+        deleteSlot(slot);
+        vertices[id] = null;
+        if(reuseIds){
+            if(freeCount == freeIds.length){
+                freeIds = Arrays.copyOf(freeIds, Math.max(8, freeIds.length * 2));
+            }
+            freeIds[freeCount++] = id;
+        }
+        --size;
+        return id;
+    }
+
+    /**
+     * Renumbers the vertices 0 to size() - 1, keeping their order, so
+     * that no ids are free.
+     *
+     * @return the new id for each old id below the old idLimit(), or
+     * -1 for ids that were free
+     */
+    int[] compact()
+    {
+        int[] newIds = new int[idLimit];
+        int next = 0;
+        for(int id = 0; id < idLimit; ++id){
+            if(vertices[id] == null){
+                newIds[id] = -1;
+            } else {
+                vertices[next] = vertices[id];
+                hashes[next] = hashes[id];
+                newIds[id] = next++;
+            }
+        }
+        Arrays.fill(vertices, next, idLimit, null);
+        idLimit = next;
+        freeCount = 0;
+        rehash(slots.length);
+        return newIds;
+    }
+
+    /**
+     * @return the number of vertices in the dictionary
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return one more than the largest id handed out; every id is
+     * below this bound, so it sizes arrays indexed by id
+     */
+    public int idLimit()
+    {
+        return idLimit;
+    }
+
+    /**
+     * @return an estimate of the bytes the dictionary uses, not
+     * counting the vertex objects
+     */
+    public long sizeInBytes()
+    {
+        return MemoryFootprint.object(4 * MemoryFootprint.REFERENCE + 13)
+            + MemoryFootprint.array(vertices.length, MemoryFootprint.REFERENCE)
+            + MemoryFootprint.array(hashes.length, 4)
+            + MemoryFootprint.array(slots.length, 4)
+            + MemoryFootprint.array(freeIds.length, 4);
+    }
+
+    /**
+     * @return the vertices in id order
+     */
+    @Override
+    public Iterator<V> iterator()
+    {
+        return new Iterator<V>() {
+            private int next = advance(0);
+
+            private int advance(int id)
+            {
+                while(id < idLimit && vertices[id] == null){
+                    ++id;
+                }
+                return id;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return next < idLimit;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next()
+            {
+                if(!hasNext()){
+                    throw new NoSuchElementException();
+                }
+                V vertex = (V) vertices[next];
+                next = advance(next + 1);
+                return vertex;
+            }
+        };
+    }
+
+    private int findSlot(Object vertex, int hash)
+    {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while(slots[slot] != 0){
+            int id = slots[slot] - 1;
+            if(hashes[id] == hash && vertex.equals(vertices[id])){
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot, shifting later entries of the same probe run
+     * back so that lookups never stop early at the hole.
+     */
+    private void deleteSlot(int hole)
+    {
+        int mask = slots.length - 1;
+        int next = hole;
+        while(true){
+            next = (next + 1) & mask;
+            if(slots[next] == 0){
+                break;
+            }
+            int home = hashes[slots[next] - 1] & mask;
+            // the entry at 'next' may move to the hole iff its home slot is not cyclically in (hole, next]
+            boolean homeBetween = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if(!homeBetween){
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    private void rehash(int capacity)
+    {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for(int id = 0; id < idLimit; ++id){
+            if(vertices[id] != null){
+                int slot = hashes[id] & mask;
+                while(slots[slot] != 0){
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = id + 1;
+            }
+        }
+    }
+
+    private static int spread(int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,96 @@
+package edu.union.adt.graph.bench;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+/**
+ * Compares BitmapGraph with IndexedGraph, and on the sparse graph with
+ * GraphImplementation, on a dense and on a sparse random graph: the
+ * heap each takes, and the time for breadth-first searches that reach
+ * every vertex.  GraphImplementation is left out of the dense run,
+ * where its HashSets would need gigabytes.
+ *
+ * Usage: BitmapGraphBenchmark [dense vertices] [dense edge probability] [sparse vertices] [sparse degree]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class BitmapGraphBenchmark
+{
+    private static final Integer SINK = -1; // has no edges into it, so every search to it is exhaustive
+
+    public static void main(String[] args)
+    {
+        int denseVertices = args.length > 0 ? Integer.parseInt(args[0]) : 6000;
+        double density = args.length > 1 ? Double.parseDouble(args[1]) : 0.75;
+        int sparseVertices = args.length > 2 ? Integer.parseInt(args[2]) : 200000;
+        int sparseDegree = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        for(int round = 0; round < 2; ++round){
+            measure("dense", "IndexedGraph", GraphFactory::createIndexedGraph,
+                    denseVertices, density, 0, 100);
+            measure("dense", "BitmapGraph", GraphFactory::createBitmapGraph,
+                    denseVertices, density, 0, 100);
+            measure("sparse", "GraphImplementation", GraphFactory::createGraph,
+                    sparseVertices, 0, sparseDegree, 20);
+            measure("sparse", "IndexedGraph", GraphFactory::createIndexedGraph,
+                    sparseVertices, 0, sparseDegree, 20);
+            measure("sparse", "BitmapGraph", GraphFactory::createBitmapGraph,
+                    sparseVertices, 0, sparseDegree, 20);
+        }
+    }
+
+    /**
+     * Builds a graph where each edge is there with probability
+     * 'density', or with 'degree' random edges leaving each vertex,
+     * then searches it.
+     */
+    private static void measure(String name, String kind, Supplier<Graph<Integer>> factory,
+                                int n, double density, int degree, int searches)
+    {
+        Random random = new Random(42);
+        long before = usedHeap();
+        long start = System.nanoTime();
+        Graph<Integer> graph = factory.get();
+        graph.addVertex(SINK);
+        for(int v = 0; v < n; ++v){
+            graph.addVertex(v);
+            if(density > 0){
+                for(int u = 0; u < n; ++u){
+                    if(random.nextDouble() < density){
+                        graph.addEdge(v, u);
+                    }
+                }
+            } else {
+                for(int i = 0; i < degree; ++i){
+                    graph.addEdge(v, random.nextInt(n));
+                }
+            }
+        }
+        long buildNanos = System.nanoTime() - start;
+        long bytes = usedHeap() - before;
+
+        start = System.nanoTime();
+        for(int i = 0; i < searches; ++i){
+            if(graph.hasPath(random.nextInt(n), SINK)){
+                throw new AssertionError("nothing reaches the sink");
+            }
+        }
+        long searchNanos = System.nanoTime() - start;
+        System.out.printf("%s, %s: %d edges, %.1f MB, build %.0f ms, %d exhaustive searches %.1f ms%n",
+                          name, kind, graph.numEdges(), bytes / 1e6, buildNanos / 1e6,
+                          searches, searchNanos / 1e6);
+    }
+
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; ++i){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
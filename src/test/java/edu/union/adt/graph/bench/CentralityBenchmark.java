@@ -0,0 +1,90 @@
+package edu.union.adt.graph.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import edu.union.adt.graph.Centrality;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+/**
+ * Compares PageRank computed by Centrality with the power iteration
+ * over boxed HashMap scores that it replaces, on a random graph held
+ * in a GraphImplementation.
+ *
+ * Usage: CentralityBenchmark [vertices] [edges] [iterations]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class CentralityBenchmark
+{
+    public static void main(String[] args)
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Random random = new Random(42);
+        Graph<Integer> g = GraphFactory.<Integer>createGraph();
+        for(int i = 0; i < n; ++i){
+            g.addVertex(i);
+        }
+        for(int i = 0; i < m; ++i){
+            g.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+
+        for(int round = 0; round < 3; ++round){
+            long start = System.nanoTime();
+            Map<Integer, Double> boxed = boxedPageRank(g, iterations);
+            long boxedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Centrality.Scores<Integer> ranks = new Centrality().withTolerance(0).withMaxIterations(iterations).pageRank(g);
+            long csrNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            new Centrality(1).withTolerance(0).withMaxIterations(iterations).pageRank(g);
+            long singleNanos = System.nanoTime() - start;
+
+            double maxError = 0;
+            for(Integer v : g.getVertices()){
+                maxError = Math.max(maxError, Math.abs(boxed.get(v) - ranks.get(v)));
+            }
+            System.out.printf("round %d: %d iterations, boxed HashMap %.0f ms, Centrality %.0f ms"
+                              + " (1 thread %.0f ms), max difference %.2e%n",
+                              round, iterations, boxedNanos / 1e6, csrNanos / 1e6, singleNanos / 1e6, maxError);
+        }
+    }
+
+    private static Map<Integer, Double> boxedPageRank(Graph<Integer> g, int iterations)
+    {
+        double damping = 0.85;
+        int n = g.numVertices();
+        Map<Integer, Double> rank = new HashMap<Integer, Double>();
+        for(Integer v : g.getVertices()){
+            rank.put(v, 1.0 / n);
+        }
+        for(int i = 0; i < iterations; ++i){
+            double dangling = 0;
+            for(Integer v : g.getVertices()){
+                if(g.degree(v) == 0){
+                    dangling += rank.get(v);
+                }
+            }
+            Map<Integer, Double> next = new HashMap<Integer, Double>();
+            for(Integer v : g.getVertices()){
+                next.put(v, (1 - damping) / n + damping * dangling / n);
+            }
+            for(Integer v : g.getVertices()){
+                double share = damping * rank.get(v) / g.degree(v);
+                for(Integer w : g.adjacentTo(v)){
+                    next.put(w, next.get(w) + share);
+                }
+            }
+            rank = next;
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,78 @@
+package edu.union.adt.graph.bench;
+
+import java.util.Random;
+
+import edu.union.adt.graph.DynamicBfs;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+/**
+ * Compares incremental repair of BFS distances with recomputing them
+ * from scratch, on a random graph under a mix of edge insertions and
+ * deletions.
+ *
+ * Usage: DynamicBfsBenchmark [vertices] [edges] [mutations]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class DynamicBfsBenchmark
+{
+    public static void main(String[] args)
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 500000;
+        int mutations = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        for(int round = 0; round < 3; ++round){
+            DynamicBfs<Integer> incremental = build(n, m);
+            DynamicBfs<Integer> full = build(n, m);
+            long incrementalNanos = run(incremental, n, mutations, false);
+            long fullNanos = run(full, n, mutations, true);
+            for(int v = 0; v < n; ++v){
+                if(incremental.distanceTo(v) != full.distanceTo(v)){
+                    throw new AssertionError("distances differ at " + v);
+                }
+            }
+            System.out.printf("round %d: %d mutations, incremental %.3f ms, full recomputation %.3f ms (%.1fx)%n",
+                              round, mutations, incrementalNanos / 1e6, fullNanos / 1e6,
+                              (double) fullNanos / incrementalNanos);
+        }
+    }
+
+    private static DynamicBfs<Integer> build(int n, int m)
+    {
+        Random random = new Random(42);
+        Graph<Integer> graph = GraphFactory.<Integer>createIndexedGraph();
+        for(int i = 0; i < n; ++i){
+            graph.addVertex(i);
+        }
+        for(int i = 0; i < m; ++i){
+            graph.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+        return new DynamicBfs<Integer>(graph, 0);
+    }
+
+    private static long run(DynamicBfs<Integer> bfs, int n, int mutations, boolean recompute)
+    {
+        Random random = new Random(7);
+        long start = System.nanoTime();
+        for(int i = 0; i < mutations; ++i){
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            if(random.nextBoolean()){
+                bfs.addEdge(from, to);
+            } else {
+                // remove an existing edge, so deletions actually happen
+                for(Integer adjVert : bfs.getGraph().adjacentTo(from)){
+                    bfs.removeEdge(from, adjVert);
+                    break;
+                }
+            }
+            if(recompute){
+                bfs.recompute();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
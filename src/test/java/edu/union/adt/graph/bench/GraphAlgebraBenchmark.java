@@ -0,0 +1,83 @@
+package edu.union.adt.graph.bench;
+
+import java.util.Random;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphAlgebra;
+import edu.union.adt.graph.GraphFactory;
+
+/**
+ * Merges a delta graph into a base graph, comparing the GraphAlgebra
+ * merges with the loop of addEdge calls they replace.
+ *
+ * Usage: GraphAlgebraBenchmark [vertices] [base edges] [delta edges]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class GraphAlgebraBenchmark
+{
+    public static void main(String[] args)
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        int deltaEdges = args.length > 2 ? Integer.parseInt(args[2]) : 1000000;
+
+        Random random = new Random(42);
+        Graph<Integer> base = GraphFactory.<Integer>createIndexedGraph();
+        Graph<Integer> delta = GraphFactory.<Integer>createIndexedGraph();
+        for(int i = 0; i < m; ++i){
+            base.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+        for(int i = 0; i < deltaEdges; ++i){
+            delta.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+        CsrGraph<Integer> csrBase = CsrGraph.copyOf(base);
+        CsrGraph<Integer> csrDelta = CsrGraph.copyOf(delta);
+
+        for(int round = 0; round < 3; ++round){
+            long start = System.nanoTime();
+            Graph<Integer> looped = GraphFactory.<Integer>createGraph();
+            copyByLoop(csrBase, looped);
+            copyByLoop(csrDelta, looped);
+            long loopNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            CsrGraph<Integer> union = GraphAlgebra.union(csrBase, csrDelta);
+            long unionNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            CsrGraph<Integer> intersection = GraphAlgebra.intersection(csrBase, csrDelta);
+            CsrGraph<Integer> difference = GraphAlgebra.difference(csrBase, csrDelta);
+            CsrGraph<Integer> transpose = GraphAlgebra.transpose(csrBase);
+            long otherNanos = System.nanoTime() - start;
+
+            Graph<Integer> target = GraphFactory.<Integer>createIndexedGraph();
+            GraphAlgebra.addAll(target, csrBase);
+            start = System.nanoTime();
+            GraphAlgebra.addAll(target, csrDelta);
+            long inPlaceNanos = System.nanoTime() - start;
+
+            if(union.numEdges() != looped.numEdges() || target.numEdges() != union.numEdges()){
+                throw new AssertionError("edge counts differ");
+            }
+            System.out.printf("round %d: %d + %d edges -> %d; addEdge loop %.1f ms, union %.1f ms,"
+                              + " addAll into IndexedGraph %.1f ms;"
+                              + " intersection + difference + transpose %.1f ms (%d, %d, %d edges)%n",
+                              round, csrBase.numEdges(), csrDelta.numEdges(), union.numEdges(),
+                              loopNanos / 1e6, unionNanos / 1e6, inPlaceNanos / 1e6, otherNanos / 1e6,
+                              intersection.numEdges(), difference.numEdges(), transpose.numEdges());
+        }
+    }
+
+    private static void copyByLoop(Graph<Integer> from, Graph<Integer> to)
+    {
+        for(Integer vertex : from.getVertices()){
+            to.addVertex(vertex);
+            for(Integer adjVert : from.adjacentTo(vertex)){
+                to.addEdge(vertex, adjVert);
+            }
+        }
+    }
+}
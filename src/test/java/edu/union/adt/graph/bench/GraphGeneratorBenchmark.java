@@ -0,0 +1,58 @@
+package edu.union.adt.graph.bench;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.GraphGenerator;
+
+/**
+ * Streams the edges of each generator to a sink that only counts them,
+ * then builds a CsrGraph from the Kronecker generator, reporting edges
+ * per second and the heap used.
+ *
+ * Usage: GraphGeneratorBenchmark [scale] [edge factor]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class GraphGeneratorBenchmark
+{
+    public static void main(String[] args)
+    {
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : 22;
+        int edgeFactor = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int n = 1 << scale;
+        long edges = (long) edgeFactor << scale;
+
+        stream("Kronecker", GraphGenerator.kronecker(scale, edgeFactor, 1));
+        stream("Erdos-Renyi", GraphGenerator.erdosRenyi(n, (double) edges / n / (n - 1), 1));
+        stream("Barabasi-Albert", GraphGenerator.barabasiAlbert(n, edgeFactor / 2, 1));
+        int side = (int) Math.sqrt(n);
+        stream("grid", GraphGenerator.grid(side, side));
+        stream("chain", GraphGenerator.chain(n));
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        CsrGraph<Integer> graph = GraphGenerator.kronecker(scale, edgeFactor, 1).toCsrGraph();
+        long nanos = System.nanoTime() - start;
+        System.out.printf("CsrGraph from Kronecker: %d vertices, %d distinct edges in %.2f s, %.0f MB of heap%n",
+                          graph.numVertices(), graph.numEdges(), nanos / 1e9, (usedHeap() - before) / 1e6);
+    }
+
+    private static void stream(String name, GraphGenerator generator)
+    {
+        long[] checksum = new long[1];
+        long start = System.nanoTime();
+        long edges = generator.generate((from, to) -> checksum[0] += from ^ to);
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-16s %,14d edges in %6.2f s, %,12.0f edges/s (checksum %d)%n",
+                          name, edges, nanos / 1e9, edges / (nanos / 1e9), checksum[0]);
+    }
+
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; ++i){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,93 @@
+package edu.union.adt.graph.bench;
+
+import java.util.Random;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.LandmarkOracle;
+
+/**
+ * Measures the query rate of a LandmarkOracle and the error of its
+ * bounds against the exact pathLength, on random graphs.
+ *
+ * Usage: LandmarkOracleBenchmark [vertices] [edges] [landmarks] [samples]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class LandmarkOracleBenchmark
+{
+    public static void main(String[] args)
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int samples = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+
+        Random random = new Random(42);
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        for(int i = 0; i < n; ++i){
+            g.addVertex(i);
+        }
+        for(int i = 0; i < m; ++i){
+            g.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+        CsrGraph<Integer> csr = CsrGraph.copyOf(g);
+
+        long start = System.nanoTime();
+        LandmarkOracle<Integer> oracle = LandmarkOracle.build(csr, k);
+        System.out.printf("built %d landmarks in %.1f ms, %d table bytes%n",
+                          k, (System.nanoTime() - start) / 1e6, oracle.tableBytes());
+
+        int queries = 5000000;
+        int[] from = new int[queries];
+        int[] to = new int[queries];
+        for(int i = 0; i < queries; ++i){
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+        }
+        for(int round = 0; round < 3; ++round){
+            long sum = 0;
+            start = System.nanoTime();
+            for(int i = 0; i < queries; ++i){
+                sum += oracle.upperBound(from[i], to[i]) + oracle.lowerBound(from[i], to[i]);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("round %d: %.2f M bound pairs/s (checksum %d)%n", round, queries / seconds / 1e6, sum);
+        }
+
+        int reachable = 0;
+        int exactUpper = 0;
+        int exactLower = 0;
+        double upperError = 0;
+        double lowerError = 0;
+        int maxUpperError = 0;
+        start = System.nanoTime();
+        for(int i = 0; i < samples; ++i){
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            int exact = csr.pathLength(s, t);
+            int lower = oracle.lowerBound(s, t);
+            int upper = oracle.upperBound(s, t);
+            if(lower > exact || upper < exact){
+                throw new AssertionError("bounds " + lower + ".." + upper + " miss " + exact);
+            }
+            if(exact == Integer.MAX_VALUE || exact == 0){
+                continue;
+            }
+            ++reachable;
+            if(upper == exact) ++exactUpper;
+            if(lower == exact) ++exactLower;
+            upperError += (double) (upper - exact) / exact;
+            lowerError += (double) (exact - lower) / exact;
+            maxUpperError = Math.max(maxUpperError, upper - exact);
+        }
+        double bfsSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("exact BFS: %.0f pathLength/s%n", samples / bfsSeconds);
+        System.out.printf("%d reachable pairs: upper bound exact %.1f%%, mean relative error %.3f, max +%d hops%n",
+                          reachable, 100.0 * exactUpper / reachable, upperError / reachable, maxUpperError);
+        System.out.printf("%d reachable pairs: lower bound exact %.1f%%, mean relative error %.3f%n",
+                          reachable, 100.0 * exactLower / reachable, lowerError / reachable);
+    }
+}
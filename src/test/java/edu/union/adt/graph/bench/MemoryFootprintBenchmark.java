@@ -0,0 +1,118 @@
+package edu.union.adt.graph.bench;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphGenerator;
+import edu.union.adt.graph.MemoryFootprint;
+import edu.union.adt.graph.PropertyColumn;
+import edu.union.adt.graph.PropertyGraph;
+
+/**
+ * Checks the estimates of memoryFootprint() against the heap each
+ * GraphFactory implementation, a CsrGraph copy, and a PropertyGraph
+ * with a long property on every edge, is measured to use.  The heap a
+ * graph uses is measured as the heap freed when the last reference to
+ * it is dropped, which does not depend on what else was collected
+ * while it was built.  The vertex objects are made once and kept,
+ * since the estimates leave them out.  Direct memory is measured
+ * through the "direct" buffer pool.
+ *
+ * Run with -Xms equal to -Xmx so that the collector measures a heap of
+ * fixed size.
+ *
+ * Usage: MemoryFootprintBenchmark [vertices] [edges per vertex]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class MemoryFootprintBenchmark
+{
+    private static Graph<Integer> retained;
+
+    public static void main(String[] args) throws Exception
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Integer[] vertices = new Integer[n];
+        for(int v = 0; v < n; ++v){
+            vertices[v] = Integer.valueOf(v);
+        }
+        GraphGenerator generator = GraphGenerator.barabasiAlbert(n, m, 1);
+
+        measure("GraphImplementation", () -> build(GraphFactory.<Integer>createGraph(), generator, vertices));
+        measure("IndexedGraph", () -> build(GraphFactory.<Integer>createIndexedGraph(), generator, vertices));
+        measure("OrderedGraph", () -> build(GraphFactory.<Integer>createOrderedGraph(), generator, vertices));
+        measure("VersionedGraph", () -> build(GraphFactory.<Integer>createVersionedGraph(), generator, vertices));
+        measure("BitmapGraph", () -> build(GraphFactory.<Integer>createBitmapGraph(), generator, vertices));
+        measure("OffHeapGraph", () -> build(GraphFactory.<Integer>createOffHeapGraph(), generator, vertices));
+        measure("PropertyGraph", () -> timestamped(build(new PropertyGraph<Integer>(), generator, vertices)));
+        Graph<Integer> source = build(GraphFactory.<Integer>createIndexedGraph(), generator, vertices);
+        measure("CsrGraph", () -> CsrGraph.copyOf(source));
+    }
+
+    private static <G extends Graph<Integer>> G build(G graph, GraphGenerator generator, Integer[] vertices)
+    {
+        for(Integer vertex : vertices){
+            graph.addVertex(vertex);
+        }
+        generator.generate((from, to) -> graph.addEdge(vertices[from], vertices[to]));
+        return graph;
+    }
+
+    private static PropertyGraph<Integer> timestamped(PropertyGraph<Integer> graph)
+    {
+        PropertyColumn.OfLong time = graph.addEdgeLongProperty("time", 0);
+        for(Integer vertex : graph.getVertices()){
+            graph.forEachEdge(vertex, (to, id) -> time.set(id, id));
+        }
+        return graph;
+    }
+
+    private static void measure(String name, Supplier<Graph<Integer>> build) throws Exception
+    {
+        long directBefore = usedDirect();
+        retained = build.get();
+        long direct = usedDirect() - directBefore;
+        MemoryFootprint footprint = retained.memoryFootprint();
+        long heapWith = usedHeap();
+        if(retained instanceof AutoCloseable){
+            ((AutoCloseable) retained).close();
+        }
+        retained = null;
+        long heap = heapWith - usedHeap();
+
+        System.out.println(name + ": " + footprint);
+        System.out.printf("    measured heap %.2f MB, estimated %.2f MB (%+.1f%%)",
+                          heap / 1e6, footprint.getHeapBytes() / 1e6,
+                          100.0 * (footprint.getHeapBytes() - heap) / heap);
+        if(direct > 0 || footprint.getOffHeapBytes() > 0){
+            System.out.printf("; measured direct %.2f MB, estimated %.2f MB",
+                              direct / 1e6, footprint.getOffHeapBytes() / 1e6);
+        }
+        System.out.println();
+    }
+
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; ++i){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long usedDirect()
+    {
+        for(BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)){
+            if(pool.getName().equals("direct")){
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
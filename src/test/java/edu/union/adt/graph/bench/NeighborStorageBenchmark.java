@@ -0,0 +1,104 @@
+package edu.union.adt.graph.bench;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+/**
+ * Builds a graph with a power-law degree distribution, comparing the
+ * heap used and the time taken by GraphImplementation with a map of
+ * HashSets, the layout it used before its neighbor sets adapted to
+ * their size.
+ *
+ * Usage: NeighborStorageBenchmark [vertices] [edges]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class NeighborStorageBenchmark
+{
+    public static void main(String[] args)
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 1500000;
+
+        Random random = new Random(42);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for(int i = 0; i < m; ++i){
+            from[i] = zipf(random, n);
+            to[i] = random.nextInt(n);
+        }
+
+        for(int round = 0; round < 3; ++round){
+            long before = usedHeap();
+            long start = System.nanoTime();
+            Map<Integer, HashSet<Integer>> sets = new HashMap<Integer, HashSet<Integer>>();
+            for(int v = 0; v < n; ++v){
+                sets.put(v, new HashSet<Integer>());
+            }
+            for(int i = 0; i < m; ++i){
+                sets.get(from[i]).add(to[i]);
+            }
+            long setNanos = System.nanoTime() - start;
+            long setBytes = usedHeap() - before;
+            start = System.nanoTime();
+            long setHits = 0;
+            for(int i = 0; i < m; ++i){
+                setHits += sets.containsKey(to[i]) && sets.containsKey(from[i]) // the checks hasEdge makes
+                           && sets.get(to[i]).contains(from[i]) ? 1 : 0;
+            }
+            long setLookupNanos = System.nanoTime() - start;
+            sets = null;
+
+            before = usedHeap();
+            start = System.nanoTime();
+            Graph<Integer> graph = GraphFactory.<Integer>createGraph();
+            for(int v = 0; v < n; ++v){
+                graph.addVertex(v);
+            }
+            for(int i = 0; i < m; ++i){
+                graph.addEdge(from[i], to[i]);
+            }
+            long graphNanos = System.nanoTime() - start;
+            long graphBytes = usedHeap() - before;
+            start = System.nanoTime();
+            long graphHits = 0;
+            for(int i = 0; i < m; ++i){
+                graphHits += graph.hasEdge(to[i], from[i]) ? 1 : 0;
+            }
+            long graphLookupNanos = System.nanoTime() - start;
+
+            if(setHits != graphHits){
+                throw new AssertionError("lookups differ");
+            }
+            System.out.printf("round %d: %d edges; HashSet per vertex %.1f MB, build %.1f ms, lookups %.1f ms;"
+                              + " adaptive %.1f MB, build %.1f ms, lookups %.1f ms%n",
+                              round, graph.numEdges(), setBytes / 1e6, setNanos / 1e6, setLookupNanos / 1e6,
+                              graphBytes / 1e6, graphNanos / 1e6, graphLookupNanos / 1e6);
+            graph = null;
+        }
+    }
+
+    /**
+     * @return a vertex drawn with probability roughly proportional to
+     * 1 / (rank + 1)
+     */
+    private static int zipf(Random random, int n)
+    {
+        return (int) Math.min(n - 1, Math.floor(Math.exp(random.nextDouble() * Math.log(n + 1)) - 1));
+    }
+
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; ++i){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
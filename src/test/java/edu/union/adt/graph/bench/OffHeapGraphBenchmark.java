@@ -0,0 +1,97 @@
+package edu.union.adt.graph.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.OffHeapGraph;
+
+/**
+ * Compares the garbage collection cost of keeping a large graph in
+ * GraphImplementation, IndexedGraph and OffHeapGraph.  With each graph
+ * live, it times a full collection, then allocates short-lived garbage
+ * while reading the graph and reports the time the collectors spent.
+ *
+ * Run with -Xms equal to -Xmx, so that a smaller live heap does not
+ * also mean a smaller heap to allocate garbage in.
+ *
+ * Usage: OffHeapGraphBenchmark [vertices] [degree] [garbage MB]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class OffHeapGraphBenchmark
+{
+    public static void main(String[] args)
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int garbageMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 4000;
+
+        for(int round = 0; round < 2; ++round){
+            measure("GraphImplementation", GraphFactory.<Integer>createGraph(), n, degree, garbageMegabytes);
+            measure("IndexedGraph", GraphFactory.<Integer>createIndexedGraph(), n, degree, garbageMegabytes);
+            try (OffHeapGraph<Integer> graph = new OffHeapGraph<Integer>()) {
+                measure("OffHeapGraph", graph, n, degree, garbageMegabytes);
+                System.out.printf("    (%.1f MB of direct memory)%n", graph.offHeapBytes() / 1e6);
+            }
+        }
+    }
+
+    private static void measure(String kind, Graph<Integer> graph, int n, int degree, int garbageMegabytes)
+    {
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for(int v = 0; v < n; ++v){
+            for(int i = 0; i < degree; ++i){
+                graph.addEdge(v, random.nextInt(n));
+            }
+        }
+        long buildNanos = System.nanoTime() - start;
+
+        System.gc();
+        start = System.nanoTime();
+        System.gc();
+        long fullGcNanos = System.nanoTime() - start;
+        Runtime runtime = Runtime.getRuntime();
+        long heapBytes = runtime.totalMemory() - runtime.freeMemory();
+
+        long gcMillis = gcMillis();
+        long gcCount = gcCount();
+        start = System.nanoTime();
+        long checksum = 0;
+        Object[] window = new Object[1024]; // keeps some garbage alive long enough to be promoted
+        for(long allocated = 0; allocated < garbageMegabytes * (1L << 20); allocated += 4096){
+            byte[] garbage = new byte[4096];
+            garbage[0] = (byte) graph.degree(random.nextInt(n));
+            window[random.nextInt(window.length)] = garbage;
+            checksum += garbage[0];
+        }
+        long churnNanos = System.nanoTime() - start;
+        System.out.printf("%s: %d edges, build %.0f ms, heap %.0f MB, full GC %.0f ms;"
+                          + " %d MB of garbage in %.0f ms, %d collections taking %d ms (checksum %d)%n",
+                          kind, graph.numEdges(), buildNanos / 1e6, heapBytes / 1e6, fullGcNanos / 1e6,
+                          garbageMegabytes, churnNanos / 1e6, gcCount() - gcCount, gcMillis() - gcMillis,
+                          checksum);
+    }
+
+    private static long gcMillis()
+    {
+        long total = 0;
+        for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()){
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long gcCount()
+    {
+        long total = 0;
+        for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()){
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,106 @@
+package edu.union.adt.graph.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphGenerator;
+import edu.union.adt.graph.StreamingIngestor;
+
+/**
+ * Streams the edges of a Kronecker graph into an IndexedGraph from
+ * several producer threads, once through addEdge under a lock on the
+ * graph and once through a StreamingIngestor.  The producers are
+ * in-process stand-ins for a message-queue consumer: each replays its
+ * share of a pre-generated edge list with boxed vertices, so that
+ * generating the edges is not timed.
+ *
+ * For the ingestor, the producer rate is the rate the producers
+ * finish at, and the sustained rate includes the final merge.
+ *
+ * Usage: StreamingIngestorBenchmark [scale] [edge factor] [max threads]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class StreamingIngestorBenchmark
+{
+    public static void main(String[] args) throws InterruptedException
+    {
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : 18;
+        int edgeFactor = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        Integer[] vertices = new Integer[1 << scale];
+        for(int v = 0; v < vertices.length; ++v){
+            vertices[v] = v;
+        }
+        List<Integer> ends = new ArrayList<Integer>();
+        GraphGenerator.kronecker(scale, edgeFactor, 1).generate((from, to) -> {
+                ends.add(from);
+                ends.add(to);
+            });
+        Integer[] edges = new Integer[ends.size()];
+        for(int i = 0; i < edges.length; ++i){
+            edges[i] = vertices[ends.get(i)];
+        }
+        int numEdges = edges.length / 2;
+        System.out.printf("%d edges, %d processors%n", numEdges, Runtime.getRuntime().availableProcessors());
+
+        for(int round = 0; round < 2; ++round){
+            for(int threads = 1; threads <= maxThreads; threads *= 2){
+                Graph<Integer> locked = GraphFactory.<Integer>createIndexedGraph();
+                long start = System.nanoTime();
+                produce(threads, edges, (from, to) -> {
+                        synchronized(locked){
+                            locked.addEdge(from, to);
+                        }
+                    });
+                long lockedNanos = System.nanoTime() - start;
+
+                Graph<Integer> merged = GraphFactory.<Integer>createIndexedGraph();
+                start = System.nanoTime();
+                StreamingIngestor<Integer> ingestor = new StreamingIngestor<Integer>(merged);
+                produce(threads, edges, ingestor::addEdge);
+                long producerNanos = System.nanoTime() - start;
+                ingestor.close();
+                long ingestNanos = System.nanoTime() - start;
+                if(merged.numEdges() != locked.numEdges()){
+                    throw new IllegalStateException("the graphs differ");
+                }
+
+                System.out.printf("%d threads: locked addEdge %.2fM edges/s; ingestor producers %.2fM edges/s,"
+                                  + " sustained %.2fM edges/s%n", threads,
+                                  numEdges / (lockedNanos / 1e3), numEdges / (producerNanos / 1e3),
+                                  numEdges / (ingestNanos / 1e3));
+            }
+        }
+    }
+
+    private interface EdgeConsumer
+    {
+        void edge(Integer from, Integer to);
+    }
+
+    private static void produce(int threads, Integer[] edges, EdgeConsumer consumer) throws InterruptedException
+    {
+        List<Thread> producers = new ArrayList<Thread>();
+        int numEdges = edges.length / 2;
+        for(int t = 0; t < threads; ++t){
+            int first = (int) ((long) numEdges * t / threads);
+            int last = (int) ((long) numEdges * (t + 1) / threads);
+            producers.add(new Thread(() -> {
+                    for(int e = first; e < last; ++e){
+                        consumer.edge(edges[2 * e], edges[2 * e + 1]);
+                    }
+                }));
+        }
+        for(Thread producer : producers){
+            producer.start();
+        }
+        for(Thread producer : producers){
+            producer.join();
+        }
+    }
+}
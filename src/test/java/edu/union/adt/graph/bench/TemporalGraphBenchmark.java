@@ -0,0 +1,103 @@
+package edu.union.adt.graph.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphGenerator;
+import edu.union.adt.graph.TemporalGraph;
+
+/**
+ * Streams the edges of a Kronecker graph, one per unit of time, into a
+ * graph that keeps only the edges of a sliding window, asking pathLength
+ * between random vertices as it goes.  Once with a TemporalGraph, and
+ * once with an IndexedGraph and a map of edge times, swept every
+ * 'sweep' units by scanning every edge and removing the expired ones,
+ * so that between sweeps it answers over some expired edges.
+ *
+ * Usage: TemporalGraphBenchmark [scale] [edges] [window] [sweep]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class TemporalGraphBenchmark
+{
+    private static final int QUERY_EVERY = 1000;
+
+    public static void main(String[] args)
+    {
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int numEdges = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+        int window = args.length > 2 ? Integer.parseInt(args[2]) : 200000;
+        int sweep = args.length > 3 ? Integer.parseInt(args[3]) : window / 64;
+
+        Integer[] vertices = new Integer[1 << scale];
+        for(int v = 0; v < vertices.length; ++v){
+            vertices[v] = v;
+        }
+        int[] ends = new int[2 * numEdges];
+        int[] next = {0};
+        GraphGenerator.rmat(scale, numEdges, 0.57, 0.19, 0.19, 1).generate((from, to) -> {
+                ends[next[0]++] = from;
+                ends[next[0]++] = to;
+            });
+        System.out.printf("%d edges, one per unit of time, window %d, sweep every %d%n", numEdges, window, sweep);
+
+        for(int round = 0; round < 3; ++round){
+            List<Integer> temporalAnswers = new ArrayList<Integer>();
+            long start = System.nanoTime();
+            TemporalGraph<Integer> temporal = new TemporalGraph<Integer>(window);
+            for(int e = 0; e < numEdges; ++e){
+                temporal.addEdge(vertices[ends[2 * e]], vertices[ends[2 * e + 1]], e);
+                if(e % QUERY_EVERY == 0){
+                    temporalAnswers.add(temporal.pathLength(vertices[ends[2 * e + 1]], vertices[ends[2 * (e / 2)]]));
+                }
+            }
+            long temporalNanos = System.nanoTime() - start;
+
+            List<Integer> sweptAnswers = new ArrayList<Integer>();
+            start = System.nanoTime();
+            Graph<Integer> swept = GraphFactory.<Integer>createIndexedGraph();
+            Map<Long, Integer> times = new HashMap<Long, Integer>();
+            long sweepNanos = 0;
+            for(int e = 0; e < numEdges; ++e){
+                swept.addEdge(vertices[ends[2 * e]], vertices[ends[2 * e + 1]]);
+                times.put((long) ends[2 * e] << 32 | ends[2 * e + 1], e);
+                if(e % sweep == 0){
+                    long sweepStart = System.nanoTime();
+                    int cutoff = e - window;
+                    List<Integer> expired = new ArrayList<Integer>();
+                    for(Integer vertex : swept.getVertices()){
+                        expired.clear();
+                        for(Integer adjVert : swept.adjacentTo(vertex)){
+                            if(times.get((long) vertex << 32 | adjVert) <= cutoff){
+                                expired.add(adjVert);
+                            }
+                        }
+                        for(Integer adjVert : expired){
+                            swept.removeEdge(vertex, adjVert);
+                            times.remove((long) vertex << 32 | adjVert);
+                        }
+                    }
+                    sweepNanos += System.nanoTime() - sweepStart;
+                }
+                if(e % QUERY_EVERY == 0){
+                    sweptAnswers.add(swept.pathLength(vertices[ends[2 * e + 1]], vertices[ends[2 * (e / 2)]]));
+                }
+            }
+            long sweptNanos = System.nanoTime() - start;
+
+            int stale = 0;
+            for(int q = 0; q < temporalAnswers.size(); ++q){
+                stale += temporalAnswers.get(q).equals(sweptAnswers.get(q)) ? 0 : 1;
+            }
+            System.out.printf("TemporalGraph %.2f s (%d live edges); sweeper %.2f s, %.2f s of it sweeping (%d edges);"
+                              + " %d of %d path lengths differ%n",
+                              temporalNanos / 1e9, temporal.numEdges(), sweptNanos / 1e9, sweepNanos / 1e9,
+                              swept.numEdges(), stale, temporalAnswers.size());
+        }
+    }
+}
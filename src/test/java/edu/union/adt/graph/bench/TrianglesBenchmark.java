@@ -0,0 +1,61 @@
+package edu.union.adt.graph.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphGenerator;
+import edu.union.adt.graph.Triangles;
+
+/**
+ * Computes the local clustering coefficient of every vertex of a
+ * Barabasi-Albert graph, once with nested adjacentTo and hasEdge loops
+ * on GraphImplementation and once with Triangles.
+ *
+ * Usage: TrianglesBenchmark [vertices] [edges per vertex] [threads]
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class TrianglesBenchmark
+{
+    public static void main(String[] args)
+    {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Graph<Integer> graph = GraphFactory.<Integer>createGraph();
+        GraphGenerator.barabasiAlbert(n, m, 1).into(graph);
+        System.out.printf("%d vertices, %d edges, %d threads%n", graph.numVertices(), graph.numEdges(), threads);
+
+        for(int round = 0; round < 3; ++round){
+            long start = System.nanoTime();
+            double nestedSum = 0;
+            for(Integer v : graph.getVertices()){
+                List<Integer> adjacent = new ArrayList<Integer>();
+                for(Integer adjVert : graph.adjacentTo(v)){
+                    adjacent.add(adjVert);
+                }
+                long links = 0;
+                for(int i = 0; i < adjacent.size(); ++i){
+                    for(int j = i + 1; j < adjacent.size(); ++j){
+                        links += graph.hasEdge(adjacent.get(i), adjacent.get(j)) ? 1 : 0;
+                    }
+                }
+                int d = adjacent.size();
+                nestedSum += d < 2 ? 0 : 2.0 * links / ((double) d * (d - 1));
+            }
+            long nestedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Triangles.Counts<Integer> counts = new Triangles(threads).count(graph);
+            double average = counts.averageClusteringCoefficient();
+            long triangleNanos = System.nanoTime() - start;
+
+            System.out.printf("nested loops %.2f s (average %.6f), Triangles %.2f s (average %.6f, %d triangles)%n",
+                              nestedNanos / 1e9, nestedSum / n, triangleNanos / 1e9, average, counts.total());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.AsyncGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphImplementation;
+
+@RunWith(JUnit4.class)
+public class AsyncGraphTests {
+
+    private Graph<Integer> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<Integer>createGraph();
+        for(int i = 0; i < 10; ++i){
+            g.addEdge(i, i + 1);
+        }
+        g.addVertex(100);
+    }
+
+    @Test
+    public void queriesOnDefaultExecutor() throws Exception
+    {
+        AsyncGraph<Integer> async = new AsyncGraph<Integer>(g);
+
+        assertTrue("there is a path from 0 to 10", async.hasPathAsync(0, 10).get());
+        assertFalse("there is no path from 10 to 0", async.hasPathAsync(10, 0).get());
+        assertEquals("path from 0 to 10 has length 10", 10, (int) async.pathLengthAsync(0, 10).get());
+        assertEquals("no path from 0 to 100", Integer.MAX_VALUE, (int) async.pathLengthAsync(0, 100).get());
+
+        Iterator<Integer> path = async.getPathAsync(2, 5).get().iterator();
+        for(int i = 2; i <= 5; ++i){
+            assertEquals("path visits the chain in order", i, (int) path.next());
+        }
+        assertFalse("path ends at the destination", path.hasNext());
+    }
+
+    @Test
+    public void queriesOnGivenExecutor() throws Exception
+    {
+        Executor sameThread = Runnable::run;
+        AsyncGraph<Integer> async = new AsyncGraph<Integer>(g, sameThread);
+
+        CompletableFuture<Integer> length = async.pathLengthAsync(3, 7);
+        assertTrue("a same-thread executor completes the query before returning", length.isDone());
+        assertEquals("path from 3 to 7 has length 4", 4, (int) length.get());
+    }
+
+    @Test
+    public void expiredDeadlineTimesOut() throws Exception
+    {
+        AsyncGraph<Integer> async = new AsyncGraph<Integer>(g, Runnable::run);
+
+        try {
+            async.pathLengthAsync(0, 10, 0, TimeUnit.NANOSECONDS).get();
+            fail("a search with no time left should time out");
+        } catch (ExecutionException e) {
+            assertTrue("the future completes with a TimeoutException",
+                       e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void cancelledQueryDoesNotRun()
+    {
+        Runnable[] pending = new Runnable[1];
+        AsyncGraph<Integer> async = new AsyncGraph<Integer>(g, task -> pending[0] = task);
+
+        CompletableFuture<Boolean> result = async.hasPathAsync(0, 10);
+        assertTrue("cancelling a pending query succeeds", result.cancel(true));
+        pending[0].run();
+        assertTrue("the query stays cancelled", result.isCancelled());
+    }
+
+    @Test
+    public void cancellingRunningQueryStopsSearch() throws Exception
+    {
+        // an endless chain 0 -> 1 -> 2 -> ..., so only cancellation can end the search
+        CountDownLatch running = new CountDownLatch(1);
+        Graph<Integer> endless = new GraphImplementation<Integer>() {
+            @Override
+            public Iterable<Integer> adjacentTo(Integer from)
+            {
+                if(from == 1000){
+                    running.countDown();
+                }
+                return Collections.singleton(from + 1);
+            }
+        };
+        endless.addVertex(0);
+        endless.addVertex(-1);
+
+        Thread[] worker = new Thread[1];
+        AsyncGraph<Integer> async = new AsyncGraph<Integer>(endless, task -> {
+            worker[0] = new Thread(task);
+            worker[0].start();
+        });
+
+        CompletableFuture<Boolean> result = async.hasPathAsync(0, -1);
+        assertTrue("the search starts running", running.await(10, TimeUnit.SECONDS));
+        assertTrue("cancelling a running query succeeds", result.cancel(true));
+        worker[0].join(10000);
+        assertFalse("the worker stops once the query is cancelled", worker[0].isAlive());
+        assertTrue("the query stays cancelled", result.isCancelled());
+    }
+}
@@ -0,0 +1,193 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.IdBitmap;
+import edu.union.adt.graph.SearchLimits;
+import edu.union.adt.graph.SearchResult;
+
+@RunWith(JUnit4.class)
+public class BitmapGraphTests {
+
+    private Graph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createBitmapGraph();
+    }
+
+    private static List<Integer> ids(IdBitmap bitmap)
+    {
+        List<Integer> result = new ArrayList<Integer>();
+        PrimitiveIterator.OfInt ids = bitmap.iterator();
+        while(ids.hasNext()){
+            result.add(ids.nextInt());
+        }
+        List<Integer> walked = new ArrayList<Integer>();
+        bitmap.forEach(walked::add);
+        assertEquals("iterator and forEach agree", result, walked);
+        return result;
+    }
+
+    @Test
+    public void bitmapMatchesTreeSet()
+    {
+        Random random = new Random(41);
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        for(int step = 0; step < 60000; ++step){
+            // ids cluster in a dense chunk and spread over sparse ones
+            int id = random.nextBoolean() ? random.nextInt(9000) : random.nextInt(1 << 22);
+            if(random.nextInt(3) == 0){
+                assertEquals("remove agrees", expected.remove(id), bitmap.remove(id));
+            } else {
+                assertEquals("add agrees", expected.add(id), bitmap.add(id));
+            }
+        }
+        assertEquals("same size", expected.size(), bitmap.cardinality());
+        assertEquals("same ids in order", new ArrayList<Integer>(expected), ids(bitmap));
+        for(int id = 0; id < 9000; ++id){
+            assertEquals("contains agrees", expected.contains(id), bitmap.contains(id));
+        }
+        assertFalse("negative ids are never present", bitmap.contains(-1));
+
+        for(int id : expected){
+            assertTrue("every id can be removed", bitmap.remove(id));
+        }
+        assertTrue("a set with every id removed is empty", bitmap.isEmpty());
+        assertEquals("empty set prints as braces", "{}", bitmap.toString());
+    }
+
+    @Test
+    public void addAndRemove()
+    {
+        g.addEdge("1", "2");
+        g.addEdge("1", "3");
+        g.addEdge("3", "2");
+        g.addEdge("1", "2");
+        g.addVertex("4");
+
+        assertEquals("four vertices", 4, g.numVertices());
+        assertEquals("duplicate edges are not added", 3, g.numEdges());
+        assertEquals("1 has two neighbors", 2, g.degree("1"));
+        assertEquals("4 has no neighbors", 0, g.degree("4"));
+        assertFalse("4 has no bitmap to look in", g.hasEdge("4", "1"));
+
+        g.removeVertex("2");
+        assertEquals("removing 2 removes the edges to it", 1, g.numEdges());
+        g.addEdge("5", "1");
+        assertFalse("5 may reuse the id of 2 but not its edges", g.hasEdge("1", "5"));
+        assertEquals("1 keeps 3", Arrays.asList("3"), new ArrayList<String>(toList(g.adjacentTo("1"))));
+    }
+
+    private static <T> List<T> toList(Iterable<T> items)
+    {
+        List<T> result = new ArrayList<T>();
+        for(T item : items){
+            result.add(item);
+        }
+        return result;
+    }
+
+    @Test
+    public void searchLimits()
+    {
+        g.addEdge("1", "2");
+        g.addEdge("2", "3");
+        g.addEdge("3", "4");
+        g.addEdge("1", "5");
+
+        SearchResult<String> result = g.search("1", "4", SearchLimits.NONE);
+        assertEquals("the path follows the chain", Arrays.asList("1", "2", "3", "4"), result.getPath());
+        assertEquals("depth 3 is enough", SearchResult.Status.FOUND,
+                     g.search("1", "4", SearchLimits.NONE.withMaxDepth(3)).getStatus());
+        assertEquals("depth 2 is not", SearchResult.Status.LIMIT_EXCEEDED,
+                     g.search("1", "4", SearchLimits.NONE.withMaxDepth(2)).getStatus());
+        assertEquals("three visited vertices are not enough", SearchResult.Status.LIMIT_EXCEEDED,
+                     g.search("1", "4", SearchLimits.NONE.withMaxVisited(3)).getStatus());
+        assertEquals("4 is not reachable from 5", SearchResult.Status.NOT_FOUND,
+                     g.search("5", "4", SearchLimits.NONE).getStatus());
+        assertEquals("neighborhood goes level by level", Arrays.asList("1", "2", "5", "3"),
+                     new ArrayList<String>(g.neighborhood("1", 2)));
+    }
+
+    @Test
+    public void pathsMatchIndexedGraph()
+    {
+        Random random = new Random(1041);
+        Graph<Integer> expected = GraphFactory.<Integer>createIndexedGraph();
+        Graph<Integer> bitmap = GraphFactory.<Integer>createBitmapGraph();
+        for(int i = 0; i < 6000; ++i){
+            int from = random.nextInt(300);
+            int to = random.nextInt(300);
+            if(random.nextInt(10) == 0){
+                expected.removeEdge(from, to);
+                bitmap.removeEdge(from, to);
+            } else if(random.nextInt(80) == 0){
+                expected.removeVertex(from);
+                bitmap.removeVertex(from);
+            } else {
+                expected.addEdge(from, to);
+                bitmap.addEdge(from, to);
+            }
+        }
+        assertEquals("same vertices", expected.numVertices(), bitmap.numVertices());
+        assertEquals("same edges", expected.numEdges(), bitmap.numEdges());
+        assertEquals("same graph", expected.toString(), bitmap.toString());
+        for(int i = 0; i < 500; ++i){
+            int from = random.nextInt(300);
+            int to = random.nextInt(300);
+            int length = expected.pathLength(from, to);
+            assertEquals("same path length", length, bitmap.pathLength(from, to));
+            Iterator<Integer> path = bitmap.getPath(from, to).iterator();
+            int steps = -1;
+            Integer prev = null;
+            while(path.hasNext()){
+                Integer next = path.next();
+                assertTrue("path follows edges", prev == null || bitmap.hasEdge(prev, next));
+                prev = next;
+                ++steps;
+            }
+            assertEquals("path has the shortest length", length == Integer.MAX_VALUE ? -1 : length, steps);
+            if(expected.contains(from)){
+                assertEquals("same neighborhood", expected.neighborhood(from, 2), bitmap.neighborhood(from, 2));
+            }
+        }
+    }
+
+    @Test
+    public void longChainSearch()
+    {
+        // one vertex per level; keeping a bitset per level would need n * n / 8 bytes
+        Graph<Integer> chain = GraphFactory.<Integer>createBitmapGraph();
+        int n = 100000;
+        for(int i = 0; i < n; ++i){
+            chain.addEdge(i, i + 1);
+        }
+        assertEquals("path runs the length of the chain", n, chain.pathLength(0, n));
+        Iterator<Integer> path = chain.getPath(0, n).iterator();
+        for(int i = 0; i <= n; ++i){
+            assertEquals("path visits the chain in order", i, (int) path.next());
+        }
+        assertFalse("path ends at the destination", path.hasNext());
+        assertEquals("neighborhood reaches k hops", 1001, chain.neighborhood(0, 1000).size());
+    }
+}
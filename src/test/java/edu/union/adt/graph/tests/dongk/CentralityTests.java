@@ -0,0 +1,129 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Centrality;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class CentralityTests {
+
+    @Test
+    public void pageRankMatchesReference()
+    {
+        Random random = new Random(38);
+        Graph<Integer> g = GraphFactory.<Integer>createGraph();
+        for(int i = 0; i < 200; ++i){
+            g.addVertex(i);
+        }
+        for(int i = 0; i < 800; ++i){
+            g.addEdge(random.nextInt(150), random.nextInt(200)); // vertices 150+ have no outgoing edges
+        }
+        Centrality.Scores<Integer> ranks = new Centrality(4).pageRank(g);
+        assertTrue(ranks.isConverged());
+
+        Map<Integer, Double> expected = referencePageRank(g, 0.85, ranks.getIterations());
+        double total = 0;
+        for(Integer v : g.getVertices()){
+            assertEquals("rank of " + v, expected.get(v), ranks.get(v), 1e-9);
+            total += ranks.get(v);
+        }
+        assertEquals("ranks sum to 1", 1.0, total, 1e-9);
+    }
+
+    @Test
+    public void convergenceControls()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("B", "C");
+        g.addEdge("C", "A");
+        g.addEdge("D", "A");
+
+        Centrality.Scores<String> once = new Centrality(2).withMaxIterations(1).pageRank(g);
+        assertEquals(1, once.getIterations());
+        assertFalse(once.isConverged());
+
+        Centrality.Scores<String> ranks = new Centrality(2).withTolerance(1e-12).withMaxIterations(1000).pageRank(g);
+        assertTrue(ranks.isConverged());
+        assertEquals("A collects the most rank", "A", ranks.top(1).get(0));
+        assertEquals(Arrays.asList("A", "B", "C", "D"), ranks.top(10));
+
+        Centrality.Scores<String> noDamping = new Centrality(1).withDamping(0).pageRank(g);
+        assertEquals(0.25, noDamping.get("D"), 1e-12);
+    }
+
+    @Test
+    public void hitsFindsHubsAndAuthorities()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        for(String hub : Arrays.asList("h1", "h2", "h3")){
+            g.addEdge(hub, "a1");
+            g.addEdge(hub, "a2");
+        }
+        g.addEdge("h3", "x");
+        Centrality.Hits<String> hits = new Centrality(2).hits(g);
+        assertTrue(hits.getHubs().isConverged());
+        assertEquals("h3", hits.getHubs().top(1).get(0));
+        assertTrue(hits.getAuthorities().top(2).containsAll(Arrays.asList("a1", "a2")));
+        assertEquals(0, hits.getHubs().get("a1"), 1e-12);
+        assertEquals(0, hits.getAuthorities().get("h1"), 1e-12);
+    }
+
+    @Test
+    public void degreeDistributions()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("A", "C");
+        g.addEdge("B", "C");
+        g.addVertex("D");
+        assertArrayEquals(new long[] {2, 1, 1}, Centrality.outDegreeDistribution(g));
+        assertArrayEquals(new long[] {2, 1, 1}, Centrality.inDegreeDistribution(g));
+        assertArrayEquals(new long[] {0}, Centrality.outDegreeDistribution(GraphFactory.<String>createGraph()));
+    }
+
+    /**
+     * The textbook power iteration on boxed maps.
+     */
+    private static Map<Integer, Double> referencePageRank(Graph<Integer> g, double damping, int iterations)
+    {
+        int n = g.numVertices();
+        Map<Integer, Double> rank = new HashMap<Integer, Double>();
+        for(Integer v : g.getVertices()){
+            rank.put(v, 1.0 / n);
+        }
+        for(int i = 0; i < iterations; ++i){
+            double dangling = 0;
+            for(Integer v : g.getVertices()){
+                if(g.degree(v) == 0){
+                    dangling += rank.get(v);
+                }
+            }
+            Map<Integer, Double> next = new HashMap<Integer, Double>();
+            for(Integer v : g.getVertices()){
+                next.put(v, (1 - damping) / n + damping * dangling / n);
+            }
+            for(Integer v : g.getVertices()){
+                for(Integer w : g.adjacentTo(v)){
+                    next.put(w, next.get(w) + damping * rank.get(v) / g.degree(v));
+                }
+            }
+            rank = next;
+        }
+        return rank;
+    }
+}
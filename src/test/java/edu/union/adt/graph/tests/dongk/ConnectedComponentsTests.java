@@ -0,0 +1,100 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.ConnectedComponents;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.ObservableGraph;
+
+@RunWith(JUnit4.class)
+public class ConnectedComponentsTests {
+
+    @Test
+    public void componentsIgnoreDirection()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("C", "B");
+        g.addEdge("D", "E");
+        g.addVertex("F");
+        ConnectedComponents<String> components = ConnectedComponents.of(g, 2);
+
+        assertEquals(3, components.numComponents());
+        assertTrue("A -> B <- C", components.sameComponent("A", "C"));
+        assertFalse(components.sameComponent("A", "D"));
+        assertFalse("unknown vertex", components.sameComponent("A", "Z"));
+        assertEquals(components.componentOf("A"), components.componentOf("C"));
+        assertNull(components.componentOf("Z"));
+
+        components.addEdge("E", "F");
+        components.addEdge("C", "Z");
+        assertEquals(2, components.numComponents());
+        assertTrue(components.sameComponent("D", "F"));
+        assertTrue(components.sameComponent("Z", "A"));
+        components.addVertex("Y");
+        assertEquals(3, components.numComponents());
+    }
+
+    @Test
+    public void parallelBuildMatchesPathQueries()
+    {
+        Random random = new Random(39);
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        int n = 300;
+        for(int i = 0; i < n; ++i){
+            g.addVertex(i);
+        }
+        for(int i = 0; i < 200; ++i){
+            g.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+        ConnectedComponents<Integer> components = ConnectedComponents.of(g, 4);
+        Graph<Integer> undirected = GraphFactory.<Integer>createGraph();
+        for(Integer v : g.getVertices()){
+            undirected.addVertex(v);
+            for(Integer w : g.adjacentTo(v)){
+                undirected.addEdge(v, w);
+                undirected.addEdge(w, v);
+            }
+        }
+        int roots = 0;
+        for(int u = 0; u < n; ++u){
+            if(components.componentOf(u).equals(u)){
+                ++roots;
+            }
+            for(int v = 0; v < n; v += 7){
+                assertEquals(u + " ~ " + v, undirected.hasPath(u, v), components.sameComponent(u, v));
+            }
+        }
+        assertEquals(roots, components.numComponents());
+    }
+
+    @Test
+    public void followsAnObservableGraph()
+    {
+        try (ObservableGraph<String> g = new ObservableGraph<String>(GraphFactory.<String>createGraph())) {
+            g.addEdge("A", "B");
+            ConnectedComponents<String> components = ConnectedComponents.of(g);
+            g.addListener(components);
+            g.addEdge("B", "C");
+            g.addVertex("D");
+            g.flush();
+            assertTrue(components.sameComponent("A", "C"));
+            assertEquals(2, components.numComponents());
+            assertFalse(components.isStale());
+
+            g.removeEdge("A", "B");
+            g.flush();
+            assertTrue("a removal cannot be applied", components.isStale());
+        }
+    }
+}
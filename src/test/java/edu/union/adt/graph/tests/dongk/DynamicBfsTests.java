@@ -0,0 +1,106 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.DynamicBfs;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class DynamicBfsTests {
+
+    private Graph<String> g;
+    private DynamicBfs<String> bfs;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createGraph();
+        g.addEdge("S", "A");
+        g.addEdge("A", "B");
+        g.addEdge("B", "C");
+        g.addVertex("D");
+        bfs = new DynamicBfs<String>(g, "S");
+    }
+
+    @Test
+    public void initialDistances()
+    {
+        assertEquals(0, bfs.distanceTo("S"));
+        assertEquals(3, bfs.distanceTo("C"));
+        assertEquals("isolated vertex", Integer.MAX_VALUE, bfs.distanceTo("D"));
+        assertEquals("unknown vertex", Integer.MAX_VALUE, bfs.distanceTo("E"));
+        assertEquals(Arrays.asList("S", "A", "B", "C"), bfs.pathTo("C"));
+    }
+
+    @Test
+    public void insertionShortensDistances()
+    {
+        bfs.addEdge("S", "B");
+        assertEquals(1, bfs.distanceTo("B"));
+        assertEquals("relaxed beyond the new edge", 2, bfs.distanceTo("C"));
+        bfs.addEdge("C", "D");
+        assertEquals(3, bfs.distanceTo("D"));
+        assertTrue("the graph changed too", g.hasEdge("C", "D"));
+    }
+
+    @Test
+    public void deletionUsesAlternativeParentOrRecomputes()
+    {
+        bfs.addEdge("S", "X");
+        bfs.addEdge("X", "B");
+        bfs.removeEdge("A", "B");
+        assertEquals("B keeps its distance through X", 2, bfs.distanceTo("B"));
+        assertEquals(Arrays.asList("S", "X", "B", "C"), bfs.pathTo("C"));
+
+        bfs.removeEdge("S", "X");
+        assertEquals("B is cut off", Integer.MAX_VALUE, bfs.distanceTo("B"));
+        assertEquals(Integer.MAX_VALUE, bfs.distanceTo("C"));
+        assertTrue(bfs.pathTo("C").isEmpty());
+
+        bfs.addEdge("A", "C");
+        bfs.addEdge("C", "B");
+        assertEquals(3, bfs.distanceTo("B"));
+        bfs.removeVertex("C");
+        assertEquals(Integer.MAX_VALUE, bfs.distanceTo("B"));
+        assertEquals(1, bfs.distanceTo("A"));
+    }
+
+    @Test
+    public void randomMutationsMatchFullRecomputation()
+    {
+        Random random = new Random(33);
+        Graph<Integer> graph = GraphFactory.<Integer>createGraph();
+        int n = 40;
+        for(int i = 0; i < n; ++i){
+            graph.addVertex(i);
+        }
+        DynamicBfs<Integer> dynamic = new DynamicBfs<Integer>(graph, 0);
+        for(int step = 0; step < 3000; ++step){
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            int op = random.nextInt(10);
+            if(op < 5){
+                dynamic.addEdge(from, to);
+            } else if(op < 9){
+                dynamic.removeEdge(from, to);
+            } else if(from != 0){
+                dynamic.removeVertex(from);
+                dynamic.addVertex(from);
+            }
+            for(int v = 0; v < n; ++v){
+                assertEquals("distance to " + v + " after step " + step,
+                             graph.pathLength(0, v), dynamic.distanceTo(v));
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.EdgeListLoader;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class EdgeListLoaderTests {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        file = Files.createTempFile("edges", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void simpleFile() throws IOException
+    {
+        write("# a comment\n"
+              + "A B\n"
+              + "A\tA\r\n"
+              + "\n"
+              + "C,A extra fields are ignored\n"
+              + "A B\n"
+              + "D\n"
+              + "% another comment\n"
+              + "C B");
+
+        EdgeListLoader.Result result = new EdgeListLoader(2).load(file);
+        CsrGraph<String> g = result.getGraph();
+
+        assertEquals("four vertices are read", 4, g.numVertices());
+        assertEquals("the duplicate edge is dropped", 4, g.numEdges());
+        assertEquals("five edge lines are read", 5, result.getEdgeLines());
+        assertEquals("every line is counted", 9, result.getLines());
+        assertTrue("A -> A is read", g.hasEdge("A", "A"));
+        assertTrue("A -> B is read", g.hasEdge("A", "B"));
+        assertTrue("C -> A is read", g.hasEdge("C", "A"));
+        assertTrue("C -> B is read", g.hasEdge("C", "B"));
+        assertFalse("B -> A is not an edge", g.hasEdge("B", "A"));
+        assertEquals("D is isolated", 0, g.degree("D"));
+        assertEquals("C reaches B directly", 1, g.pathLength("C", "B"));
+    }
+
+    @Test
+    public void emptyFile() throws IOException
+    {
+        CsrGraph<String> g = new EdgeListLoader().load(file).getGraph();
+        assertTrue("an empty file loads an empty graph", g.isEmpty());
+    }
+
+    @Test
+    public void matchesAddEdge() throws IOException
+    {
+        Random random = new Random(260);
+        Graph<String> expected = GraphFactory.<String>createGraph();
+        StringBuilder lines = new StringBuilder();
+        for(int i = 0; i < 5000; ++i){
+            String from = "v" + random.nextInt(700);
+            String to = "v" + random.nextInt(700);
+            expected.addEdge(from, to);
+            lines.append(from).append(' ').append(to).append('\n');
+        }
+        write(lines.toString());
+
+        for(int parallelism = 1; parallelism <= 8; parallelism *= 2){
+            CsrGraph<String> g = new EdgeListLoader(parallelism).load(file).getGraph();
+            assertEquals("same number of vertices with " + parallelism + " threads",
+                         expected.numVertices(), g.numVertices());
+            assertEquals("same number of edges with " + parallelism + " threads",
+                         expected.numEdges(), g.numEdges());
+            for(String vertex : expected.getVertices()){
+                for(String adjVert : expected.adjacentTo(vertex)){
+                    assertTrue("every edge is loaded", g.hasEdge(vertex, adjVert));
+                }
+            }
+            assertEquals("paths agree", expected.pathLength("v1", "v2"), g.pathLength("v1", "v2"));
+        }
+    }
+
+    @Test
+    public void copyOf()
+    {
+        Graph<String> source = GraphFactory.<String>createGraph();
+        source.addEdge("1", "2");
+        source.addEdge("2", "3");
+        source.addVertex("4");
+
+        CsrGraph<String> g = CsrGraph.copyOf(source);
+        assertEquals("same vertices", 4, g.numVertices());
+        assertEquals("same edges", 2, g.numEdges());
+        assertEquals("path 1 to 3", 2, g.pathLength("1", "3"));
+        assertFalse("no path 3 to 1", g.hasPath("3", "1"));
+        assertFalse("unknown vertex has no neighbors", g.adjacentTo("5").iterator().hasNext());
+    }
+
+    private void write(String contents) throws IOException
+    {
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
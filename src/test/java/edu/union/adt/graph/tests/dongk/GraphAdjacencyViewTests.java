@@ -0,0 +1,102 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class GraphAdjacencyViewTests {
+
+    private Graph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createGraph();
+        g.addEdge("1", "2");
+        g.addEdge("1", "3");
+        g.addVertex("4");
+    }
+
+    @Test
+    public void unknownVertexHasNoNeighbors()
+    {
+        assertFalse("adjacentTo of an unknown vertex is empty", g.adjacentTo("5").iterator().hasNext());
+        assertFalse("adjacentTo of an isolated vertex is empty", g.adjacentTo("4").iterator().hasNext());
+        g.forEachNeighbor("5", vertex -> fail("an unknown vertex has no neighbors"));
+    }
+
+    @Test
+    public void viewsAreReadOnly()
+    {
+        Iterable<String> neighbors = g.adjacentTo("1");
+        try {
+            ((Collection<String>) neighbors).remove("2");
+            fail("the neighbor view cannot be modified");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        Iterator<String> iterator = neighbors.iterator();
+        iterator.next();
+        try {
+            iterator.remove();
+            fail("the neighbor view cannot be modified through its iterator");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            ((Collection<String>) g.getVertices()).clear();
+            fail("the vertex view cannot be modified");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals("the graph is unchanged", 2, g.numEdges());
+    }
+
+    @Test
+    public void viewsAreLive()
+    {
+        Collection<String> neighbors = (Collection<String>) g.adjacentTo("1");
+        g.addEdge("1", "4");
+        assertEquals("the view shows edges added later", 3, neighbors.size());
+        g.removeEdge("1", "2");
+        assertFalse("the view shows edges removed later", neighbors.contains("2"));
+    }
+
+    @Test
+    public void forEachNeighbor()
+    {
+        for(Graph<String> graph : allGraphs()){
+            List<String> seen = new ArrayList<String>();
+            graph.forEachNeighbor("1", seen::add);
+            assertEquals("every neighbor is visited once", 2, seen.size());
+            assertTrue("2 is visited", seen.contains("2"));
+            assertTrue("3 is visited", seen.contains("3"));
+        }
+    }
+
+    private List<Graph<String>> allGraphs()
+    {
+        List<Graph<String>> graphs = new ArrayList<Graph<String>>();
+        graphs.add(g);
+        Graph<String> indexed = GraphFactory.<String>createIndexedGraph();
+        indexed.addEdge("1", "2");
+        indexed.addEdge("1", "3");
+        graphs.add(indexed);
+        return graphs;
+    }
+}
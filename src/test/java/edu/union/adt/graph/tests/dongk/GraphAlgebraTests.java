@@ -0,0 +1,151 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphAlgebra;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class GraphAlgebraTests {
+
+    private Graph<Integer> a;
+    private Graph<Integer> b;
+
+    @Before
+    public void setUp()
+    {
+        Random random = new Random(36);
+        a = GraphFactory.<Integer>createGraph();
+        b = GraphFactory.<Integer>createIndexedGraph();
+        for(int i = 0; i < 300; ++i){
+            a.addEdge(random.nextInt(40), random.nextInt(40));
+            b.addEdge(20 + random.nextInt(40), 20 + random.nextInt(40));
+        }
+        a.addVertex(100);
+        b.addVertex(100);
+        b.addVertex(101);
+    }
+
+    @Test
+    public void union()
+    {
+        CsrGraph<Integer> u = GraphAlgebra.union(a, b);
+        Set<Integer> vertices = vertices(a);
+        vertices.addAll(vertices(b));
+        Set<String> edges = edges(a);
+        edges.addAll(edges(b));
+        assertEquals(vertices, vertices(u));
+        assertEquals(edges, edges(u));
+        assertEquals(edges.size(), u.numEdges());
+        assertWellFormed(u);
+    }
+
+    @Test
+    public void intersection()
+    {
+        CsrGraph<Integer> i = GraphAlgebra.intersection(a, b);
+        Set<Integer> vertices = vertices(a);
+        vertices.retainAll(vertices(b));
+        Set<String> edges = edges(a);
+        edges.retainAll(edges(b));
+        assertEquals(vertices, vertices(i));
+        assertEquals(edges, edges(i));
+        assertTrue("the vertex shared by both graphs", i.contains(100));
+        assertWellFormed(i);
+    }
+
+    @Test
+    public void difference()
+    {
+        CsrGraph<Integer> d = GraphAlgebra.difference(a, b);
+        Set<String> edges = edges(a);
+        edges.removeAll(edges(b));
+        assertEquals(vertices(a), vertices(d));
+        assertEquals(edges, edges(d));
+        assertWellFormed(d);
+    }
+
+    @Test
+    public void transpose()
+    {
+        CsrGraph<Integer> t = GraphAlgebra.transpose(a);
+        assertEquals(a.numEdges(), t.numEdges());
+        for(Integer from : a.getVertices()){
+            for(Integer to : a.adjacentTo(from)){
+                assertTrue(t.hasEdge(to, from));
+            }
+        }
+        assertEquals(edges(a), edges(GraphAlgebra.transpose(t)));
+    }
+
+    @Test
+    public void inPlaceMatchesNewGraph()
+    {
+        Graph<Integer> indexed = GraphFactory.<Integer>createIndexedGraph();
+        Graph<Integer> hashed = GraphFactory.<Integer>createGraph();
+        for(Graph<Integer> target : Arrays.asList(indexed, hashed)){
+            GraphAlgebra.addAll(target, a);
+            GraphAlgebra.addAll(target, b);
+            assertEquals(edges(GraphAlgebra.union(a, b)), edges(target));
+            assertEquals(vertices(GraphAlgebra.union(a, b)), vertices(target));
+            assertEquals(edges(target).size(), target.numEdges());
+
+            GraphAlgebra.removeAll(target, b);
+            assertEquals(edges(GraphAlgebra.difference(a, b)), edges(target));
+            assertEquals(edges(target).size(), target.numEdges());
+            assertTrue("vertices are kept", target.contains(101));
+        }
+    }
+
+    /**
+     * hasEdge binary-searches each range, so it only finds every edge
+     * if the ranges are sorted.
+     */
+    private static void assertWellFormed(CsrGraph<Integer> g)
+    {
+        for(Integer from : g.getVertices()){
+            assertEquals("no duplicate edges", g.degree(from), toSet(g.adjacentTo(from)).size());
+            for(Integer to : g.adjacentTo(from)){
+                assertTrue(from + "->" + to, g.hasEdge(from, to));
+            }
+        }
+    }
+
+    private static Set<Integer> toSet(Iterable<Integer> iterable)
+    {
+        Set<Integer> set = new HashSet<Integer>();
+        for(Integer vertex : iterable){
+            set.add(vertex);
+        }
+        return set;
+    }
+
+    private static Set<Integer> vertices(Graph<Integer> g)
+    {
+        return toSet(g.getVertices());
+    }
+
+    private static Set<String> edges(Graph<Integer> g)
+    {
+        Set<String> edges = new HashSet<String>();
+        for(Integer from : g.getVertices()){
+            for(Integer to : g.adjacentTo(from)){
+                edges.add(from + "->" + to);
+            }
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,354 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+/**
+ * Runs random sequences of changes and queries against every Graph
+ * implementation from GraphFactory in lockstep, checking each answer
+ * against GraphImplementation's and timing every call.
+ *
+ * Answers are compared as the Graph interface defines them: adjacent
+ * vertices as sets, and paths by their length and by following edges
+ * of the reference graph, since two shortest paths may differ.
+ *
+ * Calls are timed in passes: a pass is one or more sequences, ended by
+ * endPass().  The time of an op is its mean time per call in the
+ * fastest pass, so that warm-up and collector pauses in one pass do
+ * not count.  The timings can be saved as a baseline and later runs
+ * checked against it.
+ *
+ * @author Khai Dong
+ * @version 1.0
+ */
+public class GraphDifferentialHarness
+{
+    /**
+     * The calls a sequence is made of.
+     */
+    public enum Op
+    {
+        ADD_VERTEX(5), ADD_EDGE(30), REMOVE_EDGE(8), REMOVE_VERTEX(2),
+        NUM_VERTICES(2), NUM_EDGES(2), DEGREE(5), HAS_EDGE(10), ADJACENT_TO(5),
+        HAS_PATH(8), PATH_LENGTH(12), GET_PATH(8);
+
+        private final int weight;
+
+        Op(int weight)
+        {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * One call of a sequence, with its arguments.
+     */
+    public static final class Step
+    {
+        private final Op op;
+        private final int from;
+        private final int to;
+
+        Step(Op op, int from, int to)
+        {
+            this.op = op;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String toString()
+        {
+            return op + "(" + from + ", " + to + ")";
+        }
+    }
+
+    private static final String REFERENCE = "GraphImplementation";
+
+    private final Map<String, Supplier<Graph<Integer>>> implementations;
+    private final Map<String, Map<Op, long[]>> timings;   // nanoseconds and calls for each op, this pass
+    private final Map<String, double[]> fastest;          // mean and total nanoseconds of the fastest pass
+
+    private GraphDifferentialHarness(Map<String, Supplier<Graph<Integer>>> implementations)
+    {
+        this.implementations = implementations;
+        this.timings = new LinkedHashMap<String, Map<Op, long[]>>();
+        for(String name : implementations.keySet()){
+            Map<Op, long[]> byOp = new EnumMap<Op, long[]>(Op.class);
+            for(Op op : Op.values()){
+                byOp.put(op, new long[2]);
+            }
+            timings.put(name, byOp);
+        }
+        this.fastest = new LinkedHashMap<String, double[]>();
+    }
+
+    /**
+     * @return a harness over every implementation GraphFactory makes,
+     * with GraphImplementation as the reference
+     */
+    public static GraphDifferentialHarness allImplementations()
+    {
+        Map<String, Supplier<Graph<Integer>>> implementations = new LinkedHashMap<String, Supplier<Graph<Integer>>>();
+        implementations.put(REFERENCE, GraphFactory::createGraph);
+        implementations.put("IndexedGraph", GraphFactory::createIndexedGraph);
+        implementations.put("OrderedGraph", GraphFactory::createOrderedGraph);
+        implementations.put("VersionedGraph", GraphFactory::createVersionedGraph);
+        implementations.put("BitmapGraph", GraphFactory::createBitmapGraph);
+        implementations.put("OffHeapGraph", GraphFactory::createOffHeapGraph);
+        // edges added without a time stay at the clock's 0, so nothing expires
+        implementations.put("TemporalGraph", () -> GraphFactory.<Integer>createTemporalGraph(1));
+        return new GraphDifferentialHarness(implementations);
+    }
+
+    /**
+     * Makes a random sequence of calls.
+     *
+     * @param seed the seed; the same seed gives the same sequence
+     * @param length the number of calls
+     * @param numVertices the vertices are 0 to numVertices - 1
+     * @return the calls
+     */
+    public static List<Step> generate(long seed, int length, int numVertices)
+    {
+        int totalWeight = 0;
+        for(Op op : Op.values()){
+            totalWeight += op.weight;
+        }
+        Random random = new Random(seed);
+        List<Step> steps = new ArrayList<Step>(length);
+        for(int i = 0; i < length; ++i){
+            int pick = random.nextInt(totalWeight);
+            Op op = Op.values()[0];
+            for(Op candidate : Op.values()){
+                if(pick < candidate.weight){
+                    op = candidate;
+                    break;
+                }
+                pick -= candidate.weight;
+            }
+            steps.add(new Step(op, random.nextInt(numVertices), random.nextInt(numVertices)));
+        }
+        return steps;
+    }
+
+    /**
+     * Runs a sequence against every implementation, each on a new
+     * graph, and adds the time of each call to the timings.
+     *
+     * @param steps the calls to make
+     * @return a description of the first answer that differs from the
+     * reference, or null if they all agree
+     */
+    public String run(List<Step> steps)
+    {
+        Map<String, Graph<Integer>> graphs = new LinkedHashMap<String, Graph<Integer>>();
+        for(Map.Entry<String, Supplier<Graph<Integer>>> entry : implementations.entrySet()){
+            graphs.put(entry.getKey(), entry.getValue().get());
+        }
+        try {
+            Graph<Integer> reference = graphs.get(REFERENCE);
+            for(int i = 0; i < steps.size(); ++i){
+                Step step = steps.get(i);
+                Object expected = call(REFERENCE, reference, step);
+                for(Map.Entry<String, Graph<Integer>> entry : graphs.entrySet()){
+                    if(entry.getValue() == reference){
+                        continue;
+                    }
+                    Object actual = call(entry.getKey(), entry.getValue(), step);
+                    if(!agree(step, expected, actual, reference)){
+                        return "step " + i + ", " + step + ": " + entry.getKey() + " gave " + actual
+                            + " but " + REFERENCE + " gave " + expected;
+                    }
+                }
+            }
+            return null;
+        } finally {
+            for(Graph<Integer> graph : graphs.values()){
+                if(graph instanceof AutoCloseable){
+                    try {
+                        ((AutoCloseable) graph).close();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes one timed call.  A change answers with the vertex and
+     * edge counts after it, read outside the timing; a call that
+     * throws answers with "threw".
+     */
+    private Object call(String name, Graph<Integer> graph, Step step)
+    {
+        Object result;
+        long start = System.nanoTime();
+        try {
+            result = answer(graph, step);
+        } catch (RuntimeException e) {
+            result = "threw";
+        }
+        long[] timing = timings.get(name).get(step.op);
+        timing[0] += System.nanoTime() - start;
+        ++timing[1];
+        if(result == null){
+            result = graph.numVertices() + " vertices, " + graph.numEdges() + " edges";
+        }
+        return result;
+    }
+
+    private static Object answer(Graph<Integer> graph, Step step)
+    {
+        switch(step.op){
+        case ADD_VERTEX:
+            graph.addVertex(step.from);
+            return null;
+        case ADD_EDGE:
+            graph.addEdge(step.from, step.to);
+            return null;
+        case REMOVE_EDGE:
+            graph.removeEdge(step.from, step.to);
+            return null;
+        case REMOVE_VERTEX:
+            graph.removeVertex(step.from);
+            return null;
+        case NUM_VERTICES:
+            return graph.numVertices();
+        case NUM_EDGES:
+            return graph.numEdges();
+        case DEGREE:
+            return graph.degree(step.from);
+        case HAS_EDGE:
+            return graph.hasEdge(step.from, step.to);
+        case ADJACENT_TO:
+            Set<Integer> adjacent = new HashSet<Integer>();
+            for(Integer adjVert : graph.adjacentTo(step.from)){
+                adjacent.add(adjVert);
+            }
+            return adjacent;
+        case HAS_PATH:
+            return graph.hasPath(step.from, step.to);
+        case PATH_LENGTH:
+            return graph.pathLength(step.from, step.to);
+        default:
+            List<Integer> path = new ArrayList<Integer>();
+            for(Integer vertex : graph.getPath(step.from, step.to)){
+                path.add(vertex);
+            }
+            return path;
+        }
+    }
+
+    /**
+     * @return true iff 'actual' is a right answer, given the answer
+     * of the reference graph
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean agree(Step step, Object expected, Object actual, Graph<Integer> reference)
+    {
+        if(step.op != Op.GET_PATH || !(actual instanceof List)){
+            return expected.equals(actual);
+        }
+        List<Integer> expectedPath = (List<Integer>) expected;
+        List<Integer> path = (List<Integer>) actual;
+        if(path.size() != expectedPath.size()){
+            return false;
+        }
+        if(path.isEmpty()){
+            return true;
+        }
+        if(!path.get(0).equals(step.from) || !path.get(path.size() - 1).equals(step.to)){
+            return false;
+        }
+        Iterator<Integer> vertices = path.iterator();
+        Integer prev = vertices.next();
+        while(vertices.hasNext()){
+            Integer next = vertices.next();
+            if(!reference.hasEdge(prev, next)){
+                return false;
+            }
+            prev = next;
+        }
+        return true;
+    }
+
+    /**
+     * Ends a pass, keeping the time of each op if this pass was the
+     * fastest at it so far.
+     */
+    public void endPass()
+    {
+        for(Map.Entry<String, Map<Op, long[]>> entry : timings.entrySet()){
+            for(Map.Entry<Op, long[]> timing : entry.getValue().entrySet()){
+                long[] nanosAndCalls = timing.getValue();
+                if(nanosAndCalls[1] > 0){
+                    String key = entry.getKey() + "." + timing.getKey();
+                    double mean = (double) nanosAndCalls[0] / nanosAndCalls[1];
+                    double[] best = fastest.get(key);
+                    if(best == null || mean < best[0]){
+                        fastest.put(key, new double[] { mean, nanosAndCalls[0] });
+                    }
+                }
+                nanosAndCalls[0] = 0;
+                nanosAndCalls[1] = 0;
+            }
+        }
+    }
+
+    /**
+     * @return the mean nanoseconds per call of each implementation and
+     * op in the fastest of the ended passes, keyed "implementation.OP"
+     */
+    public Properties timings()
+    {
+        Properties result = new Properties();
+        for(Map.Entry<String, double[]> entry : fastest.entrySet()){
+            result.setProperty(entry.getKey(), String.valueOf(entry.getValue()[0]));
+        }
+        return result;
+    }
+
+    /**
+     * Compares the timings with a baseline.  Ops whose total time in
+     * their fastest pass is under 'minTotalNanos' are too noisy to
+     * judge and are skipped, as are ops the baseline does not have.
+     *
+     * @param baseline mean nanoseconds per call, as timings() gives
+     * @param maxSlowdownPercent how much slower than the baseline an
+     * op may be
+     * @param minTotalNanos the least total time of an op to judge it
+     * @return a description of each op that is too slow, in order
+     */
+    public List<String> regressions(Properties baseline, double maxSlowdownPercent, long minTotalNanos)
+    {
+        List<String> slower = new ArrayList<String>();
+        for(Map.Entry<String, double[]> entry : fastest.entrySet()){
+            String before = baseline.getProperty(entry.getKey());
+            if(before == null || entry.getValue()[1] < minTotalNanos){
+                continue;
+            }
+            double now = entry.getValue()[0];
+            double then = Double.parseDouble(before);
+            if(now > then * (1 + maxSlowdownPercent / 100)){
+                slower.add(String.format("%s: %.0f ns per call, baseline %.0f ns (+%.0f%%)",
+                                         entry.getKey(), now, then, 100 * (now / then - 1)));
+            }
+        }
+        return Collections.unmodifiableList(slower);
+    }
+}
@@ -0,0 +1,110 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Checks every implementation from GraphFactory against
+ * GraphImplementation on random call sequences.  The run can also be
+ * checked for slowdowns against a stored baseline:
+ *
+ * <pre>
+ *   -Dgraph.writeBaseline=FILE   save the timings of this run
+ *   -Dgraph.baseline=FILE        fail if an op is slower than in FILE
+ *   -Dgraph.maxSlowdown=PERCENT  how much slower is too slow (25)
+ *   -Dgraph.timingPasses=N       timed passes after the first (8)
+ *   -Dgraph.timingLength=N       calls per sequence in a timed pass (20000)
+ *   -Dgraph.differentialSequences=N, -Dgraph.differentialLength=N
+ *                                sequences per pass, and calls per
+ *                                sequence in the first pass (6, 4000)
+ * </pre>
+ *
+ * Timed passes are longer than the first, since short ones vary too
+ * much from one JVM to the next to compare.
+ */
+@RunWith(JUnit4.class)
+public class GraphDifferentialTests {
+
+    private static final int SEQUENCES = Integer.getInteger("graph.differentialSequences", 6);
+    private static final int LENGTH = Integer.getInteger("graph.differentialLength", 4000);
+    private static final int TIMING_PASSES = Integer.getInteger("graph.timingPasses", 8);
+    private static final int TIMING_LENGTH = Integer.getInteger("graph.timingLength", 20000);
+    private static final long MIN_JUDGED_NANOS = 5000000L;
+
+    @Test
+    public void implementationsAgreeWithGraphImplementation() throws IOException
+    {
+        GraphDifferentialHarness harness = GraphDifferentialHarness.allImplementations();
+        runPass(harness, LENGTH);
+
+        String writeTo = System.getProperty("graph.writeBaseline");
+        String baselineFrom = System.getProperty("graph.baseline");
+        if(writeTo == null && baselineFrom == null){
+            return;
+        }
+        for(int pass = 0; pass < TIMING_PASSES; ++pass){
+            runPass(harness, TIMING_LENGTH);
+        }
+        if(writeTo != null){
+            try (OutputStream out = new FileOutputStream(writeTo)) {
+                harness.timings().store(out, "mean nanoseconds per call");
+            }
+        }
+        if(baselineFrom != null){
+            Properties baseline = new Properties();
+            try (InputStream in = new FileInputStream(baselineFrom)) {
+                baseline.load(in);
+            }
+            double maxSlowdown = Double.parseDouble(System.getProperty("graph.maxSlowdown", "25"));
+            List<String> regressions = harness.regressions(baseline, maxSlowdown, MIN_JUDGED_NANOS);
+            assertTrue("slower than the baseline: " + regressions, regressions.isEmpty());
+        }
+    }
+
+    private static void runPass(GraphDifferentialHarness harness, int length)
+    {
+        for(int seed = 0; seed < SEQUENCES; ++seed){
+            // few vertices give dense graphs with many repeated calls, more give sparse graphs with long paths
+            int numVertices = seed % 2 == 0 ? 40 : 400;
+            String mismatch = harness.run(GraphDifferentialHarness.generate(seed, length, numVertices));
+            assertNull("seed " + seed + " over " + numVertices + " vertices: " + mismatch, mismatch);
+        }
+        harness.endPass();
+    }
+
+    @Test
+    public void regressionsAreJudgedAgainstTheBaseline()
+    {
+        GraphDifferentialHarness harness = GraphDifferentialHarness.allImplementations();
+        assertNull("a short run agrees", harness.run(GraphDifferentialHarness.generate(99, 300, 20)));
+        harness.endPass();
+        Properties timings = harness.timings();
+        assertTrue("every implementation is timed", timings.containsKey("OffHeapGraph.ADD_EDGE"));
+
+        assertEquals("a run is not slower than itself", 0, harness.regressions(timings, 25, 0).size());
+
+        Properties faster = new Properties();
+        for(String key : timings.stringPropertyNames()){
+            faster.setProperty(key, String.valueOf(Double.parseDouble(timings.getProperty(key)) / 10));
+        }
+        assertEquals("every op is slower than a baseline ten times faster",
+                     timings.size(), harness.regressions(faster, 25, 0).size());
+        assertEquals("but not if the ops are too quick to judge",
+                     0, harness.regressions(faster, 25, Long.MAX_VALUE).size());
+        assertEquals("ops missing from the baseline are not judged",
+                     0, harness.regressions(new Properties(), 25, 0).size());
+    }
+}
@@ -0,0 +1,147 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphGenerator;
+
+@RunWith(JUnit4.class)
+public class GraphGeneratorTests {
+
+    @Test
+    public void chain()
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createGraph();
+        assertEquals("a chain of 5 has 4 edges", 4, GraphGenerator.chain(5).into(g));
+
+        assertEquals("every vertex is added", 5, g.numVertices());
+        assertEquals("0 reaches 4 in 4 steps", 4, g.pathLength(0, 4));
+        assertFalse("edges are directed", g.hasPath(4, 0));
+        assertEquals("an empty chain has no edges", 0, GraphGenerator.chain(0).generate((from, to) -> {}));
+    }
+
+    @Test
+    public void grid()
+    {
+        CsrGraph<Integer> g = GraphGenerator.grid(3, 4).toCsrGraph();
+
+        assertEquals("3 by 4 vertices", 12, g.numVertices());
+        assertEquals("17 neighboring pairs, both ways", 34, g.numEdges());
+        assertTrue("right", g.hasEdge(5, 6));
+        assertTrue("down", g.hasEdge(5, 9));
+        assertTrue("up", g.hasEdge(5, 1));
+        assertFalse("no wrapping around rows", g.hasEdge(3, 4));
+        assertEquals("corner to corner", 5, g.pathLength(0, 11));
+        assertEquals("an inner vertex has 4 neighbors", 4, g.degree(5));
+    }
+
+    @Test
+    public void sameSeedSameEdges()
+    {
+        GraphGenerator[] generators = {
+            GraphGenerator.erdosRenyi(200, 0.05, 7),
+            GraphGenerator.barabasiAlbert(200, 3, 7),
+            GraphGenerator.rmat(8, 1000, 0.45, 0.15, 0.15, 7),
+        };
+        for(GraphGenerator generator : generators){
+            assertEquals("generating again gives the same edges", edges(generator), edges(generator));
+        }
+        assertFalse("another seed gives other edges",
+                    edges(GraphGenerator.erdosRenyi(200, 0.05, 7)).equals(edges(GraphGenerator.erdosRenyi(200, 0.05, 8))));
+    }
+
+    @Test
+    public void erdosRenyi()
+    {
+        GraphGenerator generator = GraphGenerator.erdosRenyi(300, 0.1, 1);
+        Set<Long> distinct = new HashSet<Long>();
+        long edges = generator.generate((from, to) -> {
+                assertTrue("no loops", from != to);
+                assertTrue("no repeated edges", distinct.add((long) from << 32 | to));
+            });
+
+        assertEquals("the count is returned", distinct.size(), edges);
+        double expected = 300 * 299 * 0.1;
+        assertTrue("about p of the pairs are edges: " + edges, Math.abs(edges - expected) < 5 * Math.sqrt(expected));
+
+        assertEquals("p = 0 gives no edges", 0, GraphGenerator.erdosRenyi(10, 0, 1).generate((from, to) -> {}));
+        assertEquals("p = 1 gives every edge", 90, GraphGenerator.erdosRenyi(10, 1, 1).toCsrGraph().numEdges());
+    }
+
+    @Test
+    public void barabasiAlbert()
+    {
+        int n = 2000;
+        int m = 3;
+        CsrGraph<Integer> g = GraphGenerator.barabasiAlbert(n, m, 3).toCsrGraph();
+
+        assertEquals("each new vertex brings m distinct edges, both ways", 2 * (n - m) * m, g.numEdges());
+        int maxDegree = 0;
+        for(int v = 0; v < n; ++v){
+            assertTrue("every vertex is joined", g.degree(v) >= (v < m ? 1 : m));
+            for(Integer adjVert : g.adjacentTo(v)){
+                assertTrue("edges go both ways", g.hasEdge(adjVert, v));
+            }
+            maxDegree = Math.max(maxDegree, g.degree(v));
+        }
+        assertTrue("early vertices become hubs: " + maxDegree, maxDegree > 10 * m);
+    }
+
+    @Test
+    public void rmat()
+    {
+        int scale = 10;
+        long edges = GraphGenerator.kronecker(scale, 8, 5).generate((from, to) -> {
+                assertTrue("ids fit the scale", from >= 0 && from < 1 << scale && to >= 0 && to < 1 << scale);
+            });
+        assertEquals("edge factor times vertices", 8 << scale, edges);
+
+        CsrGraph<Integer> g = GraphGenerator.kronecker(scale, 8, 5).toCsrGraph();
+        assertEquals("2^scale vertices", 1 << scale, g.numVertices());
+        assertTrue("some edges repeat", g.numEdges() < edges);
+        int maxDegree = 0;
+        for(int v = 0; v < g.numVertices(); ++v){
+            maxDegree = Math.max(maxDegree, g.degree(v));
+        }
+        assertTrue("the degrees are skewed: " + maxDegree, maxDegree > 10 * 8);
+    }
+
+    @Test
+    public void intoAndToCsrGraphAgree()
+    {
+        GraphGenerator generator = GraphGenerator.rmat(7, 600, 0.5, 0.2, 0.2, 11);
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        generator.into(g);
+        CsrGraph<Integer> csr = generator.toCsrGraph();
+
+        assertEquals("same vertices", g.numVertices(), csr.numVertices());
+        assertEquals("same edges", g.numEdges(), csr.numEdges());
+        generator.generate((from, to) -> assertTrue("every edge is in both", g.hasEdge(from, to) && csr.hasEdge(from, to)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void badProbabilities()
+    {
+        GraphGenerator.rmat(4, 10, 0.6, 0.3, 0.3, 1);
+    }
+
+    private static List<Long> edges(GraphGenerator generator)
+    {
+        List<Long> edges = new ArrayList<Long>();
+        generator.generate((from, to) -> edges.add((long) from << 32 | to));
+        return edges;
+    }
+}
@@ -0,0 +1,135 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class GraphNeighborStorageTests {
+
+    private Graph<Integer> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<Integer>createGraph();
+    }
+
+    private void verifyNeighbors(Set<Integer> expected)
+    {
+        assertEquals("degree matches", expected.size(), g.degree(0));
+        Set<Integer> seen = new HashSet<Integer>();
+        for(Integer adjVert : g.adjacentTo(0)){
+            assertTrue("no neighbor is listed twice", seen.add(adjVert));
+        }
+        assertEquals("same neighbors", expected, seen);
+        for(int v = 0; v < 2000; v += 37){
+            assertEquals("hasEdge agrees for " + v, expected.contains(v), g.hasEdge(0, v));
+        }
+    }
+
+    @Test
+    public void growAndShrinkThroughEveryLayout()
+    {
+        Set<Integer> expected = new HashSet<Integer>();
+        g.addVertex(0);
+        verifyNeighbors(expected);
+        for(int v = 1; v <= 2000; ++v){
+            g.addEdge(0, v);
+            expected.add(v);
+            if(v % 97 == 0 || v < 20){
+                verifyNeighbors(expected);
+            }
+        }
+        verifyNeighbors(expected);
+        for(int v = 2000; v >= 1; --v){
+            g.removeEdge(0, v);
+            expected.remove(v);
+            if(v % 97 == 0 || v < 20){
+                verifyNeighbors(expected);
+            }
+        }
+        assertEquals("no edges are left", 0, g.numEdges());
+    }
+
+    @Test
+    public void randomChangesAroundTheLimits()
+    {
+        Random random = new Random(40);
+        Set<Integer> expected = new HashSet<Integer>();
+        g.addVertex(0);
+        int bound = 16;
+        for(int step = 0; step < 20000; ++step){
+            if(step % 2000 == 0){
+                bound = bound == 16 ? 1500 : 16; // swing the degree across the limits
+            }
+            Integer v = random.nextInt(bound);
+            if(random.nextBoolean()){
+                assertEquals("addEdge changes the edge count iff the edge is new",
+                             expected.add(v) ? 1 : 0, edgeDelta(() -> g.addEdge(0, v)));
+            } else {
+                assertEquals("removeEdge changes the edge count iff the edge existed",
+                             expected.remove(v) ? -1 : 0, edgeDelta(() -> g.removeEdge(0, v)));
+            }
+            if(step % 250 == 0){
+                verifyNeighbors(expected);
+            }
+        }
+        verifyNeighbors(expected);
+    }
+
+    private int edgeDelta(Runnable change)
+    {
+        int before = g.numEdges();
+        change.run();
+        return g.numEdges() - before;
+    }
+
+    @Test
+    public void insertionOrderDoesNotMatter()
+    {
+        List<Integer> order = new ArrayList<Integer>();
+        for(int v = 1; v <= 300; ++v){
+            order.add(v);
+        }
+        Graph<Integer> other = GraphFactory.<Integer>createGraph();
+        for(int v : order){
+            g.addEdge(0, v);
+        }
+        Collections.shuffle(order, new Random(7));
+        for(int v : order){
+            other.addEdge(0, v);
+        }
+        assertEquals("graphs built in different orders are equal", g, other);
+        assertEquals("and print alike", g.toString(), other.toString());
+    }
+
+    @Test
+    public void removeVertexLeavesNoNeighbors()
+    {
+        for(int v = 1; v <= 600; ++v){
+            g.addEdge(0, v);
+            g.addEdge(v, 0);
+        }
+        g.removeVertex(0);
+        assertFalse("0 is gone", g.contains(0));
+        assertEquals("every edge touched 0", 0, g.numEdges());
+        g.addVertex(0);
+        assertEquals("a new 0 has no neighbors", 0, g.degree(0));
+    }
+}
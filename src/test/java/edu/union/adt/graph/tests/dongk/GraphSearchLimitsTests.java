@@ -0,0 +1,94 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.SearchLimits;
+import edu.union.adt.graph.SearchResult;
+
+@RunWith(JUnit4.class)
+public class GraphSearchLimitsTests {
+
+    private Graph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createGraph();
+        // chain 1 -> 2 -> 3 -> 4 -> 5 and a dead end 1 -> 6
+        g.addEdge("1", "2");
+        g.addEdge("2", "3");
+        g.addEdge("3", "4");
+        g.addEdge("4", "5");
+        g.addEdge("1", "6");
+    }
+
+    @Test
+    public void unlimitedSearch()
+    {
+        SearchResult<String> result = g.search("1", "5", SearchLimits.NONE);
+        assertEquals("5 is reachable from 1", SearchResult.Status.FOUND, result.getStatus());
+        assertEquals("the path has length 4", 4, result.getLength());
+        assertEquals("the path follows the chain", Arrays.asList("1", "2", "3", "4", "5"), result.getPath());
+
+        result = g.search("5", "1", SearchLimits.NONE);
+        assertEquals("1 is not reachable from 5", SearchResult.Status.NOT_FOUND, result.getStatus());
+        assertEquals("no path has no length", Integer.MAX_VALUE, result.getLength());
+        assertTrue("no path has no vertices", result.getPath().isEmpty());
+
+        result = g.search("1", "7", SearchLimits.NONE);
+        assertEquals("7 is not in the graph", SearchResult.Status.NOT_FOUND, result.getStatus());
+
+        result = g.search("3", "3", SearchLimits.NONE.withMaxDepth(0));
+        assertEquals("a vertex reaches itself within any limits", 0, result.getLength());
+    }
+
+    @Test
+    public void depthLimit()
+    {
+        assertEquals("a path of length 4 is found with depth 4",
+                     SearchResult.Status.FOUND,
+                     g.search("1", "5", SearchLimits.NONE.withMaxDepth(4)).getStatus());
+        assertEquals("a path of length 4 is unknown with depth 3",
+                     SearchResult.Status.LIMIT_EXCEEDED,
+                     g.search("1", "5", SearchLimits.NONE.withMaxDepth(3)).getStatus());
+        assertEquals("exhausting the graph within the depth limit means there is no path",
+                     SearchResult.Status.NOT_FOUND,
+                     g.search("4", "1", SearchLimits.NONE.withMaxDepth(1)).getStatus());
+    }
+
+    @Test
+    public void visitedLimit()
+    {
+        assertEquals("visiting 1, 2, 6, 3, 4 is enough to reach 5",
+                     SearchResult.Status.FOUND,
+                     g.search("1", "5", SearchLimits.NONE.withMaxVisited(5)).getStatus());
+        assertEquals("visiting only 1, 2, 6 is not enough to reach 5",
+                     SearchResult.Status.LIMIT_EXCEEDED,
+                     g.search("1", "5", SearchLimits.NONE.withMaxVisited(3)).getStatus());
+        assertEquals("visiting 5 and 4 is enough to know 1 is unreachable from 4",
+                     SearchResult.Status.NOT_FOUND,
+                     g.search("4", "1", SearchLimits.NONE.withMaxVisited(2)).getStatus());
+    }
+
+    @Test
+    public void deadline()
+    {
+        SearchLimits expired = SearchLimits.NONE.withDeadline(0, TimeUnit.NANOSECONDS);
+        assertEquals("a search with no time left has an unknown answer",
+                     SearchResult.Status.LIMIT_EXCEEDED,
+                     g.search("1", "5", expired).getStatus());
+        assertTrue("hasPath is not affected by limits", g.hasPath("1", "5"));
+    }
+}
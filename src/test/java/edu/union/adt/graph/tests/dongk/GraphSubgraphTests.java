@@ -0,0 +1,106 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class GraphSubgraphTests {
+
+    private Graph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("B", "C");
+        g.addEdge("C", "D");
+        g.addEdge("A", "E");
+        g.addEdge("E", "D");
+        g.addEdge("D", "A");
+    }
+
+    @Test
+    public void neighborhoodStopsAtDepthK()
+    {
+        assertEquals(Collections.singleton("A"), g.neighborhood("A", 0));
+        assertEquals(new HashSet<String>(Arrays.asList("A", "B", "E")), g.neighborhood("A", 1));
+        assertEquals(new HashSet<String>(Arrays.asList("A", "B", "C", "D", "E")), g.neighborhood("A", 2));
+        assertEquals("first element is the center", "A", g.neighborhood("A", 2).iterator().next());
+        assertTrue("unknown center", g.neighborhood("Z", 3).isEmpty());
+
+        Set<String> hood = g.neighborhood("A", 1);
+        try {
+            hood.add("Z");
+            fail("the neighborhood is read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void inducedSubgraphKeepsOnlyInnerEdges()
+    {
+        Graph<String> sub = g.inducedSubgraph(Arrays.asList("A", "B", "D", "Z"));
+        assertEquals("Z is not in the graph", 3, sub.numVertices());
+        assertFalse(sub.contains("Z"));
+        assertFalse(sub.contains("C"));
+        assertEquals("(A, B) and (D, A)", 2, sub.numEdges());
+        assertTrue(sub.hasEdge("D", "A"));
+        assertFalse(sub.hasEdge("C", "D"));
+        assertEquals(1, sub.degree("A"));
+        assertEquals(Collections.singletonList("B"), toList(sub.adjacentTo("A")));
+
+        assertEquals("in g, D reaches B in 2 hops", 2, g.pathLength("D", "B"));
+        assertEquals(2, sub.pathLength("D", "B"));
+        assertFalse("B -> C -> D leaves the subgraph", sub.hasPath("B", "D"));
+        assertEquals(Integer.MAX_VALUE, sub.pathLength("B", "D"));
+    }
+
+    @Test
+    public void inducedSubgraphIsALiveReadOnlyView()
+    {
+        Graph<String> sub = g.inducedSubgraph(g.neighborhood("A", 1));
+        g.addEdge("B", "E");
+        assertTrue("the view follows the graph", sub.hasEdge("B", "E"));
+        g.removeVertex("E");
+        assertEquals(2, sub.numVertices());
+        try {
+            sub.addEdge("A", "B");
+            fail("the subgraph is read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        CsrGraph<String> compact = CsrGraph.copyOf(sub);
+        assertEquals(2, compact.numVertices());
+        assertEquals(1, compact.numEdges());
+    }
+
+    private static <V> List<V> toList(Iterable<V> iterable)
+    {
+        List<V> list = new ArrayList<V>();
+        for(V v : iterable){
+            list.add(v);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,177 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class IndexedGraphTests {
+
+    private Graph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createIndexedGraph();
+    }
+
+    @Test
+    public void addAndRemove()
+    {
+        g.addEdge("1", "2");
+        g.addEdge("1", "3");
+        g.addEdge("3", "2");
+        g.addEdge("2", "2");
+        g.addEdge("1", "2");
+        g.addVertex("4");
+
+        assertEquals("four vertices", 4, g.numVertices());
+        assertEquals("duplicate edges are not added", 4, g.numEdges());
+        assertEquals("1 has two neighbors", 2, g.degree("1"));
+        assertTrue("self loops are edges", g.hasEdge("2", "2"));
+        assertFalse("edges are directed", g.hasEdge("2", "1"));
+
+        g.removeVertex("2");
+        assertEquals("removing 2 leaves three vertices", 3, g.numVertices());
+        assertEquals("removing 2 removes the edges to and from it", 1, g.numEdges());
+        assertFalse("2 is gone", g.contains("2"));
+        assertFalse("1 is no longer adjacent to 2", g.hasEdge("1", "2"));
+        assertEquals("1 keeps its edge to 3", 1, g.degree("1"));
+
+        g.addEdge("5", "1");
+        assertEquals("5 may reuse the id of 2 but not its edges", 1, g.degree("5"));
+        assertFalse("unknown vertices have no neighbors", g.adjacentTo("2").iterator().hasNext());
+    }
+
+    @Test
+    public void pathsMatchGraphImplementation()
+    {
+        Random random = new Random(1029);
+        Graph<Integer> expected = GraphFactory.<Integer>createGraph();
+        Graph<Integer> indexed = GraphFactory.<Integer>createIndexedGraph();
+        for(int i = 0; i < 3000; ++i){
+            int from = random.nextInt(200);
+            int to = random.nextInt(200);
+            if(random.nextInt(10) == 0){
+                expected.removeEdge(from, to);
+                indexed.removeEdge(from, to);
+            } else if(random.nextInt(50) == 0){
+                expected.removeVertex(from);
+                indexed.removeVertex(from);
+            } else {
+                expected.addEdge(from, to);
+                indexed.addEdge(from, to);
+            }
+        }
+        assertEquals("same vertices", expected.numVertices(), indexed.numVertices());
+        assertEquals("same edges", expected.numEdges(), indexed.numEdges());
+        for(int i = 0; i < 500; ++i){
+            int from = random.nextInt(200);
+            int to = random.nextInt(200);
+            int length = expected.pathLength(from, to);
+            assertEquals("same path length", length, indexed.pathLength(from, to));
+            Iterator<Integer> path = indexed.getPath(from, to).iterator();
+            int steps = -1;
+            Integer prev = null;
+            while(path.hasNext()){
+                Integer next = path.next();
+                assertTrue("path follows edges", prev == null || indexed.hasEdge(prev, next));
+                prev = next;
+                ++steps;
+            }
+            assertEquals("path has the shortest length", length == Integer.MAX_VALUE ? -1 : length, steps);
+        }
+    }
+
+    @Test
+    public void insertionOrderIsKept()
+    {
+        Graph<String> ordered = GraphFactory.<String>createOrderedGraph();
+        ordered.addVertex("C");
+        ordered.addEdge("A", "D");
+        ordered.addEdge("A", "B");
+        ordered.addEdge("A", "C");
+        ordered.removeVertex("D");
+        ordered.addEdge("D", "A");
+
+        assertEquals("vertices and neighbors in the order added", "C:\nA:C,B\nB:\nD:A", ordered.toString());
+    }
+
+    @Test
+    public void orderedGraphsBuiltAlikeAreEqual()
+    {
+        Graph<Integer> first = buildWithRemovals(GraphFactory.<Integer>createOrderedGraph());
+        Graph<Integer> second = buildWithRemovals(GraphFactory.<Integer>createOrderedGraph());
+
+        assertEquals("same calls, same string", first.toString(), second.toString());
+        assertEquals("same calls, equal graphs", first, second);
+        Random random = new Random(5);
+        for(int i = 0; i < 300; ++i){
+            int from = random.nextInt(400);
+            int to = random.nextInt(400);
+            assertEquals("same calls, same paths", first.getPath(from, to).toString(), second.getPath(from, to).toString());
+        }
+    }
+
+    @Test
+    public void orderedGraphMatchesGraphImplementationAfterCompaction()
+    {
+        Graph<Integer> ordered = buildWithRemovals(GraphFactory.<Integer>createOrderedGraph());
+        Graph<Integer> expected = buildWithRemovals(GraphFactory.<Integer>createGraph());
+
+        assertEquals("same vertices", expected.numVertices(), ordered.numVertices());
+        assertEquals("same edges", expected.numEdges(), ordered.numEdges());
+        int prev = -1;
+        for(Integer vertex : ordered.getVertices()){
+            assertTrue("vertices stay in the order added", vertex > prev);
+            prev = vertex;
+            assertEquals("same degree", expected.degree(vertex), ordered.degree(vertex));
+            int prevAdj = -1;
+            for(Integer adjVert : ordered.adjacentTo(vertex)){
+                assertTrue("same edges", expected.hasEdge(vertex, adjVert));
+                assertTrue("neighbors stay in the order added", adjVert > prevAdj);
+                prevAdj = adjVert;
+            }
+        }
+    }
+
+    /**
+     * Adds vertices in increasing order and edges at random, then
+     * removes two in three vertices, enough to renumber an ordered
+     * graph.
+     */
+    private static Graph<Integer> buildWithRemovals(Graph<Integer> graph)
+    {
+        Random random = new Random(3);
+        for(int v = 0; v < 400; ++v){
+            graph.addVertex(v);
+        }
+        for(int i = 0; i < 3000; ++i){
+            graph.addEdge(random.nextInt(400), random.nextInt(400));
+        }
+        for(int v = 0; v < 400; ++v){
+            if(v % 3 != 2){
+                graph.removeVertex(v);
+            }
+        }
+        for(int i = 0; i < 500; ++i){
+            int from = random.nextInt(400);
+            int to = random.nextInt(400);
+            if(graph.contains(from) && graph.contains(to)){
+                graph.addEdge(from, to);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.LandmarkOracle;
+
+@RunWith(JUnit4.class)
+public class LandmarkOracleTests {
+
+    @Test
+    public void boundsEnclosePathLength()
+    {
+        Random random = new Random(34);
+        Graph<Integer> g = GraphFactory.<Integer>createGraph();
+        int n = 60;
+        for(int i = 0; i < n; ++i){
+            g.addVertex(i);
+        }
+        for(int i = 0; i < 150; ++i){
+            g.addEdge(random.nextInt(n - 10), random.nextInt(n - 10)); // the last 10 vertices stay isolated
+        }
+        LandmarkOracle<Integer> oracle = LandmarkOracle.build(g, 4);
+        assertEquals(4, oracle.getLandmarks().size());
+
+        for(int s = 0; s < n; ++s){
+            for(int t = 0; t < n; ++t){
+                int exact = g.pathLength(s, t);
+                int lower = oracle.lowerBound(s, t);
+                int upper = oracle.upperBound(s, t);
+                assertTrue(s + " -> " + t + ": lower bound " + lower + " > " + exact, lower <= exact);
+                assertTrue(s + " -> " + t + ": upper bound " + upper + " < " + exact, upper >= exact);
+            }
+        }
+    }
+
+    @Test
+    public void exactOnAPathThroughALandmark()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("B", "C");
+        g.addEdge("C", "D");
+        g.addVertex("E");
+        LandmarkOracle<String> oracle = LandmarkOracle.build(g, 1);
+        String landmark = oracle.getLandmarks().get(0);
+        assertTrue("the highest-degree vertex comes first", landmark.equals("B") || landmark.equals("C"));
+
+        assertEquals(0, oracle.upperBound("A", "A"));
+        assertEquals(3, oracle.upperBound("A", "D"));
+        assertEquals("exact from the landmark itself", g.pathLength(landmark, "D"), oracle.lowerBound(landmark, "D"));
+        assertTrue(oracle.lowerBound("A", "D") <= 3);
+        assertEquals("no path back", Integer.MAX_VALUE, oracle.lowerBound("D", "A"));
+        assertEquals(Integer.MAX_VALUE, oracle.upperBound("A", "E"));
+        assertEquals("unknown vertex", Integer.MAX_VALUE, oracle.upperBound("A", "Z"));
+        assertEquals("byte tables: 2 directions x 5 vertices", 10, oracle.tableBytes());
+    }
+
+    @Test
+    public void transposeReversesEveryEdge()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("A", "C");
+        g.addEdge("C", "A");
+        g.addVertex("D");
+        CsrGraph<String> reverse = CsrGraph.copyOf(g).transpose();
+        assertEquals(4, reverse.numVertices());
+        assertEquals(3, reverse.numEdges());
+        assertTrue(reverse.hasEdge("B", "A"));
+        assertTrue(reverse.hasEdge("C", "A"));
+        assertTrue(reverse.hasEdge("A", "C"));
+        assertEquals(0, reverse.degree("D"));
+    }
+}
@@ -0,0 +1,158 @@
+package edu.union.adt.graph.tests.dongk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphGenerator;
+import edu.union.adt.graph.MemoryFootprint;
+import edu.union.adt.graph.ObservableGraph;
+import edu.union.adt.graph.OffHeapGraph;
+import edu.union.adt.graph.PropertyColumn;
+import edu.union.adt.graph.PropertyGraph;
+import edu.union.adt.graph.VersionedGraph;
+
+@RunWith(JUnit4.class)
+public class MemoryFootprintTests {
+
+    @SuppressWarnings("unchecked")
+    private static Graph<Integer>[] graphs()
+    {
+        return new Graph[] {
+            GraphFactory.<Integer>createGraph(),
+            GraphFactory.<Integer>createIndexedGraph(),
+            GraphFactory.<Integer>createOrderedGraph(),
+            GraphFactory.<Integer>createVersionedGraph(),
+            GraphFactory.<Integer>createBitmapGraph(),
+            GraphFactory.<Integer>createOffHeapGraph(),
+            new PropertyGraph<Integer>(),
+        };
+    }
+
+    @Test
+    public void componentsAddUp()
+    {
+        for(Graph<Integer> g : graphs()){
+            GraphGenerator.barabasiAlbert(500, 3, 1).into(g);
+            MemoryFootprint footprint = g.memoryFootprint();
+
+            assertEquals("the counts of the graph", 500, footprint.getNumVertices());
+            assertEquals("the counts of the graph", g.numEdges(), footprint.getNumEdges());
+            assertEquals("heap is the sum of its parts",
+                         footprint.getVertexMapBytes() + footprint.getNeighborContainerBytes() + footprint.getIndexBytes(),
+                         footprint.getHeapBytes());
+            assertEquals("total is heap and off heap",
+                         footprint.getHeapBytes() + footprint.getOffHeapBytes(), footprint.getTotalBytes());
+            assertTrue("the vertex map is counted: " + footprint, footprint.getVertexMapBytes() > 0);
+            assertTrue("the edges are counted: " + footprint,
+                       footprint.getNeighborContainerBytes() + footprint.getOffHeapBytes() > 0);
+        }
+        CsrGraph<Integer> csr = GraphGenerator.barabasiAlbert(500, 3, 1).toCsrGraph();
+        assertTrue("a CsrGraph needs at least its two arrays",
+                   csr.memoryFootprint().getNeighborContainerBytes() >= 4L * (csr.numVertices() + 1 + csr.numEdges()));
+    }
+
+    @Test
+    public void growsWithTheGraph()
+    {
+        Graph<Integer>[] small = graphs();
+        Graph<Integer>[] large = graphs();
+        for(int i = 0; i < small.length; ++i){
+            GraphGenerator.erdosRenyi(300, 0.01, 1).into(small[i]);
+            GraphGenerator.erdosRenyi(300, 0.1, 1).into(large[i]);
+            MemoryFootprint smallFootprint = small[i].memoryFootprint();
+            MemoryFootprint largeFootprint = large[i].memoryFootprint();
+            assertTrue("ten times the edges take more memory: " + smallFootprint + " " + largeFootprint,
+                       largeFootprint.getHeapBytes() > smallFootprint.getHeapBytes()
+                       || largeFootprint.getOffHeapBytes() > 0);  // slabs are reserved whole
+            assertTrue("ten times the edges take no less memory: " + smallFootprint + " " + largeFootprint,
+                       largeFootprint.getTotalBytes() >= smallFootprint.getTotalBytes());
+        }
+    }
+
+    @Test
+    public void offHeapMemoryIsReportedApart()
+    {
+        OffHeapGraph<Integer> g = new OffHeapGraph<Integer>();
+        GraphGenerator.chain(1000).into(g);
+        MemoryFootprint footprint = g.memoryFootprint();
+        assertTrue("the adjacency lives off the heap", footprint.getOffHeapBytes() >= 8 * 999);
+        assertTrue("only the slab bookkeeping is on the heap: " + footprint,
+                   footprint.getNeighborContainerBytes() < footprint.getOffHeapBytes() / 100);
+
+        MemoryFootprint onHeap = GraphFactory.<Integer>createIndexedGraph().memoryFootprint();
+        assertEquals("nothing off the heap", 0, onHeap.getOffHeapBytes());
+        g.close();
+    }
+
+    @Test
+    public void pinnedVersionsAreCounted()
+    {
+        VersionedGraph<Integer> g = new VersionedGraph<Integer>();
+        GraphGenerator.chain(100).into(g);
+        long unpinned = g.memoryFootprint().getIndexBytes();
+
+        VersionedGraph.Snapshot<Integer> snapshot = g.snapshot();
+        for(int v = 0; v < 99; ++v){
+            g.removeEdge(v, v + 1);
+        }
+        assertTrue("the 99 sets of the pinned version are kept",
+                   g.memoryFootprint().getIndexBytes() > unpinned + 99 * 48);
+        snapshot.close();
+    }
+
+    @Test
+    public void propertyColumnsAreCounted()
+    {
+        PropertyGraph<Integer> g = new PropertyGraph<Integer>();
+        GraphGenerator.chain(1000).into(g);
+        long plain = g.memoryFootprint().getNeighborContainerBytes();
+
+        PropertyColumn.OfLong time = g.addEdgeLongProperty("time", 0);
+        time.set(g.edgeId(0, 1), 1);
+        assertTrue("a long per edge is counted with the edges",
+                   g.memoryFootprint().getNeighborContainerBytes() >= plain + 8 * 999);
+        long vertexMap = g.memoryFootprint().getVertexMapBytes();
+        g.addVertexObjectProperty("label");
+        assertTrue("a reference per vertex is counted with the vertices",
+                   g.memoryFootprint().getVertexMapBytes() >= vertexMap + 4 * 1000);
+        g.removeEdgeProperty("time");
+        assertTrue("a removed column is not counted",
+                   g.memoryFootprint().getNeighborContainerBytes() < plain + 8 * 999);
+    }
+
+    @Test
+    public void observableGraphAddsItsRing()
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        GraphGenerator.barabasiAlbert(500, 3, 1).into(g);
+        MemoryFootprint observed = g.memoryFootprint();
+        try (ObservableGraph<Integer> small = new ObservableGraph<Integer>(g, 16, 16);
+             ObservableGraph<Integer> large = new ObservableGraph<Integer>(g, 1 << 12, 16)) {
+            MemoryFootprint footprint = small.memoryFootprint();
+
+            assertEquals("the edges of the graph observed", observed.getNeighborContainerBytes(),
+                         footprint.getNeighborContainerBytes());
+            assertTrue("the wrapper is counted", footprint.getVertexMapBytes() > observed.getVertexMapBytes());
+            assertTrue("the ring is counted", footprint.getIndexBytes() > observed.getIndexBytes());
+            assertTrue("a larger ring takes more: " + large.memoryFootprint(),
+                       large.memoryFootprint().getIndexBytes() - footprint.getIndexBytes() >= 4L * ((1 << 12) - 16));
+        }
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void viewsDoNotEstimate()
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createGraph();
+        g.addEdge(0, 1);
+        g.inducedSubgraph(Arrays.asList(0, 1)).memoryFootprint();
+    }
+}
@@ -0,0 +1,146 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.GraphEvent;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphListener;
+import edu.union.adt.graph.ObservableGraph;
+
+import static edu.union.adt.graph.GraphEvent.Type.*;
+
+@RunWith(JUnit4.class)
+public class ObservableGraphTests {
+
+    private ObservableGraph<String> g;
+    private List<GraphEvent<String>> received;
+
+    @Before
+    public void setUp()
+    {
+        g = new ObservableGraph<String>(GraphFactory.<String>createGraph());
+        received = Collections.synchronizedList(new ArrayList<GraphEvent<String>>());
+        g.addListener(events -> received.addAll(events));
+    }
+
+    @After
+    public void tearDown()
+    {
+        g.close();
+    }
+
+    @Test
+    public void mutationsAreReportedInOrder()
+    {
+        g.addVertex("A");
+        g.addEdge("A", "B");
+        g.addEdge("A", "A");
+        g.removeEdge("A", "B");
+        g.flush();
+
+        assertEquals("each change is reported once, in order",
+                     Arrays.asList(GraphEvent.vertex(VERTEX_ADDED, "A"),
+                                   GraphEvent.vertex(VERTEX_ADDED, "B"),
+                                   GraphEvent.edge(EDGE_ADDED, "A", "B"),
+                                   GraphEvent.edge(EDGE_ADDED, "A", "A"),
+                                   GraphEvent.edge(EDGE_REMOVED, "A", "B")),
+                     received);
+    }
+
+    @Test
+    public void unchangedGraphReportsNothing()
+    {
+        g.addEdge("A", "B");
+        g.flush();
+        received.clear();
+
+        g.addVertex("A");
+        g.addEdge("A", "B");
+        g.removeEdge("B", "A");
+        g.removeEdge("A", "C");
+        g.removeVertex("C");
+        g.addVertex(null);
+        g.flush();
+
+        assertEquals("calls that change nothing are not reported", 0, received.size());
+    }
+
+    @Test
+    public void removeVertexReportsImpliedEdgeRemovals()
+    {
+        g.addEdge("A", "B");
+        g.addEdge("B", "C");
+        g.addEdge("C", "B");
+        g.addEdge("B", "B");
+        g.addEdge("D", "C");
+        g.flush();
+        received.clear();
+
+        g.removeVertex("B");
+        g.flush();
+
+        assertEquals("4 edge removals then the vertex removal", 5, received.size());
+        assertEquals("the vertex removal comes last",
+                     GraphEvent.vertex(VERTEX_REMOVED, "B"), received.get(4));
+        assertTrue(received.containsAll(Arrays.asList(GraphEvent.edge(EDGE_REMOVED, "A", "B"),
+                                                      GraphEvent.edge(EDGE_REMOVED, "B", "C"),
+                                                      GraphEvent.edge(EDGE_REMOVED, "C", "B"),
+                                                      GraphEvent.edge(EDGE_REMOVED, "B", "B"))));
+        assertEquals("the remaining edge is untouched", 1, g.numEdges());
+    }
+
+    @Test(timeout = 10000)
+    public void slowListenerDoesNotBlockMutation() throws InterruptedException
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong delivered = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        try (ObservableGraph<Integer> small = new ObservableGraph<Integer>(GraphFactory.<Integer>createGraph(), 16, 4)) {
+            small.addListener(new GraphListener<Integer>() {
+                    @Override
+                    public void onEvents(List<GraphEvent<Integer>> events)
+                    {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        delivered.addAndGet(events.size());
+                    }
+
+                    @Override
+                    public void onOverflow(long droppedEvents)
+                    {
+                        dropped.addAndGet(droppedEvents);
+                    }
+                });
+
+            for(int i = 0; i < 1000; ++i){
+                small.addEdge(0, i + 1);
+            }
+            assertEquals("the graph changed while the listener was stuck", 1000, small.numEdges());
+
+            release.countDown();
+            small.flush();
+            small.addVertex(-1); // reported after the overflow
+            small.flush();
+            assertTrue("events were dropped", dropped.get() > 0);
+            assertEquals("every event was delivered or counted as dropped",
+                         2001 + 1, delivered.get() + dropped.get());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.OffHeapGraph;
+
+@RunWith(JUnit4.class)
+public class OffHeapGraphTests {
+
+    private OffHeapGraph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = new OffHeapGraph<String>();
+    }
+
+    @After
+    public void tearDown()
+    {
+        g.close();
+    }
+
+    @Test
+    public void addAndRemove()
+    {
+        g.addEdge("1", "2");
+        g.addEdge("1", "3");
+        g.addEdge("3", "2");
+        g.addEdge("2", "2");
+        g.addEdge("1", "2");
+        g.addVertex("4");
+
+        assertEquals("four vertices", 4, g.numVertices());
+        assertEquals("duplicate edges are not added", 4, g.numEdges());
+        assertEquals("1 has two neighbors", 2, g.degree("1"));
+        assertTrue("memory is reserved off the heap", g.offHeapBytes() > 0);
+
+        g.removeVertex("2");
+        assertEquals("removing 2 leaves three vertices", 3, g.numVertices());
+        assertEquals("removing 2 removes the edges to and from it", 1, g.numEdges());
+        g.addEdge("5", "1");
+        assertFalse("5 may reuse the id of 2 but not its edges", g.hasEdge("1", "5"));
+        assertEquals("5 has its own edge", 1, g.degree("5"));
+    }
+
+    @Test
+    public void closeFreesTheMemory()
+    {
+        g.addEdge("1", "2");
+        Iterable<String> view = g.adjacentTo("1");
+        g.close();
+        assertEquals("nothing is reserved after close", 0, g.offHeapBytes());
+        try {
+            g.addEdge("2", "3");
+            fail("a closed graph cannot be changed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            view.iterator().next();
+            fail("a view of a closed graph cannot be read");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        g.close(); // closing twice does nothing
+    }
+
+    @Test
+    public void matchesIndexedGraphWithTinySlabs()
+    {
+        // 64-byte slabs make most blocks spill into slabs of their own,
+        // and split the vertex table into chunks of four records
+        try (OffHeapGraph<Integer> offHeap = new OffHeapGraph<Integer>(64)) {
+            Random random = new Random(1042);
+            Graph<Integer> expected = GraphFactory.<Integer>createIndexedGraph();
+            for(int i = 0; i < 8000; ++i){
+                int from = random.nextInt(250);
+                int to = random.nextInt(250);
+                if(random.nextInt(10) == 0){
+                    expected.removeEdge(from, to);
+                    offHeap.removeEdge(from, to);
+                } else if(random.nextInt(60) == 0){
+                    expected.removeVertex(from);
+                    offHeap.removeVertex(from);
+                } else {
+                    expected.addEdge(from, to);
+                    offHeap.addEdge(from, to);
+                }
+            }
+            assertEquals("same vertices", expected.numVertices(), offHeap.numVertices());
+            assertEquals("same edges", expected.numEdges(), offHeap.numEdges());
+            assertEquals("same graph", expected.toString(), offHeap.toString());
+            for(int i = 0; i < 300; ++i){
+                int from = random.nextInt(250);
+                int to = random.nextInt(250);
+                int length = expected.pathLength(from, to);
+                assertEquals("same path length", length, offHeap.pathLength(from, to));
+                Iterator<Integer> path = offHeap.getPath(from, to).iterator();
+                Integer prev = null;
+                int steps = -1;
+                while(path.hasNext()){
+                    Integer next = path.next();
+                    assertTrue("path follows edges", prev == null || offHeap.hasEdge(prev, next));
+                    prev = next;
+                    ++steps;
+                }
+                assertEquals("path has the shortest length", length == Integer.MAX_VALUE ? -1 : length, steps);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.PropertyColumn;
+import edu.union.adt.graph.PropertyGraph;
+import edu.union.adt.graph.SearchLimits;
+import edu.union.adt.graph.SearchResult;
+
+@RunWith(JUnit4.class)
+public class PropertyGraphTests {
+
+    private PropertyGraph<String> g;
+    private PropertyColumn.OfLong timestamp;
+    private PropertyColumn.OfObject<String> label;
+
+    @Before
+    public void setUp()
+    {
+        g = new PropertyGraph<String>();
+        timestamp = g.addEdgeLongProperty("timestamp", -1);
+        label = g.addEdgeObjectProperty("label");
+        timestamp.set(g.addEdgeId("A", "B"), 10);
+        timestamp.set(g.addEdgeId("B", "D"), 10);
+        timestamp.set(g.addEdgeId("A", "C"), 30);
+        timestamp.set(g.addEdgeId("C", "E"), 30);
+        timestamp.set(g.addEdgeId("E", "D"), 30);
+        label.set(g.edgeId("A", "B"), "knows");
+    }
+
+    @Test
+    public void propertiesAreKeptPerEdge()
+    {
+        assertEquals(10, timestamp.get(g.edgeId("A", "B")));
+        assertEquals(30, timestamp.get(g.edgeId("E", "D")));
+        assertEquals("knows", label.get(g.edgeId("A", "B")));
+        assertNull(label.get(g.edgeId("A", "C")));
+        assertEquals("no such edge", -1, g.edgeId("B", "A"));
+        assertEquals("adding an existing edge gives its id", g.edgeId("A", "B"), g.addEdgeId("A", "B"));
+        assertSame(timestamp, g.getEdgeProperty("timestamp"));
+
+        g.addEdge("D", "A");
+        assertEquals("new edges get the default", -1, timestamp.get(g.edgeId("D", "A")));
+
+        PropertyColumn.OfDouble rank = g.addVertexDoubleProperty("rank", 0.5);
+        rank.set(g.vertexId("A"), 2.0);
+        assertEquals(2.0, rank.get(g.vertexId("A")), 0);
+        assertEquals(0.5, rank.get(g.vertexId("B")), 0);
+        g.addVertex("F");
+        assertEquals("vertices added later get the default", 0.5, rank.get(g.vertexId("F")), 0);
+    }
+
+    @Test
+    public void removalResetsReusedIds()
+    {
+        int id = g.edgeId("A", "B");
+        g.removeEdge("A", "B");
+        assertFalse(g.hasEdge("A", "B"));
+        assertEquals(4, g.numEdges());
+        assertEquals("the freed id is reused", id, g.addEdgeId("B", "A"));
+        assertEquals(-1, timestamp.get(id));
+        assertNull(label.get(id));
+
+        g.removeVertex("D");
+        assertEquals("edges into D are gone", 3, g.numEdges());
+        assertEquals(30, timestamp.get(g.edgeId("C", "E")));
+    }
+
+    @Test
+    public void filteredTraversalUsesOnlyAcceptedEdges()
+    {
+        assertEquals(2, g.pathLength("A", "D"));
+        SearchResult<String> recent = g.search("A", "D", SearchLimits.NONE, id -> timestamp.get(id) > 20);
+        assertEquals(Arrays.asList("A", "C", "E", "D"), recent.getPath());
+        SearchResult<String> none = g.search("A", "D", SearchLimits.NONE, id -> timestamp.get(id) > 40);
+        assertFalse(none.isFound());
+
+        assertEquals(new HashSet<String>(Arrays.asList("A", "B", "D")),
+                     g.neighborhood("A", 2, id -> timestamp.get(id) < 20));
+        assertEquals(new HashSet<String>(Arrays.asList("A", "B", "C", "D", "E")),
+                     g.neighborhood("A", 2));
+    }
+
+    @Test
+    public void propertyNamesAreUnique()
+    {
+        try {
+            g.addEdgeIntProperty("timestamp", 0);
+            fail("duplicate property name");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        g.addVertexIntProperty("timestamp", 0); // vertex and edge properties are separate
+        g.removeEdgeProperty("timestamp");
+        assertNull(g.getEdgeProperty("timestamp"));
+        assertTrue(g.getVertexProperty("timestamp") instanceof PropertyColumn.OfInt);
+    }
+}
@@ -0,0 +1,214 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphGenerator;
+import edu.union.adt.graph.ShortestPaths;
+
+@RunWith(JUnit4.class)
+public class ShortestPathsTests {
+
+    @Test
+    public void diamond()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("A", "C");
+        g.addEdge("B", "D");
+        g.addEdge("C", "D");
+        g.addEdge("A", "D");
+        g.addEdge("D", "E");
+        ShortestPaths<String> paths = ShortestPaths.of(g);
+
+        assertEquals("one shortest path", Collections.singletonList(Arrays.asList("A", "D", "E")),
+                     toList(paths.allShortest("A", "E")));
+        List<List<String>> three = paths.kShortest("A", "E", 5);
+        assertEquals("three loopless paths", 3, three.size());
+        assertEquals("the shortest first", Arrays.asList("A", "D", "E"), three.get(0));
+        assertEquals("then both of length 3", 4, three.get(1).size());
+        assertEquals("then both of length 3", 4, three.get(2).size());
+        assertEquals("the direct edge is the one shortest path to D",
+                     new HashSet<List<String>>(Arrays.asList(Arrays.asList("A", "D"))),
+                     new HashSet<List<String>>(toList(paths.allShortest("A", "D"))));
+    }
+
+    @Test
+    public void edgeCases()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addVertex("C");
+        ShortestPaths<String> paths = ShortestPaths.of(g);
+
+        assertEquals("a vertex to itself", Collections.singletonList(Collections.singletonList("A")),
+                     paths.kShortest("A", "A", 3));
+        assertEquals("a vertex to itself", Collections.singletonList(Collections.singletonList("A")),
+                     toList(paths.allShortest("A", "A")));
+        assertTrue("no path", paths.kShortest("A", "C", 3).isEmpty());
+        assertFalse("no path", paths.allShortest("B", "A").iterator().hasNext());
+        assertTrue("missing vertex", paths.kShortest("A", "Z", 3).isEmpty());
+        assertFalse("missing vertex", paths.allShortest("Z", "A").iterator().hasNext());
+    }
+
+    @Test
+    public void allShortestOnAGridIsLazy()
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        GraphGenerator.grid(4, 5).into(g);
+        ShortestPaths<Integer> paths = ShortestPaths.of(g);
+        Set<List<Integer>> all = new HashSet<List<Integer>>(toList(paths.allShortest(0, 19)));
+        assertEquals("7 choose 3 monotone paths", 35, all.size());
+        for(List<Integer> path : all){
+            assertEquals("each of length 7", 8, path.size());
+            assertValidPath(g, path, 0, 19);
+        }
+
+        GraphGenerator.grid(40, 40).into(g = GraphFactory.<Integer>createIndexedGraph());
+        Iterator<List<Integer>> many = ShortestPaths.of(g).allShortest(0, 1599).iterator();
+        Set<List<Integer>> some = new HashSet<List<Integer>>();
+        for(int i = 0; i < 1000; ++i){
+            some.add(many.next());
+        }
+        assertEquals("78 choose 39 paths, the first ones come at once", 1000, some.size());
+    }
+
+    @Test
+    public void kShortestMatchesEveryLooplessPath()
+    {
+        Random random = new Random(17);
+        for(int trial = 0; trial < 60; ++trial){
+            int n = 6 + random.nextInt(4);
+            Graph<Integer> g = GraphFactory.<Integer>createOrderedGraph();
+            for(int v = 0; v < n; ++v){
+                g.addVertex(v);   // so that the ids are the vertices themselves
+            }
+            GraphGenerator.erdosRenyi(n, 0.35, trial).into(g);
+            ShortestPaths<Integer> paths = ShortestPaths.of(g);
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+
+            List<List<Integer>> expected = new ArrayList<List<Integer>>();
+            simplePaths(g, from, to, new LinkedHashSet<Integer>(), expected);
+            List<List<Integer>> found = paths.kShortest(from, to, 12);
+            Collections.sort(expected, BY_LENGTH_THEN_IDS);
+
+            assertEquals("as many paths as there are, up to k", Math.min(12, expected.size()), found.size());
+            assertEquals("shortest first, then in id order", expected.subList(0, found.size()), found);
+            assertEquals("no path twice", found.size(), new HashSet<List<Integer>>(found).size());
+            List<Integer> expectedLengths = new ArrayList<Integer>();
+            for(List<Integer> path : expected){
+                expectedLengths.add(path.size());
+            }
+            Collections.sort(expectedLengths);
+            for(int i = 0; i < found.size(); ++i){
+                List<Integer> path = found.get(i);
+                assertValidPath(g, path, from, to);
+                assertEquals("loopless", path.size(), new HashSet<Integer>(path).size());
+                assertEquals("the i-th shortest length", (int) expectedLengths.get(i), path.size());
+            }
+
+            int shortest = expected.isEmpty() ? 0 : expectedLengths.get(0);
+            Set<List<Integer>> allShortest = new HashSet<List<Integer>>();
+            for(List<Integer> path : expected){
+                if(path.size() == shortest){
+                    allShortest.add(path);
+                }
+            }
+            assertEquals("every shortest path", allShortest,
+                         new HashSet<List<Integer>>(toList(paths.allShortest(from, to))));
+            assertEquals("shortest paths in id order", expected.subList(0, allShortest.size()),
+                         toList(paths.allShortest(from, to)));
+        }
+    }
+
+    @Test
+    public void pathsOfTheSameLengthComeInIdOrder()
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createOrderedGraph();
+        g.addEdge(0, 1);
+        g.addEdge(0, 2);
+        g.addEdge(1, 3);
+        g.addEdge(2, 3);
+        ShortestPaths<Integer> paths = ShortestPaths.of(g);
+
+        List<List<Integer>> inOrder = Arrays.asList(Arrays.asList(0, 1, 3), Arrays.asList(0, 2, 3));
+        assertEquals("k shortest in id order", inOrder, paths.kShortest(0, 3, 2));
+        assertEquals("all shortest in id order", inOrder, toList(paths.allShortest(0, 3)));
+    }
+
+    private static final Comparator<List<Integer>> BY_LENGTH_THEN_IDS = (a, b) -> {
+        if(a.size() != b.size()){
+            return Integer.compare(a.size(), b.size());
+        }
+        for(int i = 0; i < a.size(); ++i){
+            if(!a.get(i).equals(b.get(i))){
+                return Integer.compare(a.get(i), b.get(i));
+            }
+        }
+        return 0;
+    };
+
+    @Test
+    public void snapshotIgnoresLaterChanges()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        ShortestPaths<String> paths = ShortestPaths.of(g);
+        g.addEdge("B", "C");
+
+        assertTrue("C was not in the snapshot", paths.kShortest("A", "C", 1).isEmpty());
+    }
+
+    private static <V> void assertValidPath(Graph<V> g, List<V> path, V from, V to)
+    {
+        assertEquals("starts at from", from, path.get(0));
+        assertEquals("ends at to", to, path.get(path.size() - 1));
+        for(int i = 0; i + 1 < path.size(); ++i){
+            assertTrue("follows edges", g.hasEdge(path.get(i), path.get(i + 1)));
+        }
+    }
+
+    private static void simplePaths(Graph<Integer> g, Integer vert, Integer to, LinkedHashSet<Integer> onPath,
+                                    List<List<Integer>> found)
+    {
+        onPath.add(vert);
+        if(vert.equals(to)){
+            found.add(new ArrayList<Integer>(onPath));
+        } else {
+            for(Integer adjVert : g.adjacentTo(vert)){
+                if(!onPath.contains(adjVert)){
+                    simplePaths(g, adjVert, to, onPath, found);
+                }
+            }
+        }
+        onPath.remove(vert);
+    }
+
+    private static <T> List<T> toList(Iterable<T> items)
+    {
+        List<T> list = new ArrayList<T>();
+        for(T item : items){
+            list.add(item);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,157 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.StreamingIngestor;
+import edu.union.adt.graph.VersionedGraph;
+
+@RunWith(JUnit4.class)
+public class StreamingIngestorTests {
+
+    @Test
+    public void mergeAddsWhatWasIngested()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        try(StreamingIngestor<String> ingestor = new StreamingIngestor<String>(g, 60000, 1000)){
+            ingestor.addEdge("A", "B");
+            ingestor.addEdge("B", "C");
+            ingestor.addEdge("A", "B");
+            ingestor.addVertex("D");
+            assertEquals("four distinct vertices", 4, ingestor.numVertices());
+            assertTrue("nothing merged yet", g.isEmpty());
+
+            assertEquals("three edges merged", 3, ingestor.merge());
+            assertEquals("nothing left to merge", 0, ingestor.merge());
+            assertEquals("the repeated edge is one edge", 2, g.numEdges());
+            assertTrue("the edges are in the graph", g.hasEdge("A", "B") && g.hasEdge("B", "C"));
+            assertTrue("the lone vertex is in the graph", g.contains("D"));
+            assertEquals("merged edges are counted", 3, ingestor.getMergedEdges());
+        }
+    }
+
+    @Test
+    public void manySegmentsKeepTheirOrder()
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        try(StreamingIngestor<Integer> ingestor = new StreamingIngestor<Integer>(g, 60000, 1 << 20)){
+            for(int i = 0; i < 20000; ++i){
+                ingestor.addEdge(i, i + 1);
+                if(i == 10000){
+                    ingestor.merge();
+                }
+            }
+        }
+        assertEquals("every edge is merged, across segments", 20000, g.numEdges());
+        assertEquals("the chain is whole", 20000, g.pathLength(0, 20000));
+    }
+
+    @Test
+    public void concurrentProducers() throws InterruptedException
+    {
+        int threads = 4;
+        int perThread = 30000;
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        StreamingIngestor<Integer> ingestor = new StreamingIngestor<Integer>(g, 1, 5000);
+        List<Thread> producers = new ArrayList<Thread>();
+        for(int t = 0; t < threads; ++t){
+            int thread = t;
+            producers.add(new Thread(() -> {
+                    for(int i = 0; i < perThread; ++i){
+                        // vertices 0..999 are shared by every producer
+                        ingestor.addEdge(i % 1000, 1000 + thread * perThread + i);
+                    }
+                }));
+        }
+        for(Thread producer : producers){
+            producer.start();
+        }
+        for(Thread producer : producers){
+            producer.join();
+        }
+        ingestor.close();
+
+        assertEquals("every vertex interned once", 1000 + threads * perThread, ingestor.numVertices());
+        assertEquals("every vertex merged", 1000 + threads * perThread, g.numVertices());
+        assertEquals("every edge merged", threads * perThread, g.numEdges());
+        assertEquals("every edge counted", threads * perThread, ingestor.getMergedEdges());
+        for(int t = 0; t < threads; ++t){
+            for(int i = 0; i < perThread; i += 997){
+                assertTrue("edge of producer " + t, g.hasEdge(i % 1000, 1000 + t * perThread + i));
+            }
+        }
+    }
+
+    @Test
+    public void shortLivedProducers() throws InterruptedException
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        try(StreamingIngestor<Integer> ingestor = new StreamingIngestor<Integer>(g, 60000, 1000)){
+            for(int t = 0; t < 500; ++t){
+                int first = 3 * t;
+                Thread producer = new Thread(() -> {
+                        ingestor.addEdge(first, first + 1);
+                        ingestor.addEdge(first + 1, first + 2);
+                    });
+                producer.start();
+                producer.join();
+                if(t % 100 == 0){
+                    ingestor.merge();
+                }
+            }
+            ingestor.merge();
+            assertEquals("the edges of ended producers are merged", 1000, g.numEdges());
+            assertEquals("a second merge finds nothing left", 0, ingestor.merge());
+            ingestor.addEdge(0, 2);
+            assertEquals("a live producer still has a buffer", 1, ingestor.merge());
+        }
+        assertTrue("every edge is in the graph", g.hasEdge(1498, 1499) && g.hasEdge(0, 2));
+    }
+
+    @Test
+    public void mergesInTheBackground() throws InterruptedException
+    {
+        VersionedGraph<Integer> g = new VersionedGraph<Integer>();
+        try(StreamingIngestor<Integer> ingestor = new StreamingIngestor<Integer>(g, 1, 1000)){
+            for(int i = 0; i < 100; ++i){
+                ingestor.addEdge(i, i + 1);
+            }
+            long deadline = System.currentTimeMillis() + 10000;
+            while(g.numEdges() < 100 && System.currentTimeMillis() < deadline){
+                Thread.sleep(1);
+            }
+            assertEquals("the merge thread merged every edge", 100, g.numEdges());
+        }
+    }
+
+    @Test
+    public void slowMergeHoldsProducersBack()
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        try(StreamingIngestor<Integer> ingestor = new StreamingIngestor<Integer>(g, 60000, 1)){
+            for(int i = 0; i < 50000; ++i){
+                ingestor.addEdge(i, -i);
+            }
+            assertFalse("the producer waited for merges", g.isEmpty());
+        }
+        assertEquals("every edge merged", 50000, g.numEdges());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void closedIngestorRefusesEdges()
+    {
+        StreamingIngestor<String> ingestor = new StreamingIngestor<String>(GraphFactory.<String>createGraph());
+        ingestor.close();
+        ingestor.addEdge("A", "B");
+    }
+}
@@ -0,0 +1,211 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.TemporalGraph;
+
+@RunWith(JUnit4.class)
+public class TemporalGraphTests {
+
+    @Test
+    public void edgesExpireAfterTheWindow()
+    {
+        TemporalGraph<String> g = new TemporalGraph<String>(10, 3);
+        g.addEdge("A", "B", 0);
+        g.addEdge("B", "C", 5);
+        assertEquals("A reaches C", 2, g.pathLength("A", "C"));
+
+        g.advanceTo(9);
+        assertTrue("A-B is live until 9", g.hasEdge("A", "B"));
+        assertFalse("A-B expires at 10", g.hasPath("A", "C", 10));
+        assertEquals("one live edge", 1, g.numEdges());
+        assertTrue("B still reaches C", g.hasPath("B", "C"));
+        assertTrue("vertices do not expire", g.contains("A"));
+        assertEquals("A has no live edges", 0, g.degree("A"));
+
+        assertEquals("everything expires", Integer.MAX_VALUE, g.pathLength("B", "C", 15));
+        assertEquals("no live edges", 0, g.numEdges());
+    }
+
+    @Test
+    public void addingAgainExtendsAnEdge()
+    {
+        TemporalGraph<String> g = new TemporalGraph<String>(10);
+        g.addEdge("A", "B", 1);
+        g.addEdge("A", "B", 8);
+        g.addEdge("A", "B", 4);
+        assertEquals("the latest time is kept", 8, g.timeOf("A", "B"));
+        assertEquals("one edge", 1, g.numEdges());
+
+        g.advanceTo(12);
+        assertTrue("the stale entry does not expire the edge", g.hasEdge("A", "B"));
+        g.advanceTo(18);
+        assertFalse("the edge expires 10 after its last time", g.hasEdge("A", "B"));
+    }
+
+    @Test
+    public void lateEdges()
+    {
+        TemporalGraph<String> g = new TemporalGraph<String>(100, 10);
+        g.addEdge("A", "B", 1000);
+        g.addEdge("B", "C", 950);
+        g.addEdge("C", "D", 900);
+
+        assertTrue("a late edge in the window is added", g.hasEdge("B", "C"));
+        assertFalse("an edge already out of the window is dropped", g.hasEdge("C", "D"));
+        assertTrue("its vertices are still added", g.contains("D"));
+        assertEquals("the clock does not go back", 1000, g.getTime());
+        assertFalse("B-C expires on time", g.hasPath("A", "C", 1050));
+    }
+
+    @Test
+    public void pathsUseOnlyLiveEdges()
+    {
+        TemporalGraph<Integer> g = new TemporalGraph<Integer>(50, 4);
+        g.addEdge(0, 1, 10);
+        g.addEdge(1, 9, 10);
+        for(int v = 0; v < 8; ++v){
+            g.addEdge(v == 0 ? 0 : 100 + v, 100 + v + 1, 30);
+        }
+        g.addEdge(108, 9, 30);
+        assertEquals("the short way", 2, g.pathLength(0, 9, 30));
+        assertEquals("the long way once the short one expires", 9, g.pathLength(0, 9, 60));
+        assertEquals("no way once everything expires", Integer.MAX_VALUE, g.pathLength(0, 9, 80));
+    }
+
+    @Test
+    public void longJumpsClearTheWheel()
+    {
+        TemporalGraph<Integer> g = new TemporalGraph<Integer>(1000, 10);
+        for(int t = 0; t < 5000; ++t){
+            g.addEdge(t % 97, (t * 31) % 89, t);
+        }
+        g.advanceTo(1_000_000_000L);
+        assertEquals("every edge expired", 0, g.numEdges());
+        g.addEdge(1, 2);
+        assertEquals("edges added at the clock are live", 1, g.numEdges());
+        assertEquals("at the clock", 1_000_000_000L, g.timeOf(1, 2));
+    }
+
+    @Test
+    public void matchesAScanOfEveryEdge()
+    {
+        Random random = new Random(3);
+        for(int trial = 0; trial < 20; ++trial){
+            long window = 20 + random.nextInt(200);
+            long tick = 1 + random.nextInt((int) window);
+            TemporalGraph<Integer> g = new TemporalGraph<Integer>(window, tick);
+            Map<List<Integer>, Long> model = new HashMap<List<Integer>, Long>();
+            Set<Integer> vertices = new HashSet<Integer>();
+            long now = 0;
+            for(int step = 0; step < 2000; ++step){
+                int n = 30;
+                int op = random.nextInt(20);
+                if(op < 14){
+                    int from = random.nextInt(n);
+                    int to = random.nextInt(n);
+                    long time = now + random.nextInt(10) - (random.nextInt(8) == 0 ? window : 3);
+                    g.addEdge(from, to, time);
+                    now = Math.max(now, time);
+                    vertices.add(from);
+                    vertices.add(to);
+                    expire(model, now - window);
+                    if(time > now - window){
+                        model.merge(Arrays.asList(from, to), time, Math::max);
+                    }
+                } else if(op < 16){
+                    now += random.nextInt((int) window);
+                    g.advanceTo(now);
+                    expire(model, now - window);
+                } else if(op < 18){
+                    int from = random.nextInt(n);
+                    int to = random.nextInt(n);
+                    g.removeEdge(from, to);
+                    model.remove(Arrays.asList(from, to));
+                } else if(op < 19){
+                    int vertex = random.nextInt(n);
+                    g.removeVertex(vertex);
+                    vertices.remove(vertex);
+                    model.keySet().removeIf(edge -> edge.contains(vertex));
+                } else {
+                    int from = random.nextInt(n);
+                    int to = random.nextInt(n);
+                    assertEquals("path length at " + now, modelPathLength(model, vertices, from, to),
+                                 g.pathLength(from, to));
+                }
+                assertEquals("live edges at " + now, model.size(), g.numEdges());
+            }
+            for(Map.Entry<List<Integer>, Long> edge : model.entrySet()){
+                List<Integer> ends = edge.getKey();
+                assertTrue("live edge", g.hasEdge(ends.get(0), ends.get(1)));
+                assertEquals("its time", (long) edge.getValue(), g.timeOf(ends.get(0), ends.get(1)));
+            }
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void queriesCannotGoBack()
+    {
+        TemporalGraph<String> g = new TemporalGraph<String>(10);
+        g.addEdge("A", "B", 20);
+        g.hasPath("A", "B", 19);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void tooManyTicks()
+    {
+        new TemporalGraph<String>(1L << 40, 1);
+    }
+
+    private static void expire(Map<List<Integer>, Long> model, long cutoff)
+    {
+        model.values().removeIf(time -> time <= cutoff);
+    }
+
+    private static int modelPathLength(Map<List<Integer>, Long> model, Set<Integer> vertices, int from, int to)
+    {
+        if(!vertices.contains(from) || !vertices.contains(to)){
+            return Integer.MAX_VALUE;
+        }
+        Map<Integer, Integer> depth = new HashMap<Integer, Integer>();
+        Queue<Integer> queue = new ArrayDeque<Integer>();
+        depth.put(from, 0);
+        queue.add(from);
+        while(!queue.isEmpty()){
+            int vert = queue.remove();
+            if(vert == to){
+                return depth.get(vert);
+            }
+            List<Integer> next = new ArrayList<Integer>();
+            for(List<Integer> edge : model.keySet()){
+                if(edge.get(0) == vert && !depth.containsKey(edge.get(1))){
+                    next.add(edge.get(1));
+                }
+            }
+            for(int adjVert : next){
+                if(!depth.containsKey(adjVert)){
+                    depth.put(adjVert, depth.get(vert) + 1);
+                    queue.add(adjVert);
+                }
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+}
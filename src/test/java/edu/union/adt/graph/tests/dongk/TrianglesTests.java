@@ -0,0 +1,111 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphGenerator;
+import edu.union.adt.graph.Triangles;
+
+@RunWith(JUnit4.class)
+public class TrianglesTests {
+
+    @Test
+    public void smallGraph()
+    {
+        Graph<String> g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("B", "C");
+        g.addEdge("C", "A");
+        g.addEdge("A", "C");
+        g.addEdge("C", "D");
+        g.addEdge("D", "A");
+        g.addEdge("A", "A");
+        g.addEdge("D", "E");
+        Triangles.Counts<String> counts = new Triangles(2).count(g);
+
+        assertEquals("ABC and ACD, whatever the directions", 2, counts.total());
+        assertEquals("A is in both", 2, counts.get("A"));
+        assertEquals("B is in one", 1, counts.get("B"));
+        assertEquals("E is in none", 0, counts.get("E"));
+        assertEquals("A has 3 neighbors and 2 of the 3 pairs are joined", 2.0 / 3, counts.clusteringCoefficient("A"), 1e-12);
+        assertEquals("a vertex with one neighbor", 0.0, counts.clusteringCoefficient("E"), 0);
+        // wedges: A 3, B 1, C 3, D 3, E 0
+        assertEquals("3 * 2 triangles over 10 wedges", 0.6, counts.globalClusteringCoefficient(), 1e-12);
+    }
+
+    @Test
+    public void completeGraph()
+    {
+        Graph<Integer> g = GraphFactory.<Integer>createIndexedGraph();
+        GraphGenerator.erdosRenyi(20, 1, 1).into(g);
+        Triangles.Counts<Integer> counts = new Triangles().count(g);
+
+        assertEquals("20 choose 3", 1140, counts.total());
+        assertEquals("19 choose 2 at each vertex", 171, counts.get(7));
+        assertEquals("everything is clustered", 1.0, counts.averageClusteringCoefficient(), 1e-12);
+    }
+
+    @Test
+    public void emptyGraph()
+    {
+        Triangles.Counts<String> counts = new Triangles().count(GraphFactory.<String>createGraph());
+
+        assertEquals("no triangles", 0, counts.total());
+        assertEquals("no coefficient", 0.0, counts.averageClusteringCoefficient(), 0);
+        assertEquals("no coefficient", 0.0, counts.globalClusteringCoefficient(), 0);
+    }
+
+    @Test(expected=RuntimeException.class)
+    public void missingVertex()
+    {
+        new Triangles().count(GraphFactory.<String>createGraph()).get("A");
+    }
+
+    @Test
+    public void matchesNestedLoops()
+    {
+        Random random = new Random(23);
+        for(int trial = 0; trial < 10; ++trial){
+            Graph<Integer> g = GraphFactory.<Integer>createGraph();
+            GraphGenerator.rmat(7, 300 + random.nextInt(1500), 0.45, 0.2, 0.2, trial).into(g);
+            for(int parallelism = 1; parallelism <= 3; ++parallelism){
+                Triangles.Counts<Integer> counts = new Triangles(parallelism).count(g);
+                long total = 0;
+                for(Integer v : g.getVertices()){
+                    List<Integer> adjacent = neighbors(g, v);
+                    long expected = 0;
+                    for(int i = 0; i < adjacent.size(); ++i){
+                        for(int j = i + 1; j < adjacent.size(); ++j){
+                            Integer a = adjacent.get(i);
+                            Integer b = adjacent.get(j);
+                            expected += g.hasEdge(a, b) || g.hasEdge(b, a) ? 1 : 0;
+                        }
+                    }
+                    assertEquals("triangles through " + v, expected, counts.get(v));
+                    total += expected;
+                }
+                assertEquals("each triangle has three vertices", total / 3, counts.total());
+            }
+        }
+    }
+
+    private static List<Integer> neighbors(Graph<Integer> g, Integer v)
+    {
+        List<Integer> adjacent = new ArrayList<Integer>();
+        for(Integer other : g.getVertices()){
+            if(!other.equals(v) && (g.hasEdge(v, other) || g.hasEdge(other, v))){
+                adjacent.add(other);
+            }
+        }
+        return adjacent;
+    }
+}
@@ -0,0 +1,252 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.VersionedGraph;
+
+@RunWith(JUnit4.class)
+public class VersionedGraphTests {
+
+    private VersionedGraph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = new VersionedGraph<String>();
+        g.addEdge("1", "2");
+        g.addEdge("2", "3");
+    }
+
+    @Test
+    public void snapshotIsIsolated()
+    {
+        try(VersionedGraph.Snapshot<String> before = g.snapshot()){
+            g.removeVertex("2");
+            g.addEdge("1", "3");
+
+            assertEquals("the snapshot still has three vertices", 3, before.numVertices());
+            assertEquals("the snapshot still has two edges", 2, before.numEdges());
+            assertTrue("the snapshot still has 2", before.contains("2"));
+            assertEquals("the snapshot still routes through 2", 2, before.pathLength("1", "3"));
+            assertFalse("the snapshot does not see the new edge", before.hasEdge("1", "3"));
+
+            assertEquals("the graph has two vertices", 2, g.numVertices());
+            assertEquals("the graph routes directly", 1, g.pathLength("1", "3"));
+            assertTrue("each mutation made a version", g.getVersion() > before.getVersion());
+        }
+    }
+
+    @Test
+    public void unchangedGraphKeepsItsVersion()
+    {
+        long version = g.getVersion();
+        g.addEdge("1", "2");
+        g.addVertex("3");
+        g.removeEdge("3", "1");
+        g.removeVertex("4");
+        assertEquals("mutations that change nothing make no version", version, g.getVersion());
+    }
+
+    @Test
+    public void oldVersionsAreCollected()
+    {
+        VersionedGraph.Snapshot<String> old = g.snapshot();
+        for(int i = 0; i < 10; ++i){
+            g.removeEdge("1", "2");
+            g.addEdge("1", "2");
+        }
+        g.removeVertex("3");
+        assertTrue("the open snapshot keeps old records", g.recordCount() > g.numVertices());
+        assertEquals("the snapshot still sees 3", 3, old.numVertices());
+
+        old.close();
+        g.collectGarbage();
+        assertEquals("one record per vertex is left", g.numVertices(), g.recordCount());
+    }
+
+    @Test
+    public void hubVersionsKeepTheirNeighbors()
+    {
+        // "Aa" and "BB" have the same hash code, so every word of them does too
+        List<String> colliding = new ArrayList<String>();
+        colliding.add("");
+        for(int i = 0; i < 6; ++i){
+            List<String> longer = new ArrayList<String>();
+            for(String word : colliding){
+                longer.add(word + "Aa");
+                longer.add(word + "BB");
+            }
+            colliding = longer;
+        }
+        List<String> neighbors = new ArrayList<String>(colliding);
+        for(int i = 0; i < 3000; ++i){
+            neighbors.add("v" + i);
+        }
+
+        VersionedGraph<String> hub = new VersionedGraph<String>();
+        Set<String> expected = new HashSet<String>();
+        for(String neighbor : neighbors){
+            hub.addEdge("hub", neighbor);
+            expected.add(neighbor);
+        }
+        try(VersionedGraph.Snapshot<String> full = hub.snapshot()){
+            for(int i = 0; i < neighbors.size(); i += 2){
+                hub.removeEdge("hub", neighbors.get(i));
+                expected.remove(neighbors.get(i));
+            }
+            hub.removeVertex(neighbors.get(1));
+            expected.remove(neighbors.get(1));
+
+            assertEquals("the snapshot keeps every neighbor", new HashSet<String>(neighbors),
+                         toSet(full.adjacentTo("hub")));
+            assertEquals("the graph keeps the rest", expected, toSet(hub.adjacentTo("hub")));
+            assertEquals("degree agrees", expected.size(), hub.degree("hub"));
+            for(String neighbor : neighbors){
+                assertEquals("hasEdge agrees for " + neighbor, expected.contains(neighbor), hub.hasEdge("hub", neighbor));
+                assertTrue("the snapshot has every edge", full.hasEdge("hub", neighbor));
+            }
+        }
+        hub.collectGarbage();
+        assertEquals("one record per vertex is left", hub.numVertices(), hub.recordCount());
+    }
+
+    private static Set<String> toSet(Iterable<String> items)
+    {
+        Set<String> result = new HashSet<String>();
+        for(String item : items){
+            assertTrue("no item is repeated", result.add(item));
+        }
+        return result;
+    }
+
+    /**
+     * Readers take snapshots while a writer applies random mutations.
+     * The writer mirrors every mutation on a GraphImplementation and
+     * records, for every version, the answers the graph must give at
+     * that version.  Each reader checks that its snapshot gives
+     * exactly the answers recorded for the snapshot's version, and
+     * that the versions it sees never go backwards.
+     */
+    @Test
+    public void concurrentReadersSeeLinearizableVersions() throws InterruptedException
+    {
+        VersionedGraph<Integer> graph = new VersionedGraph<Integer>();
+        Graph<Integer> reference = GraphFactory.<Integer>createGraph();
+        Map<Long, long[]> expected = new ConcurrentHashMap<Long, long[]>();
+        expected.put(graph.getVersion(), answers(reference));
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> readers = new ArrayList<Thread>();
+        for(int r = 0; r < 3; ++r){
+            readers.add(new Thread(() -> {
+                try {
+                    long lastVersion = -1;
+                    while(!done.get()){
+                        try(VersionedGraph.Snapshot<Integer> snapshot = graph.snapshot()){
+                            assertTrue("versions never go backwards", snapshot.getVersion() >= lastVersion);
+                            lastVersion = snapshot.getVersion();
+                            long[] answers = answers(snapshot);
+                            long[] recorded;
+                            while((recorded = expected.get(snapshot.getVersion())) == null){
+                                Thread.yield();
+                            }
+                            for(int i = 0; i < answers.length; ++i){
+                                assertEquals("answer " + i + " at version " + snapshot.getVersion(),
+                                             recorded[i], answers[i]);
+                            }
+                            checkPath(snapshot, 0, 1);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        for(Thread reader : readers){
+            reader.start();
+        }
+
+        Random random = new Random(31);
+        for(int i = 0; i < 4000 && failure.get() == null; ++i){
+            int from = random.nextInt(40);
+            int to = random.nextInt(40);
+            int op = random.nextInt(20);
+            if(op == 0){
+                graph.removeVertex(from);
+                reference.removeVertex(from);
+            } else if(op < 6){
+                graph.removeEdge(from, to);
+                reference.removeEdge(from, to);
+            } else {
+                graph.addEdge(from, to);
+                reference.addEdge(from, to);
+            }
+            expected.putIfAbsent(graph.getVersion(), answers(reference));
+        }
+        done.set(true);
+        for(Thread reader : readers){
+            reader.join();
+        }
+        if(failure.get() != null){
+            throw new AssertionError("reader failed", failure.get());
+        }
+        graph.collectGarbage();
+        assertEquals("no old versions are left", graph.numVertices(), graph.recordCount());
+    }
+
+    private static long[] answers(Graph<Integer> graph)
+    {
+        int vertices = 0;
+        for(Integer vertex : graph.getVertices()){
+            ++vertices;
+        }
+        return new long[] {
+            graph.numVertices(),
+            vertices,
+            graph.numEdges(),
+            graph.pathLength(0, 1),
+            graph.pathLength(5, 7),
+            graph.hasPath(3, 2) ? 1 : 0,
+            graph.contains(9) ? graph.degree(9) : -1
+        };
+    }
+
+    private static void checkPath(Graph<Integer> graph, int from, int to)
+    {
+        Iterator<Integer> path = graph.getPath(from, to).iterator();
+        if(!path.hasNext()){
+            assertEquals("no path means no length", Integer.MAX_VALUE, graph.pathLength(from, to));
+            return;
+        }
+        Integer prev = path.next();
+        int length = 0;
+        while(path.hasNext()){
+            Integer next = path.next();
+            assertTrue("paths follow edges of the snapshot", graph.hasEdge(prev, next));
+            prev = next;
+            ++length;
+        }
+        assertEquals("paths are shortest", graph.pathLength(from, to), length);
+    }
+}
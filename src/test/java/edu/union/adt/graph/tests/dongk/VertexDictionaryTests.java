@@ -0,0 +1,104 @@
+package edu.union.adt.graph.tests.dongk;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.VertexDictionary;
+
+@RunWith(JUnit4.class)
+public class VertexDictionaryTests {
+
+    @Test
+    public void internAndLookUp()
+    {
+        VertexDictionary<String> d = new VertexDictionary<String>();
+        assertEquals("the first vertex gets id 0", 0, d.intern("A"));
+        assertEquals("the second vertex gets id 1", 1, d.intern("B"));
+        assertEquals("interning again returns the same id", 0, d.intern(new String("A")));
+        assertEquals("equal vertices share an id", 1, d.idOf(new String("B")));
+        assertEquals("unknown vertices have no id", -1, d.idOf("C"));
+        assertEquals("null has no id", -1, d.idOf(null));
+        assertEquals("reverse lookup", "B", d.vertexOf(1));
+        assertEquals("two vertices", 2, d.size());
+    }
+
+    @Test
+    public void removedIdsAreReused()
+    {
+        VertexDictionary<String> d = new VertexDictionary<String>();
+        d.intern("A");
+        d.intern("B");
+        d.intern("C");
+        assertEquals("removing B frees id 1", 1, d.remove("B"));
+        assertEquals("B is gone", -1, d.idOf("B"));
+        assertNull("id 1 is free", d.vertexOf(1));
+        assertEquals("removing B again does nothing", -1, d.remove("B"));
+        assertEquals("the next vertex takes the free id", 1, d.intern("D"));
+        assertEquals("ids stay below the limit", 3, d.idLimit());
+    }
+
+    @Test
+    public void idsFollowInternOrderWithoutReuse()
+    {
+        VertexDictionary<String> d = new VertexDictionary<String>(4, false);
+        d.intern("A");
+        d.intern("B");
+        d.intern("C");
+        d.remove("B");
+        assertEquals("a new vertex gets a new id", 3, d.intern("D"));
+        assertEquals("the free id stays free", 4, d.idLimit());
+        assertNull("the free id has no vertex", d.vertexOf(1));
+
+        StringBuilder order = new StringBuilder();
+        for(String vertex : d){
+            order.append(vertex);
+        }
+        assertEquals("iteration follows intern order", "ACD", order.toString());
+    }
+
+    @Test
+    public void matchesHashMap()
+    {
+        // colliding keys exercise the probe runs and the shifting on removal
+        Random random = new Random(29);
+        VertexDictionary<Integer> d = new VertexDictionary<Integer>(2);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for(int i = 0; i < 20000; ++i){
+            Integer key = random.nextInt(500) * 1024;
+            if(random.nextInt(3) == 0){
+                Integer id = expected.remove(key);
+                assertEquals("remove returns the id", id == null ? -1 : (int) id, d.remove(key));
+            } else {
+                int id = d.intern(key);
+                Integer old = expected.put(key, id);
+                assertTrue("a present key keeps its id", old == null || old == id);
+            }
+        }
+        assertEquals("same size", expected.size(), d.size());
+        Set<Integer> ids = new HashSet<Integer>();
+        for(Map.Entry<Integer, Integer> entry : expected.entrySet()){
+            assertEquals("same id", (int) entry.getValue(), d.idOf(entry.getKey()));
+            assertEquals("reverse lookup", entry.getKey(), d.vertexOf(entry.getValue()));
+            assertTrue("ids are unique", ids.add(entry.getValue()));
+        }
+        int count = 0;
+        for(Integer key : d){
+            assertTrue("iteration returns present keys", expected.containsKey(key));
+            ++count;
+        }
+        assertEquals("iteration returns every key", expected.size(), count);
+        assertFalse("removed keys are not found", d.idOf(-1) >= 0);
+    }
+}